@@ -41,6 +41,8 @@ import jakarta.ws.rs.ForbiddenException;
 import jakarta.ws.rs.NotFoundException;
 import jakarta.ws.rs.NotSupportedException;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
 
 public class API {
 
@@ -49,6 +51,9 @@ public class API {
     public static final String APPLICATION_JSON = MediaType.APPLICATION_JSON;
     public static final String APPLICATION_JSON_WITH_CHARSET =
                                APPLICATION_JSON + ";charset=" + CHARSET;
+    public static final String APPLICATION_NDJSON = "application/x-ndjson";
+    public static final String APPLICATION_NDJSON_WITH_CHARSET =
+                               APPLICATION_NDJSON + ";charset=" + CHARSET;
     public static final String JSON = MediaType.APPLICATION_JSON_TYPE
                                                .getSubtype();
     public static final String ACTION_APPEND = "append";
@@ -76,6 +81,10 @@ public class API {
         return graph(manager, graph).hugegraph();
     }
 
+    public static Response streaming(StreamingOutput output) {
+        return Response.ok(output, APPLICATION_NDJSON_WITH_CHARSET).build();
+    }
+
     public static <R> R commit(HugeGraph g, Callable<R> callable) {
         Consumer<Throwable> rollback = (error) -> {
             if (error != null) {
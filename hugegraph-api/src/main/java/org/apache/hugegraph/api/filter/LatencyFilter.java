@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.hugegraph.api.filter;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+
+import jakarta.inject.Singleton;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.container.PreMatching;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.StreamingOutput;
+import jakarta.ws.rs.ext.Provider;
+import jakarta.ws.rs.ext.WriterInterceptor;
+import jakarta.ws.rs.ext.WriterInterceptorContext;
+
+import org.apache.hugegraph.util.LatencyMetrics;
+
+/**
+ * Record the latency of each REST API into the histogram labeled by the
+ * resource method like 'VertexAPI.get', including the Gremlin and Cypher
+ * APIs. The latency is from the request is received to the response
+ * is ready to be written, the unmatched requests are not recorded.
+ * The results of a streaming response are produced while it's written,
+ * so its latency is recorded after the entity is written instead.
+ */
+@Provider
+@Singleton
+@PreMatching
+public class LatencyFilter implements ContainerRequestFilter,
+                                      ContainerResponseFilter,
+                                      WriterInterceptor {
+
+    private static final String REQUEST_TIME = "request_start_nanos";
+    private static final String STREAMING_METHOD = "streaming_method";
+    private static final String STREAMING_RESOURCE = "streaming_resource";
+
+    private static final LatencyMetrics API_LATENCY = LatencyMetrics.register(
+            "api_latency",
+            "The latency of the REST APIs labeled by the resource method, " +
+            "including writing the entity of the streaming responses",
+            "method", "resource");
+
+    @Context
+    private jakarta.inject.Provider<ResourceInfo> resourceInfoProvider;
+
+    @Override
+    public void filter(ContainerRequestContext context) {
+        context.setProperty(REQUEST_TIME, System.nanoTime());
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext,
+                       ContainerResponseContext responseContext) {
+        Object start = requestContext.getProperty(REQUEST_TIME);
+        if (!(start instanceof Long)) {
+            return;
+        }
+        ResourceInfo info = this.resourceInfoProvider.get();
+        Method method = info == null ? null : info.getResourceMethod();
+        if (method == null) {
+            return;
+        }
+        String resource = info.getResourceClass().getSimpleName() + "." +
+                          method.getName();
+        if (responseContext.getEntity() instanceof StreamingOutput) {
+            // Record after the entity is written by aroundWriteTo()
+            requestContext.setProperty(STREAMING_METHOD,
+                                       requestContext.getMethod());
+            requestContext.setProperty(STREAMING_RESOURCE, resource);
+            return;
+        }
+        API_LATENCY.updateSince((Long) start, requestContext.getMethod(),
+                                resource);
+    }
+
+    @Override
+    public void aroundWriteTo(WriterInterceptorContext context)
+                              throws IOException {
+        Object resource = context.getProperty(STREAMING_RESOURCE);
+        if (resource == null) {
+            context.proceed();
+            return;
+        }
+        try {
+            context.proceed();
+        } finally {
+            // The properties are shared with the request context
+            Long start = (Long) context.getProperty(REQUEST_TIME);
+            String method = (String) context.getProperty(STREAMING_METHOD);
+            API_LATENCY.updateSince(start, method, (String) resource);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.hugegraph.api.filter;
+
+import jakarta.inject.Singleton;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.PreMatching;
+import jakarta.ws.rs.ext.Provider;
+
+import org.apache.hugegraph.backend.store.ReadConsistency;
+
+/**
+ * Bind the read consistency of a request to the thread serving it, it's
+ * specified by the query param `read_consistency` like:
+ * GET /graphs/hugegraph/traversers/kout?...&read_consistency=bounded_staleness
+ * NOTE: the consistency is always reset at the beginning of a request, so
+ * it still works while writing the streaming response after the filters.
+ */
+@Provider
+@Singleton
+@PreMatching
+public class ReadConsistencyFilter implements ContainerRequestFilter {
+
+    public static final String READ_CONSISTENCY = "read_consistency";
+
+    @Override
+    public void filter(ContainerRequestContext context) {
+        String value = context.getUriInfo().getQueryParameters()
+                              .getFirst(READ_CONSISTENCY);
+        // Reset it first since the threads are reused by requests
+        ReadConsistency.reset();
+        ReadConsistency.current(ReadConsistency.parse(value));
+    }
+}
@@ -33,6 +33,7 @@ import jakarta.ws.rs.core.Context;
 
 import org.apache.hugegraph.core.GraphManager;
 import org.apache.hugegraph.metrics.MetricsModule;
+import org.apache.hugegraph.metrics.PrometheusMetrics;
 import org.apache.hugegraph.metrics.ServerReporter;
 import org.apache.hugegraph.metrics.SystemMetrics;
 import org.slf4j.Logger;
@@ -40,6 +41,7 @@ import org.slf4j.Logger;
 import org.apache.hugegraph.HugeGraph;
 import org.apache.hugegraph.api.API;
 import org.apache.hugegraph.backend.store.BackendMetrics;
+import org.apache.hugegraph.task.TaskManager;
 import org.apache.hugegraph.util.InsertionOrderUtil;
 import org.apache.hugegraph.util.JsonUtil;
 import org.apache.hugegraph.util.Log;
@@ -94,6 +96,24 @@ public class MetricsAPI extends API {
         return JsonUtil.toJson(results);
     }
 
+    @GET
+    @Timed
+    @Path("tasks")
+    @Produces(APPLICATION_JSON_WITH_CHARSET)
+    @RolesAllowed({"admin", "$owner= $action=metrics_read"})
+    public String tasks() {
+        return JsonUtil.toJson(TaskManager.instance().taskMetrics());
+    }
+
+    @GET
+    @Timed
+    @Path("prometheus")
+    @Produces(PrometheusMetrics.CONTENT_TYPE)
+    @RolesAllowed({"admin", "$owner= $action=metrics_read"})
+    public String prometheus() {
+        return PrometheusMetrics.export(ServerReporter.instance());
+    }
+
     @GET
     @Timed
     @Produces(APPLICATION_JSON_WITH_CHARSET)
@@ -33,6 +33,7 @@ import org.apache.hugegraph.api.graph.VertexAPI;
 import org.apache.hugegraph.backend.id.Id;
 import org.apache.hugegraph.backend.query.QueryResults;
 import org.apache.hugegraph.core.GraphManager;
+import org.apache.hugegraph.serializer.NdjsonStreamingOutput;
 import org.apache.hugegraph.structure.HugeVertex;
 import org.apache.hugegraph.traversal.algorithm.HugeTraverser;
 import org.apache.hugegraph.traversal.algorithm.KneighborTraverser;
@@ -70,8 +71,9 @@ public class KneighborAPI extends TraverserAPI {
 
     @GET
     @Timed
-    @Produces(APPLICATION_JSON_WITH_CHARSET)
-    public String get(@Context GraphManager manager,
+    @Produces({APPLICATION_JSON_WITH_CHARSET,
+               APPLICATION_NDJSON_WITH_CHARSET})
+    public Object get(@Context GraphManager manager,
                       @PathParam("graph") String graph,
                       @QueryParam("source") String sourceV,
                       @QueryParam("direction") String direction,
@@ -82,7 +84,9 @@ public class KneighborAPI extends TraverserAPI {
                       @QueryParam("max_degree")
                       @DefaultValue(DEFAULT_MAX_DEGREE) long maxDegree,
                       @QueryParam("limit")
-                      @DefaultValue(DEFAULT_ELEMENTS_LIMIT) int limit) {
+                      @DefaultValue(DEFAULT_ELEMENTS_LIMIT) int limit,
+                      @QueryParam("stream")
+                      @DefaultValue("false") boolean stream) {
         LOG.debug("Graph [{}] get k-neighbor from '{}' with " +
                   "direction '{}', edge label '{}', max depth '{}', " +
                   "max degree '{}' and limit '{}'",
@@ -96,6 +100,20 @@ public class KneighborAPI extends TraverserAPI {
 
         HugeGraph g = graph(manager, graph);
 
+        if (stream && !countOnly) {
+            // Write the neighbors of each layer while traversing
+            NdjsonStreamingOutput output = new NdjsonStreamingOutput(measure);
+            output.produce("vertices", consumer -> {
+                try (KneighborTraverser traverser = new KneighborTraverser(g)) {
+                    traverser.kneighbor(source, dir, edgeLabel, depth,
+                                        maxDegree, limit, consumer::accept);
+                    measure.addIterCount(traverser.vertexIterCounter.get(),
+                                         traverser.edgeIterCounter.get());
+                }
+            });
+            return streaming(output);
+        }
+
         Set<Id> ids;
         try (KneighborTraverser traverser = new KneighborTraverser(g)) {
             ids = traverser.kneighbor(source, dir, edgeLabel,
@@ -103,6 +121,11 @@ public class KneighborAPI extends TraverserAPI {
             measure.addIterCount(traverser.vertexIterCounter.get(),
                                  traverser.edgeIterCounter.get());
         }
+        if (stream) {
+            return streaming(new NdjsonStreamingOutput(measure.measures())
+                             .value("vertices_size", ids.size()));
+        }
+
         if (countOnly) {
             return manager.serializer(g, measure.measures())
                           .writeMap(ImmutableMap.of("vertices_size", ids.size()));
@@ -113,8 +136,9 @@ public class KneighborAPI extends TraverserAPI {
     @POST
     @Timed
     @Consumes(APPLICATION_JSON)
-    @Produces(APPLICATION_JSON_WITH_CHARSET)
-    public String post(@Context GraphManager manager,
+    @Produces({APPLICATION_JSON_WITH_CHARSET,
+               APPLICATION_NDJSON_WITH_CHARSET})
+    public Object post(@Context GraphManager manager,
                        @PathParam("graph") String graph,
                        Request request) {
         E.checkArgumentNotNull(request, "The request body can't be null");
@@ -162,6 +186,10 @@ public class KneighborAPI extends TraverserAPI {
             paths.addAll(results.paths(request.limit));
         }
 
+        if (request.countOnly && request.stream) {
+            return streaming(new NdjsonStreamingOutput(measure.measures())
+                             .value("size", size));
+        }
         if (request.countOnly) {
             return manager.serializer(g, measure.measures())
                           .writeNodesWithPath("kneighbor", neighbors, size, paths,
@@ -193,6 +221,11 @@ public class KneighborAPI extends TraverserAPI {
             }
         }
 
+        if (request.stream) {
+            return streaming(nodesWithPath(measure, "kneighbor", neighbors,
+                                           size, paths, iterVertex,
+                                           iterEdge));
+        }
         return manager.serializer(g, measure.measures())
                       .writeNodesWithPath("kneighbor", neighbors,
                                           size, paths, iterVertex, iterEdge);
@@ -216,14 +249,17 @@ public class KneighborAPI extends TraverserAPI {
         public boolean withPath = false;
         @JsonProperty("with_edge")
         public boolean withEdge = false;
+        @JsonProperty("stream")
+        public boolean stream = false;
 
         @Override
         public String toString() {
             return String.format("PathRequest{source=%s,steps=%s,maxDepth=%s" +
                                  "limit=%s,countOnly=%s,withVertex=%s," +
-                                 "withPath=%s,withEdge=%s}", this.source, this.steps,
-                                 this.maxDepth, this.limit, this.countOnly,
-                                 this.withVertex, this.withPath, this.withEdge);
+                                 "withPath=%s,withEdge=%s,stream=%s}",
+                                 this.source, this.steps, this.maxDepth,
+                                 this.limit, this.countOnly, this.withVertex,
+                                 this.withPath, this.withEdge, this.stream);
         }
     }
 }
@@ -34,6 +34,7 @@ import org.apache.hugegraph.api.graph.VertexAPI;
 import org.apache.hugegraph.backend.id.Id;
 import org.apache.hugegraph.backend.query.QueryResults;
 import org.apache.hugegraph.core.GraphManager;
+import org.apache.hugegraph.serializer.NdjsonStreamingOutput;
 import org.apache.hugegraph.structure.HugeVertex;
 import org.apache.hugegraph.traversal.algorithm.HugeTraverser;
 import org.apache.hugegraph.traversal.algorithm.KoutTraverser;
@@ -71,8 +72,9 @@ public class KoutAPI extends TraverserAPI {
 
     @GET
     @Timed
-    @Produces(APPLICATION_JSON_WITH_CHARSET)
-    public String get(@Context GraphManager manager,
+    @Produces({APPLICATION_JSON_WITH_CHARSET,
+               APPLICATION_NDJSON_WITH_CHARSET})
+    public Object get(@Context GraphManager manager,
                       @PathParam("graph") String graph,
                       @QueryParam("source") String source,
                       @QueryParam("direction") String direction,
@@ -87,7 +89,9 @@ public class KoutAPI extends TraverserAPI {
                       @QueryParam("capacity")
                       @DefaultValue(DEFAULT_CAPACITY) long capacity,
                       @QueryParam("limit")
-                      @DefaultValue(DEFAULT_ELEMENTS_LIMIT) int limit) {
+                      @DefaultValue(DEFAULT_ELEMENTS_LIMIT) int limit,
+                      @QueryParam("stream")
+                      @DefaultValue("false") boolean stream) {
         LOG.debug("Graph [{}] get k-out from '{}' with " +
                   "direction '{}', edge label '{}', max depth '{}', nearest " +
                   "'{}', max degree '{}', capacity '{}' and limit '{}'",
@@ -101,6 +105,21 @@ public class KoutAPI extends TraverserAPI {
 
         HugeGraph g = graph(manager, graph);
 
+        if (stream && !count_only) {
+            // Write the vertices of the last layer while traversing
+            NdjsonStreamingOutput output = new NdjsonStreamingOutput(measure);
+            output.produce("vertices", consumer -> {
+                try (KoutTraverser traverser = new KoutTraverser(g)) {
+                    traverser.kout(sourceId, dir, edgeLabel, depth, nearest,
+                                   maxDegree, capacity, limit,
+                                   consumer::accept);
+                    measure.addIterCount(traverser.vertexIterCounter.get(),
+                                         traverser.edgeIterCounter.get());
+                }
+            });
+            return streaming(output);
+        }
+
         Set<Id> ids;
         try (KoutTraverser traverser = new KoutTraverser(g)) {
             ids = traverser.kout(sourceId, dir, edgeLabel, depth,
@@ -109,6 +128,11 @@ public class KoutAPI extends TraverserAPI {
                                  traverser.edgeIterCounter.get());
         }
 
+        if (stream) {
+            return streaming(new NdjsonStreamingOutput(measure.measures())
+                             .value("vertices_size", ids.size()));
+        }
+
         if (count_only) {
             return manager.serializer(g, measure.measures())
                           .writeMap(ImmutableMap.of("vertices_size", ids.size()));
@@ -119,8 +143,9 @@ public class KoutAPI extends TraverserAPI {
     @POST
     @Timed
     @Consumes(APPLICATION_JSON)
-    @Produces(APPLICATION_JSON_WITH_CHARSET)
-    public String post(@Context GraphManager manager,
+    @Produces({APPLICATION_JSON_WITH_CHARSET,
+               APPLICATION_NDJSON_WITH_CHARSET})
+    public Object post(@Context GraphManager manager,
                        @PathParam("graph") String graph,
                        Request request) {
         E.checkArgumentNotNull(request, "The request body can't be null");
@@ -179,6 +204,10 @@ public class KoutAPI extends TraverserAPI {
             paths.addAll(results.paths(request.limit));
         }
 
+        if (request.countOnly && request.stream) {
+            return streaming(new NdjsonStreamingOutput(measure.measures())
+                             .value("size", size));
+        }
         if (request.countOnly) {
             return manager.serializer(g, measure.measures())
                           .writeNodesWithPath("kout", neighbors, size, paths,
@@ -210,6 +239,10 @@ public class KoutAPI extends TraverserAPI {
             }
         }
 
+        if (request.stream) {
+            return streaming(nodesWithPath(measure, "kout", neighbors, size,
+                                           paths, iterVertex, iterEdge));
+        }
         return manager.serializer(g, measure.measures())
                       .writeNodesWithPath("kout", neighbors, size, paths,
                                           iterVertex, iterEdge);
@@ -239,17 +272,19 @@ public class KoutAPI extends TraverserAPI {
         public boolean withEdge = false;
         @JsonProperty("traverse_mode")
         public String traverseMode = HugeTraverser.TRAVERSE_MODE_BFS;
+        @JsonProperty("stream")
+        public boolean stream = false;
 
         @Override
         public String toString() {
             return String.format("KoutRequest{source=%s,steps=%s,maxDepth=%s" +
                                  "nearest=%s,countOnly=%s,capacity=%s," +
                                  "limit=%s,withVertex=%s,withPath=%s," +
-                                 "withEdge=%s,traverseMode=%s}", this.source,
-                                 this.steps, this.maxDepth, this.nearest,
-                                 this.countOnly, this.capacity, this.limit,
-                                 this.withVertex, this.withPath, this.withEdge,
-                                 this.traverseMode);
+                                 "withEdge=%s,traverseMode=%s,stream=%s}",
+                                 this.source, this.steps, this.maxDepth,
+                                 this.nearest, this.countOnly, this.capacity,
+                                 this.limit, this.withVertex, this.withPath,
+                                 this.withEdge, this.traverseMode, this.stream);
         }
     }
 }
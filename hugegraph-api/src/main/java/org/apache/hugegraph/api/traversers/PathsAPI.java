@@ -32,6 +32,7 @@ import org.apache.hugegraph.api.graph.EdgeAPI;
 import org.apache.hugegraph.api.graph.VertexAPI;
 import org.apache.hugegraph.backend.id.Id;
 import org.apache.hugegraph.core.GraphManager;
+import org.apache.hugegraph.serializer.NdjsonStreamingOutput;
 import org.apache.hugegraph.traversal.algorithm.CollectionPathsTraverser;
 import org.apache.hugegraph.traversal.algorithm.HugeTraverser;
 import org.apache.hugegraph.traversal.algorithm.PathsTraverser;
@@ -67,8 +68,9 @@ public class PathsAPI extends TraverserAPI {
 
     @GET
     @Timed
-    @Produces(APPLICATION_JSON_WITH_CHARSET)
-    public String get(@Context GraphManager manager,
+    @Produces({APPLICATION_JSON_WITH_CHARSET,
+               APPLICATION_NDJSON_WITH_CHARSET})
+    public Object get(@Context GraphManager manager,
                       @PathParam("graph") String graph,
                       @QueryParam("source") String source,
                       @QueryParam("target") String target,
@@ -80,7 +82,9 @@ public class PathsAPI extends TraverserAPI {
                       @QueryParam("capacity")
                       @DefaultValue(DEFAULT_CAPACITY) long capacity,
                       @QueryParam("limit")
-                      @DefaultValue(DEFAULT_PATHS_LIMIT) int limit) {
+                      @DefaultValue(DEFAULT_PATHS_LIMIT) int limit,
+                      @QueryParam("stream")
+                      @DefaultValue("false") boolean stream) {
         LOG.debug("Graph [{}] get paths from '{}', to '{}' with " +
                   "direction {}, edge label {}, max depth '{}', " +
                   "max degree '{}', capacity '{}' and limit '{}'",
@@ -94,6 +98,20 @@ public class PathsAPI extends TraverserAPI {
         Directions dir = Directions.convert(EdgeAPI.parseDirection(direction));
 
         HugeGraph g = graph(manager, graph);
+        if (stream) {
+            // Write the paths while traversing
+            NdjsonStreamingOutput output = new NdjsonStreamingOutput(measure);
+            output.produce("paths", consumer -> {
+                PathsTraverser traverser = new PathsTraverser(g);
+                traverser.paths(sourceId, dir, targetId, dir.opposite(),
+                                edgeLabel, depth, maxDegree, capacity, limit,
+                                path -> consumer.accept(path.toMap(false)));
+                measure.addIterCount(traverser.vertexIterCounter.get(),
+                                     traverser.edgeIterCounter.get());
+            });
+            return streaming(output);
+        }
+
         PathsTraverser traverser = new PathsTraverser(g);
         HugeTraverser.PathSet paths = traverser.paths(sourceId, dir, targetId,
                                                       dir.opposite(), edgeLabel,
@@ -108,8 +126,9 @@ public class PathsAPI extends TraverserAPI {
     @POST
     @Timed
     @Consumes(APPLICATION_JSON)
-    @Produces(APPLICATION_JSON_WITH_CHARSET)
-    public String post(@Context GraphManager manager,
+    @Produces({APPLICATION_JSON_WITH_CHARSET,
+               APPLICATION_NDJSON_WITH_CHARSET})
+    public Object post(@Context GraphManager manager,
                        @PathParam("graph") String graph,
                        Request request) {
         E.checkArgumentNotNull(request, "The request body can't be null");
@@ -167,6 +186,12 @@ public class PathsAPI extends TraverserAPI {
             iterEdge = HugeTraverser.EdgeRecord.getEdgeIds(edges).iterator();
         }
 
+        if (request.stream) {
+            return streaming(new NdjsonStreamingOutput(measure.measures())
+                             .paths("paths", paths, false)
+                             .section("vertices", iterVertex)
+                             .section("edges", iterEdge));
+        }
         return manager.serializer(g, measure.measures())
                       .writePaths("paths", paths, false,
                                   iterVertex, iterEdge);
@@ -193,15 +218,18 @@ public class PathsAPI extends TraverserAPI {
 
         @JsonProperty("with_edge")
         public boolean withEdge = false;
+        @JsonProperty("stream")
+        public boolean stream = false;
 
         @Override
         public String toString() {
             return String.format("PathRequest{sources=%s,targets=%s,step=%s," +
                                  "maxDepth=%s,nearest=%s,capacity=%s," +
-                                 "limit=%s,withVertex=%s,withEdge=%s}",
-                                 this.sources, this.targets, this.step,
-                                 this.depth, this.nearest, this.capacity,
-                                 this.limit, this.withVertex, this.withEdge);
+                                 "limit=%s,withVertex=%s,withEdge=%s," +
+                                 "stream=%s}", this.sources, this.targets,
+                                 this.step, this.depth, this.nearest,
+                                 this.capacity, this.limit, this.withVertex,
+                                 this.withEdge, this.stream);
         }
     }
 }
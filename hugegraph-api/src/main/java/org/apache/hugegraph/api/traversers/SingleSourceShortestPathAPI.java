@@ -90,14 +90,15 @@ public class SingleSourceShortestPathAPI extends API {
         Directions dir = Directions.convert(EdgeAPI.parseDirection(direction));
 
         HugeGraph g = graph(manager, graph);
-        SingleSourceShortestPathTraverser traverser =
-                new SingleSourceShortestPathTraverser(g);
-        SingleSourceShortestPathTraverser.WeightedPaths paths =
-                traverser.singleSourceShortestPaths(
-                        sourceId, dir, edgeLabel, weight,
-                        maxDegree, skipDegree, capacity, limit);
-        measure.addIterCount(traverser.vertexIterCounter.get(),
-                             traverser.edgeIterCounter.get());
+        SingleSourceShortestPathTraverser.WeightedPaths paths;
+        try (SingleSourceShortestPathTraverser traverser =
+                     new SingleSourceShortestPathTraverser(g)) {
+            paths = traverser.singleSourceShortestPaths(
+                    sourceId, dir, edgeLabel, weight,
+                    maxDegree, skipDegree, capacity, limit);
+            measure.addIterCount(traverser.vertexIterCounter.get(),
+                                 traverser.edgeIterCounter.get());
+        }
 
         Iterator<?> iterVertex;
         Set<Id> vertexIds = paths.vertices();
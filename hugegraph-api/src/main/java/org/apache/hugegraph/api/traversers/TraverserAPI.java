@@ -19,12 +19,17 @@ package org.apache.hugegraph.api.traversers;
 
 import static org.apache.hugegraph.traversal.algorithm.HugeTraverser.DEFAULT_MAX_DEGREE;
 
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
 import org.apache.hugegraph.HugeGraph;
 import org.apache.hugegraph.api.API;
+import org.apache.hugegraph.backend.id.Id;
+import org.apache.hugegraph.serializer.NdjsonStreamingOutput;
+import org.apache.hugegraph.traversal.algorithm.HugeTraverser;
 import org.apache.hugegraph.traversal.algorithm.steps.EdgeStep;
 import org.apache.hugegraph.traversal.algorithm.steps.Steps;
 import org.apache.hugegraph.type.define.Directions;
@@ -58,6 +63,20 @@ public class TraverserAPI extends API {
                          steps.maxDegree, steps.skipDegree);
     }
 
+    protected static NdjsonStreamingOutput nodesWithPath(
+                                           ApiMeasurer measure, String name,
+                                           List<Id> nodes, long size,
+                                           Collection<HugeTraverser.Path> paths,
+                                           Iterator<?> vertices,
+                                           Iterator<?> edges) {
+        return new NdjsonStreamingOutput(measure.measures())
+                   .section(name, nodes)
+                   .value("size", size)
+                   .paths("paths", paths, false)
+                   .section("vertices", vertices)
+                   .section("edges", edges);
+    }
+
     protected static class Step {
 
         @JsonProperty("direction")
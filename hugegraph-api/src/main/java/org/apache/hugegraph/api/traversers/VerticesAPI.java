@@ -27,9 +27,11 @@ import org.apache.hugegraph.api.API;
 import org.apache.hugegraph.api.filter.CompressInterceptor.Compress;
 import org.apache.hugegraph.api.graph.VertexAPI;
 import org.apache.hugegraph.backend.id.Id;
+import org.apache.hugegraph.backend.page.PageInfo;
 import org.apache.hugegraph.backend.query.ConditionQuery;
 import org.apache.hugegraph.backend.store.Shard;
 import org.apache.hugegraph.core.GraphManager;
+import org.apache.hugegraph.serializer.NdjsonStreamingOutput;
 import org.apache.hugegraph.type.HugeType;
 import org.apache.hugegraph.util.E;
 import org.apache.hugegraph.util.Log;
@@ -58,10 +60,13 @@ public class VerticesAPI extends API {
     @GET
     @Timed
     @Compress
-    @Produces(APPLICATION_JSON_WITH_CHARSET)
-    public String list(@Context GraphManager manager,
+    @Produces({APPLICATION_JSON_WITH_CHARSET,
+               APPLICATION_NDJSON_WITH_CHARSET})
+    public Object list(@Context GraphManager manager,
                        @PathParam("graph") String graph,
-                       @QueryParam("ids") List<String> stringIds) {
+                       @QueryParam("ids") List<String> stringIds,
+                       @QueryParam("stream")
+                       @DefaultValue("false") boolean stream) {
         LOG.debug("Graph [{}] get vertices by ids: {}", graph, stringIds);
 
         E.checkArgument(stringIds != null && !stringIds.isEmpty(),
@@ -75,6 +80,12 @@ public class VerticesAPI extends API {
         HugeGraph g = graph(manager, graph);
 
         Iterator<Vertex> vertices = g.vertices(ids);
+        if (stream) {
+            // Early throw if needed
+            vertices.hasNext();
+            return streaming(new NdjsonStreamingOutput()
+                             .section("vertices", vertices));
+        }
         return manager.serializer(g).writeVertices(vertices, false);
     }
 
@@ -98,14 +109,17 @@ public class VerticesAPI extends API {
     @Timed
     @Path("scan")
     @Compress
-    @Produces(APPLICATION_JSON_WITH_CHARSET)
-    public String scan(@Context GraphManager manager,
+    @Produces({APPLICATION_JSON_WITH_CHARSET,
+               APPLICATION_NDJSON_WITH_CHARSET})
+    public Object scan(@Context GraphManager manager,
                        @PathParam("graph") String graph,
                        @QueryParam("start") String start,
                        @QueryParam("end") String end,
                        @QueryParam("page") String page,
                        @QueryParam("page_limit")
-                       @DefaultValue(DEFAULT_PAGE_LIMIT) long pageLimit) {
+                       @DefaultValue(DEFAULT_PAGE_LIMIT) long pageLimit,
+                       @QueryParam("stream")
+                       @DefaultValue("false") boolean stream) {
         LOG.debug("Graph [{}] query vertices by shard(start: {}, end: {}, " +
                   "page: {}) ", graph, start, end, page);
 
@@ -119,6 +133,17 @@ public class VerticesAPI extends API {
         }
         Iterator<Vertex> vertices = g.vertices(query);
 
+        if (stream) {
+            // Early throw if needed
+            vertices.hasNext();
+            NdjsonStreamingOutput output = new NdjsonStreamingOutput();
+            output.section("vertices", vertices);
+            if (query.paging()) {
+                // The page is available after all vertices are written
+                output.lazyValue("page", () -> PageInfo.pageInfo(vertices));
+            }
+            return streaming(output);
+        }
         return manager.serializer(g).writeVertices(vertices, query.paging());
     }
 }
@@ -92,15 +92,16 @@ public class WeightedShortestPathAPI extends API {
         E.checkArgumentNotNull(weight, "The weight property can't be null");
 
         HugeGraph g = graph(manager, graph);
-        SingleSourceShortestPathTraverser traverser =
-                new SingleSourceShortestPathTraverser(g);
-
-        SingleSourceShortestPathTraverser.NodeWithWeight node =
-                traverser.weightedShortestPath(sourceId, targetId,
-                                               dir, edgeLabel, weight,
-                                               maxDegree, skipDegree, capacity);
-        measure.addIterCount(traverser.vertexIterCounter.get(),
-                             traverser.edgeIterCounter.get());
+        SingleSourceShortestPathTraverser.NodeWithWeight node;
+        try (SingleSourceShortestPathTraverser traverser =
+                     new SingleSourceShortestPathTraverser(g)) {
+            node = traverser.weightedShortestPath(sourceId, targetId,
+                                                  dir, edgeLabel, weight,
+                                                  maxDegree, skipDegree,
+                                                  capacity);
+            measure.addIterCount(traverser.vertexIterCounter.get(),
+                                 traverser.edgeIterCounter.get());
+        }
 
         if (node == null) {
             return manager.serializer(g, measure.measures())
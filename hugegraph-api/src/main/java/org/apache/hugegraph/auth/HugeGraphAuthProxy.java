@@ -383,6 +383,12 @@ public final class HugeGraphAuthProxy implements HugeGraph {
         return this.hugegraph.rebuildIndex(schema);
     }
 
+    @Override
+    public Id analyzeIndex(IndexLabel indexLabel) {
+        verifySchemaPermission(HugePermission.WRITE, indexLabel);
+        return this.hugegraph.analyzeIndex(indexLabel);
+    }
+
     @Override
     public Collection<IndexLabel> indexLabels() {
         Collection<IndexLabel> labels = this.hugegraph.indexLabels();
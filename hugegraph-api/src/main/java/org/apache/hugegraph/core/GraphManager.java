@@ -648,6 +648,7 @@ public final class GraphManager {
 
             String hits = String.format("%s.%s", key, "hits");
             String miss = String.format("%s.%s", key, "miss");
+            String ratio = String.format("%s.%s", key, "hit-ratio");
             String exp = String.format("%s.%s", key, "expire");
             String size = String.format("%s.%s", key, "size");
             String cap = String.format("%s.%s", key, "capacity");
@@ -659,6 +660,11 @@ public final class GraphManager {
 
             MetricsUtil.registerGauge(Cache.class, hits, cache::hits);
             MetricsUtil.registerGauge(Cache.class, miss, cache::miss);
+            MetricsUtil.registerGauge(Cache.class, ratio, () -> {
+                long hitCount = cache.hits();
+                long total = hitCount + cache.miss();
+                return total == 0L ? 0D : (double) hitCount / total;
+            });
             MetricsUtil.registerGauge(Cache.class, exp, cache::expire);
             MetricsUtil.registerGauge(Cache.class, size, cache::size);
             MetricsUtil.registerGauge(Cache.class, cap, cache::capacity);
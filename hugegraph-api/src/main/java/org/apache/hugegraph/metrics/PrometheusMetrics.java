@@ -0,0 +1,281 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.hugegraph.metrics;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hugegraph.backend.cache.Cache;
+import org.apache.hugegraph.backend.cache.CacheManager;
+import org.apache.hugegraph.backend.id.Id;
+import org.apache.hugegraph.util.LatencyHistogram;
+import org.apache.hugegraph.util.LatencyMetrics;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.Snapshot;
+import com.codahale.metrics.Timer;
+
+/**
+ * Export the metrics in the prometheus text format(version 0.0.4):
+ *  1.the latency histograms of core and server like the REST APIs and
+ *    the backend store operations, in seconds;
+ *  2.the hits and misses of each cache;
+ *  3.the metrics of the metric registry, the histograms and timers are
+ *    exported as summaries.
+ * All the metrics are read without lock, it never blocks the requests.
+ */
+public final class PrometheusMetrics {
+
+    public static final String CONTENT_TYPE =
+                               "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final String PREFIX = "hugegraph_";
+    private static final double[] QUANTILES = {0.5, 0.75, 0.95, 0.99, 0.999};
+
+    private final StringBuilder builder;
+
+    private PrometheusMetrics() {
+        this.builder = new StringBuilder(8192);
+    }
+
+    public static String export(ServerReporter reporter) {
+        PrometheusMetrics metrics = new PrometheusMetrics();
+        metrics.writeLatencies();
+        metrics.writeCaches();
+        if (reporter != null) {
+            metrics.writeRegistry(reporter);
+        }
+        return metrics.builder.toString();
+    }
+
+    private void writeLatencies() {
+        for (LatencyMetrics family : LatencyMetrics.families()) {
+            String name = PREFIX + sanitize(family.name()) + "_seconds";
+            double scale = 1.0 / family.unit().convert(1L, TimeUnit.SECONDS);
+            this.writeHeader(name, family.description(), "histogram");
+            List<String> labelNames = family.labelNames();
+            for (Map.Entry<List<String>, LatencyHistogram> e :
+                 family.histograms().entrySet()) {
+                String labels = labels(labelNames, e.getKey());
+                LatencyHistogram histogram = e.getValue();
+                long[] bounds = histogram.bounds();
+                long[] counts = histogram.bucketCounts();
+                // The buckets of prometheus are cumulative
+                long cumulative = 0L;
+                for (int i = 0; i < bounds.length; i++) {
+                    cumulative += counts[i];
+                    this.writeSample(name + "_bucket",
+                                     withLabel(labels, "le",
+                                               number(bounds[i] * scale)),
+                                     cumulative);
+                }
+                cumulative += counts[bounds.length];
+                this.writeSample(name + "_bucket",
+                                 withLabel(labels, "le", "+Inf"), cumulative);
+                this.writeSample(name + "_sum", labels,
+                                 histogram.sum() * scale);
+                // Keep count consistent with the +Inf bucket
+                this.writeSample(name + "_count", labels, cumulative);
+            }
+        }
+    }
+
+    private void writeCaches() {
+        Map<String, Cache<Id, Object>> caches = CacheManager.instance()
+                                                            .caches();
+        String hits = PREFIX + "cache_hits_total";
+        this.writeHeader(hits, "The hits of the cache", "counter");
+        for (Map.Entry<String, Cache<Id, Object>> e : caches.entrySet()) {
+            this.writeSample(hits, label("cache", e.getKey()),
+                             e.getValue().hits());
+        }
+        String misses = PREFIX + "cache_misses_total";
+        this.writeHeader(misses, "The misses of the cache", "counter");
+        for (Map.Entry<String, Cache<Id, Object>> e : caches.entrySet()) {
+            this.writeSample(misses, label("cache", e.getKey()),
+                             e.getValue().miss());
+        }
+        String size = PREFIX + "cache_size";
+        this.writeHeader(size, "The number of items in the cache", "gauge");
+        for (Map.Entry<String, Cache<Id, Object>> e : caches.entrySet()) {
+            this.writeSample(size, label("cache", e.getKey()),
+                             e.getValue().size());
+        }
+        String capacity = PREFIX + "cache_capacity";
+        this.writeHeader(capacity, "The capacity of the cache", "gauge");
+        for (Map.Entry<String, Cache<Id, Object>> e : caches.entrySet()) {
+            this.writeSample(capacity, label("cache", e.getKey()),
+                             e.getValue().capacity());
+        }
+    }
+
+    private void writeRegistry(ServerReporter reporter) {
+        for (Map.Entry<String, Gauge<?>> e : reporter.gauges().entrySet()) {
+            Object value;
+            try {
+                value = e.getValue().getValue();
+            } catch (Throwable ignored) {
+                continue;
+            }
+            if (!(value instanceof Number)) {
+                continue;
+            }
+            String name = PREFIX + sanitize(e.getKey());
+            this.writeHeader(name, e.getKey(), "gauge");
+            this.writeSample(name, "", ((Number) value).doubleValue());
+        }
+
+        for (Map.Entry<String, Counter> e : reporter.counters().entrySet()) {
+            String name = PREFIX + sanitize(e.getKey()) + "_total";
+            this.writeHeader(name, e.getKey(), "counter");
+            this.writeSample(name, "", e.getValue().getCount());
+        }
+
+        for (Map.Entry<String, Meter> e : reporter.meters().entrySet()) {
+            String name = PREFIX + sanitize(e.getKey()) + "_total";
+            this.writeHeader(name, e.getKey(), "counter");
+            this.writeSample(name, "", e.getValue().getCount());
+        }
+
+        for (Map.Entry<String, Histogram> e :
+             reporter.histograms().entrySet()) {
+            Histogram histogram = e.getValue();
+            this.writeSummary(PREFIX + sanitize(e.getKey()), e.getKey(),
+                              histogram.getSnapshot(), histogram.getCount(),
+                              1.0);
+        }
+
+        // The durations of timers are in nanoseconds
+        for (Map.Entry<String, Timer> e : reporter.timers().entrySet()) {
+            Timer timer = e.getValue();
+            this.writeSummary(PREFIX + sanitize(e.getKey()) + "_seconds",
+                              e.getKey(), timer.getSnapshot(),
+                              timer.getCount(), 1.0e-9);
+        }
+    }
+
+    private void writeSummary(String name, String help, Snapshot snapshot,
+                              long count, double scale) {
+        this.writeHeader(name, help, "summary");
+        for (double quantile : QUANTILES) {
+            this.writeSample(name, label("quantile", number(quantile)),
+                             snapshot.getValue(quantile) * scale);
+        }
+        double sum = 0.0;
+        for (long value : snapshot.getValues()) {
+            sum += value;
+        }
+        // The sum is estimated by the samples of the reservoir
+        int samples = snapshot.size();
+        if (samples > 0) {
+            sum = sum / samples * count;
+        }
+        this.writeSample(name + "_sum", "", sum * scale);
+        this.writeSample(name + "_count", "", count);
+    }
+
+    private void writeHeader(String name, String help, String type) {
+        this.builder.append("# HELP ").append(name).append(' ')
+                    .append(escapeHelp(help)).append('\n');
+        this.builder.append("# TYPE ").append(name).append(' ')
+                    .append(type).append('\n');
+    }
+
+    private void writeSample(String name, String labels, double value) {
+        this.builder.append(name);
+        if (!labels.isEmpty()) {
+            this.builder.append('{').append(labels).append('}');
+        }
+        this.builder.append(' ').append(number(value)).append('\n');
+    }
+
+    private void writeSample(String name, String labels, long value) {
+        this.builder.append(name);
+        if (!labels.isEmpty()) {
+            this.builder.append('{').append(labels).append('}');
+        }
+        this.builder.append(' ').append(value).append('\n');
+    }
+
+    private static String labels(List<String> names, List<String> values) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < names.size(); i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(label(names.get(i), values.get(i)));
+        }
+        return sb.toString();
+    }
+
+    private static String withLabel(String labels, String name,
+                                    String value) {
+        String label = label(name, value);
+        return labels.isEmpty() ? label : labels + "," + label;
+    }
+
+    private static String label(String name, String value) {
+        return sanitize(name) + "=\"" + escapeLabel(value) + "\"";
+    }
+
+    private static String number(double value) {
+        if (Double.isNaN(value)) {
+            return "NaN";
+        }
+        if (Double.isInfinite(value)) {
+            return value > 0 ? "+Inf" : "-Inf";
+        }
+        if (value == Math.rint(value) && Math.abs(value) < 1.0e15) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+
+    public static String sanitize(String name) {
+        StringBuilder sb = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') ||
+                (c >= '0' && c <= '9' && i > 0) || c == '_' || c == ':') {
+                sb.append(c);
+            } else {
+                sb.append('_');
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String escapeLabel(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.replace("\\", "\\\\").replace("\"", "\\\"")
+                    .replace("\n", "\\n");
+    }
+
+    private static String escapeHelp(String help) {
+        if (help == null) {
+            return "";
+        }
+        return help.replace("\\", "\\\\").replace("\n", "\\n");
+    }
+}
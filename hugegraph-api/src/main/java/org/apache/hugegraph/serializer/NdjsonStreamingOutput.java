@@ -0,0 +1,246 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.hugegraph.serializer;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.apache.hugegraph.HugeException;
+import org.apache.hugegraph.api.API;
+import org.apache.hugegraph.api.API.ApiMeasurer;
+import org.apache.hugegraph.traversal.algorithm.HugeTraverser;
+import org.apache.hugegraph.util.JsonUtil;
+import org.apache.tinkerpop.gremlin.structure.util.CloseableIterator;
+
+import com.google.common.collect.Iterators;
+
+import jakarta.ws.rs.core.StreamingOutput;
+
+/**
+ * Write results to the response as NDJSON (newline delimited JSON) while
+ * they are produced, each line is a JSON object with a single field named
+ * by the section of the results, like:
+ * {"vertices": "1:marko"}
+ * {"vertices": "1:josh"}
+ * {"measure": {...}}
+ * The results are pulled from the iterators only after the previous ones
+ * have been written into the bounded buffer, so a slow client blocks the
+ * producer instead of piling the results up in memory.
+ * The sections added by produce() are computed while writing, the items
+ * are written as soon as the producer pushes them, and an error raised
+ * before the first chunk is flushed is still reported as an error response.
+ */
+public class NdjsonStreamingOutput implements StreamingOutput {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int FLUSH_LINES = 1000;
+    private static final byte[] LINE_SEPARATOR = {'\n'};
+    private static final String MEASURE_KEY = "measure";
+
+    private final List<Section> sections;
+    private final Supplier<Map<String, Object>> apiMeasure;
+
+    public NdjsonStreamingOutput() {
+        this((Map<String, Object>) null);
+    }
+
+    public NdjsonStreamingOutput(Map<String, Object> apiMeasure) {
+        this.sections = new ArrayList<>();
+        this.apiMeasure = apiMeasure == null ? null : () -> apiMeasure;
+    }
+
+    /**
+     * Take the measures when all the sections are written, which contain
+     * the iteration counts of the sections added by produce()
+     */
+    public NdjsonStreamingOutput(ApiMeasurer measure) {
+        this.sections = new ArrayList<>();
+        this.apiMeasure = measure::measures;
+    }
+
+    public NdjsonStreamingOutput section(String name, Iterator<?> items) {
+        this.sections.add(new Section(name, items, null));
+        return this;
+    }
+
+    public NdjsonStreamingOutput section(String name, Collection<?> items) {
+        return this.section(name, items.iterator());
+    }
+
+    public NdjsonStreamingOutput value(String name, Object value) {
+        return this.section(name, Iterators.singletonIterator(value));
+    }
+
+    /**
+     * Add a value which is computed after the previous sections are written,
+     * like the page info of a paging iterator
+     */
+    public NdjsonStreamingOutput lazyValue(String name, Supplier<?> supplier) {
+        return this.section(name, Iterators.transform(
+                                  Iterators.singletonIterator(supplier),
+                                  Supplier::get));
+    }
+
+    /**
+     * Add a section whose items are pushed by the producer, the producer is
+     * run when the previous sections are written, like a traversal which
+     * passes each result to the consumer as soon as it's found
+     */
+    public NdjsonStreamingOutput produce(String name, Producer producer) {
+        this.sections.add(new Section(name, null, producer));
+        return this;
+    }
+
+    public NdjsonStreamingOutput paths(String name,
+                                       Collection<HugeTraverser.Path> paths,
+                                       boolean withCrossPoint) {
+        return this.section(name, Iterators.transform(paths.iterator(),
+                                  path -> path.toMap(withCrossPoint)));
+    }
+
+    @Override
+    public void write(OutputStream output) throws IOException {
+        // NOTE: the output stream of response is closed by the container
+        LineWriter writer = new LineWriter(output);
+        try {
+            for (Section section : this.sections) {
+                section.write(writer);
+            }
+            if (this.apiMeasure != null) {
+                writer.write(MEASURE_KEY, this.apiMeasure.get());
+            }
+            writer.flush();
+        } catch (Throwable e) {
+            // Don't let the errors of closing hide the original one
+            HugeException closeError = this.closeSections();
+            if (closeError != null) {
+                e.addSuppressed(closeError);
+            }
+            throw e;
+        }
+
+        HugeException closeError = this.closeSections();
+        if (closeError != null) {
+            throw closeError;
+        }
+    }
+
+    /**
+     * Close all the sections even if some of them failed to close
+     * @return the error of the first failed section with the errors of the
+     *         others suppressed, or null if all the sections are closed
+     */
+    private HugeException closeSections() {
+        HugeException error = null;
+        for (Section section : this.sections) {
+            if (section.items == null) {
+                continue;
+            }
+            try {
+                CloseableIterator.closeIterator(section.items);
+            } catch (Exception e) {
+                HugeException closeError = new HugeException(
+                                           "Failed to close for %s", e,
+                                           section.name);
+                if (error == null) {
+                    error = closeError;
+                } else {
+                    error.addSuppressed(closeError);
+                }
+            }
+        }
+        return error;
+    }
+
+    @FunctionalInterface
+    public interface Producer {
+
+        void produce(Consumer<Object> consumer);
+    }
+
+    private static class Section {
+
+        private final String name;
+        private final Iterator<?> items;
+        private final Producer producer;
+
+        public Section(String name, Iterator<?> items, Producer producer) {
+            this.name = name;
+            this.items = items;
+            this.producer = producer;
+        }
+
+        public void write(LineWriter writer) throws IOException {
+            if (this.producer == null) {
+                while (this.items.hasNext()) {
+                    writer.write(this.name, this.items.next());
+                }
+                return;
+            }
+            try {
+                this.producer.produce(item -> {
+                    try {
+                        writer.write(this.name, item);
+                    } catch (IOException e) {
+                        // Stop the producer if the client is gone
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    private static class LineWriter {
+
+        private final OutputStream out;
+        private long lines;
+
+        public LineWriter(OutputStream output) {
+            this.out = new BufferedOutputStream(output, BUFFER_SIZE);
+            this.lines = 0L;
+        }
+
+        public void write(String name, Object value) throws IOException {
+            // NOTE: the value may be null, like the page of the last page
+            String line = JsonUtil.toJson(Collections.singletonMap(name,
+                                                                   value));
+            this.out.write(line.getBytes(API.CHARSET));
+            this.out.write(LINE_SEPARATOR);
+            if (++this.lines % FLUSH_LINES == 0L) {
+                // Send a chunk to the client as early as possible
+                this.out.flush();
+            }
+        }
+
+        public void flush() throws IOException {
+            this.out.flush();
+        }
+    }
+}
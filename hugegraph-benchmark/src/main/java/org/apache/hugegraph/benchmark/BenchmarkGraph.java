@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.hugegraph.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.commons.configuration2.PropertiesConfiguration;
+import org.apache.hugegraph.HugeException;
+import org.apache.hugegraph.HugeFactory;
+import org.apache.hugegraph.HugeGraph;
+import org.apache.hugegraph.backend.id.IdGenerator;
+import org.apache.hugegraph.config.CoreOptions;
+import org.apache.hugegraph.config.HugeConfig;
+import org.apache.hugegraph.schema.SchemaManager;
+import org.apache.hugegraph.structure.HugeEdge;
+import org.apache.hugegraph.structure.HugeVertex;
+import org.apache.hugegraph.type.define.NodeRole;
+import org.apache.tinkerpop.gremlin.structure.T;
+
+/**
+ * A graph on the memory backend shared by the benchmarks, it contains
+ * "person" vertices with customized number ids and random "knows" edges
+ * (each vertex links to DEGREE random vertices).
+ */
+public class BenchmarkGraph {
+
+    public static final String PERSON = "person";
+    public static final String KNOWS = "knows";
+
+    private static final int COMMIT_BATCH = 500;
+
+    private final HugeGraph graph;
+    private final List<HugeVertex> vertices;
+    private final List<HugeEdge> edges;
+
+    private BenchmarkGraph(HugeGraph graph) {
+        this.graph = graph;
+        this.vertices = new ArrayList<>();
+        this.edges = new ArrayList<>();
+    }
+
+    public HugeGraph graph() {
+        return this.graph;
+    }
+
+    public List<HugeVertex> vertices() {
+        return this.vertices;
+    }
+
+    public List<HugeEdge> edges() {
+        return this.edges;
+    }
+
+    public void close() {
+        try {
+            this.graph.clearBackend();
+            this.graph.close();
+        } catch (Exception e) {
+            throw new HugeException("Failed to close benchmark graph", e);
+        }
+    }
+
+    public static BenchmarkGraph open(String name, int vertices, int degree) {
+        PropertiesConfiguration conf = new PropertiesConfiguration();
+        conf.setProperty(CoreOptions.STORE.name(), name);
+        HugeGraph graph = HugeFactory.open(new HugeConfig(conf));
+        graph.clearBackend();
+        graph.initBackend();
+        graph.serverStarted(IdGenerator.of("server1"), NodeRole.MASTER);
+
+        BenchmarkGraph benchmarkGraph = new BenchmarkGraph(graph);
+        benchmarkGraph.initSchema();
+        benchmarkGraph.generate(vertices, degree);
+        return benchmarkGraph;
+    }
+
+    private void initSchema() {
+        SchemaManager schema = this.graph.schema();
+        schema.propertyKey("name").asText().ifNotExist().create();
+        schema.propertyKey("age").asInt().ifNotExist().create();
+        schema.propertyKey("weight").asDouble().ifNotExist().create();
+        schema.vertexLabel(PERSON)
+              .useCustomizeNumberId()
+              .properties("name", "age")
+              .nullableKeys("age")
+              .ifNotExist().create();
+        schema.edgeLabel(KNOWS)
+              .sourceLabel(PERSON).targetLabel(PERSON)
+              .properties("weight")
+              .ifNotExist().create();
+    }
+
+    private void generate(int count, int degree) {
+        Random random = new Random(20221018L);
+        HugeVertex[] all = new HugeVertex[count];
+        for (int i = 0; i < count; i++) {
+            all[i] = (HugeVertex) this.graph.addVertex(T.label, PERSON,
+                                                       T.id, (long) i,
+                                                       "name", "p" + i,
+                                                       "age", i % 100);
+            this.vertices.add(all[i]);
+            if ((i + 1) % COMMIT_BATCH == 0) {
+                this.graph.tx().commit();
+            }
+        }
+        this.graph.tx().commit();
+
+        int added = 0;
+        for (int i = 0; i < count; i++) {
+            for (int j = 0; j < degree; j++) {
+                HugeVertex target = all[random.nextInt(count)];
+                HugeEdge edge = (HugeEdge) all[i].addEdge(KNOWS, target,
+                                                          "weight",
+                                                          random.nextDouble());
+                this.edges.add(edge);
+                if (++added % COMMIT_BATCH == 0) {
+                    this.graph.tx().commit();
+                }
+            }
+        }
+        this.graph.tx().commit();
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.hugegraph.benchmark.cache;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hugegraph.backend.cache.AbstractCache;
+import org.apache.hugegraph.backend.cache.LevelCache;
+import org.apache.hugegraph.backend.cache.OffheapCache;
+import org.apache.hugegraph.backend.cache.RamCache;
+import org.apache.hugegraph.backend.cache.TinyLfuCache;
+import org.apache.hugegraph.backend.id.Id;
+import org.apache.hugegraph.benchmark.BenchmarkConstants;
+import org.apache.hugegraph.benchmark.BenchmarkGraph;
+import org.apache.hugegraph.structure.HugeVertex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measure the get/put of vertex caches under contention of THREAD_COUNT
+ * threads, the keys are twice as many as the capacity so that both the
+ * hit path and the miss(update + evict) path are covered.
+ */
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@BenchmarkMode({Mode.Throughput})
+@Warmup(iterations = 2, time = 1000, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 6, time = 1000, timeUnit = TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(2)
+public class CacheBenchmark {
+
+    @Param(value = {"ram", "tinylfu", "offheap", "level"})
+    private String CACHE_TYPE;
+
+    private static final int VERTEX_COUNT = 20000;
+    private static final int CACHE_CAPACITY = VERTEX_COUNT / 2;
+    private static final long OFFHEAP_ENTRY_BYTES = 512L;
+
+    private static final int THREAD_COUNT = 8;
+
+    private static final String OUTPUT_FILE_NAME = "cache_get_put_result.json";
+
+    private BenchmarkGraph graph;
+    private AbstractCache<Id, Object> cache;
+    private HugeVertex[] vertices;
+
+    @Setup(Level.Trial)
+    public void prepare() {
+        this.graph = BenchmarkGraph.open("cache_benchmark", VERTEX_COUNT, 0);
+        List<HugeVertex> vertices = this.graph.vertices();
+        this.vertices = vertices.toArray(new HugeVertex[0]);
+        this.cache = this.newCache();
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() {
+        this.cache.clear();
+        this.graph.close();
+    }
+
+    private AbstractCache<Id, Object> newCache() {
+        long offheapBytes = CACHE_CAPACITY * OFFHEAP_ENTRY_BYTES;
+        switch (CACHE_TYPE) {
+            case "ram":
+                return new RamCache(CACHE_CAPACITY);
+            case "tinylfu":
+                return new TinyLfuCache(CACHE_CAPACITY);
+            case "offheap":
+                return new OffheapCache(this.graph.graph(), offheapBytes,
+                                        OFFHEAP_ENTRY_BYTES);
+            case "level":
+                return new LevelCache(new RamCache(CACHE_CAPACITY / 10),
+                                      new OffheapCache(this.graph.graph(),
+                                                       offheapBytes,
+                                                       OFFHEAP_ENTRY_BYTES));
+            default:
+                throw new AssertionError("Unknown cache type: " + CACHE_TYPE);
+        }
+    }
+
+    private HugeVertex randomVertex() {
+        int i = ThreadLocalRandom.current().nextInt(this.vertices.length);
+        return this.vertices[i];
+    }
+
+    @Benchmark
+    @Threads(THREAD_COUNT)
+    public Object getOrPut() {
+        HugeVertex vertex = this.randomVertex();
+        Object value = this.cache.get(vertex.id());
+        if (value == null) {
+            value = vertex;
+            this.cache.update(vertex.id(), value);
+        }
+        return value;
+    }
+
+    @Benchmark
+    @Threads(THREAD_COUNT)
+    public Object get() {
+        return this.cache.get(this.randomVertex().id());
+    }
+
+    @Benchmark
+    @Threads(THREAD_COUNT)
+    public boolean put() {
+        HugeVertex vertex = this.randomVertex();
+        return this.cache.update(vertex.id(), vertex);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+            .include(CacheBenchmark.class.getSimpleName())
+            .result(BenchmarkConstants.OUTPUT_PATH + OUTPUT_FILE_NAME)
+            .resultFormat(ResultFormatType.JSON)
+            .build();
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.hugegraph.benchmark.collection;
+
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hugegraph.backend.id.Id;
+import org.apache.hugegraph.backend.id.IdGenerator;
+import org.apache.hugegraph.benchmark.BenchmarkConstants;
+import org.apache.hugegraph.util.collection.ObjectIntMapping;
+import org.apache.hugegraph.util.collection.ObjectIntMappingFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compare the synchronized mapping and the lock-free mapping of ids used
+ * by the concurrent traversal records under THREAD_COUNT threads.
+ * Only half of the ids are added before each iteration, so the lookups
+ * cover both the addition path and the hit path.
+ */
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@BenchmarkMode({Mode.Throughput})
+@Warmup(iterations = 2, time = 1000, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 6, time = 1000, timeUnit = TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(2)
+public class IdIntMappingBenchmark {
+
+    @Param(value = {"synchronized", "lockfree"})
+    private String MAPPING_TYPE;
+
+    @Param(value = {"long", "string", "uuid"})
+    private String ID_TYPE;
+
+    private static final int COUNT = 1 << 16;
+
+    private static final int THREAD_COUNT = 32;
+
+    private static final String OUTPUT_FILE_NAME =
+                                "id_int_mapping_result.json";
+
+    private Id[] ids;
+    private int[] codes;
+    private ObjectIntMapping<Id> mapping;
+
+    @Setup(Level.Trial)
+    public void prepare() {
+        Random random = new Random(20221018L);
+        this.ids = new Id[COUNT];
+        for (int i = 0; i < COUNT; i++) {
+            this.ids[i] = this.newId(random, i);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void prepareMapping() {
+        this.mapping = this.newMapping();
+        this.codes = new int[COUNT / 2];
+        for (int i = 0; i < this.codes.length; i++) {
+            this.codes[i] = this.mapping.object2Code(this.ids[i]);
+        }
+    }
+
+    private ObjectIntMapping<Id> newMapping() {
+        switch (MAPPING_TYPE) {
+            case "synchronized":
+                return ObjectIntMappingFactory.newObjectIntMapping(true);
+            case "lockfree":
+                return ObjectIntMappingFactory.newIdIntMapping(true);
+            default:
+                throw new AssertionError("Unknown mapping type: " +
+                                         MAPPING_TYPE);
+        }
+    }
+
+    private Id newId(Random random, int i) {
+        switch (ID_TYPE) {
+            case "long":
+                // Large ids which can't be used as codes directly
+                return IdGenerator.of(Integer.MAX_VALUE + 1L + i);
+            case "string":
+                return IdGenerator.of("vertex-" + random.nextInt() + "-" + i);
+            case "uuid":
+                return IdGenerator.of(new UUID(random.nextLong(),
+                                               random.nextLong()));
+            default:
+                throw new AssertionError("Unknown id type: " + ID_TYPE);
+        }
+    }
+
+    @Benchmark
+    @Threads(THREAD_COUNT)
+    public int object2Code() {
+        int i = ThreadLocalRandom.current().nextInt(COUNT);
+        return this.mapping.object2Code(this.ids[i]);
+    }
+
+    @Benchmark
+    @Threads(THREAD_COUNT)
+    public Id code2Object() {
+        int i = ThreadLocalRandom.current().nextInt(this.codes.length);
+        return this.mapping.code2Object(this.codes[i]);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+            .include(IdIntMappingBenchmark.class.getSimpleName())
+            .result(BenchmarkConstants.OUTPUT_PATH + OUTPUT_FILE_NAME)
+            .resultFormat(ResultFormatType.JSON)
+            .build();
+        new Runner(opt).run();
+    }
+}
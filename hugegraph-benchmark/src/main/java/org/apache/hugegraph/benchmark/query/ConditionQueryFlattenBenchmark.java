@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.hugegraph.benchmark.query;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hugegraph.backend.id.Id;
+import org.apache.hugegraph.backend.id.IdGenerator;
+import org.apache.hugegraph.backend.query.Condition;
+import org.apache.hugegraph.backend.query.ConditionQuery;
+import org.apache.hugegraph.backend.query.ConditionQueryFlatten;
+import org.apache.hugegraph.benchmark.BenchmarkConstants;
+import org.apache.hugegraph.type.HugeType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measure ConditionQueryFlatten with IN/OR conditions expanded into
+ * multiple queries and with multiple ranges merged into one.
+ */
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@BenchmarkMode({Mode.Throughput})
+@Warmup(iterations = 2, time = 1000, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 6, time = 1000, timeUnit = TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(2)
+public class ConditionQueryFlattenBenchmark {
+
+    @Param(value = {"4", "32"})
+    private int VALUES_SIZE;
+
+    private static final String OUTPUT_FILE_NAME =
+                                "condition_query_flatten_result.json";
+
+    private final Id name = IdGenerator.of(1L);
+    private final Id age = IdGenerator.of(2L);
+    private final Id city = IdGenerator.of(3L);
+
+    private List<Object> names;
+    private List<Object> cities;
+
+    @Setup(Level.Trial)
+    public void prepare() {
+        this.names = new ArrayList<>(VALUES_SIZE);
+        this.cities = new ArrayList<>(VALUES_SIZE);
+        for (int i = 0; i < VALUES_SIZE; i++) {
+            this.names.add("name-" + i);
+            this.cities.add("city-" + i);
+        }
+    }
+
+    @Benchmark
+    public List<ConditionQuery> flattenIn() {
+        // name in [...] and city in [...] => VALUES_SIZE^2 queries
+        ConditionQuery query = new ConditionQuery(HugeType.VERTEX);
+        query.query(Condition.in(this.name, this.names));
+        query.query(Condition.in(this.city, this.cities));
+        return ConditionQueryFlatten.flatten(query);
+    }
+
+    @Benchmark
+    public List<ConditionQuery> flattenOr() {
+        // (name = x1 or name = x2 ...) and age > 18
+        Condition or = null;
+        for (Object value : this.names) {
+            Condition eq = Condition.eq(this.name, value);
+            or = or == null ? eq : or.or(eq);
+        }
+        ConditionQuery query = new ConditionQuery(HugeType.VERTEX);
+        query.query(or);
+        query.query(Condition.gt(this.age, 18));
+        return ConditionQueryFlatten.flatten(query);
+    }
+
+    @Benchmark
+    public List<ConditionQuery> flattenRange() {
+        // Multiple ranges of the same key are merged into one range
+        ConditionQuery query = new ConditionQuery(HugeType.VERTEX);
+        for (int i = 0; i < VALUES_SIZE; i++) {
+            query.query(Condition.gt(this.age, i));
+            query.query(Condition.lt(this.age, 100 + i));
+        }
+        return ConditionQueryFlatten.flatten(query);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+            .include(ConditionQueryFlattenBenchmark.class.getSimpleName())
+            .result(BenchmarkConstants.OUTPUT_PATH + OUTPUT_FILE_NAME)
+            .resultFormat(ResultFormatType.JSON)
+            .build();
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.hugegraph.benchmark.serializer;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hugegraph.backend.serializer.BinarySerializer;
+import org.apache.hugegraph.backend.store.BackendEntry;
+import org.apache.hugegraph.benchmark.BenchmarkConstants;
+import org.apache.hugegraph.benchmark.BenchmarkGraph;
+import org.apache.hugegraph.structure.HugeEdge;
+import org.apache.hugegraph.structure.HugeVertex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measure the cost of BinarySerializer to write/read vertices and edges,
+ * which is on the hot path of each rocksdb/hbase read and write.
+ * The gc profiler reports the bytes allocated per operation, see the
+ * result "gc.alloc.rate.norm".
+ */
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@BenchmarkMode({Mode.Throughput})
+@Warmup(iterations = 2, time = 1000, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 6, time = 1000, timeUnit = TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(2)
+public class BinarySerializerBenchmark {
+
+    @Param(value = {"false", "true"})
+    private boolean ENABLE_PARTITION;
+
+    private static final int VERTEX_COUNT = 1000;
+    private static final int DEGREE = 2;
+
+    private static final String OUTPUT_FILE_NAME = "binary_serializer_result.json";
+
+    private BenchmarkGraph graph;
+    private BinarySerializer serializer;
+
+    private HugeVertex[] vertices;
+    private HugeEdge[] edges;
+    private BackendEntry[] vertexEntries;
+    private BackendEntry[] edgeEntries;
+
+    @Setup(Level.Trial)
+    public void prepare() {
+        this.graph = BenchmarkGraph.open("serializer_benchmark",
+                                         VERTEX_COUNT, DEGREE);
+        this.serializer = new BinarySerializer(true, true, ENABLE_PARTITION);
+
+        List<HugeVertex> vertices = this.graph.vertices();
+        List<HugeEdge> edges = this.graph.edges();
+        this.vertices = vertices.toArray(new HugeVertex[0]);
+        this.edges = edges.toArray(new HugeEdge[0]);
+
+        this.vertexEntries = new BackendEntry[this.vertices.length];
+        for (int i = 0; i < this.vertices.length; i++) {
+            this.vertexEntries[i] = this.serializer.writeVertex(
+                                    this.vertices[i]);
+        }
+        this.edgeEntries = new BackendEntry[this.edges.length];
+        for (int i = 0; i < this.edges.length; i++) {
+            this.edgeEntries[i] = this.serializer.writeEdge(this.edges[i]);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() {
+        this.graph.close();
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+
+        private int position = 0;
+
+        int next(int size) {
+            if (++this.position >= size) {
+                this.position = 0;
+            }
+            return this.position;
+        }
+    }
+
+    @Benchmark
+    public BackendEntry writeVertex(ThreadState state) {
+        int i = state.next(this.vertices.length);
+        return this.serializer.writeVertex(this.vertices[i]);
+    }
+
+    @Benchmark
+    public HugeVertex readVertex(ThreadState state) {
+        int i = state.next(this.vertexEntries.length);
+        return this.serializer.readVertex(this.graph.graph(),
+                                          this.vertexEntries[i]);
+    }
+
+    @Benchmark
+    public BackendEntry writeEdge(ThreadState state) {
+        int i = state.next(this.edges.length);
+        return this.serializer.writeEdge(this.edges[i]);
+    }
+
+    @Benchmark
+    public HugeVertex readEdge(ThreadState state) {
+        int i = state.next(this.edgeEntries.length);
+        // The edge entry is read as the owner vertex with one edge
+        return this.serializer.readVertex(this.graph.graph(),
+                                          this.edgeEntries[i]);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+            .include(BinarySerializerBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .result(BenchmarkConstants.OUTPUT_PATH + OUTPUT_FILE_NAME)
+            .resultFormat(ResultFormatType.JSON)
+            .build();
+        new Runner(opt).run();
+    }
+}
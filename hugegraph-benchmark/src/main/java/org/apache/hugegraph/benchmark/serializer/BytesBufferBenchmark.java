@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.hugegraph.benchmark.serializer;
+
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hugegraph.backend.id.Id;
+import org.apache.hugegraph.backend.id.IdGenerator;
+import org.apache.hugegraph.backend.serializer.BytesBuffer;
+import org.apache.hugegraph.benchmark.BenchmarkConstants;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measure the variable-length int/long and id encoding of BytesBuffer.
+ */
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@BenchmarkMode({Mode.Throughput})
+@Warmup(iterations = 2, time = 1000, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 6, time = 1000, timeUnit = TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(2)
+public class BytesBufferBenchmark {
+
+    @Param(value = {"long", "string", "uuid"})
+    private String ID_TYPE;
+
+    private static final int COUNT = 1024;
+
+    private static final String OUTPUT_FILE_NAME = "bytes_buffer_result.json";
+
+    private int[] ints;
+    private long[] longs;
+    private Id[] ids;
+
+    private byte[] encodedInts;
+    private byte[] encodedLongs;
+    private byte[] encodedIds;
+
+    @Setup(Level.Trial)
+    public void prepare() {
+        Random random = new Random(20221018L);
+        this.ints = new int[COUNT];
+        this.longs = new long[COUNT];
+        this.ids = new Id[COUNT];
+        for (int i = 0; i < COUNT; i++) {
+            // Mix small and large values to cover all varint lengths
+            this.ints[i] = random.nextInt() >>> random.nextInt(32);
+            this.longs[i] = random.nextLong() >>> random.nextInt(64);
+            this.ids[i] = this.newId(random);
+        }
+
+        BytesBuffer buffer = this.writeInts();
+        this.encodedInts = buffer.bytes();
+        buffer = this.writeLongs();
+        this.encodedLongs = buffer.bytes();
+        buffer = this.writeIds();
+        this.encodedIds = buffer.bytes();
+    }
+
+    private Id newId(Random random) {
+        switch (ID_TYPE) {
+            case "long":
+                return IdGenerator.of(random.nextLong() >>> random.nextInt(64));
+            case "string":
+                return IdGenerator.of("vertex-" + random.nextInt(1 << 20));
+            case "uuid":
+                return IdGenerator.of(new UUID(random.nextLong(),
+                                               random.nextLong()));
+            default:
+                throw new AssertionError("Unknown id type: " + ID_TYPE);
+        }
+    }
+
+    @Benchmark
+    public BytesBuffer writeInts() {
+        BytesBuffer buffer = BytesBuffer.allocate(COUNT * 5);
+        for (int value : this.ints) {
+            buffer.writeVInt(value);
+        }
+        return buffer;
+    }
+
+    @Benchmark
+    public long readInts() {
+        BytesBuffer buffer = BytesBuffer.wrap(this.encodedInts);
+        long sum = 0L;
+        for (int i = 0; i < COUNT; i++) {
+            sum += buffer.readVInt();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public BytesBuffer writeLongs() {
+        BytesBuffer buffer = BytesBuffer.allocate(COUNT * 10);
+        for (long value : this.longs) {
+            buffer.writeVLong(value);
+        }
+        return buffer;
+    }
+
+    @Benchmark
+    public long readLongs() {
+        BytesBuffer buffer = BytesBuffer.wrap(this.encodedLongs);
+        long sum = 0L;
+        for (int i = 0; i < COUNT; i++) {
+            sum += buffer.readVLong();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public BytesBuffer writeIds() {
+        BytesBuffer buffer = BytesBuffer.allocate(COUNT * 16);
+        for (Id id : this.ids) {
+            buffer.writeId(id);
+        }
+        return buffer;
+    }
+
+    @Benchmark
+    public Id readIds() {
+        BytesBuffer buffer = BytesBuffer.wrap(this.encodedIds);
+        Id id = null;
+        for (int i = 0; i < COUNT; i++) {
+            id = buffer.readId();
+        }
+        return id;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+            .include(BytesBufferBenchmark.class.getSimpleName())
+            .result(BenchmarkConstants.OUTPUT_PATH + OUTPUT_FILE_NAME)
+            .resultFormat(ResultFormatType.JSON)
+            .build();
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.hugegraph.benchmark.traversal;
+
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hugegraph.backend.id.Id;
+import org.apache.hugegraph.backend.id.IdGenerator;
+import org.apache.hugegraph.benchmark.BenchmarkConstants;
+import org.apache.hugegraph.benchmark.BenchmarkGraph;
+import org.apache.hugegraph.traversal.algorithm.HugeTraverser;
+import org.apache.hugegraph.traversal.algorithm.KneighborTraverser;
+import org.apache.hugegraph.traversal.algorithm.KoutTraverser;
+import org.apache.hugegraph.type.define.Directions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measure kout and kneighbor traversals on a random graph stored in the
+ * memory backend, the backend cost is trivial so it shows the overhead of
+ * the traverser itself (edges iterating, records and result collecting).
+ */
+@OutputTimeUnit(TimeUnit.SECONDS)
+@BenchmarkMode({Mode.Throughput})
+@Warmup(iterations = 2, time = 1000, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 6, time = 1000, timeUnit = TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(2)
+public class TraversalBenchmark {
+
+    @Param(value = {"2", "3"})
+    private int DEPTH;
+
+    private static final int VERTEX_COUNT = 10000;
+    private static final int DEGREE = 10;
+
+    private static final long DEGREE_LIMIT = HugeTraverser.NO_LIMIT;
+    private static final long CAPACITY = HugeTraverser.NO_LIMIT;
+    private static final long LIMIT = HugeTraverser.NO_LIMIT;
+
+    private static final String OUTPUT_FILE_NAME = "traversal_result.json";
+
+    private BenchmarkGraph graph;
+
+    @Setup(Level.Trial)
+    public void prepare() {
+        this.graph = BenchmarkGraph.open("traversal_benchmark",
+                                         VERTEX_COUNT, DEGREE);
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() {
+        this.graph.close();
+    }
+
+    private static Id randomSource() {
+        return IdGenerator.of(ThreadLocalRandom.current()
+                                               .nextLong(VERTEX_COUNT));
+    }
+
+    @Benchmark
+    public Set<Id> kout() {
+        KoutTraverser traverser = new KoutTraverser(this.graph.graph());
+        return traverser.kout(randomSource(), Directions.OUT,
+                              BenchmarkGraph.KNOWS, DEPTH, true,
+                              DEGREE_LIMIT, CAPACITY, LIMIT);
+    }
+
+    @Benchmark
+    public Set<Id> kneighbor() {
+        KneighborTraverser traverser = new KneighborTraverser(
+                                       this.graph.graph());
+        return traverser.kneighbor(randomSource(), Directions.OUT,
+                                   BenchmarkGraph.KNOWS, DEPTH,
+                                   DEGREE_LIMIT, LIMIT);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+            .include(TraversalBenchmark.class.getSimpleName())
+            .result(BenchmarkConstants.OUTPUT_PATH + OUTPUT_FILE_NAME)
+            .resultFormat(ResultFormatType.JSON)
+            .build();
+        new Runner(opt).run();
+    }
+}
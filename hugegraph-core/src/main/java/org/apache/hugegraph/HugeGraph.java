@@ -128,6 +128,8 @@ public interface HugeGraph extends Graph {
 
     Id rebuildIndex(SchemaElement schema);
 
+    Id analyzeIndex(IndexLabel indexLabel);
+
     Collection<IndexLabel> indexLabels();
 
     IndexLabel indexLabel(String label);
@@ -17,11 +17,14 @@
 
 package org.apache.hugegraph;
 
+import java.util.concurrent.ExecutorService;
+
 import org.apache.hugegraph.backend.LocalCounter;
 import org.apache.hugegraph.backend.store.BackendFeatures;
 import org.apache.hugegraph.backend.store.BackendStore;
 import org.apache.hugegraph.backend.store.ram.RamTable;
 import org.apache.hugegraph.backend.tx.GraphTransaction;
+import org.apache.hugegraph.backend.tx.GroupCommitter;
 import org.apache.hugegraph.backend.tx.SchemaTransaction;
 import org.apache.hugegraph.job.EphemeralJob;
 import org.apache.hugegraph.task.ServerInfoManager;
@@ -92,5 +95,11 @@ public interface HugeGraphParams {
 
     RamTable ramtable();
 
+    GroupCommitter groupCommitter();
+
+    ExecutorService indexUpdateExecutor();
+
+    ExecutorService parallelScanExecutor();
+
     <T> void submitEphemeralJob(EphemeralJob<T> job);
 }
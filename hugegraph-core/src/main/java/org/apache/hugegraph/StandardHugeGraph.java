@@ -17,10 +17,12 @@
 
 package org.apache.hugegraph;
 
+import java.nio.file.Paths;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -53,6 +55,7 @@ import org.apache.hugegraph.backend.store.raft.RaftGroupManager;
 import org.apache.hugegraph.backend.store.ram.RamTable;
 import org.apache.hugegraph.task.EphemeralJobQueue;
 import org.apache.hugegraph.backend.tx.GraphTransaction;
+import org.apache.hugegraph.backend.tx.GroupCommitter;
 import org.apache.hugegraph.backend.tx.SchemaTransaction;
 import org.apache.hugegraph.config.CoreOptions;
 import org.apache.hugegraph.config.HugeConfig;
@@ -95,6 +98,7 @@ import org.apache.hugegraph.util.ConfigUtil;
 import org.apache.hugegraph.util.DateUtil;
 import org.apache.hugegraph.util.E;
 import org.apache.hugegraph.util.Events;
+import org.apache.hugegraph.util.ExecutorUtil;
 import org.apache.hugegraph.util.LockUtil;
 import org.apache.hugegraph.util.Log;
 import org.apache.hugegraph.variables.HugeVariables;
@@ -137,6 +141,7 @@ public class StandardHugeGraph implements HugeGraph {
            CoreOptions.OLTP_CONCURRENT_THREADS,
            CoreOptions.OLTP_CONCURRENT_DEPTH,
            CoreOptions.OLTP_COLLECTION_TYPE,
+           CoreOptions.QUERY_PARALLEL_SCAN_THREADS,
            CoreOptions.VERTEX_DEFAULT_LABEL,
            CoreOptions.VERTEX_ENCODE_PK_NUMBER,
            CoreOptions.STORE_GRAPH,
@@ -175,6 +180,9 @@ public class StandardHugeGraph implements HugeGraph {
     private final TinkerPopTransaction tx;
 
     private final RamTable ramtable;
+    private volatile GroupCommitter groupCommitter;
+    private volatile ExecutorService indexUpdateExecutor;
+    private volatile ExecutorService parallelScanExecutor;
 
     public StandardHugeGraph(HugeConfig config) {
         this.params = new StandardHugeGraphParams();
@@ -197,7 +205,15 @@ public class StandardHugeGraph implements HugeGraph {
         if (ramtableEnable) {
             long vc = config.get(CoreOptions.QUERY_RAMTABLE_VERTICES_CAPACITY);
             int ec = config.get(CoreOptions.QUERY_RAMTABLE_EDGES_CAPACITY);
-            this.ramtable = new RamTable(this, vc, ec);
+            String dir = config.get(CoreOptions.QUERY_RAMTABLE_MMAP_DIR);
+            String file = null;
+            if (!dir.isEmpty()) {
+                String store = config.get(CoreOptions.STORE);
+                file = Paths.get(dir, store + ".ramtable").toString();
+            }
+            double threshold = config.get(
+                    CoreOptions.QUERY_RAMTABLE_COMPACT_THRESHOLD);
+            this.ramtable = new RamTable(this, vc, ec, file, threshold);
         } else {
             this.ramtable = null;
         }
@@ -221,6 +237,10 @@ public class StandardHugeGraph implements HugeGraph {
             throw new HugeException(message, e);
         }
 
+        this.groupCommitter = null;
+        this.indexUpdateExecutor = null;
+        this.parallelScanExecutor = null;
+
         try {
             this.tx = new TinkerPopTransaction(this);
             boolean supportsPersistence = this.backendStoreFeatures().supportsPersistence();
@@ -491,6 +511,67 @@ public class StandardHugeGraph implements HugeGraph {
         E.checkState(!this.closed, "Graph '%s' has been closed", this);
     }
 
+    private GroupCommitter groupCommitter() {
+        if (this.groupCommitter != null) {
+            return this.groupCommitter;
+        }
+        int size = this.configuration.get(CoreOptions.STORE_GROUP_COMMIT_SIZE);
+        if (size <= 0) {
+            return null;
+        }
+        synchronized (this) {
+            if (this.groupCommitter == null) {
+                this.checkGraphNotClosed();
+                int linger = this.configuration.get(
+                             CoreOptions.STORE_GROUP_COMMIT_LINGER);
+                // Init at the first commit since the store may be not ready
+                this.groupCommitter = new GroupCommitter(this.name,
+                                                         loadGraphStore(),
+                                                         size, linger);
+            }
+            return this.groupCommitter;
+        }
+    }
+
+    private ExecutorService indexUpdateExecutor() {
+        if (this.indexUpdateExecutor != null) {
+            return this.indexUpdateExecutor;
+        }
+        int threads = this.configuration.get(CoreOptions.INDEX_UPDATE_THREADS);
+        if (threads <= 0) {
+            return null;
+        }
+        synchronized (this) {
+            if (this.indexUpdateExecutor == null) {
+                this.checkGraphNotClosed();
+                this.indexUpdateExecutor = ExecutorUtil.newFixedThreadPool(
+                                           threads, "index-update-" +
+                                           this.name + "-%d");
+            }
+            return this.indexUpdateExecutor;
+        }
+    }
+
+    private ExecutorService parallelScanExecutor() {
+        if (this.parallelScanExecutor != null) {
+            return this.parallelScanExecutor;
+        }
+        int threads = this.configuration.get(
+                      CoreOptions.QUERY_PARALLEL_SCAN_THREADS);
+        if (threads <= 0) {
+            return null;
+        }
+        synchronized (this) {
+            if (this.parallelScanExecutor == null) {
+                this.checkGraphNotClosed();
+                this.parallelScanExecutor = ExecutorUtil.newFixedThreadPool(
+                                            threads, "parallel-scan-" +
+                                            this.name + "-%d");
+            }
+            return this.parallelScanExecutor;
+        }
+    }
+
     private BackendStore loadSchemaStore() {
         return this.storeProvider.loadSchemaStore(this.configuration);
     }
@@ -920,6 +1001,11 @@ public class StandardHugeGraph implements HugeGraph {
         return this.schemaTransaction().rebuildIndex(schema);
     }
 
+    @Override
+    public Id analyzeIndex(IndexLabel indexLabel) {
+        return this.schemaTransaction().analyzeIndex(indexLabel);
+    }
+
     @Override
     public Collection<IndexLabel> indexLabels() {
         return this.schemaTransaction().getIndexLabels();
@@ -964,7 +1050,19 @@ public class StandardHugeGraph implements HugeGraph {
             this.closeTx();
         } finally {
             this.closed = true;
+            if (this.groupCommitter != null) {
+                this.groupCommitter.close();
+            }
+            if (this.indexUpdateExecutor != null) {
+                this.indexUpdateExecutor.shutdown();
+            }
+            if (this.parallelScanExecutor != null) {
+                this.parallelScanExecutor.shutdown();
+            }
             this.storeProvider.close();
+            if (this.ramtable != null) {
+                this.ramtable.close();
+            }
             LockUtil.destroy(this.name);
         }
         // Make sure that all transactions are closed in all threads
@@ -1308,6 +1406,21 @@ public class StandardHugeGraph implements HugeGraph {
             return StandardHugeGraph.this.ramtable;
         }
 
+        @Override
+        public GroupCommitter groupCommitter() {
+            return StandardHugeGraph.this.groupCommitter();
+        }
+
+        @Override
+        public ExecutorService indexUpdateExecutor() {
+            return StandardHugeGraph.this.indexUpdateExecutor();
+        }
+
+        @Override
+        public ExecutorService parallelScanExecutor() {
+            return StandardHugeGraph.this.parallelScanExecutor();
+        }
+
         @Override
         public <T> void submitEphemeralJob(EphemeralJob<T> job) {
             this.ephemeralJobQueue.add(job);
@@ -119,10 +119,30 @@ public class CacheManager {
         return cache;
     }
 
+    public <V> Cache<Id, V> tinyLfuCache(String name, long capacity) {
+        if (!this.caches.containsKey(name)) {
+            this.caches.putIfAbsent(name, new TinyLfuCache(capacity));
+            LOG.info("Init TinyLfuCache for '{}' with capacity {}",
+                     name, capacity);
+        }
+        @SuppressWarnings("unchecked")
+        Cache<Id, V> cache = (Cache<Id, V>) this.caches.get(name);
+        E.checkArgument(cache instanceof TinyLfuCache,
+                        "Invalid cache implement: %s", cache.getClass());
+        return cache;
+    }
+
     public <V> Cache<Id, V> offheapCache(HugeGraph graph, String name,
                                          long capacity, long avgElemSize) {
+        return this.offheapCache(graph, name, capacity, avgElemSize, false);
+    }
+
+    public <V> Cache<Id, V> offheapCache(HugeGraph graph, String name,
+                                         long capacity, long avgElemSize,
+                                         boolean lazyProperties) {
         if (!this.caches.containsKey(name)) {
-            OffheapCache cache = new OffheapCache(graph, capacity, avgElemSize);
+            OffheapCache cache = new OffheapCache(graph, capacity, avgElemSize,
+                                                  lazyProperties);
             this.caches.putIfAbsent(name, cache);
             LOG.info("Init OffheapCache for '{}' with capacity {}",
                      name, capacity);
@@ -137,10 +157,19 @@ public class CacheManager {
     public <V> Cache<Id, V> levelCache(HugeGraph graph, String name,
                                        long capacity1, long capacity2,
                                        long avgElemSize) {
+        return this.levelCache(graph, name, capacity1, capacity2,
+                               avgElemSize, false);
+    }
+
+    public <V> Cache<Id, V> levelCache(HugeGraph graph, String name,
+                                       long capacity1, long capacity2,
+                                       long avgElemSize,
+                                       boolean lazyProperties) {
         if (!this.caches.containsKey(name)) {
             RamCache cache1 = new RamCache(capacity1);
             OffheapCache cache2 = new OffheapCache(graph, capacity2,
-                                                   avgElemSize);
+                                                   avgElemSize,
+                                                   lazyProperties);
             this.caches.putIfAbsent(name, new LevelCache(cache1, cache2));
             LOG.info("Init LevelCache for '{}' with capacity {}:{}",
                      name, capacity1, capacity2);
@@ -102,11 +102,17 @@ public final class CachedGraphTransaction extends GraphTransaction {
             case "l1":
                 cache = CacheManager.instance().cache(name, capacity);
                 break;
+            case "tinylfu":
+                cache = CacheManager.instance().tinyLfuCache(name, capacity);
+                break;
             case "l2":
                 long heapCapacity = (long) (DEFAULT_LEVEL_RATIO * capacity);
+                boolean lazy = this.params().configuration().get(
+                               CoreOptions.CACHE_LAZY_LOAD_PROPERTIES);
                 cache = CacheManager.instance().levelCache(super.graph(),
                                                            name, heapCapacity,
-                                                           capacity, entrySize);
+                                                           capacity, entrySize,
+                                                           lazy);
                 break;
             default:
                 throw new NotSupportException("cache type '%s'", type);
@@ -312,8 +318,12 @@ public final class CachedGraphTransaction extends GraphTransaction {
         }
 
         if (!this.enableCacheEdge() || query.empty() ||
-            query.paging() || query.bigCapacity()) {
-            // Query all edges or query edges in paging, don't cache it
+            query.paging() || query.bigCapacity() ||
+            query.selectedProperties() != null) {
+            /*
+             * Query all edges or query edges in paging, don't cache it, and
+             * don't cache the edges with part of the properties either
+             */
             return super.queryEdgesFromBackend(query);
         }
 
@@ -369,8 +379,22 @@ public final class CachedGraphTransaction extends GraphTransaction {
 
         int edgesInTxSize = this.edgesInTxSize();
 
+        RamTable ramtable = this.params().ramtable();
+        Collection<HugeEdge> edgeDeletions = ramtable == null ?
+                                             Collections.emptyList() :
+                                             this.edgesInTxRemoved();
+
         try {
             super.commitMutation2Backend(mutations);
+            // Mark the removed edges and vertices as dead in ramtable
+            if (ramtable != null) {
+                for (HugeEdge edge : edgeDeletions) {
+                    ramtable.removeEdge(edge);
+                }
+                for (HugeVertex vertex : deletions) {
+                    ramtable.removeVertex(vertex.id());
+                }
+            }
             // Update vertex cache
             if (this.enableCacheVertex()) {
                 for (HugeVertex vertex : updates) {
@@ -35,11 +35,11 @@ import org.caffinitas.ohc.OHCacheBuilder;
 import org.apache.hugegraph.HugeException;
 import org.apache.hugegraph.HugeGraph;
 import org.apache.hugegraph.backend.id.Id;
-import org.apache.hugegraph.backend.serializer.AbstractSerializer;
 import org.apache.hugegraph.backend.serializer.BinaryBackendEntry;
 import org.apache.hugegraph.backend.serializer.BinarySerializer;
 import org.apache.hugegraph.backend.serializer.BytesBuffer;
 import org.apache.hugegraph.structure.HugeEdge;
+import org.apache.hugegraph.structure.HugeElement;
 import org.apache.hugegraph.structure.HugeVertex;
 import org.apache.hugegraph.type.HugeType;
 import org.apache.hugegraph.type.define.DataType;
@@ -53,9 +53,20 @@ public class OffheapCache extends AbstractCache<Id, Object> {
 
     private final OHCache<Id, Value> cache;
     private final HugeGraph graph;
-    private final AbstractSerializer serializer;
+    private final BinarySerializer serializer;
+    private final boolean lazyProperties;
 
     public OffheapCache(HugeGraph graph, long capacity, long avgEntryBytes) {
+        this(graph, capacity, avgEntryBytes, false);
+    }
+
+    /**
+     * @param lazyProperties whether to decode the properties of the cached
+     *                       vertices/edges when they are accessed at the
+     *                       first time instead of when they are read
+     */
+    public OffheapCache(HugeGraph graph, long capacity, long avgEntryBytes,
+                        boolean lazyProperties) {
         // NOTE: capacity unit is bytes, the super capacity expect elements size
         super(capacity);
         long capacityInBytes = capacity * (avgEntryBytes + 64L);
@@ -65,16 +76,21 @@ public class OffheapCache extends AbstractCache<Id, Object> {
         this.graph = graph;
         this.cache = this.builder().capacity(capacityInBytes).build();
         this.serializer = new BinarySerializer();
+        this.lazyProperties = lazyProperties;
     }
 
     private HugeGraph graph() {
         return this.graph;
     }
 
-    private AbstractSerializer serializer() {
+    private BinarySerializer serializer() {
         return this.serializer;
     }
 
+    public boolean lazyProperties() {
+        return this.lazyProperties;
+    }
+
     @Override
     public void traverse(Consumer<Object> consumer) {
         CloseableIterator<Id> iter = this.cache.keyIterator();
@@ -311,11 +327,22 @@ public class OffheapCache extends AbstractCache<Id, Object> {
             assert entry.columnsSize() == 1;
             BackendColumn column = entry.columns().iterator().next();
 
+            /*
+             * Write the expired time before the column since it's written
+             * after the properties in column value, which may not be parsed
+             */
+            buffer.writeVLong(((HugeElement) value).expiredTime());
             buffer.writeBytes(column.name);
             buffer.writeBigBytes(column.value);
         }
 
         private Object deserializeElement(ValueType type, BytesBuffer buffer) {
+            long expiredTime = buffer.readVLong();
+            if (lazyProperties()) {
+                return this.deserializeElementLazily(type, buffer,
+                                                     expiredTime);
+            }
+
             byte[] key = buffer.readBytes();
             byte[] value = buffer.readBigBytes();
             BinaryBackendEntry entry;
@@ -332,6 +359,35 @@ public class OffheapCache extends AbstractCache<Id, Object> {
             }
         }
 
+        private HugeElement deserializeElementLazily(ValueType type,
+                                                     BytesBuffer buffer,
+                                                     long expiredTime) {
+            // Parse from the views of off-heap buffer without copying
+            BytesBuffer name = slice(buffer, buffer.readVInt());
+            BytesBuffer value = slice(buffer, buffer.readVInt());
+            HugeElement element;
+            if (type == ValueType.VERTEX) {
+                element = serializer().readVertexLazily(graph(), name, value);
+            } else if (type == ValueType.EDGE) {
+                element = serializer().readEdgeLazily(graph(), name, value);
+            } else {
+                throw unsupported(type);
+            }
+            if (expiredTime != 0L) {
+                element.expiredTime(expiredTime);
+            }
+            return element;
+        }
+
+        private BytesBuffer slice(BytesBuffer buffer, int length) {
+            ByteBuffer origin = buffer.asByteBuffer();
+            int position = origin.position();
+            ByteBuffer view = origin.duplicate();
+            view.limit(position + length);
+            origin.position(position + length);
+            return BytesBuffer.wrap(view);
+        }
+
         private HugeException unsupported(ValueType type) {
             throw new HugeException(
                       "Unsupported deserialize type: %s", type);
@@ -0,0 +1,552 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.hugegraph.backend.cache;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import org.apache.hugegraph.backend.id.Id;
+import org.apache.hugegraph.perf.PerfUtil.Watched;
+import org.apache.hugegraph.util.E;
+
+/**
+ * W-TinyLFU cache: a small LRU admission window in front of a segmented
+ * LRU main space (probation + protected), entries leaving the window are
+ * only admitted into the main space if they are estimated (by a count-min
+ * sketch) to be accessed more frequently than the victim they replace.
+ * That makes the cache resistant to one-off scans which would flush all
+ * the hot items out of a plain LRU cache like RamCache.
+ *
+ * Reads are lock-free on the map, the access is applied to the policy
+ * only if the eviction lock can be acquired without waiting, so that the
+ * policy is best-effort under heavy read contention (like a lossy buffer).
+ */
+public class TinyLfuCache extends AbstractCache<Id, Object> {
+
+    // The admission window takes 1% of the capacity
+    private static final double WINDOW_RATIO = 0.01D;
+    // The protected segment takes 80% of the main space
+    private static final double PROTECTED_RATIO = 0.8D;
+
+    private static final byte WINDOW = 1;
+    private static final byte PROBATION = 2;
+    private static final byte PROTECTED = 3;
+    private static final byte REMOVED = 0;
+
+    private final ConcurrentMap<Id, Node> map;
+
+    // All the fields below are guarded by evictionLock
+    private final ReentrantLock evictionLock;
+    private final FrequencySketch sketch;
+    private final AccessOrderQueue window;
+    private final AccessOrderQueue probation;
+    private final AccessOrderQueue protect;
+    private final long windowCapacity;
+    private final long protectedCapacity;
+    private long windowSize;
+    private long protectedSize;
+    private long totalSize;
+
+    public TinyLfuCache() {
+        this(DEFAULT_SIZE);
+    }
+
+    public TinyLfuCache(long capacity) {
+        super(capacity);
+
+        capacity = this.capacity();
+        this.windowCapacity = Math.max(1L, (long) (capacity * WINDOW_RATIO));
+        long mainCapacity = Math.max(0L, capacity - this.windowCapacity);
+        this.protectedCapacity = (long) (mainCapacity * PROTECTED_RATIO);
+
+        long initialCapacity = capacity >= MB ? capacity >> 10 : 256;
+        if (initialCapacity > MAX_INIT_CAP) {
+            initialCapacity = MAX_INIT_CAP;
+        }
+
+        this.map = new ConcurrentHashMap<>((int) initialCapacity);
+        this.evictionLock = new ReentrantLock();
+        this.sketch = new FrequencySketch(capacity);
+        this.window = new AccessOrderQueue();
+        this.probation = new AccessOrderQueue();
+        this.protect = new AccessOrderQueue();
+        this.windowSize = 0L;
+        this.protectedSize = 0L;
+        this.totalSize = 0L;
+    }
+
+    @Override
+    @Watched(prefix = "tinylfu")
+    protected final Object access(Id id) {
+        assert id != null;
+
+        Node node = this.map.get(id);
+
+        // Record the access only if nobody else is updating the policy
+        if (this.evictionLock.tryLock()) {
+            try {
+                this.sketch.increment(id);
+                if (node != null && node.segment != REMOVED) {
+                    this.onHit(node);
+                }
+            } finally {
+                this.evictionLock.unlock();
+            }
+        }
+
+        if (node == null) {
+            return null;
+        }
+        assert id.equals(node.key());
+        return node.value();
+    }
+
+    @Override
+    @Watched(prefix = "tinylfu")
+    protected final boolean write(Id id, Object value, long timeOffset) {
+        assert id != null;
+        assert this.capacity() > 0L;
+
+        Node node = new Node(id, value, timeOffset);
+
+        this.evictionLock.lock();
+        try {
+            this.sketch.increment(id);
+
+            Node old = this.map.put(id, node);
+            if (old != null) {
+                // Replace the old node and keep it in the same segment
+                AccessOrderQueue queue = this.queueOf(old.segment);
+                queue.unlink(old);
+                node.segment = old.segment;
+                old.segment = REMOVED;
+                queue.linkLast(node);
+                return true;
+            }
+
+            // New items always go to the admission window first
+            node.segment = WINDOW;
+            this.window.linkLast(node);
+            this.windowSize++;
+            this.totalSize++;
+
+            this.evictEntries();
+            return true;
+        } finally {
+            this.evictionLock.unlock();
+        }
+    }
+
+    @Override
+    @Watched(prefix = "tinylfu")
+    protected final void remove(Id id) {
+        if (id == null) {
+            return;
+        }
+
+        this.evictionLock.lock();
+        try {
+            // NOTE: it maybe return null if other threads have removed the id
+            Node node = this.map.remove(id);
+            if (node != null) {
+                this.unlink(node);
+            }
+        } finally {
+            this.evictionLock.unlock();
+        }
+    }
+
+    @Override
+    protected Iterator<CacheNode<Id, Object>> nodes() {
+        Iterator<Node> iter = this.map.values().iterator();
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        Iterator<CacheNode<Id, Object>> iterSuper = (Iterator) iter;
+        return iterSuper;
+    }
+
+    @Override
+    public boolean containsKey(Id id) {
+        return this.map.containsKey(id);
+    }
+
+    @Watched(prefix = "tinylfu")
+    @Override
+    public void traverse(Consumer<Object> consumer) {
+        E.checkNotNull(consumer, "consumer");
+        this.map.values().forEach(node -> consumer.accept(node.value()));
+    }
+
+    @Watched(prefix = "tinylfu")
+    @Override
+    public void clear() {
+        if (this.capacity() <= 0 || this.map.isEmpty()) {
+            return;
+        }
+        this.evictionLock.lock();
+        try {
+            this.map.clear();
+            this.window.clear();
+            this.probation.clear();
+            this.protect.clear();
+            this.windowSize = 0L;
+            this.protectedSize = 0L;
+            this.totalSize = 0L;
+        } finally {
+            this.evictionLock.unlock();
+        }
+    }
+
+    @Override
+    public long size() {
+        return this.map.size();
+    }
+
+    @Override
+    public String toString() {
+        return this.map.toString();
+    }
+
+    private void onHit(Node node) {
+        assert this.evictionLock.isHeldByCurrentThread();
+        switch (node.segment) {
+            case WINDOW:
+                this.window.moveToLast(node);
+                break;
+            case PROBATION:
+                // Promote the node to the protected segment
+                this.probation.unlink(node);
+                node.segment = PROTECTED;
+                this.protect.linkLast(node);
+                this.protectedSize++;
+                this.demoteProtected();
+                break;
+            case PROTECTED:
+                this.protect.moveToLast(node);
+                break;
+            default:
+                throw new AssertionError("Unexpected segment: " +
+                                         node.segment);
+        }
+    }
+
+    private void demoteProtected() {
+        while (this.protectedSize > this.protectedCapacity) {
+            Node node = this.protect.pollFirst();
+            if (node == null) {
+                break;
+            }
+            this.protectedSize--;
+            node.segment = PROBATION;
+            this.probation.linkLast(node);
+        }
+    }
+
+    private void evictEntries() {
+        assert this.evictionLock.isHeldByCurrentThread();
+
+        // Move the overflowed nodes of window to the tail of probation
+        Node candidate = null;
+        while (this.windowSize > this.windowCapacity) {
+            Node node = this.window.pollFirst();
+            assert node != null;
+            this.windowSize--;
+            node.segment = PROBATION;
+            this.probation.linkLast(node);
+            if (candidate == null) {
+                candidate = node;
+            }
+        }
+
+        long capacity = this.capacity();
+        while (this.totalSize > capacity) {
+            Node victim = this.probation.peekFirst();
+            if (victim == null) {
+                // The probation is empty, evict from protected or window
+                victim = this.protect.peekFirst();
+                if (victim == null) {
+                    victim = this.window.peekFirst();
+                }
+                assert victim != null;
+                this.evict(victim, candidate);
+                continue;
+            }
+
+            if (candidate == null || candidate == victim ||
+                candidate.segment != PROBATION) {
+                // No new candidate needs to be admitted
+                this.evict(victim, null);
+                continue;
+            }
+
+            // Compare the candidate with the victim by their frequencies
+            if (this.admit(candidate.key(), victim.key())) {
+                this.evict(victim, candidate);
+            } else {
+                Node next = candidate.next;
+                this.evict(candidate, victim);
+                // The next demoted one (if any) becomes the new candidate
+                candidate = next != null && next.segment == PROBATION ?
+                            next : null;
+            }
+        }
+    }
+
+    private boolean admit(Id candidate, Id victim) {
+        int candidateFreq = this.sketch.frequency(candidate);
+        int victimFreq = this.sketch.frequency(victim);
+        return candidateFreq > victimFreq;
+    }
+
+    private void evict(Node node, Node replacement) {
+        Node removed = this.map.remove(node.key());
+        assert removed == node : removed;
+        this.unlink(node);
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("TinyLfuCache evicted '{}' in favor of '{}' " +
+                      "(capacity={})", node.key(), replacement,
+                      this.capacity());
+        }
+    }
+
+    private void unlink(Node node) {
+        switch (node.segment) {
+            case WINDOW:
+                this.window.unlink(node);
+                this.windowSize--;
+                break;
+            case PROBATION:
+                this.probation.unlink(node);
+                break;
+            case PROTECTED:
+                this.protect.unlink(node);
+                this.protectedSize--;
+                break;
+            default:
+                // The node has been removed
+                return;
+        }
+        node.segment = REMOVED;
+        this.totalSize--;
+    }
+
+    private AccessOrderQueue queueOf(byte segment) {
+        switch (segment) {
+            case WINDOW:
+                return this.window;
+            case PROBATION:
+                return this.probation;
+            case PROTECTED:
+                return this.protect;
+            default:
+                throw new AssertionError("Unexpected segment: " + segment);
+        }
+    }
+
+    private static final class Node extends CacheNode<Id, Object> {
+
+        private Node prev;
+        private Node next;
+        private volatile byte segment;
+
+        public Node(Id key, Object value, long timeOffset) {
+            super(key, value, timeOffset);
+            this.prev = this.next = null;
+            this.segment = REMOVED;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Node)) {
+                return false;
+            }
+            Node other = (Node) obj;
+            return this.key().equals(other.key());
+        }
+
+        @Override
+        public int hashCode() {
+            return this.key().hashCode();
+        }
+    }
+
+    /**
+     * A doubly-linked list ordered by access time, the head is the least
+     * recently used one. NOTE: it's not thread safe, the caller must hold
+     * the eviction lock.
+     */
+    private static final class AccessOrderQueue {
+
+        private Node head;
+        private Node tail;
+
+        public Node peekFirst() {
+            return this.head;
+        }
+
+        public Node pollFirst() {
+            Node first = this.head;
+            if (first != null) {
+                this.unlink(first);
+            }
+            return first;
+        }
+
+        public void linkLast(Node node) {
+            assert node.prev == null && node.next == null;
+            Node last = this.tail;
+            node.prev = last;
+            this.tail = node;
+            if (last == null) {
+                this.head = node;
+            } else {
+                last.next = node;
+            }
+        }
+
+        public void unlink(Node node) {
+            Node prev = node.prev;
+            Node next = node.next;
+            if (prev == null) {
+                this.head = next;
+            } else {
+                prev.next = next;
+            }
+            if (next == null) {
+                this.tail = prev;
+            } else {
+                next.prev = prev;
+            }
+            node.prev = node.next = null;
+        }
+
+        public void moveToLast(Node node) {
+            if (node != this.tail) {
+                this.unlink(node);
+                this.linkLast(node);
+            }
+        }
+
+        public void clear() {
+            Node node = this.head;
+            while (node != null) {
+                Node next = node.next;
+                node.prev = node.next = null;
+                node.segment = REMOVED;
+                node = next;
+            }
+            this.head = this.tail = null;
+        }
+    }
+
+    /**
+     * A count-min sketch with 4-bit counters to estimate the access
+     * frequency of keys, all counters are halved periodically so that the
+     * history popularity fades out. NOTE: it's not thread safe.
+     */
+    private static final class FrequencySketch {
+
+        private static final long[] SEEDS = {
+                0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L,
+                0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+        };
+        private static final long RESET_MASK = 0x7777777777777777L;
+        private static final long ONE_MASK = 0x1111111111111111L;
+
+        // Limit the memory of the sketch table to 8MB (16M counters)
+        private static final int MAX_TABLE_SIZE = 1 << 20;
+        private static final int MIN_TABLE_SIZE = 16;
+        private static final int SAMPLE_RATIO = 10;
+
+        private final long[] table;
+        private final int tableMask;
+        private final long sampleSize;
+        private long additions;
+
+        public FrequencySketch(long capacity) {
+            int size = (int) Math.min(Math.max(capacity, MIN_TABLE_SIZE),
+                                      MAX_TABLE_SIZE);
+            // Round up to the power of 2
+            size = Integer.highestOneBit(size - 1) << 1;
+            this.table = new long[size];
+            this.tableMask = size - 1;
+            this.sampleSize = SAMPLE_RATIO * (long) size;
+            this.additions = 0L;
+        }
+
+        public int frequency(Object key) {
+            int hash = spread(key.hashCode());
+            int start = (hash & 3) << 2;
+            int frequency = Integer.MAX_VALUE;
+            for (int i = 0; i < 4; i++) {
+                int index = this.indexOf(hash, i);
+                int offset = (start + i) << 2;
+                int count = (int) ((this.table[index] >>> offset) & 0xfL);
+                frequency = Math.min(frequency, count);
+            }
+            return frequency;
+        }
+
+        public void increment(Object key) {
+            int hash = spread(key.hashCode());
+            int start = (hash & 3) << 2;
+            boolean added = false;
+            for (int i = 0; i < 4; i++) {
+                int index = this.indexOf(hash, i);
+                added |= this.incrementAt(index, start + i);
+            }
+            if (added && ++this.additions >= this.sampleSize) {
+                this.reset();
+            }
+        }
+
+        private boolean incrementAt(int index, int counter) {
+            int offset = counter << 2;
+            long mask = 0xfL << offset;
+            if ((this.table[index] & mask) != mask) {
+                this.table[index] += 1L << offset;
+                return true;
+            }
+            return false;
+        }
+
+        private void reset() {
+            // Halve all the counters
+            long odd = 0L;
+            for (int i = 0; i < this.table.length; i++) {
+                odd += Long.bitCount(this.table[i] & ONE_MASK);
+                this.table[i] = (this.table[i] >>> 1) & RESET_MASK;
+            }
+            this.additions = (this.additions >>> 1) - (odd >>> 2);
+        }
+
+        private int indexOf(int hash, int i) {
+            long h = (hash + SEEDS[i]) * SEEDS[i];
+            h += h >>> 32;
+            return ((int) h) & this.tableMask;
+        }
+
+        private static int spread(int x) {
+            x = ((x >>> 16) ^ x) * 0x45d9f3b;
+            x = ((x >>> 16) ^ x) * 0x45d9f3b;
+            return (x >>> 16) ^ x;
+        }
+    }
+}
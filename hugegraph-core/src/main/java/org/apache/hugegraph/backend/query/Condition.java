@@ -32,7 +32,6 @@ import org.apache.commons.lang.ArrayUtils;
 import org.apache.hugegraph.backend.store.Shard;
 import org.apache.hugegraph.backend.id.Id;
 import org.apache.hugegraph.structure.HugeElement;
-import org.apache.hugegraph.structure.HugeProperty;
 import org.apache.hugegraph.type.define.HugeKeys;
 import org.apache.hugegraph.util.Bytes;
 import org.apache.hugegraph.util.DateUtil;
@@ -724,8 +723,8 @@ public abstract class Condition {
 
         @Override
         public boolean test(HugeElement element) {
-            HugeProperty<?> prop = element.getProperty(this.key);
-            Object value = prop != null ? prop.value() : null;
+            // Just decode the property if the properties are lazy loaded
+            Object value = element.peekPropertyValue(this.key);
             if (value == null) {
                 /*
                  * Fix #611
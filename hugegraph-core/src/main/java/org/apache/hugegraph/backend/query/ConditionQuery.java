@@ -77,6 +77,8 @@ public class ConditionQuery extends IdQuery {
     private OptimizedType optimizedType = OptimizedType.NONE;
     private ResultsFilter resultsFilter = null;
     private Element2IndexValueMap element2IndexValueMap = null;
+    // The indexes selected by index transaction, only recorded in root query
+    private List<String> selectedIndexes = null;
 
     public ConditionQuery(HugeType resultType) {
         super(resultType);
@@ -176,6 +178,20 @@ public class ConditionQuery extends IdQuery {
         this.element2IndexValueMap().selectedIndexField(indexField);
     }
 
+    public void selectedIndex(String index) {
+        if (this.selectedIndexes == null) {
+            this.selectedIndexes = new ArrayList<>();
+        }
+        this.selectedIndexes.add(index);
+    }
+
+    public List<String> selectedIndexes() {
+        if (this.selectedIndexes == null) {
+            return ImmutableList.of();
+        }
+        return Collections.unmodifiableList(this.selectedIndexes);
+    }
+
     public void removeElementLeftIndex(Id elementId) {
         if (this.element2IndexValueMap == null) {
             return;
@@ -525,6 +541,7 @@ public class ConditionQuery extends IdQuery {
         }
         query.optimizedType = OptimizedType.NONE;
         query.resultsFilter = null;
+        query.selectedIndexes = null;
 
         return query;
     }
@@ -0,0 +1,295 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.hugegraph.backend.query;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.stream.Collector;
+
+import org.apache.hugegraph.HugeException;
+import org.apache.hugegraph.HugeGraph;
+import org.apache.hugegraph.backend.id.Id;
+import org.apache.hugegraph.backend.query.Aggregate.AggregateFunc;
+import org.apache.hugegraph.backend.store.BackendFeatures;
+import org.apache.hugegraph.backend.store.Shard;
+import org.apache.hugegraph.iterator.FlatMapperIterator;
+import org.apache.hugegraph.iterator.LimitIterator;
+import org.apache.hugegraph.task.TaskManager.ContextCallable;
+import org.apache.hugegraph.type.HugeType;
+import org.apache.hugegraph.util.Bytes;
+import org.apache.hugegraph.util.Consumers;
+import org.apache.hugegraph.util.E;
+import org.apache.hugegraph.util.Log;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Transaction;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.util.CloseableIterator;
+import org.slf4j.Logger;
+
+/**
+ * Scan all the vertices or edges of a graph by shards in parallel.
+ * The vertex/edge table is split into shards by the backend store, and
+ * each group of shards is scanned by a worker with an independent backend
+ * iterator, then the result of each group is merged by a reducer.
+ * NOTE: the workers read by their own thread-bound transactions, so the
+ * uncommitted records of the caller are invisible to them.
+ */
+public final class ParallelScanner {
+
+    private static final Logger LOG = Log.logger(ParallelScanner.class);
+
+    // Request the finest shards, then group them for the workers
+    private static final long SPLIT_SIZE = Bytes.MB;
+    private static final int SHARDS_PER_WORKER = 4;
+
+    private final HugeGraph graph;
+    private final ExecutorService executor;
+    private final int workers;
+    private volatile boolean stopped;
+
+    public ParallelScanner(HugeGraph graph, ExecutorService executor) {
+        E.checkNotNull(graph, "graph");
+        this.graph = graph;
+        this.executor = executor;
+        int workers = executor == null ? 0 : Consumers.THREADS;
+        if (executor instanceof ThreadPoolExecutor) {
+            workers = ((ThreadPoolExecutor) executor).getCorePoolSize();
+        }
+        this.workers = workers;
+        this.stopped = false;
+    }
+
+    public boolean parallel() {
+        if (this.executor == null || this.workers <= 1) {
+            return false;
+        }
+        BackendFeatures features = this.graph.backendStoreFeatures();
+        return features.supportsScanToken() || features.supportsScanKeyRange();
+    }
+
+    /**
+     * Stop scanning of all the workers, the elements not yet fetched by
+     * the workers will be skipped, and the scanner can't be reused
+     */
+    public void stop() {
+        this.stopped = true;
+    }
+
+    public <A> A scanVertices(Function<Iterator<Vertex>, A> mapper,
+                              BinaryOperator<A> reducer) {
+        return this.scan(HugeType.VERTEX, this.graph::vertices,
+                         mapper, reducer);
+    }
+
+    public <A> A scanEdges(Function<Iterator<Edge>, A> mapper,
+                           BinaryOperator<A> reducer) {
+        return this.scanEdges(null, mapper, reducer);
+    }
+
+    /**
+     * Scan the edges like scanEdges(mapper, reducer), but only the specified
+     * properties of the edges are decoded.
+     * @param properties the keys of the edge properties to be decoded,
+     *                   null means all properties
+     */
+    public <A> A scanEdges(Set<Id> properties,
+                           Function<Iterator<Edge>, A> mapper,
+                           BinaryOperator<A> reducer) {
+        return this.scan(HugeType.EDGE, query -> {
+            query.selectProperties(properties);
+            return this.graph.edges(query);
+        }, mapper, reducer);
+    }
+
+    public <R> R collectVertices(Collector<? super Vertex, ?, R> collector) {
+        return this.collect(HugeType.VERTEX, this.graph::vertices, collector);
+    }
+
+    public <R> R collectEdges(Collector<? super Edge, ?, R> collector) {
+        return this.collect(HugeType.EDGE, this.graph::edges, collector);
+    }
+
+    /**
+     * Count the vertices or edges by the count of each shard in backend,
+     * the flags of the query like show-hidden are kept for each shard.
+     * @param query a query to count all of the vertices or edges
+     * @return the total count, or null if can't count in parallel, like
+     *         the backend doesn't support scan or there is only one shard
+     */
+    public Long count(Query query) {
+        HugeType type = query.resultType();
+        E.checkArgument(type.isVertex() || type.isEdge(),
+                        "Can only count vertices or edges, but got %s", type);
+        if (!this.parallel()) {
+            return null;
+        }
+
+        List<List<Shard>> groups = this.shardGroups(type);
+        if (groups.size() <= 1) {
+            return null;
+        }
+        return this.submit(type, groups, shards -> {
+            long count = 0L;
+            for (Shard shard : shards) {
+                Query shardQuery = shardQuery(type, shard, query);
+                shardQuery.aggregate(AggregateFunc.COUNT, null);
+                count += this.graph.queryNumber(shardQuery).longValue();
+            }
+            return count;
+        }, Long::sum);
+    }
+
+    public List<List<Shard>> shardGroups(HugeType type) {
+        HugeType table = type.isVertex() ? HugeType.VERTEX : HugeType.EDGE_OUT;
+        List<Shard> shards = this.graph.metadata(table, "splits", SPLIT_SIZE);
+        return groupShards(shards, this.workers * SHARDS_PER_WORKER);
+    }
+
+    /**
+     * Group the shards into at most `groups` groups, the adjacent shards
+     * are put into the same group to keep the scanning sequential on disk
+     */
+    public static List<List<Shard>> groupShards(List<Shard> shards,
+                                                int groups) {
+        E.checkArgument(groups > 0,
+                        "The groups must be > 0, but got %s", groups);
+        int size = shards.size();
+        int count = Math.min(size, groups);
+        List<List<Shard>> results = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int from = (int) ((long) size * i / count);
+            int to = (int) ((long) size * (i + 1) / count);
+            results.add(new ArrayList<>(shards.subList(from, to)));
+        }
+        return results;
+    }
+
+    private <T, A, R> R collect(HugeType type,
+                                Function<Query, Iterator<T>> fetcher,
+                                Collector<? super T, A, R> collector) {
+        A result = this.scan(type, fetcher, elems -> {
+            A container = collector.supplier().get();
+            while (elems.hasNext()) {
+                collector.accumulator().accept(container, elems.next());
+            }
+            return container;
+        }, collector.combiner());
+        return collector.finisher().apply(result);
+    }
+
+    private <T, A> A scan(HugeType type, Function<Query, Iterator<T>> fetcher,
+                          Function<Iterator<T>, A> mapper,
+                          BinaryOperator<A> reducer) {
+        List<List<Shard>> groups = this.parallel() ?
+                                   this.shardGroups(type) : null;
+        if (groups == null || groups.size() <= 1) {
+            // Scan all in current thread
+            Query query = new Query(type);
+            query.capacity(Query.NO_CAPACITY);
+            query.limit(Query.NO_LIMIT);
+            return this.apply(fetcher.apply(query), mapper);
+        }
+
+        LOG.debug("Scan {} by {} groups of shards", type, groups.size());
+        return this.submit(type, groups, shards -> {
+            Iterator<T> elems = new FlatMapperIterator<>(shards.iterator(),
+                                shard -> {
+                return fetcher.apply(shardQuery(type, shard, null));
+            });
+            return this.apply(elems, mapper);
+        }, reducer);
+    }
+
+    private <T, A> A apply(Iterator<T> elems, Function<Iterator<T>, A> mapper) {
+        try {
+            return mapper.apply(new LimitIterator<>(elems, e -> this.stopped));
+        } finally {
+            CloseableIterator.closeIterator(elems);
+        }
+    }
+
+    private <A> A submit(HugeType type, List<List<Shard>> groups,
+                         Function<List<Shard>, A> task,
+                         BinaryOperator<A> reducer) {
+        List<Future<A>> futures = new ArrayList<>(groups.size());
+        for (List<Shard> shards : groups) {
+            futures.add(this.executor.submit(new ContextCallable<>(() -> {
+                try {
+                    return task.apply(shards);
+                } finally {
+                    this.closeTx();
+                }
+            })));
+        }
+
+        A result = null;
+        boolean first = true;
+        try {
+            for (Future<A> future : futures) {
+                A value = future.get();
+                result = first ? value : reducer.apply(result, value);
+                first = false;
+            }
+        } catch (InterruptedException e) {
+            this.cancel(futures);
+            Thread.currentThread().interrupt();
+            throw new HugeException("Interrupted while scanning %s", e, type);
+        } catch (ExecutionException e) {
+            this.cancel(futures);
+            throw Consumers.wrapException(e.getCause());
+        }
+        return result;
+    }
+
+    private void cancel(List<? extends Future<?>> futures) {
+        // Let the running workers exit as soon as possible
+        this.stop();
+        for (Future<?> future : futures) {
+            future.cancel(false);
+        }
+    }
+
+    private void closeTx() {
+        Transaction tx = this.graph.tx();
+        if (tx.isOpen()) {
+            tx.close();
+        }
+    }
+
+    private static Query shardQuery(HugeType type, Shard shard, Query origin) {
+        HugeType table = type.isVertex() ? HugeType.VERTEX : HugeType.EDGE_OUT;
+        ConditionQuery query = new ConditionQuery(table);
+        query.scan(shard.start(), shard.end());
+        query.capacity(Query.NO_CAPACITY);
+        query.limit(Query.NO_LIMIT);
+        if (origin != null) {
+            query.showHidden(origin.showHidden());
+            query.showDeleting(origin.showDeleting());
+            query.showExpired(origin.showExpired());
+        }
+        return query;
+    }
+}
@@ -69,6 +69,8 @@ public class Query implements Cloneable {
     private boolean showExpired;
     private boolean olap;
     private Set<Id> olapPks;
+    // The keys of the properties to be decoded, null means all properties
+    private Set<Id> selectedProperties;
 
     private Aggregate aggregate;
 
@@ -99,6 +101,7 @@ public class Query implements Cloneable {
         this.showExpired = false;
         this.olap = false;
         this.olapPks = EMPTY_OLAP_PKS;
+        this.selectedProperties = null;
     }
 
     public void copyBasic(Query query) {
@@ -112,6 +115,7 @@ public class Query implements Cloneable {
         this.aggregate = query.aggregate();
         this.showExpired = query.showExpired();
         this.olap = query.olap();
+        this.selectedProperties = query.selectedProperties();
         if (query.orders != null) {
             this.orders(query.orders);
         }
@@ -381,6 +385,22 @@ public class Query implements Cloneable {
         return this.olapPks;
     }
 
+    /**
+     * Set the keys of the properties to be decoded for the results, the
+     * other properties are skipped by the serializer if it supports and
+     * loaded from backend again when they are accessed, it's used by the
+     * callers which just read or filter by a few properties, like weights.
+     * @param keys the property keys to be decoded, null means all properties
+     */
+    public void selectProperties(Set<Id> keys) {
+        this.selectedProperties = keys == null ?
+                                  null : ImmutableSet.copyOf(keys);
+    }
+
+    public Set<Id> selectedProperties() {
+        return this.selectedProperties;
+    }
+
     public long capacity() {
         return this.capacity;
     }
@@ -493,7 +513,9 @@ public class Query implements Cloneable {
                this.limit == other.limit &&
                Objects.equals(this.page, other.page) &&
                this.ids().equals(other.ids()) &&
-               this.conditions().equals(other.conditions());
+               this.conditions().equals(other.conditions()) &&
+               Objects.equals(this.selectedProperties,
+                              other.selectedProperties);
     }
 
     @Override
@@ -504,7 +526,8 @@ public class Query implements Cloneable {
                Long.hashCode(this.limit) ^
                Objects.hashCode(this.page) ^
                this.ids().hashCode() ^
-               this.conditions().hashCode();
+               this.conditions().hashCode() ^
+               Objects.hashCode(this.selectedProperties);
     }
 
     @Override
@@ -522,6 +545,9 @@ public class Query implements Cloneable {
         if (!this.orders().isEmpty()) {
             pairs.put("order by", this.orders());
         }
+        if (this.selectedProperties != null) {
+            pairs.put("properties", this.selectedProperties);
+        }
 
         StringBuilder sb = new StringBuilder(128);
         sb.append("`Query ");
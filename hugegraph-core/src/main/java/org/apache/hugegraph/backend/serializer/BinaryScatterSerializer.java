@@ -17,6 +17,8 @@
 
 package org.apache.hugegraph.backend.serializer;
 
+import java.util.Set;
+
 import org.apache.hugegraph.HugeGraph;
 import org.apache.hugegraph.backend.id.Id;
 import org.apache.hugegraph.backend.id.IdGenerator;
@@ -55,7 +57,8 @@ public class BinaryScatterSerializer extends BinarySerializer {
     }
 
     @Override
-    public HugeVertex readVertex(HugeGraph graph, BackendEntry bytesEntry) {
+    public HugeVertex readVertex(HugeGraph graph, BackendEntry bytesEntry,
+                                 Set<Id> edgeProperties) {
         if (bytesEntry == null) {
             return null;
         }
@@ -76,7 +79,7 @@ public class BinaryScatterSerializer extends BinarySerializer {
 
         // Parse all properties and edges of a Vertex
         for (BackendColumn col : entry.columns()) {
-            this.parseColumn(col, vertex);
+            this.parseColumn(col, vertex, edgeProperties);
         }
 
         return vertex;
@@ -22,6 +22,7 @@ import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.commons.lang.NotImplementedException;
 
@@ -190,9 +191,14 @@ public class BinarySerializer extends AbstractSerializer {
     }
 
     protected BackendColumn formatProperty(HugeProperty<?> prop) {
-        BytesBuffer buffer = BytesBuffer.allocate(BytesBuffer.BUF_PROPERTY);
-        buffer.writeProperty(prop.propertyKey(), prop.value());
-        return BackendColumn.of(this.formatPropertyName(prop), buffer.bytes());
+        byte[] name = this.formatPropertyName(prop);
+        BytesBuffer buffer = BytesBuffer.borrow(BytesBuffer.BUF_PROPERTY);
+        try {
+            buffer.writeProperty(prop.propertyKey(), prop.value());
+            return BackendColumn.of(name, buffer.bytes());
+        } finally {
+            buffer.release();
+        }
     }
 
     protected void parseProperty(Id pkeyId, BytesBuffer buffer,
@@ -236,6 +242,34 @@ public class BinarySerializer extends AbstractSerializer {
         }
     }
 
+    /**
+     * Parse the properties of the specified keys, the others are skipped
+     * without decoding, and then the owner is marked as not loaded to read
+     * all the properties from backend again when they are accessed.
+     */
+    protected void parseProperties(BytesBuffer buffer, HugeElement owner,
+                                   Set<Id> keys) {
+        if (keys == null) {
+            this.parseProperties(buffer, owner);
+            return;
+        }
+        int size = buffer.readVInt();
+        assert size >= 0;
+        boolean skipped = false;
+        for (int i = 0; i < size; i++) {
+            Id pkeyId = IdGenerator.of(buffer.readVInt());
+            if (keys.contains(pkeyId)) {
+                this.parseProperty(pkeyId, buffer, owner);
+            } else {
+                buffer.skipProperty(owner.graph().propertyKey(pkeyId));
+                skipped = true;
+            }
+        }
+        if (skipped) {
+            owner.propNotLoaded();
+        }
+    }
+
     protected void formatExpiredTime(long expiredTime, BytesBuffer buffer) {
         buffer.writeVLong(expiredTime);
     }
@@ -246,24 +280,27 @@ public class BinarySerializer extends AbstractSerializer {
 
     protected byte[] formatEdgeValue(HugeEdge edge) {
         int propsCount = edge.sizeOfProperties();
-        BytesBuffer buffer = BytesBuffer.allocate(4 + 16 * propsCount);
+        BytesBuffer buffer = BytesBuffer.borrow(4 + 16 * propsCount);
+        try {
+            // Write edge id
+            //buffer.writeId(edge.id());
 
-        // Write edge id
-        //buffer.writeId(edge.id());
+            // Write edge properties
+            this.formatProperties(edge.getProperties(), buffer);
 
-        // Write edge properties
-        this.formatProperties(edge.getProperties(), buffer);
+            // Write edge expired time if needed
+            if (edge.hasTtl()) {
+                this.formatExpiredTime(edge.expiredTime(), buffer);
+            }
 
-        // Write edge expired time if needed
-        if (edge.hasTtl()) {
-            this.formatExpiredTime(edge.expiredTime(), buffer);
+            return buffer.bytes();
+        } finally {
+            buffer.release();
         }
-
-        return buffer.bytes();
     }
 
     protected void parseEdge(BackendColumn col, HugeVertex vertex,
-                             HugeGraph graph) {
+                             HugeGraph graph, Set<Id> properties) {
         // owner-vertex + dir + edge-label + sort-values + other-vertex
 
         BytesBuffer buffer = BytesBuffer.wrap(col.name);
@@ -289,7 +326,7 @@ public class BinarySerializer extends AbstractSerializer {
         //Id id = buffer.readId();
 
         // Parse edge properties
-        this.parseProperties(buffer, edge);
+        this.parseProperties(buffer, edge, properties);
 
         // Parse edge expired time if needed
         if (edge.hasTtl()) {
@@ -313,7 +350,8 @@ public class BinarySerializer extends AbstractSerializer {
         }
     }
 
-    protected void parseColumn(BackendColumn col, HugeVertex vertex) {
+    protected void parseColumn(BackendColumn col, HugeVertex vertex,
+                               Set<Id> edgeProperties) {
         BytesBuffer buffer = BytesBuffer.wrap(col.name);
         Id id = this.keyWithIdPrefix ? buffer.readId() : vertex.id();
         E.checkState(buffer.remaining() > 0, "Missing column type");
@@ -326,7 +364,7 @@ public class BinarySerializer extends AbstractSerializer {
         // Parse edge
         else if (type == HugeType.EDGE_IN.code() ||
                  type == HugeType.EDGE_OUT.code()) {
-            this.parseEdge(col, vertex, vertex.graph());
+            this.parseEdge(col, vertex, vertex.graph(), edgeProperties);
         }
         // Parse system property
         else if (type == HugeType.SYS_PROPERTY.code()) {
@@ -340,30 +378,34 @@ public class BinarySerializer extends AbstractSerializer {
     }
 
     protected byte[] formatIndexName(HugeIndex index) {
-        BytesBuffer buffer;
         Id elemId = index.elementId();
-        if (!this.indexWithIdPrefix) {
-            int idLen = 1 + elemId.length();
-            buffer = BytesBuffer.allocate(idLen);
-        } else {
-            Id indexId = index.id();
-            HugeType type = index.type();
+        Id indexId = null;
+        HugeType type = index.type();
+        int idLen = 1 + elemId.length();
+        if (this.indexWithIdPrefix) {
+            indexId = index.id();
             if (!type.isNumericIndex() && indexIdLengthExceedLimit(indexId)) {
                 indexId = index.hashId();
             }
-            int idLen = 1 + elemId.length() + 1 + indexId.length();
-            buffer = BytesBuffer.allocate(idLen);
-            // Write index-id
-            buffer.writeIndexId(indexId, type);
-        }
-        // Write element-id
-        buffer.writeId(elemId);
-        // Write expired time if needed
-        if (index.hasTtl()) {
-            buffer.writeVLong(index.expiredTime());
+            idLen += 1 + indexId.length();
         }
+        BytesBuffer buffer = BytesBuffer.borrow(idLen);
+        try {
+            if (indexId != null) {
+                // Write index-id
+                buffer.writeIndexId(indexId, type);
+            }
+            // Write element-id
+            buffer.writeId(elemId);
+            // Write expired time if needed
+            if (index.hasTtl()) {
+                buffer.writeVLong(index.expiredTime());
+            }
 
-        return buffer.bytes();
+            return buffer.bytes();
+        } finally {
+            buffer.release();
+        }
     }
 
     protected void parseIndexName(HugeGraph graph, ConditionQuery query,
@@ -397,24 +439,29 @@ public class BinarySerializer extends AbstractSerializer {
         }
 
         int propsCount = vertex.sizeOfProperties();
-        BytesBuffer buffer = BytesBuffer.allocate(8 + 16 * propsCount);
-
-        // Write vertex label
-        buffer.writeId(vertex.schemaLabel().id());
-
-        // Write all properties of the vertex
-        this.formatProperties(vertex.getProperties(), buffer);
-
-        // Write vertex expired time if needed
-        if (vertex.hasTtl()) {
-            entry.ttl(vertex.ttl());
-            this.formatExpiredTime(vertex.expiredTime(), buffer);
+        BytesBuffer buffer = BytesBuffer.borrow(8 + 16 * propsCount);
+        byte[] value;
+        try {
+            // Write vertex label
+            buffer.writeId(vertex.schemaLabel().id());
+
+            // Write all properties of the vertex
+            this.formatProperties(vertex.getProperties(), buffer);
+
+            // Write vertex expired time if needed
+            if (vertex.hasTtl()) {
+                entry.ttl(vertex.ttl());
+                this.formatExpiredTime(vertex.expiredTime(), buffer);
+            }
+            value = buffer.bytes();
+        } finally {
+            buffer.release();
         }
 
         // Fill column
         byte[] name = this.keyWithIdPrefix ?
                       entry.id().asBytes() : BytesBuffer.BYTES_EMPTY;
-        entry.column(name, buffer.bytes());
+        entry.column(name, value);
 
         return entry;
     }
@@ -451,6 +498,12 @@ public class BinarySerializer extends AbstractSerializer {
 
     @Override
     public HugeVertex readVertex(HugeGraph graph, BackendEntry bytesEntry) {
+        return this.readVertex(graph, bytesEntry, null);
+    }
+
+    @Override
+    public HugeVertex readVertex(HugeGraph graph, BackendEntry bytesEntry,
+                                 Set<Id> edgeProperties) {
         if (bytesEntry == null) {
             return null;
         }
@@ -468,7 +521,7 @@ public class BinarySerializer extends AbstractSerializer {
             if (entry.type().isEdge()) {
                 // NOTE: the entry id type is vertex even if entry type is edge
                 // Parse vertex edges
-                this.parseColumn(col, vertex);
+                this.parseColumn(col, vertex, edgeProperties);
             } else {
                 assert entry.type().isVertex();
                 // Parse vertex properties
@@ -523,6 +576,69 @@ public class BinarySerializer extends AbstractSerializer {
         return edges.iterator().next();
     }
 
+    /**
+     * Read a vertex from the name and value of the vertex column, only the
+     * id and label are parsed at once, the properties are parsed when they
+     * are accessed at the first time. The buffers can be views of off-heap
+     * memory, they are not referenced after this method returns.
+     * NOTE: the expired time is not parsed, the caller should set it.
+     */
+    public HugeVertex readVertexLazily(HugeGraph graph, BytesBuffer name,
+                                       BytesBuffer value) {
+        E.checkState(this.keyWithIdPrefix,
+                     "Can't read vertex lazily without id prefix key");
+        if (this.enablePartition) {
+            name.readShort();
+        }
+        Id id = name.readId();
+        HugeVertex vertex = new HugeVertex(graph, id, VertexLabel.NONE);
+
+        // Parse vertex label
+        VertexLabel label = graph.vertexLabelOrNone(value.readId());
+        vertex.correctVertexLabel(label);
+
+        this.parsePropertiesLazily(value, vertex);
+        return vertex;
+    }
+
+    /**
+     * Read an edge from the name and value of the edge column like
+     * readVertexLazily(), the properties are parsed lazily.
+     * NOTE: the expired time is not parsed, the caller should set it.
+     */
+    public HugeEdge readEdgeLazily(HugeGraph graph, BytesBuffer name,
+                                   BytesBuffer value) {
+        E.checkState(this.keyWithIdPrefix,
+                     "Can't read edge lazily without id prefix key");
+        // owner-vertex + dir + edge-label + sort-values + other-vertex
+        if (this.enablePartition) {
+            name.readShort();
+        }
+        Id ownerId = name.readId();
+        byte type = name.read();
+        Id labelId = name.readId();
+        String sortValues = name.readStringWithEnding();
+        Id otherVertexId = name.readId();
+
+        HugeVertex owner = new HugeVertex(graph, ownerId, VertexLabel.NONE);
+        boolean direction = EdgeId.isOutDirectionFromCode(type);
+        EdgeLabel edgeLabel = graph.edgeLabelOrNone(labelId);
+        HugeEdge edge = HugeEdge.constructEdge(owner, direction, edgeLabel,
+                                               sortValues, otherVertexId);
+
+        this.parsePropertiesLazily(value, edge);
+        return edge;
+    }
+
+    private void parsePropertiesLazily(BytesBuffer buffer, HugeElement owner) {
+        /*
+         * Copy the remaining bytes(properties and expired time) at once, since
+         * the buffer may be released after reading, like off-heap memory.
+         */
+        byte[] bytes = buffer.read(buffer.remaining());
+        owner.lazyProperties(new LazyProperties(bytes));
+    }
+
     @Override
     public BackendEntry writeIndex(HugeIndex index) {
         BinaryBackendEntry entry;
@@ -830,14 +946,19 @@ public class BinarySerializer extends AbstractSerializer {
         } else {
             edgeId = EdgeId.parse(id.asString());
         }
-        BytesBuffer buffer = BytesBuffer.allocate(BytesBuffer.BUF_EDGE_ID);
-        if (this.enablePartition) {
-            buffer.writeShort(getPartition(HugeType.EDGE, edgeId.ownerVertexId()));
-            buffer.writeEdgeId(edgeId);
-        } else {
-            buffer.writeEdgeId(edgeId);
+        BytesBuffer buffer = BytesBuffer.borrow(BytesBuffer.BUF_EDGE_ID);
+        try {
+            if (this.enablePartition) {
+                buffer.writeShort(getPartition(HugeType.EDGE,
+                                               edgeId.ownerVertexId()));
+                buffer.writeEdgeId(edgeId);
+            } else {
+                buffer.writeEdgeId(edgeId);
+            }
+            return new BinaryId(buffer.bytes(), id);
+        } finally {
+            buffer.release();
         }
-        return new BinaryId(buffer.bytes(), id);
     }
 
     private void writePartitionedId(HugeType type, Id id, BytesBuffer buffer) {
@@ -1013,6 +1134,40 @@ public class BinarySerializer extends AbstractSerializer {
         return serializer.readIndexLabel(graph, entry);
     }
 
+    /**
+     * Decode the serialized properties(and the expired time) of an element
+     * when they are accessed, a single property can be decoded by skipping
+     * the others, which is used to filter elements by properties.
+     */
+    private final class LazyProperties implements HugeElement.PropertiesLoader {
+
+        private final byte[] bytes;
+
+        public LazyProperties(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        @Override
+        public void accept(HugeElement owner) {
+            parseProperties(BytesBuffer.wrap(this.bytes), owner);
+        }
+
+        @Override
+        public Object loadValue(HugeElement owner, Id key) {
+            BytesBuffer buffer = BytesBuffer.wrap(this.bytes);
+            int size = buffer.readVInt();
+            for (int i = 0; i < size; i++) {
+                Id pkeyId = IdGenerator.of(buffer.readVInt());
+                PropertyKey pkey = owner.graph().propertyKey(pkeyId);
+                if (pkeyId.equals(key)) {
+                    return buffer.readProperty(pkey);
+                }
+                buffer.skipProperty(pkey);
+            }
+            return null;
+        }
+    }
+
     private final class SchemaSerializer {
 
         private BinaryBackendEntry entry;
@@ -78,31 +78,83 @@ public final class BytesBuffer extends OutputStream {
 
     public static final byte[] BYTES_EMPTY = new byte[0];
 
+    // The buffer of each thread which is reused to write temporary bytes
+    public static final int LOCAL_CAPACITY = 1024;
+    public static final int LOCAL_CAPACITY_MAX = 64 * 1024;
+    private static final ThreadLocal<BytesBuffer> LOCAL_BUFFERS =
+            ThreadLocal.withInitial(() -> new BytesBuffer(LOCAL_CAPACITY, true));
+
     private ByteBuffer buffer;
     private final boolean resize;
+    // Whether it is the buffer of a thread, never expose its backing array
+    private final boolean local;
+    private boolean borrowed;
 
     public BytesBuffer() {
         this(DEFAULT_CAPACITY);
     }
 
     public BytesBuffer(int capacity) {
+        this(capacity, false);
+    }
+
+    private BytesBuffer(int capacity, boolean local) {
         E.checkArgument(capacity <= MAX_BUFFER_CAPACITY,
                         "Capacity exceeds max buffer capacity: %s",
                         MAX_BUFFER_CAPACITY);
         this.buffer = ByteBuffer.allocate(capacity);
         this.resize = true;
+        this.local = local;
+        this.borrowed = false;
     }
 
     public BytesBuffer(ByteBuffer buffer) {
         E.checkNotNull(buffer, "buffer");
         this.buffer = buffer;
         this.resize = false;
+        this.local = false;
+        this.borrowed = false;
     }
 
     public static BytesBuffer allocate(int capacity) {
         return new BytesBuffer(capacity);
     }
 
+    /**
+     * Borrow the buffer of current thread to write temporary bytes, which
+     * avoids allocating a growable buffer for each column to be written.
+     * The caller must fetch the result by bytes() and then call release()
+     * in a finally block. A new buffer is allocated if the buffer of current
+     * thread has been borrowed, like nested writing.
+     * @param capacity the expected capacity, just used for a new buffer
+     * @return a cleared buffer
+     */
+    public static BytesBuffer borrow(int capacity) {
+        BytesBuffer buffer = LOCAL_BUFFERS.get();
+        if (buffer.borrowed) {
+            return allocate(capacity);
+        }
+        buffer.borrowed = true;
+        ((Buffer) buffer.buffer).clear();
+        return buffer;
+    }
+
+    /**
+     * Return the buffer borrowed by borrow() to current thread, a buffer
+     * which is expanded too large will be dropped to release the memory.
+     * It's a no-op for a buffer which is not borrowed.
+     */
+    public void release() {
+        if (!this.local) {
+            return;
+        }
+        assert this.borrowed;
+        this.borrowed = false;
+        if (this.buffer.capacity() > LOCAL_CAPACITY_MAX) {
+            this.buffer = ByteBuffer.allocate(LOCAL_CAPACITY);
+        }
+    }
+
     public static BytesBuffer wrap(ByteBuffer buffer) {
         return new BytesBuffer(buffer);
     }
@@ -136,7 +188,7 @@ public final class BytesBuffer extends OutputStream {
     public byte[] bytes() {
         byte[] bytes = this.buffer.array();
         int position = this.buffer.position();
-        if (position == bytes.length) {
+        if (position == bytes.length && !this.local) {
             return bytes;
         } else {
             return Arrays.copyOf(bytes, position);
@@ -624,6 +676,55 @@ public final class BytesBuffer extends OutputStream {
         }
     }
 
+    /**
+     * Skip a property value written by writeProperty() without decoding it
+     */
+    public void skipProperty(PropertyKey pkey) {
+        if (pkey.cardinality() == Cardinality.SINGLE) {
+            this.skipProperty(pkey.dataType());
+            return;
+        }
+
+        assert pkey.cardinality() == Cardinality.LIST ||
+               pkey.cardinality() == Cardinality.SET;
+        int size = this.readVInt();
+        for (int i = 0; i < size; i++) {
+            this.skipProperty(pkey.dataType());
+        }
+    }
+
+    public void skipProperty(DataType dataType) {
+        switch (dataType) {
+            case BOOLEAN:
+            case BYTE:
+            case INT:
+                this.readVInt();
+                break;
+            case LONG:
+            case DATE:
+                this.readVLong();
+                break;
+            case FLOAT:
+                this.skip(FLOAT_LEN);
+                break;
+            case DOUBLE:
+                this.skip(DOUBLE_LEN);
+                break;
+            case UUID:
+                this.skip(2 * LONG_LEN);
+                break;
+            default:
+                // TEXT, BLOB and the kryo values are prefixed by the length
+                this.skip(this.readVInt());
+                break;
+        }
+    }
+
+    private void skip(int length) {
+        assert length >= 0;
+        this.buffer.position(this.buffer.position() + length);
+    }
+
     public BytesBuffer writeId(Id id) {
         return this.writeId(id, false);
     }
@@ -924,7 +1025,15 @@ public final class BytesBuffer extends OutputStream {
             return BYTES_EMPTY;
         }
         byte[] bytes = new byte[len];
-        System.arraycopy(this.array(), start, bytes, 0, len);
+        if (this.buffer.hasArray()) {
+            int offset = this.buffer.arrayOffset() + start;
+            System.arraycopy(this.array(), offset, bytes, 0, len);
+        } else {
+            // The buffer may be a view of off-heap memory
+            for (int i = 0; i < len; i++) {
+                bytes[i] = this.buffer.get(start + i);
+            }
+        }
         return bytes;
     }
 }
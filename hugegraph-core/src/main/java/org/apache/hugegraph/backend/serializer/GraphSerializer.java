@@ -17,6 +17,8 @@
 
 package org.apache.hugegraph.backend.serializer;
 
+import java.util.Set;
+
 import org.apache.hugegraph.HugeGraph;
 import org.apache.hugegraph.backend.id.Id;
 import org.apache.hugegraph.backend.query.ConditionQuery;
@@ -39,6 +41,17 @@ public interface GraphSerializer {
 
     HugeVertex readVertex(HugeGraph graph, BackendEntry entry);
 
+    /**
+     * Read a vertex and its edges like readVertex(), but only the specified
+     * properties of the edges are required to be decoded.
+     * @param edgeProperties the keys of the edge properties to be decoded,
+     *                       null means all properties
+     */
+    default HugeVertex readVertex(HugeGraph graph, BackendEntry entry,
+                                  Set<Id> edgeProperties) {
+        return this.readVertex(graph, entry);
+    }
+
     BackendEntry writeEdge(HugeEdge edge);
 
     BackendEntry writeEdgeProperty(HugeEdgeProperty<?> prop);
@@ -31,6 +31,10 @@ public interface BackendFeatures {
         return false;
     }
 
+    default boolean supportsAdjacencyBlock() {
+        return false;
+    }
+
     boolean supportsScanToken();
 
     boolean supportsScanKeyPrefix();
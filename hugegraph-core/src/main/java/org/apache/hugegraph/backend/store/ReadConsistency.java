@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.hugegraph.backend.store;
+
+import java.util.Arrays;
+
+/**
+ * The consistency level of the reads of current thread, it only takes
+ * effect on the replicated backend store like the raft store.
+ * The level is bound to the thread which serves a request, and is passed
+ * to the worker threads by TaskManager.ContextCallable.
+ */
+public enum ReadConsistency {
+
+    // Follow the config of the backend store, like `raft.safe_read`
+    DEFAULT,
+
+    // Read the latest committed data, like by the raft read-index
+    LINEARIZABLE,
+
+    /*
+     * Read the local replica if it's not far behind, namely the read index
+     * of a follower got from the leader is in `raft.read_lease`, or the
+     * number of committed but not applied logs doesn't exceed
+     * `raft.max_read_lag`, otherwise read the latest committed data
+     */
+    BOUNDED_STALENESS;
+
+    private static final ThreadLocal<ReadConsistency> CONTEXTS =
+                                                      new ThreadLocal<>();
+
+    public static ReadConsistency current() {
+        ReadConsistency consistency = CONTEXTS.get();
+        return consistency == null ? DEFAULT : consistency;
+    }
+
+    public static void current(ReadConsistency consistency) {
+        if (consistency == null || consistency == DEFAULT) {
+            CONTEXTS.remove();
+        } else {
+            CONTEXTS.set(consistency);
+        }
+    }
+
+    public static void reset() {
+        CONTEXTS.remove();
+    }
+
+    public static ReadConsistency parse(String name) {
+        if (name == null || name.isEmpty()) {
+            return DEFAULT;
+        }
+        for (ReadConsistency consistency : values()) {
+            if (consistency.name().equalsIgnoreCase(name)) {
+                return consistency;
+            }
+        }
+        throw new IllegalArgumentException(String.format(
+                  "Invalid read consistency '%s', valid values are %s",
+                  name, Arrays.toString(values())));
+    }
+}
@@ -20,6 +20,7 @@ package org.apache.hugegraph.backend.store.raft;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Function;
 
 import org.slf4j.Logger;
@@ -34,28 +35,38 @@ import org.apache.hugegraph.backend.store.BackendFeatures;
 import org.apache.hugegraph.backend.store.BackendMutation;
 import org.apache.hugegraph.backend.store.BackendStore;
 import org.apache.hugegraph.backend.store.BackendStoreProvider;
+import org.apache.hugegraph.backend.store.ReadConsistency;
 import org.apache.hugegraph.backend.store.SystemSchemaStore;
 import org.apache.hugegraph.backend.store.raft.rpc.RaftRequests.StoreAction;
 import org.apache.hugegraph.backend.store.raft.rpc.RaftRequests.StoreType;
 import org.apache.hugegraph.config.HugeConfig;
 import org.apache.hugegraph.type.HugeType;
 import org.apache.hugegraph.util.E;
+import org.apache.hugegraph.util.InsertionOrderUtil;
 import org.apache.hugegraph.util.Log;
 
 public class RaftBackendStore implements BackendStore {
 
     private static final Logger LOG = Log.logger(RaftBackendStore.class);
 
+    private static final String META_METRICS = "metrics";
+    private static final String META_RAFT_APPLY = "raft_apply";
+    private static final String META_RAFT_READ = "raft_read";
+
     private final BackendStore store;
     private final RaftContext context;
     private final ThreadLocal<MutationBatch> mutationBatch;
     private final boolean isSafeRead;
+    private final int readLease;
+    private final int maxReadLag;
 
     public RaftBackendStore(BackendStore store, RaftContext context) {
         this.store = store;
         this.context = context;
         this.mutationBatch = new ThreadLocal<>();
         this.isSafeRead = this.context.safeRead();
+        this.readLease = this.context.readLease();
+        this.maxReadLag = this.context.maxReadLag();
     }
 
     public BackendStore originStore() {
@@ -180,8 +191,20 @@ public class RaftBackendStore implements BackendStore {
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public <R> R metadata(HugeType type, String meta, Object[] args) {
-        return this.store.metadata(type, meta, args);
+        R result = this.store.metadata(type, meta, args);
+        RaftNode node = this.context.node();
+        if (META_METRICS.equals(meta) && result instanceof Map &&
+            node != null) {
+            // Append the metrics of applying raft logs on current node
+            Map<String, Object> metrics = InsertionOrderUtil.newMap();
+            metrics.putAll((Map<String, Object>) result);
+            metrics.put(META_RAFT_APPLY, node.applyMetrics());
+            metrics.put(META_RAFT_READ, node.readMetrics());
+            return (R) metrics;
+        }
+        return result;
     }
 
     @Override
@@ -214,7 +237,24 @@ public class RaftBackendStore implements BackendStore {
     }
 
     private Object queryByRaft(Object query, Function<Object, Object> func) {
-        return this.queryByRaft(query, this.isSafeRead, func);
+        switch (ReadConsistency.current()) {
+            case LINEARIZABLE:
+                return this.queryByRaft(query, true, func);
+            case BOUNDED_STALENESS:
+                if (this.node().readByLease(this.readLease) ||
+                    this.node().readByLag(this.maxReadLag)) {
+                    return func.apply(query);
+                }
+                // The local replica is far behind, read by read-index
+                return this.queryByRaft(query, true, func);
+            default:
+                /*
+                 * The safe reads always request the read index, which is
+                 * served under the leader lease if `raft.read_strategy` is
+                 * ReadOnlyLeaseBased, so no stale data is read
+                 */
+                return this.queryByRaft(query, this.isSafeRead, func);
+        }
     }
 
     private Object queryByRaft(Object query, boolean safeRead,
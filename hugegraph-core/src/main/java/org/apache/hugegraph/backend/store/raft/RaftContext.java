@@ -350,6 +350,18 @@ public final class RaftContext {
         return this.config().get(CoreOptions.RAFT_SAFE_READ);
     }
 
+    public int applyMergeSize() {
+        return this.config().get(CoreOptions.RAFT_APPLY_MERGE_SIZE);
+    }
+
+    public int readLease() {
+        return this.config().get(CoreOptions.RAFT_READ_LEASE);
+    }
+
+    public int maxReadLag() {
+        return this.config().get(CoreOptions.RAFT_MAX_READ_LAG);
+    }
+
     public ExecutorService snapshotExecutor() {
         return this.snapshotExecutor;
     }
@@ -19,10 +19,12 @@ package org.apache.hugegraph.backend.store.raft;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.Map;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.slf4j.Logger;
 
@@ -38,6 +40,7 @@ import com.alipay.sofa.jraft.option.NodeOptions;
 import com.alipay.sofa.jraft.rpc.RpcServer;
 import com.alipay.sofa.jraft.util.BytesUtil;
 import org.apache.hugegraph.backend.BackendException;
+import org.apache.hugegraph.util.InsertionOrderUtil;
 import org.apache.hugegraph.util.LZ4Util;
 import org.apache.hugegraph.util.Log;
 
@@ -52,6 +55,15 @@ public final class RaftNode {
     private final AtomicReference<LeaderInfo> leaderInfo;
     private final AtomicBoolean started;
     private final AtomicInteger busyCounter;
+    // The last read index got from the leader, it's null if on the leader
+    private volatile ReadLease readLease;
+    // The max read index got from the leader, namely a committed index
+    private volatile long maxReadIndex;
+
+    // Metrics of reading
+    private final LongAdder readIndexReads;
+    private final LongAdder leaseReads;
+    private final LongAdder localReads;
 
     public RaftNode(RaftContext context) {
         this.context = context;
@@ -67,6 +79,11 @@ public final class RaftNode {
         this.leaderInfo = new AtomicReference<>(LeaderInfo.NO_LEADER);
         this.started = new AtomicBoolean(false);
         this.busyCounter = new AtomicInteger();
+        this.readLease = null;
+        this.maxReadIndex = 0L;
+        this.readIndexReads = new LongAdder();
+        this.leaseReads = new LongAdder();
+        this.localReads = new LongAdder();
     }
 
     protected RaftContext context() {
@@ -93,6 +110,8 @@ public final class RaftNode {
     public void onLeaderInfoChange(PeerId leaderId, boolean selfIsLeader) {
         leaderId = leaderId != null ? leaderId.copy() : null;
         this.leaderInfo.set(new LeaderInfo(leaderId, selfIsLeader));
+        // The read index got from the previous leader is not used any more
+        this.readLease = null;
     }
 
     public void shutdown() {
@@ -110,6 +129,10 @@ public final class RaftNode {
         }
     }
 
+    public Map<String, Object> applyMetrics() {
+        return this.stateMachine.metrics();
+    }
+
     public RaftClosure<?> snapshot() {
         RaftClosure<?> future = new RaftClosure<>();
         try {
@@ -121,7 +144,107 @@ public final class RaftNode {
     }
 
     public void readIndex(byte[] reqCtx, ReadIndexClosure done) {
-        this.node.readIndex(reqCtx, done);
+        this.readIndexReads.increment();
+        // Record the time before requesting, the lease starts from it
+        long time = System.currentTimeMillis();
+        this.node.readIndex(reqCtx, new ReadIndexClosure() {
+            @Override
+            public void run(Status status, long index, byte[] reqCtx) {
+                if (status.isOk()) {
+                    RaftNode.this.updateMaxReadIndex(index);
+                    RaftNode.this.renewReadLease(index, time);
+                }
+                done.run(status, index, reqCtx);
+            }
+        });
+    }
+
+    /**
+     * Check whether a bounded-staleness read can be served by the local
+     * replica of a follower without requesting the leader, it's true if the
+     * read index got from the leader is in the lease, which has been applied
+     * locally since jraft calls back the read index after it's applied.
+     * NOTE: the writes committed in the lease may be invisible to the read,
+     * so it's a stale read bounded by the lease time and must not be used
+     * for the safe reads, which are served by the read index of the leader.
+     * @param lease the lease in milliseconds of the read index
+     * @return true if the local replica can serve the read
+     */
+    public boolean readByLease(long lease) {
+        if (lease <= 0L || this.selfIsLeader()) {
+            return false;
+        }
+        ReadLease readLease = this.readLease;
+        if (readLease == null ||
+            System.currentTimeMillis() - readLease.time >= lease) {
+            return false;
+        }
+        this.leaseReads.increment();
+        return true;
+    }
+
+    /**
+     * Check whether a bounded-staleness read can be served by the local
+     * replica, it's true if the number of the logs committed but not yet
+     * applied doesn't exceed maxLag.
+     * NOTE: the committed index is the known one of committedIndex(), and
+     * a follower which has lost the leader is not readable.
+     * @param maxLag the max number of the logs not applied
+     * @return true if the local replica can serve the read
+     */
+    public boolean readByLag(long maxLag) {
+        if (this.leaderId() == null || this.appliedLag() > maxLag) {
+            return false;
+        }
+        this.localReads.increment();
+        return true;
+    }
+
+    /**
+     * Get the committed index known by this node, it's the max of the last
+     * log passed to the state machine and the last read index got from the
+     * leader, which may be behind the committed index of the leader.
+     * NOTE: jraft 1.3.11 doesn't expose the committed index of a node.
+     * @return the known committed index
+     */
+    public long committedIndex() {
+        return Math.max(this.stateMachine.lastCommittedIndex(),
+                        this.maxReadIndex);
+    }
+
+    public long appliedLag() {
+        long lag = this.committedIndex() -
+                   this.stateMachine.lastAppliedIndex();
+        return Math.max(lag, 0L);
+    }
+
+    public Map<String, Object> readMetrics() {
+        Map<String, Object> metrics = InsertionOrderUtil.newMap();
+        metrics.put("committed_index", this.committedIndex());
+        metrics.put("applied_index", this.stateMachine.lastAppliedIndex());
+        metrics.put("applied_lag", this.appliedLag());
+        metrics.put("read_lease", this.context.readLease());
+        metrics.put("max_read_lag", this.context.maxReadLag());
+        metrics.put("read_index_reads", this.readIndexReads.sum());
+        metrics.put("lease_reads", this.leaseReads.sum());
+        metrics.put("local_reads", this.localReads.sum());
+        return metrics;
+    }
+
+    private synchronized void updateMaxReadIndex(long index) {
+        if (index > this.maxReadIndex) {
+            this.maxReadIndex = index;
+        }
+    }
+
+    private void renewReadLease(long index, long time) {
+        if (this.selfIsLeader()) {
+            return;
+        }
+        ReadLease readLease = this.readLease;
+        if (readLease == null || time > readLease.time) {
+            this.readLease = new ReadLease(index, time);
+        }
     }
 
     public <T> T submitAndWait(StoreCommand command, RaftStoreClosure future) {
@@ -346,6 +469,17 @@ public final class RaftNode {
         }
     }
 
+    private static class ReadLease {
+
+        private final long index;
+        private final long time;
+
+        public ReadLease(long index, long time) {
+            this.index = index;
+            this.time = time;
+        }
+    }
+
     /**
      * Jraft Node.getLeaderId() and Node.isLeader() is not always consistent,
      * We define this class to manage leader info by ourselves
@@ -19,9 +19,13 @@ package org.apache.hugegraph.backend.store.raft;
 
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.slf4j.Logger;
 
@@ -31,6 +35,7 @@ import com.alipay.sofa.jraft.Status;
 import com.alipay.sofa.jraft.conf.Configuration;
 import com.alipay.sofa.jraft.core.StateMachineAdapter;
 import com.alipay.sofa.jraft.entity.LeaderChangeContext;
+import com.alipay.sofa.jraft.entity.RaftOutter.SnapshotMeta;
 import com.alipay.sofa.jraft.error.RaftError;
 import com.alipay.sofa.jraft.error.RaftException;
 import com.alipay.sofa.jraft.storage.snapshot.SnapshotReader;
@@ -43,6 +48,7 @@ import org.apache.hugegraph.backend.store.raft.RaftBackendStore.IncrCounter;
 import org.apache.hugegraph.backend.store.raft.rpc.RaftRequests.StoreAction;
 import org.apache.hugegraph.backend.store.raft.rpc.RaftRequests.StoreType;
 import org.apache.hugegraph.util.E;
+import org.apache.hugegraph.util.InsertionOrderUtil;
 import org.apache.hugegraph.util.LZ4Util;
 import org.apache.hugegraph.util.Log;
 
@@ -52,10 +58,34 @@ public final class StoreStateMachine extends StateMachineAdapter {
 
     private final RaftContext context;
     private final StoreSnapshotFile snapshotFile;
+    // The max number of follower logs to be merged, 0 means disabled
+    private final int applyMergeSize;
+
+    // Metrics of applying logs
+    private final LongAdder appliedBatches;
+    private final LongAdder appliedLogs;
+    private final LongAdder backendCommits;
+    private final LongAdder applyNanos;
+    /*
+     * The index of the last log applied by this state machine, NOTE: the
+     * configuration logs are not passed to state machine, so it may be
+     * behind the applied index of jraft by them until the next data log
+     */
+    private volatile long lastAppliedIndex;
+    // The index of the last log passed to this state machine, it's committed
+    private volatile long lastCommittedIndex;
 
     public StoreStateMachine(RaftContext context) {
         this.context = context;
         this.snapshotFile = new StoreSnapshotFile(context.stores());
+        this.applyMergeSize = context.applyMergeSize();
+
+        this.appliedBatches = new LongAdder();
+        this.appliedLogs = new LongAdder();
+        this.backendCommits = new LongAdder();
+        this.applyNanos = new LongAdder();
+        this.lastAppliedIndex = 0L;
+        this.lastCommittedIndex = 0L;
     }
 
     private BackendStore store(StoreType type) {
@@ -66,14 +96,59 @@ public final class StoreStateMachine extends StateMachineAdapter {
         return this.context.node();
     }
 
+    public long lastAppliedIndex() {
+        return this.lastAppliedIndex;
+    }
+
+    public long lastCommittedIndex() {
+        return this.lastCommittedIndex;
+    }
+
+    public Map<String, Object> metrics() {
+        long logs = this.appliedLogs.sum();
+        long commits = this.backendCommits.sum();
+        long nanos = this.applyNanos.sum();
+        Map<String, Object> metrics = InsertionOrderUtil.newMap();
+        metrics.put("node", String.valueOf(this.context.endpoint()));
+        metrics.put("role", this.node() != null && this.node().selfIsLeader() ?
+                            "leader" : "follower");
+        metrics.put("apply_merge_size", this.applyMergeSize);
+        metrics.put("applied_batches", this.appliedBatches.sum());
+        metrics.put("applied_logs", logs);
+        metrics.put("backend_commits", commits);
+        metrics.put("apply_time_ms", TimeUnit.NANOSECONDS.toMillis(nanos));
+        metrics.put("applied_logs_per_second",
+                    nanos == 0L ? 0L : logs * TimeUnit.SECONDS.toNanos(1L) /
+                                       nanos);
+        metrics.put("logs_per_backend_commit",
+                    commits == 0L ? 0.0 : (double) logs / commits);
+        return metrics;
+    }
+
     @Override
     public void onApply(Iterator iter) {
         LOG.debug("Node role: {}", this.node().selfIsLeader() ?
                                    "leader" : "follower");
+        long start = System.nanoTime();
+        try {
+            if (this.applyMergeSize > 0) {
+                this.onApplyMerged(iter);
+            } else {
+                this.onApplyEach(iter);
+            }
+        } finally {
+            this.appliedBatches.increment();
+            this.applyNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    private void onApplyEach(Iterator iter) {
         List<Future<?>> futures = new ArrayList<>(64);
+        long index = iter.getIndex();
         try {
             // Apply all the logs
             while (iter.hasNext()) {
+                this.lastCommittedIndex = iter.getIndex();
                 RaftStoreClosure closure = (RaftStoreClosure) iter.done();
                 if (closure != null) {
                     futures.add(this.onApplyLeader(closure));
@@ -86,6 +161,8 @@ public final class StoreStateMachine extends StateMachineAdapter {
             // Wait for all tasks finished
             for (Future<?> future : futures) {
                 future.get();
+                this.appliedLogs.increment();
+                this.lastAppliedIndex = index++;
             }
         } catch (Throwable e) {
             String title = "StateMachine occurred critical error";
@@ -98,6 +175,91 @@ public final class StoreStateMachine extends StateMachineAdapter {
         }
     }
 
+    /**
+     * Apply the logs in order, and the consecutive COMMIT_TX logs of
+     * followers are decoded in parallel and then merged into one backend
+     * transaction for each store.
+     */
+    private void onApplyMerged(Iterator iter) {
+        MergedLogs logs = new MergedLogs(iter.getIndex());
+        // Whether the current entry of iterator has been added to logs
+        boolean added = true;
+        try {
+            while (iter.hasNext()) {
+                this.lastCommittedIndex = iter.getIndex();
+                added = false;
+                RaftStoreClosure closure = (RaftStoreClosure) iter.done();
+                if (closure != null) {
+                    // Apply the follower logs before it to keep the order
+                    logs.flush();
+                    logs.addLeaderLog(this.onApplyLeader(closure));
+                    added = true;
+                } else {
+                    logs.addFollowerLog(this.decodeFollowerLog(iter.getData()));
+                    added = true;
+                    if (logs.followerLogs.size() >= this.applyMergeSize) {
+                        logs.flush();
+                    }
+                }
+                iter.next();
+            }
+            logs.flush();
+        } catch (Throwable e) {
+            String title = "StateMachine occurred critical error";
+            LOG.error("{}", title, e);
+            Status status = new Status(RaftError.ESTATEMACHINE,
+                                       "%s: %s", title, e.getMessage());
+            /*
+             * Will cause current node inactive, the logs not applied will
+             * be applied again after the node restarted. The rollback
+             * counts from the current entry, which is not in the unapplied
+             * logs if it failed before the entry was added.
+             */
+            long unapplied = logs.unapplied() + (added ? 0L : 1L);
+            iter.setErrorAndRollback(Math.max(1L, unapplied), status);
+        }
+    }
+
+    private Future<FollowerLog> decodeFollowerLog(ByteBuffer data) {
+        byte[] bytes = data.array();
+        return this.context.backendExecutor().submit(() -> {
+            BytesBuffer buffer = LZ4Util.decompress(bytes,
+                                                    RaftContext.BLOCK_SIZE);
+            buffer.forReadWritten();
+            StoreType type = StoreType.valueOf(buffer.read());
+            StoreAction action = StoreAction.valueOf(buffer.read());
+            List<BackendMutation> mutations = null;
+            if (action == StoreAction.COMMIT_TX) {
+                mutations = StoreSerializer.readMutations(buffer);
+            }
+            return new FollowerLog(type, action, buffer, mutations);
+        });
+    }
+
+    private void commitMergedTx(StoreType type,
+                                List<BackendMutation> mutations) {
+        E.checkState(type != StoreType.ALL,
+                     "Can't apply command for all store at one time");
+        BackendStore store = this.store(type);
+        // RaftBackendStore doesn't write raft log for beginTx
+        store.beginTx();
+        try {
+            for (BackendMutation mutation : mutations) {
+                store.mutate(mutation);
+                this.context.updateCacheIfNeeded(mutation, false);
+            }
+            store.commitTx();
+        } catch (Throwable e) {
+            try {
+                store.rollbackTx();
+            } catch (Throwable e2) {
+                LOG.warn("Failed to rollback merged transaction", e2);
+            }
+            throw e;
+        }
+        this.backendCommits.increment();
+    }
+
     private Future<?> onApplyLeader(RaftStoreClosure closure) {
         // Leader just take the command out from the closure
         StoreCommand command = closure.command();
@@ -173,6 +335,7 @@ public final class StoreStateMachine extends StateMachineAdapter {
                     this.context.updateCacheIfNeeded(mutation, forwarded);
                 }
                 store.commitTx();
+                this.backendCommits.increment();
                 break;
             case ROLLBACK_TX:
                 store.rollbackTx();
@@ -206,7 +369,16 @@ public final class StoreStateMachine extends StateMachineAdapter {
          * in RaftNode so we can't call `this.node().nodeId()`
          */
         LOG.info("The node {} start snapshot loading", this.context.endpoint());
-        return this.snapshotFile.load(reader);
+        if (!this.snapshotFile.load(reader)) {
+            return false;
+        }
+        SnapshotMeta meta = reader.load();
+        if (meta != null) {
+            this.lastAppliedIndex = meta.getLastIncludedIndex();
+            this.lastCommittedIndex = Math.max(this.lastCommittedIndex,
+                                               this.lastAppliedIndex);
+        }
+        return true;
     }
 
     @Override
@@ -246,4 +418,112 @@ public final class StoreStateMachine extends StateMachineAdapter {
     public void onError(final RaftException e) {
         LOG.error("Raft error: {}", e.getMessage(), e);
     }
+
+    private static class FollowerLog {
+
+        private final StoreType type;
+        private final StoreAction action;
+        private final BytesBuffer buffer;
+        private final List<BackendMutation> mutations;
+
+        public FollowerLog(StoreType type, StoreAction action,
+                           BytesBuffer buffer, List<BackendMutation> mutations) {
+            this.type = type;
+            this.action = action;
+            this.buffer = buffer;
+            this.mutations = mutations;
+        }
+    }
+
+    /**
+     * The logs of an apply batch which are not yet applied, the leader logs
+     * are applied by the producer threads, and the follower logs are
+     * applied by current thread when flushing.
+     */
+    private class MergedLogs {
+
+        private final List<Future<?>> leaderLogs;
+        private final List<Future<FollowerLog>> followerLogs;
+        // The index of the first log in the batch
+        private final long firstIndex;
+        private long received;
+        private long applied;
+
+        public MergedLogs(long firstIndex) {
+            this.firstIndex = firstIndex;
+            this.leaderLogs = new ArrayList<>();
+            this.followerLogs = new ArrayList<>();
+            this.received = 0L;
+            this.applied = 0L;
+        }
+
+        public void addLeaderLog(Future<?> future) {
+            this.leaderLogs.add(future);
+            this.received++;
+        }
+
+        public void addFollowerLog(Future<FollowerLog> future) {
+            this.followerLogs.add(future);
+            this.received++;
+        }
+
+        public long unapplied() {
+            return this.received - this.applied;
+        }
+
+        public void flush() throws Exception {
+            // Wait for the leader logs before the follower logs
+            for (Future<?> future : this.leaderLogs) {
+                future.get();
+                this.applied(1L);
+            }
+            this.leaderLogs.clear();
+
+            // Merge the consecutive COMMIT_TX logs of each store
+            Map<StoreType, List<BackendMutation>> merged = new LinkedHashMap<>();
+            long mergedLogs = 0L;
+            for (Future<FollowerLog> future : this.followerLogs) {
+                FollowerLog log = future.get();
+                if (log.action == StoreAction.COMMIT_TX) {
+                    merged.computeIfAbsent(log.type, k -> new ArrayList<>())
+                          .addAll(log.mutations);
+                    mergedLogs++;
+                    continue;
+                }
+                // Commit the merged logs before other commands
+                this.commit(merged, mergedLogs);
+                mergedLogs = 0L;
+                try {
+                    applyCommand(log.type, log.action, log.buffer, false);
+                } catch (Throwable e) {
+                    String title = "Failed to execute backend command";
+                    LOG.error("{}: {}", title, log.action, e);
+                    throw new BackendException(title, e);
+                }
+                this.applied(1L);
+            }
+            this.commit(merged, mergedLogs);
+            this.followerLogs.clear();
+        }
+
+        private void commit(Map<StoreType, List<BackendMutation>> merged,
+                            long mergedLogs) {
+            if (merged.isEmpty()) {
+                return;
+            }
+            for (Map.Entry<StoreType, List<BackendMutation>> e :
+                 merged.entrySet()) {
+                commitMergedTx(e.getKey(), e.getValue());
+            }
+            merged.clear();
+            this.applied(mergedLogs);
+        }
+
+        private void applied(long logs) {
+            this.applied += logs;
+            appliedLogs.add(logs);
+            // The logs are applied in order
+            lastAppliedIndex = this.firstIndex + this.applied - 1L;
+        }
+    }
 }
@@ -29,48 +29,89 @@ public final class IntIntMap implements RamMap {
     // TODO: use com.carrotsearch.hppc.IntIntHashMap instead
     private final int[] array;
 
+    // Or store the values in a memory-mapped file
+    private final MappedRamFile file;
+    private final long offset;
+    private final int capacity;
+
     public IntIntMap(int capacity) {
         this.array = new int[capacity];
+        this.file = null;
+        this.offset = 0L;
+        this.capacity = capacity;
+    }
+
+    public IntIntMap(MappedRamFile file, long offset, int capacity) {
+        assert offset + bytes(capacity) <= file.size();
+        this.array = null;
+        this.file = file;
+        this.offset = offset;
+        this.capacity = capacity;
     }
 
     public void put(long key, int value) {
         assert 0 <= key && key < Integer.MAX_VALUE;
-        this.array[(int) key] = value;
+        if (this.array != null) {
+            this.array[(int) key] = value;
+        } else {
+            this.file.putInt(this.position(key), value);
+        }
     }
 
     public int get(long key) {
         assert 0 <= key && key < Integer.MAX_VALUE;
-        return this.array[(int) key];
+        if (this.array != null) {
+            return this.array[(int) key];
+        } else {
+            return this.file.getInt(this.position(key));
+        }
     }
 
     @Override
     public void clear() {
-        Arrays.fill(this.array, 0);
+        if (this.array != null) {
+            Arrays.fill(this.array, 0);
+        } else {
+            for (int i = 0; i < this.capacity; i++) {
+                this.file.putInt(this.position(i), 0);
+            }
+        }
     }
 
     @Override
     public long size() {
-        return this.array.length;
+        return this.capacity;
     }
 
     @Override
     public void writeTo(DataOutputStream buffer) throws IOException {
-        buffer.writeInt(this.array.length);
-        for (int value : this.array) {
-            buffer.writeInt(value);
+        buffer.writeInt(this.capacity);
+        for (int i = 0; i < this.capacity; i++) {
+            buffer.writeInt(this.get(i));
         }
     }
 
     @Override
     public void readFrom(DataInputStream buffer) throws IOException {
         int size = buffer.readInt();
-        if (size > this.array.length) {
+        if (size > this.capacity) {
             throw new HugeException("Invalid size %s, expect < %s",
-                                    size, this.array.length);
+                                    size, this.capacity);
         }
         for (int i = 0; i < size; i++) {
             int value = buffer.readInt();
-            this.array[i] = value;
+            this.put(i, value);
         }
     }
+
+    private long position(long key) {
+        if (key >= this.capacity) {
+            throw new HugeException("Invalid key %s", key);
+        }
+        return this.offset + (key << 2);
+    }
+
+    public static long bytes(int capacity) {
+        return (long) capacity << 2;
+    }
 }
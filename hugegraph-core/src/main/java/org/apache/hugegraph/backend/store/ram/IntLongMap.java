@@ -30,16 +30,44 @@ public final class IntLongMap implements RamMap {
     private final long[] array;
     private int size;
 
+    /*
+     * Or store the values in a memory-mapped file, the layout is:
+     * [size: long][value 0: long][value 1: long]...
+     */
+    private final MappedRamFile file;
+    private final long offset;
+    private final int capacity;
+
     public IntLongMap(int capacity) {
         this.array = new long[capacity];
         this.size = 0;
+        this.file = null;
+        this.offset = 0L;
+        this.capacity = capacity;
+    }
+
+    public IntLongMap(MappedRamFile file, long offset, int capacity) {
+        assert (offset & 7L) == 0L : offset;
+        assert offset + bytes(capacity) <= file.size();
+        this.array = null;
+        this.file = file;
+        this.offset = offset;
+        this.capacity = capacity;
+        // Restore the size from the mapped file
+        long size = file.getLong(offset);
+        if (size < 0L || size > capacity) {
+            throw new HugeException("Invalid size %s of mapped file '%s', " +
+                                    "expect <= %s", size, file.file(),
+                                    capacity);
+        }
+        this.size = (int) size;
     }
 
     public void put(int key, long value) {
         if (key >= this.size || key < 0) {
             throw new HugeException("Invalid key %s", key);
         }
-        this.array[key] = value;
+        this.set(key, value);
     }
 
     public int add(long value) {
@@ -47,8 +75,11 @@ public final class IntLongMap implements RamMap {
             throw new HugeException("Too many edges %s", this.size);
         }
         int index = this.size;
-        this.array[index] = value;
+        this.set(index, value);
         this.size++;
+        if (this.file != null) {
+            this.file.putLong(this.offset, this.size);
+        }
         return index;
     }
 
@@ -56,12 +87,23 @@ public final class IntLongMap implements RamMap {
         if (key >= this.size || key < 0) {
             throw new HugeException("Invalid key %s", key);
         }
-        return this.array[key];
+        if (this.array != null) {
+            return this.array[key];
+        } else {
+            return this.file.getLong(this.position(key));
+        }
     }
 
     @Override
     public void clear() {
-        Arrays.fill(this.array, 0L);
+        if (this.array != null) {
+            Arrays.fill(this.array, 0L);
+        } else {
+            for (int i = 0; i < this.size; i++) {
+                this.file.putLong(this.position(i), 0L);
+            }
+            this.file.putLong(this.offset, 0L);
+        }
         this.size = 0;
     }
 
@@ -72,23 +114,43 @@ public final class IntLongMap implements RamMap {
 
     @Override
     public void writeTo(DataOutputStream buffer) throws IOException {
-        buffer.writeInt(this.array.length);
-        for (long value : this.array) {
-            buffer.writeLong(value);
+        buffer.writeInt(this.capacity);
+        for (int i = 0; i < this.capacity; i++) {
+            buffer.writeLong(i < this.size ? this.get(i) : 0L);
         }
     }
 
     @Override
     public void readFrom(DataInputStream buffer) throws IOException {
         int size = buffer.readInt();
-        if (size > this.array.length) {
+        if (size > this.capacity) {
             throw new HugeException("Invalid size %s, expect < %s",
-                                    size, this.array.length);
+                                    size, this.capacity);
         }
         for (int i = 0; i < size; i++) {
             long value = buffer.readLong();
-            this.array[i] = value;
+            this.set(i, value);
         }
         this.size = size;
+        if (this.file != null) {
+            this.file.putLong(this.offset, this.size);
+        }
+    }
+
+    private void set(int key, long value) {
+        if (this.array != null) {
+            this.array[key] = value;
+        } else {
+            this.file.putLong(this.position(key), value);
+        }
+    }
+
+    private long position(int key) {
+        // The first long is the size
+        return this.offset + ((key + 1L) << 3);
+    }
+
+    public static long bytes(int capacity) {
+        return (capacity + 1L) << 3;
     }
 }
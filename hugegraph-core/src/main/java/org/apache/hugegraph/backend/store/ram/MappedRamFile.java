@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.hugegraph.backend.store.ram;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+import org.apache.hugegraph.HugeException;
+
+/**
+ * A file mapped into memory by segments of 1GB, the file is created as a
+ * sparse file so that only the touched pages take up disk and memory.
+ * NOTE: int values must be 4-bytes aligned and long values must be 8-bytes
+ * aligned, so that a value never crosses the boundary of segments.
+ */
+public final class MappedRamFile implements AutoCloseable {
+
+    private static final int SEGMENT_SHIFT = 30;
+    private static final long SEGMENT_SIZE = 1L << SEGMENT_SHIFT;
+    private static final long SEGMENT_MASK = SEGMENT_SIZE - 1L;
+
+    private final File file;
+    private final RandomAccessFile raf;
+    private final FileChannel channel;
+    private final MappedByteBuffer[] segments;
+    private final long size;
+
+    public MappedRamFile(File file, long size) throws IOException {
+        assert size > 0L;
+        this.file = file;
+        this.size = size;
+        this.raf = new RandomAccessFile(file, "rw");
+        try {
+            if (this.raf.length() != size) {
+                // Extend (or truncate) the file without writing zeros
+                this.raf.setLength(size);
+            }
+            this.channel = this.raf.getChannel();
+
+            int count = (int) ((size + SEGMENT_SIZE - 1L) >>> SEGMENT_SHIFT);
+            this.segments = new MappedByteBuffer[count];
+            for (int i = 0; i < count; i++) {
+                long position = (long) i << SEGMENT_SHIFT;
+                long length = Math.min(SEGMENT_SIZE, size - position);
+                this.segments[i] = this.channel.map(
+                                   FileChannel.MapMode.READ_WRITE,
+                                   position, length);
+            }
+        } catch (IOException | RuntimeException e) {
+            this.raf.close();
+            throw e;
+        }
+    }
+
+    public File file() {
+        return this.file;
+    }
+
+    public long size() {
+        return this.size;
+    }
+
+    public int getInt(long offset) {
+        assert (offset & 3L) == 0L : offset;
+        return this.segment(offset).getInt((int) (offset & SEGMENT_MASK));
+    }
+
+    public void putInt(long offset, int value) {
+        assert (offset & 3L) == 0L : offset;
+        this.segment(offset).putInt((int) (offset & SEGMENT_MASK), value);
+    }
+
+    public long getLong(long offset) {
+        assert (offset & 7L) == 0L : offset;
+        return this.segment(offset).getLong((int) (offset & SEGMENT_MASK));
+    }
+
+    public void putLong(long offset, long value) {
+        assert (offset & 7L) == 0L : offset;
+        this.segment(offset).putLong((int) (offset & SEGMENT_MASK), value);
+    }
+
+    public void force() {
+        for (MappedByteBuffer segment : this.segments) {
+            segment.force();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            this.force();
+        } finally {
+            // NOTE: the mapped buffers will be unmapped when they are GCed
+            this.channel.close();
+            this.raf.close();
+        }
+    }
+
+    private MappedByteBuffer segment(long offset) {
+        if (offset < 0L || offset >= this.size) {
+            throw new HugeException("Invalid offset %s of mapped file " +
+                                    "'%s' with size %s",
+                                    offset, this.file, this.size);
+        }
+        return this.segments[(int) (offset >>> SEGMENT_SHIFT)];
+    }
+
+    public static long alignLong(long offset) {
+        return (offset + 7L) & ~7L;
+    }
+}
@@ -24,7 +24,12 @@ import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
@@ -39,6 +44,7 @@ import org.apache.hugegraph.HugeException;
 import org.apache.hugegraph.HugeGraph;
 import org.apache.hugegraph.backend.id.Id;
 import org.apache.hugegraph.backend.id.IdGenerator;
+import org.apache.hugegraph.backend.id.IdUtil;
 import org.apache.hugegraph.backend.query.Condition;
 import org.apache.hugegraph.backend.query.ConditionQuery;
 import org.apache.hugegraph.backend.query.ConditionQueryFlatten;
@@ -52,8 +58,13 @@ import org.apache.hugegraph.structure.HugeVertex;
 import org.apache.hugegraph.type.HugeType;
 import org.apache.hugegraph.type.define.Directions;
 import org.apache.hugegraph.type.define.HugeKeys;
+import org.apache.hugegraph.type.define.IdStrategy;
 import org.apache.hugegraph.util.Consumers;
+import org.apache.hugegraph.util.E;
+import org.apache.hugegraph.util.ExecutorUtil;
 import org.apache.hugegraph.util.Log;
+import org.apache.hugegraph.util.collection.ObjectIntMappingFactory;
+import org.apache.hugegraph.util.collection.ObjectIntMappingFactory.DenseObjectIntMapping;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.util.CloseableIterator;
@@ -74,6 +85,46 @@ public final class RamTable {
 
     private static final int NULL = 0;
 
+    /*
+     * The value of edge is [target: 32 bits][dir: 1 bit][dead: 1 bit]
+     * [reserved: 2 bits][label: 28 bits], the edge marked as dead is
+     * skipped by queries and will be dropped by compaction.
+     */
+    private static final long DIR_IN_FLAG = 0x80000000L;
+    private static final long DEAD_FLAG = 0x40000000L;
+    private static final int LABEL_MASK = 0x0fffffff;
+    // The null edge value, used to mark the removal of vertex
+    private static final long REMOVED_VERTEX = 0L;
+
+    // Compact the table if the ratio of dead edges exceeds it
+    private static final double DEFAULT_COMPACT_THRESHOLD = 0.3D;
+    // Don't compact the table if the dead edges are less than it
+    private static final long MIN_COMPACT_DEAD_EDGES = 10000L;
+
+    /*
+     * The layout of memory-mapped file:
+     *  [header: 64 bytes][verticesLow][verticesHigh][edges: 8 bytes aligned]
+     * the header is:
+     *  [magic: int][version: int][vertices half capacity: int]
+     *  [edges capacity: int][state: int][id mapping: int][dead edges: long]
+     * the ids of vertices are stored in another file with suffix ".ids" if
+     * the vertices are indexed by the id mapping.
+     */
+    private static final int MAPPED_MAGIC = 0x48475254; // "HGRT"
+    private static final int MAPPED_VERSION = 2;
+    private static final int MAPPED_HEADER_SIZE = 64;
+    private static final int MAPPED_STATE_CLEAN = 1;
+    private static final int MAPPED_STATE_DIRTY = 2;
+    private static final long OFFSET_MAGIC = 0L;
+    private static final long OFFSET_VERSION = 4L;
+    private static final long OFFSET_VERTICES = 8L;
+    private static final long OFFSET_EDGES = 12L;
+    private static final long OFFSET_STATE = 16L;
+    private static final long OFFSET_ID_MAPPING = 20L;
+    private static final long OFFSET_DEAD_EDGES = 24L;
+    private static final String MAPPED_IDS_SUFFIX = ".ids";
+    private static final String MAPPED_COMPACTING_SUFFIX = ".compacting";
+
     private static final Condition BOTH_COND = Condition.or(
                          Condition.eq(HugeKeys.DIRECTION, Directions.OUT),
                          Condition.eq(HugeKeys.DIRECTION, Directions.IN));
@@ -82,45 +133,220 @@ public final class RamTable {
     private final long verticesCapacity;
     private final int verticesCapacityHalf;
     private final int edgesCapacity;
+    // The memory-mapped file path, null means keeping the table in heap
+    private final String mappedPath;
+    private final double compactThreshold;
 
-    private IntIntMap verticesLow;
-    private IntIntMap verticesHigh;
-    private IntLongMap edges;
+    // Readers hold the adjacency, it's replaced as a whole by reload/compact
+    private volatile Adjacency adjacency;
 
     private volatile boolean loading = false;
+    private volatile boolean compacting = false;
+    // The removals happened while compacting, guarded by `this`
+    private List<long[]> pendingRemovals;
+    // The removals happened while loading, guarded by `this`
+    private List<Runnable> loadingRemovals;
+    private ExecutorService compactor;
 
     public RamTable(HugeGraph graph) {
         this(graph, VERTICES_CAPACITY, EDGES_CAPACITY);
     }
 
     public RamTable(HugeGraph graph, long maxVertices, int maxEdges) {
+        this(graph, maxVertices, maxEdges, null);
+    }
+
+    public RamTable(HugeGraph graph, long maxVertices, int maxEdges,
+                    String mappedPath) {
+        this(graph, maxVertices, maxEdges, mappedPath,
+             DEFAULT_COMPACT_THRESHOLD);
+    }
+
+    public RamTable(HugeGraph graph, long maxVertices, int maxEdges,
+                    String mappedPath, double compactThreshold) {
         this.graph = graph;
         this.verticesCapacity = maxVertices + 2L;
         this.verticesCapacityHalf = (int) (this.verticesCapacity / 2L);
         this.edgesCapacity = maxEdges + 1;
+        this.mappedPath = mappedPath == null || mappedPath.isEmpty() ?
+                          null : mappedPath;
+        this.compactThreshold = compactThreshold;
+        this.pendingRemovals = null;
+        this.loadingRemovals = null;
+        this.compactor = null;
+        if (this.mappedPath != null) {
+            this.adjacency = this.openMapped();
+            if (this.adjacency != null) {
+                LOG.info("Opened mapped ramtable '{}' with {} edges",
+                         this.mappedPath, this.edgesSize());
+                return;
+            }
+        }
         this.reset();
     }
 
     private void reset() {
-        this.verticesLow = null;
-        this.verticesHigh = null;
-        this.edges = null;
-        this.verticesLow = new IntIntMap(this.verticesCapacityHalf);
-        this.verticesHigh = new IntIntMap(this.verticesCapacityHalf);
-        this.edges = new IntLongMap(this.edgesCapacity);
+        this.reset(false);
+    }
+
+    private void reset(boolean idMapping) {
+        Adjacency old = this.adjacency;
+        if (old != null) {
+            // The mapped buffers are still readable after closing
+            old.close();
+        }
+        DenseObjectIntMapping<Id> ids = idMapping ?
+                ObjectIntMappingFactory.newDenseObjectIntMapping() : null;
+        this.adjacency = this.newAdjacency(this.mappedPath, ids);
+    }
+
+    private Adjacency newAdjacency(String mappedPath,
+                                   DenseObjectIntMapping<Id> ids) {
+        Adjacency adjacency;
+        if (mappedPath != null) {
+            MappedRamFile file = this.createMapped(mappedPath, ids != null);
+            adjacency = new Adjacency(file, ids);
+        } else {
+            adjacency = new Adjacency(ids);
+        }
         // Set the first element as null edge
-        this.edges.add(0L);
+        adjacency.edges.add(0L);
+        return adjacency;
     }
 
-    public void reload(boolean loadFromFile, String file) {
+    private long mappedFileSize() {
+        long size = MAPPED_HEADER_SIZE;
+        size += 2L * IntIntMap.bytes(this.verticesCapacityHalf);
+        size = MappedRamFile.alignLong(size);
+        size += IntLongMap.bytes(this.edgesCapacity);
+        return size;
+    }
+
+    /**
+     * Map the existing file written by the last clean shutdown, then the
+     * table can serve queries immediately without reloading
+     */
+    private Adjacency openMapped() {
+        File file = new File(this.mappedPath);
+        if (!file.isFile()) {
+            return null;
+        }
+        if (file.length() != this.mappedFileSize()) {
+            LOG.warn("Ignore mapped ramtable '{}' due to mismatched size " +
+                     "{}, expect {}", file, file.length(),
+                     this.mappedFileSize());
+            return null;
+        }
+
+        MappedRamFile mapped = null;
+        try {
+            mapped = new MappedRamFile(file, this.mappedFileSize());
+            int magic = mapped.getInt(OFFSET_MAGIC);
+            int version = mapped.getInt(OFFSET_VERSION);
+            int vertices = mapped.getInt(OFFSET_VERTICES);
+            int edges = mapped.getInt(OFFSET_EDGES);
+            int state = mapped.getInt(OFFSET_STATE);
+            if (magic != MAPPED_MAGIC || version != MAPPED_VERSION ||
+                vertices != this.verticesCapacityHalf ||
+                edges != this.edgesCapacity) {
+                LOG.warn("Ignore mapped ramtable '{}' due to mismatched " +
+                         "header (version={}, vertices={}, edges={})",
+                         file, version, vertices, edges);
+                mapped.close();
+                return null;
+            }
+            if (state != MAPPED_STATE_CLEAN) {
+                LOG.warn("Ignore mapped ramtable '{}' due to it's not " +
+                         "closed cleanly, please reload it", file);
+                mapped.close();
+                return null;
+            }
+            DenseObjectIntMapping<Id> ids = null;
+            if (mapped.getInt(OFFSET_ID_MAPPING) != 0) {
+                ids = ObjectIntMappingFactory.newDenseObjectIntMapping();
+                File idsFile = new File(this.mappedPath + MAPPED_IDS_SUFFIX);
+                try (InputStream fis = new FileInputStream(idsFile);
+                     InputStream bis = new BufferedInputStream(fis);
+                     DataInputStream input = new DataInputStream(bis)) {
+                    readIds(input, ids);
+                }
+            }
+            return new Adjacency(mapped, ids);
+        } catch (Throwable e) {
+            LOG.warn("Failed to open mapped ramtable '{}'", file, e);
+            if (mapped != null) {
+                try {
+                    mapped.close();
+                } catch (IOException ignored) {
+                    // pass
+                }
+            }
+            return null;
+        }
+    }
+
+    private MappedRamFile createMapped(String path, boolean idMapping) {
+        File file = new File(path);
+        try {
+            if (file.exists()) {
+                FileUtils.forceDelete(file);
+            } else if (file.getParentFile() != null) {
+                FileUtils.forceMkdir(file.getParentFile());
+            }
+            FileUtils.deleteQuietly(new File(path + MAPPED_IDS_SUFFIX));
+            MappedRamFile mapped = new MappedRamFile(file,
+                                                     this.mappedFileSize());
+            mapped.putInt(OFFSET_MAGIC, MAPPED_MAGIC);
+            mapped.putInt(OFFSET_VERSION, MAPPED_VERSION);
+            mapped.putInt(OFFSET_VERTICES, this.verticesCapacityHalf);
+            mapped.putInt(OFFSET_EDGES, this.edgesCapacity);
+            mapped.putInt(OFFSET_STATE, MAPPED_STATE_DIRTY);
+            mapped.putInt(OFFSET_ID_MAPPING, idMapping ? 1 : 0);
+            mapped.putLong(OFFSET_DEAD_EDGES, 0L);
+            return mapped;
+        } catch (IOException e) {
+            throw new HugeException("Failed to create mapped ramtable '%s'",
+                                    e, file);
+        }
+    }
+
+    /**
+     * Flush the mapped file to disk and mark it clean, so that it can be
+     * reused by the next startup
+     */
+    public void flush() {
         if (this.loading) {
-            throw new HugeException("There is one loading task, " +
-                                    "please wait for it to complete");
+            return;
         }
+        this.adjacency.flush();
+    }
 
-        this.loading = true;
+    public synchronized void close() {
+        if (this.compactor != null) {
+            this.compactor.shutdownNow();
+            this.compactor = null;
+        }
+        this.adjacency.flush();
+        this.adjacency.close();
+    }
+
+    public void reload(boolean loadFromFile, String file) {
+        synchronized (this) {
+            if (this.loading) {
+                throw new HugeException("There is one loading task, " +
+                                        "please wait for it to complete");
+            }
+            if (this.compacting) {
+                throw new HugeException("There is one compacting task, " +
+                                        "please wait for it to complete");
+            }
+            this.loading = true;
+            this.loadingRemovals = new ArrayList<>();
+        }
+
+        boolean loaded = false;
         try {
-            this.reset();
+            this.reset(this.needIdMapping());
             if (loadFromFile) {
                 this.loadFromFile(file);
             } else {
@@ -133,12 +359,34 @@ public final class RamTable {
                 }
             }
             LOG.info("Loaded {} edges", this.edgesSize());
+            loaded = true;
         } catch (Throwable e) {
             this.reset();
             throw new HugeException("Failed to load ramtable", e);
         } finally {
-            this.loading = false;
+            this.finishLoading(loaded);
+        }
+        // Persist the loaded mapped table for the next startup
+        this.flush();
+    }
+
+    /**
+     * Replay the removals which happened while loading, since the loaded
+     * table may contain the edges removed after they were scanned
+     */
+    private synchronized void finishLoading(boolean loaded) {
+        List<Runnable> removals = this.loadingRemovals;
+        this.loadingRemovals = null;
+        this.loading = false;
+        if (!loaded || removals.isEmpty()) {
+            // Nothing to replay, or the table is reset to empty
+            return;
+        }
+        for (Runnable removal : removals) {
+            removal.run();
         }
+        LOG.info("Replayed {} removals which happened while loading",
+                 removals.size());
     }
 
     private void loadFromFile(String fileName) throws Exception {
@@ -150,11 +398,16 @@ public final class RamTable {
         try (FileInputStream fis = new FileInputStream(file);
              BufferedInputStream bis = new BufferedInputStream(fis);
              DataInputStream input = new DataInputStream(bis)) {
+            Adjacency adjacency = this.adjacency;
             // read vertices
-            this.verticesLow.readFrom(input);
-            this.verticesHigh.readFrom(input);
+            adjacency.verticesLow.readFrom(input);
+            adjacency.verticesHigh.readFrom(input);
             // read edges
-            this.edges.readFrom(input);
+            adjacency.edges.readFrom(input);
+            // read ids of vertices
+            if (adjacency.ids != null) {
+                readIds(input, adjacency.ids);
+            }
         }
     }
 
@@ -169,11 +422,16 @@ public final class RamTable {
         try (FileOutputStream fos = new FileOutputStream(file);
              BufferedOutputStream bos = new BufferedOutputStream(fos);
              DataOutputStream output = new DataOutputStream(bos)) {
+            Adjacency adjacency = this.adjacency;
             // write vertices
-            this.verticesLow.writeTo(output);
-            this.verticesHigh.writeTo(output);
+            adjacency.verticesLow.writeTo(output);
+            adjacency.verticesHigh.writeTo(output);
             // write edges
-            this.edges.writeTo(output);
+            adjacency.edges.writeTo(output);
+            // write ids of vertices
+            if (adjacency.ids != null) {
+                writeIds(output, adjacency.ids);
+            }
         }
         return true;
     }
@@ -182,6 +440,25 @@ public final class RamTable {
         Query query = new Query(HugeType.VERTEX);
         query.capacity(this.verticesCapacityHalf * 2L);
         query.limit(Query.NO_LIMIT);
+
+        DenseObjectIntMapping<Id> ids = this.adjacency.ids;
+        if (ids != null) {
+            /*
+             * Assign codes to all the vertices by scanning order first, so
+             * that the codes of owner vertices are ascending when adding
+             * edges, even if some of them are assigned as target vertex.
+             */
+            Iterator<Vertex> vertices = this.graph.vertices(query);
+            try {
+                while (vertices.hasNext()) {
+                    ids.object2Code(vertices.next().id());
+                }
+            } finally {
+                CloseableIterator.closeIterator(vertices);
+            }
+            LOG.info("Loaded {} ids of vertices", ids.size());
+        }
+
         Iterator<Vertex> vertices = this.graph.vertices(query);
 
         // switch concurrent loading here
@@ -194,16 +471,10 @@ public final class RamTable {
         }
 
         Iterator<Edge> adjEdges;
-        Id lastId = IdGenerator.ZERO;
+        long lastCode = -1L;
         while (vertices.hasNext()) {
             Id vertex = (Id) vertices.next().id();
-            if (vertex.compareTo(lastId) < 0) {
-                throw new HugeException("The ramtable feature is not " +
-                                        "supported by %s backend",
-                                        this.graph.backend());
-            }
-            ensureNumberId(vertex);
-            lastId = vertex;
+            lastCode = this.checkVertexOrder(lastCode, vertex);
 
             adjEdges = this.graph.adjacentEdges(vertex);
             if (adjEdges.hasNext()) {
@@ -223,13 +494,11 @@ public final class RamTable {
                                     "supported by ramtable, but got '%s'",
                                     edge.schemaLabel());
         }
-        ensureNumberId(edge.id().ownerVertexId());
-        ensureNumberId(edge.id().otherVertexId());
+        Adjacency adjacency = this.adjacency;
+        long owner = adjacency.addCode(edge.id().ownerVertexId());
+        long other = adjacency.addCode(edge.id().otherVertexId());
 
-        this.addEdge(newVertex,
-                     edge.id().ownerVertexId().asLong(),
-                     edge.id().otherVertexId().asLong(),
-                     edge.direction(),
+        this.addEdge(newVertex, owner, other, edge.direction(),
                      (int) edge.schemaLabel().id().asLong());
     }
 
@@ -240,18 +509,230 @@ public final class RamTable {
     }
 
     public void addEdge(boolean newVertex, long owner, long value) {
-        int position = this.edges.add(value);
-        if (newVertex) {
-            assert this.vertexAdjPosition(owner) <= NULL : owner;
-            this.vertexAdjPosition(owner, position);
+        E.checkState(!this.compacting,
+                     "Can't add edge to ramtable while compacting");
+        this.adjacency.addEdge(newVertex, owner, value);
+    }
+
+    public void removeEdge(HugeEdge edge) {
+        if (edge.schemaLabel().existSortKeys()) {
+            // The edge would never be added into ramtable
+            return;
+        }
+        synchronized (this) {
+            if (this.loading) {
+                // The codes may be not assigned yet, replay it after loaded
+                this.loadingRemovals.add(() -> this.removeEdge(edge));
+                return;
+            }
         }
-        // maybe there is no edges of the next vertex, set -position first
-        this.vertexAdjPosition(owner + 1, -position);
+        Adjacency adjacency = this.adjacency;
+        long owner = adjacency.code(edge.id().ownerVertexId());
+        long other = adjacency.code(edge.id().otherVertexId());
+        if (owner < 0L || other < 0L) {
+            return;
+        }
+        int label = (int) edge.schemaLabel().id().asLong();
+        Directions direction = edge.direction();
+        // Remove both the OUT edge and IN edge
+        this.removeEdge(owner, other, direction, label);
+        this.removeEdge(other, owner, direction.opposite(), label);
+    }
+
+    public boolean removeEdge(long owner, long target,
+                              Directions direction, int label) {
+        long value = encode(target, direction, label);
+        return this.removeEdge(owner, value);
+    }
+
+    private synchronized boolean removeEdge(long owner, long value) {
+        if (this.loading) {
+            this.loadingRemovals.add(() -> this.removeEdge(owner, value));
+            return false;
+        }
+        if (!this.inCapacity(owner)) {
+            return false;
+        }
+        boolean removed = this.adjacency.removeEdge(owner, value);
+        if (this.compacting) {
+            this.pendingRemovals.add(new long[]{owner, value});
+        }
+        if (removed) {
+            this.compactIfNeeded();
+        }
+        return removed;
+    }
+
+    public void removeVertex(Id vertex) {
+        synchronized (this) {
+            if (this.loading) {
+                this.loadingRemovals.add(() -> this.removeVertex(vertex));
+                return;
+            }
+        }
+        long code = this.adjacency.code(vertex);
+        if (code >= 0L) {
+            this.removeVertex(code);
+        }
+    }
+
+    public synchronized int removeVertex(long vertex) {
+        if (this.loading) {
+            this.loadingRemovals.add(() -> this.removeVertex(vertex));
+            return 0;
+        }
+        if (!this.inCapacity(vertex)) {
+            return 0;
+        }
+        int removed = this.adjacency.removeVertex(vertex);
+        if (this.compacting) {
+            this.pendingRemovals.add(new long[]{vertex, REMOVED_VERTEX});
+        }
+        if (removed > 0) {
+            this.compactIfNeeded();
+        }
+        return removed;
     }
 
     public long edgesSize() {
-        // -1 means the first is NULL edge
-        return this.edges.size() - 1L;
+        return this.adjacency.edgesSize();
+    }
+
+    private boolean inCapacity(long vertex) {
+        // The vertex + 1 is used as the end position of vertex
+        return 0L <= vertex && vertex < this.verticesCapacity - 1L;
+    }
+
+    public long deadEdgesSize() {
+        return this.adjacency.deadEdges;
+    }
+
+    /**
+     * The ratio of dead edges (marked by removal but not compacted yet) to
+     * all the edges stored in the table
+     */
+    public double fragmentationRatio() {
+        Adjacency adjacency = this.adjacency;
+        long size = adjacency.edgesSize();
+        return size == 0L ? 0D : (double) adjacency.deadEdges / size;
+    }
+
+    private void compactIfNeeded() {
+        assert Thread.holdsLock(this);
+        if (this.compactThreshold <= 0D || this.compacting || this.loading ||
+            this.deadEdgesSize() < MIN_COMPACT_DEAD_EDGES ||
+            this.fragmentationRatio() < this.compactThreshold) {
+            return;
+        }
+        if (this.compactor == null) {
+            this.compactor = ExecutorUtil.newFixedThreadPool(
+                             1, "ramtable-compactor-%d");
+        }
+        // Mark compacting here to avoid submitting the task repeatedly
+        this.startCompact();
+        this.compactor.execute(() -> {
+            try {
+                this.doCompact();
+            } catch (Throwable e) {
+                LOG.warn("Failed to compact ramtable in background", e);
+            }
+        });
+    }
+
+    /**
+     * Rebuild the table with only live edges, the readers are not blocked
+     * since they keep reading the old adjacency until it's replaced.
+     * NOTE: it needs memory (or disk in mapped mode) for another table.
+     * @return the count of reclaimed edges
+     */
+    public long compact() {
+        synchronized (this) {
+            if (this.loading || this.compacting) {
+                throw new HugeException("There is one loading or " +
+                                        "compacting task, please wait " +
+                                        "for it to complete");
+            }
+            this.startCompact();
+        }
+        return this.doCompact();
+    }
+
+    private void startCompact() {
+        assert Thread.holdsLock(this);
+        this.compacting = true;
+        this.pendingRemovals = new ArrayList<>();
+    }
+
+    private long doCompact() {
+        assert this.compacting;
+        Adjacency old = this.adjacency;
+        Adjacency fresh = null;
+        String freshPath = this.mappedPath == null ? null :
+                           this.mappedPath + MAPPED_COMPACTING_SUFFIX;
+        try {
+            // The codes of vertices are not changed by compaction
+            fresh = this.newAdjacency(freshPath, old.ids);
+            long start = System.currentTimeMillis();
+
+            // Copy the live edges vertex by vertex (by order of vertex id)
+            for (long vertex = 0L; vertex < this.verticesCapacity - 1L;
+                 vertex++) {
+                int begin = old.position(vertex);
+                if (begin <= NULL) {
+                    continue;
+                }
+                int end = old.endPosition(vertex);
+                boolean newVertex = true;
+                for (int i = begin; i < end; i++) {
+                    long value = old.edges.get(i);
+                    if ((value & DEAD_FLAG) != 0L) {
+                        continue;
+                    }
+                    fresh.addEdge(newVertex, vertex, value);
+                    newVertex = false;
+                }
+            }
+
+            long reclaimed;
+            synchronized (this) {
+                // Replay the removals which happened while copying
+                for (long[] removal : this.pendingRemovals) {
+                    if (removal[1] == REMOVED_VERTEX) {
+                        fresh.removeVertex(removal[0]);
+                    } else {
+                        fresh.removeEdge(removal[0], removal[1]);
+                    }
+                }
+                if (freshPath != null) {
+                    fresh.flush();
+                    Files.move(Paths.get(freshPath),
+                               Paths.get(this.mappedPath),
+                               StandardCopyOption.REPLACE_EXISTING,
+                               StandardCopyOption.ATOMIC_MOVE);
+                }
+                this.adjacency = fresh;
+                reclaimed = old.edgesSize() - fresh.edgesSize();
+            }
+            // The readers still hold the old one can keep reading it
+            old.close();
+
+            LOG.info("Compacted ramtable with {} edges reclaimed cost {}ms",
+                     reclaimed, System.currentTimeMillis() - start);
+            return reclaimed;
+        } catch (Throwable e) {
+            if (fresh != null && fresh != this.adjacency) {
+                fresh.close();
+                if (freshPath != null) {
+                    FileUtils.deleteQuietly(new File(freshPath));
+                }
+            }
+            throw new HugeException("Failed to compact ramtable", e);
+        } finally {
+            synchronized (this) {
+                this.pendingRemovals = null;
+                this.compacting = false;
+            }
+        }
     }
 
     @Watched
@@ -322,7 +803,15 @@ public final class RamTable {
         if (label == null) {
             label = IdGenerator.ZERO;
         }
-        return this.query(owner.asLong(), dir, (int) label.asLong());
+        return this.query(owner, dir, (int) label.asLong());
+    }
+
+    public Iterator<HugeEdge> query(Id owner, Directions dir, int label) {
+        long code = this.adjacency.code(owner);
+        if (code < 0L) {
+            return Collections.emptyIterator();
+        }
+        return this.query(code, dir, label);
     }
 
     @Watched
@@ -332,42 +821,59 @@ public final class RamTable {
             return Collections.emptyIterator();
         }
 
-        int start = this.vertexAdjPosition(owner);
+        Adjacency adjacency = this.adjacency;
+        int start = adjacency.position(owner);
         if (start <= NULL) {
             return Collections.emptyIterator();
         }
-        int end = this.vertexAdjPosition(owner + 1);
-        assert start != NULL;
-        if (end < NULL) {
-            // The next vertex does not exist edges
-            end = 1 - end;
+        int end = adjacency.endPosition(owner);
+        return new EdgeRangeIterator(adjacency, start, end,
+                                     dir, label, owner);
+    }
+
+    private boolean needIdMapping() {
+        // Index the vertices by id mapping unless all of the ids are number
+        for (VertexLabel vertexLabel : this.graph.vertexLabels()) {
+            IdStrategy strategy = vertexLabel.idStrategy();
+            if (strategy != IdStrategy.AUTOMATIC &&
+                strategy != IdStrategy.CUSTOMIZE_NUMBER) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private long checkVertexOrder(long lastCode, Id vertex) {
+        long code = this.adjacency.addCode(vertex);
+        if (code < lastCode) {
+            throw new HugeException("The ramtable feature is not " +
+                                    "supported by %s backend",
+                                    this.graph.backend());
         }
-        return new EdgeRangeIterator(start, end, dir, label, owner);
+        return code;
     }
 
-    private void vertexAdjPosition(long vertex, int position) {
-        if (vertex < this.verticesCapacityHalf) {
-            this.verticesLow.put(vertex, position);
-        } else if (vertex < this.verticesCapacity) {
-            vertex -= this.verticesCapacityHalf;
-            assert vertex < Integer.MAX_VALUE;
-            this.verticesHigh.put(vertex, position);
-        } else {
-            throw new HugeException("Out of vertices capacity %s",
-                                    this.verticesCapacity);
+    private static void writeIds(DataOutputStream output,
+                                 DenseObjectIntMapping<Id> ids)
+                                 throws IOException {
+        int size = ids.size();
+        output.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            output.writeUTF(IdUtil.writeString(ids.code2Object(i)));
         }
     }
 
-    private int vertexAdjPosition(long vertex) {
-        if (vertex < this.verticesCapacityHalf) {
-            return this.verticesLow.get(vertex);
-        } else if (vertex < this.verticesCapacity) {
-            vertex -= this.verticesCapacityHalf;
-            assert vertex < Integer.MAX_VALUE;
-            return this.verticesHigh.get(vertex);
-        } else {
-            throw new HugeException("Out of vertices capacity %s: %s",
-                                    this.verticesCapacity, vertex);
+    private static void readIds(DataInputStream input,
+                                DenseObjectIntMapping<Id> ids)
+                                throws IOException {
+        int size = input.readInt();
+        for (int i = 0; i < size; i++) {
+            Id id = IdUtil.readString(input.readUTF());
+            int code = ids.object2Code(id);
+            if (code != i) {
+                throw new HugeException("Invalid code %s of id '%s', " +
+                                        "expect %s", code, id, i);
+            }
         }
     }
 
@@ -385,13 +891,239 @@ public final class RamTable {
         assert target < 2L * Integer.MAX_VALUE : target;
         long value = target & 0xffffffff;
         long dir = direction == Directions.OUT ?
-                   0x00000000L : 0x80000000L;
+                   0x00000000L : DIR_IN_FLAG;
         value = (value << 32) | (dir | label);
         return value;
     }
 
+    /**
+     * The vertices and edges arrays of the table, which are stored in heap
+     * or in a memory-mapped file
+     */
+    private final class Adjacency {
+
+        private final IntIntMap verticesLow;
+        private final IntIntMap verticesHigh;
+        private final IntLongMap edges;
+        // The ids of vertices, null means using the number id as code
+        private final DenseObjectIntMapping<Id> ids;
+        private final MappedRamFile file;
+        private volatile long deadEdges;
+        private boolean dirty;
+        private int persistedIds;
+
+        public Adjacency(DenseObjectIntMapping<Id> ids) {
+            int verticesCapacityHalf = RamTable.this.verticesCapacityHalf;
+            this.verticesLow = new IntIntMap(verticesCapacityHalf);
+            this.verticesHigh = new IntIntMap(verticesCapacityHalf);
+            this.edges = new IntLongMap(RamTable.this.edgesCapacity);
+            this.ids = ids;
+            this.file = null;
+            this.deadEdges = 0L;
+            this.dirty = false;
+            this.persistedIds = 0;
+        }
+
+        public Adjacency(MappedRamFile file, DenseObjectIntMapping<Id> ids) {
+            int verticesCapacityHalf = RamTable.this.verticesCapacityHalf;
+            long offset = MAPPED_HEADER_SIZE;
+            this.verticesLow = new IntIntMap(file, offset,
+                                             verticesCapacityHalf);
+            offset += IntIntMap.bytes(verticesCapacityHalf);
+            this.verticesHigh = new IntIntMap(file, offset,
+                                              verticesCapacityHalf);
+            offset += IntIntMap.bytes(verticesCapacityHalf);
+            offset = MappedRamFile.alignLong(offset);
+            this.edges = new IntLongMap(file, offset,
+                                        RamTable.this.edgesCapacity);
+            this.ids = ids;
+            this.file = file;
+            this.deadEdges = file.getLong(OFFSET_DEAD_EDGES);
+            this.dirty = file.getInt(OFFSET_STATE) != MAPPED_STATE_CLEAN;
+            this.persistedIds = this.dirty || ids == null ? 0 : ids.size();
+        }
+
+        /**
+         * Get the code of vertex id, which is used to index the vertex
+         * @return the code or -1 if the vertex doesn't exist
+         */
+        public long code(Id vertex) {
+            if (this.ids == null) {
+                return vertex.number() ? vertex.asLong() : -1L;
+            }
+            return this.ids.code(vertex);
+        }
+
+        public long addCode(Id vertex) {
+            if (this.ids == null) {
+                ensureNumberId(vertex);
+                return vertex.asLong();
+            }
+            return this.ids.object2Code(vertex);
+        }
+
+        public Id vertex(long code) {
+            if (this.ids == null) {
+                return IdGenerator.of(code);
+            }
+            Id vertex = this.ids.code2Object((int) code);
+            assert vertex != null : code;
+            return vertex;
+        }
+
+        public long edgesSize() {
+            // -1 means the first is NULL edge
+            return this.edges.size() - 1L;
+        }
+
+        public void addEdge(boolean newVertex, long owner, long value) {
+            this.markDirty();
+            int position = this.edges.add(value);
+            if (newVertex) {
+                assert this.position(owner) <= NULL : owner;
+                this.position(owner, position);
+            }
+            // maybe there is no edges of the next vertex, set -position first
+            this.position(owner + 1, -position);
+        }
+
+        public boolean removeEdge(long owner, long value) {
+            int start = this.position(owner);
+            if (start <= NULL) {
+                return false;
+            }
+            int end = this.endPosition(owner);
+            for (int i = start; i < end; i++) {
+                if (this.edges.get(i) == value) {
+                    this.markDead(i, value);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        public int removeVertex(long vertex) {
+            int start = this.position(vertex);
+            if (start <= NULL) {
+                return 0;
+            }
+            int end = this.endPosition(vertex);
+            int removed = 0;
+            for (int i = start; i < end; i++) {
+                long value = this.edges.get(i);
+                if ((value & DEAD_FLAG) == 0L) {
+                    this.markDead(i, value);
+                    removed++;
+                }
+            }
+            return removed;
+        }
+
+        private void markDead(int position, long value) {
+            this.markDirty();
+            this.edges.put(position, value | DEAD_FLAG);
+            this.deadEdges++;
+            if (this.file != null) {
+                this.file.putLong(OFFSET_DEAD_EDGES, this.deadEdges);
+            }
+        }
+
+        private void markDirty() {
+            if (this.file != null && !this.dirty) {
+                this.file.putInt(OFFSET_STATE, MAPPED_STATE_DIRTY);
+                this.dirty = true;
+            }
+        }
+
+        public void flush() {
+            if (this.file == null) {
+                return;
+            }
+            this.flushIds();
+            this.file.force();
+            this.file.putInt(OFFSET_STATE, MAPPED_STATE_CLEAN);
+            this.file.force();
+            this.dirty = false;
+        }
+
+        private void flushIds() {
+            if (this.ids == null || this.ids.size() == this.persistedIds) {
+                return;
+            }
+            String path = RamTable.this.mappedPath + MAPPED_IDS_SUFFIX;
+            File temp = new File(path + ".tmp");
+            int size = this.ids.size();
+            try {
+                try (OutputStream fos = new FileOutputStream(temp);
+                     OutputStream bos = new BufferedOutputStream(fos);
+                     DataOutputStream output = new DataOutputStream(bos)) {
+                    writeIds(output, this.ids);
+                }
+                Files.move(temp.toPath(), Paths.get(path),
+                           StandardCopyOption.REPLACE_EXISTING,
+                           StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                throw new HugeException("Failed to write ids of mapped " +
+                                        "ramtable '%s'", e, path);
+            }
+            this.persistedIds = size;
+        }
+
+        public void close() {
+            if (this.file == null) {
+                return;
+            }
+            try {
+                this.file.close();
+            } catch (IOException e) {
+                LOG.warn("Failed to close mapped ramtable '{}'",
+                         this.file.file(), e);
+            }
+        }
+
+        public int endPosition(long vertex) {
+            int end = this.position(vertex + 1);
+            if (end < NULL) {
+                // The next vertex does not exist edges
+                end = 1 - end;
+            }
+            return end;
+        }
+
+        public void position(long vertex, int position) {
+            long verticesCapacity = RamTable.this.verticesCapacity;
+            int verticesCapacityHalf = RamTable.this.verticesCapacityHalf;
+            if (vertex < verticesCapacityHalf) {
+                this.verticesLow.put(vertex, position);
+            } else if (vertex < verticesCapacity) {
+                vertex -= verticesCapacityHalf;
+                assert vertex < Integer.MAX_VALUE;
+                this.verticesHigh.put(vertex, position);
+            } else {
+                throw new HugeException("Out of vertices capacity %s",
+                                        verticesCapacity);
+            }
+        }
+
+        public int position(long vertex) {
+            long verticesCapacity = RamTable.this.verticesCapacity;
+            int verticesCapacityHalf = RamTable.this.verticesCapacityHalf;
+            if (vertex < verticesCapacityHalf) {
+                return this.verticesLow.get(vertex);
+            } else if (vertex < verticesCapacity) {
+                vertex -= verticesCapacityHalf;
+                assert vertex < Integer.MAX_VALUE;
+                return this.verticesHigh.get(vertex);
+            } else {
+                throw new HugeException("Out of vertices capacity %s: %s",
+                                        verticesCapacity, vertex);
+            }
+        }
+    }
+
     private class EdgeRangeIterator implements Iterator<HugeEdge> {
 
+        private final Adjacency adjacency;
         private final int end;
         private final Directions dir;
         private final int label;
@@ -399,14 +1131,15 @@ public final class RamTable {
         private int current;
         private HugeEdge currentEdge;
 
-        public EdgeRangeIterator(int start, int end,
+        public EdgeRangeIterator(Adjacency adjacency, int start, int end,
                                  Directions dir, int label, long owner) {
             assert 0 < start && start < end;
+            this.adjacency = adjacency;
             this.end = end;
             this.dir = dir;
             this.label = label;
             this.owner = new HugeVertex(RamTable.this.graph,
-                                        IdGenerator.of(owner),
+                                        adjacency.vertex(owner),
                                         VertexLabel.NONE);
             this.current = start;
             this.currentEdge = null;
@@ -441,12 +1174,16 @@ public final class RamTable {
             if (this.current >= this.end) {
                 return null;
             }
-            long value = RamTable.this.edges.get(this.current++);
+            long value = this.adjacency.edges.get(this.current++);
+            if ((value & DEAD_FLAG) != 0L) {
+                // The edge has been removed
+                return null;
+            }
             long otherV = value >>> 32;
             assert otherV >= 0L : otherV;
-            Directions actualDir = (value & 0x80000000L) == 0L ?
+            Directions actualDir = (value & DIR_IN_FLAG) == 0L ?
                                    Directions.OUT : Directions.IN;
-            int label = (int) value & 0x7fffffff;
+            int label = (int) value & LABEL_MASK;
             assert label >= 0;
 
             if (this.dir != actualDir && this.dir != Directions.BOTH) {
@@ -460,7 +1197,7 @@ public final class RamTable {
             this.owner.correctVertexLabel(VertexLabel.NONE);
             boolean direction = actualDir == Directions.OUT;
             Id labelId = IdGenerator.of(label);
-            Id otherVertexId = IdGenerator.of(otherV);
+            Id otherVertexId = this.adjacency.vertex(otherV);
             String sortValues = "";
             EdgeLabel edgeLabel = graph.edgeLabel(labelId);
 
@@ -478,6 +1215,7 @@ public final class RamTable {
         private final ExecutorService executor;
         private final List<Id> vertices;
         private final Map<Id, List<Edge>> edges;
+        private long lastCode;
 
         private static final int ADD_BATCH = Consumers.QUEUE_WORKER_SIZE;
 
@@ -487,6 +1225,7 @@ public final class RamTable {
                                                     Consumers.THREADS);
             this.vertices = new ArrayList<>(ADD_BATCH);
             this.edges = new ConcurrentHashMap<>();
+            this.lastCode = -1L;
         }
 
         @Override
@@ -546,17 +1285,7 @@ public final class RamTable {
             LOG.info("scan from hbase source {} lastId value: {} compare {} size {}",
                      vertex, lastId, vertex.compareTo(lastId), this.vertices.size());
 
-            if (vertex.compareTo(lastId) < 0) {
-                throw new HugeException("The ramtable feature is not " +
-                                        "supported by %s backend",
-                                        this.graph.backend());
-            }
-            if (!vertex.number()) {
-                throw new HugeException("Only number id is supported " +
-                                        "by ramtable, but got %s id '%s'",
-                                        vertex.type().name().toLowerCase(),
-                                        vertex);
-            }
+            this.lastCode = checkVertexOrder(this.lastCode, vertex);
 
             if (this.vertices.size() >= ADD_BATCH) {
                 this.addEdgesByBatch();
@@ -17,7 +17,11 @@
 
 package org.apache.hugegraph.backend.tx;
 
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.hugegraph.backend.query.IdQuery;
@@ -38,6 +42,7 @@ import org.apache.hugegraph.backend.store.BackendFeatures;
 import org.apache.hugegraph.backend.store.BackendMutation;
 import org.apache.hugegraph.backend.store.BackendStore;
 import org.apache.hugegraph.exception.NotFoundException;
+import org.apache.hugegraph.iterator.WrappedIterator;
 import org.apache.hugegraph.perf.PerfUtil.Watched;
 import org.apache.hugegraph.schema.PropertyKey;
 import org.apache.hugegraph.type.HugeType;
@@ -45,6 +50,8 @@ import org.apache.hugegraph.type.define.Action;
 import org.apache.hugegraph.type.define.CollectionType;
 import org.apache.hugegraph.type.define.GraphMode;
 import org.apache.hugegraph.util.E;
+import org.apache.hugegraph.util.LatencyHistogram;
+import org.apache.hugegraph.util.LatencyMetrics;
 import org.apache.hugegraph.util.Log;
 import org.apache.hugegraph.util.collection.IdSet;
 import com.google.common.util.concurrent.RateLimiter;
@@ -53,6 +60,17 @@ public abstract class AbstractTransaction implements Transaction {
 
     protected static final Logger LOG = Log.logger(AbstractTransaction.class);
 
+    private static final LatencyMetrics QUERY_LATENCY = LatencyMetrics.register(
+            "backend_query_latency",
+            "The time spent in the queries of backend store tables, " +
+            "including the query setup and fetching the results, " +
+            "recorded when the results are exhausted, closed or dropped",
+            "graph", "store", "table");
+    private static final LatencyMetrics MUTATE_LATENCY = LatencyMetrics.register(
+            "backend_mutate_latency",
+            "The latency of committing the mutations to backend stores",
+            "graph", "store");
+
     private final Thread ownerThread = Thread.currentThread();
 
     private boolean autoCommit = false;
@@ -65,6 +83,10 @@ public abstract class AbstractTransaction implements Transaction {
 
     private BackendMutation mutation;
 
+    // The histograms of current store cached to avoid lookup, index by type
+    private final LatencyHistogram[] queryLatencies;
+    private LatencyHistogram mutateLatency;
+
     protected final AbstractSerializer serializer;
 
     public AbstractTransaction(HugeGraphParams graph, BackendStore store) {
@@ -75,6 +97,8 @@ public abstract class AbstractTransaction implements Transaction {
         this.serializer = this.graph.serializer();
 
         this.store = store;
+        this.queryLatencies = new LatencyHistogram[HugeType.values().length];
+        this.mutateLatency = null;
         this.reset();
 
         store.open(this.graph.configuration());
@@ -155,13 +179,52 @@ public abstract class AbstractTransaction implements Transaction {
             BackendEntryIterator.checkInterrupted();
         }
 
+        // Record the latencies of the results dropped without being closed
+        LatencyIterator.recordDropped();
+
         this.beforeRead();
+        long start = System.nanoTime();
+        LatencyHistogram latency = this.queryLatency(squery.resultType());
+        Iterator<BackendEntry> results;
         try {
             this.injectOlapPkIfNeeded(squery);
-            return new QueryResults<>(this.store.query(squery), query);
+            results = this.store.query(squery);
+        } catch (Throwable e) {
+            latency.update((System.nanoTime() - start) / 1000L);
+            throw e;
         } finally {
             this.afterRead(); // TODO: not complete the iteration currently
         }
+        /*
+         * The results of most backends are fetched lazily, so also count the
+         * time spent in fetching the results, but not the time the caller
+         * spends between them
+         */
+        long setup = System.nanoTime() - start;
+        return new QueryResults<>(new LatencyIterator(results, latency, setup),
+                                  query);
+    }
+
+    private LatencyHistogram queryLatency(HugeType type) {
+        // It's fine to be set concurrently since the histogram is unique
+        LatencyHistogram histogram = this.queryLatencies[type.ordinal()];
+        if (histogram == null) {
+            histogram = QUERY_LATENCY.histogram(this.graphName(),
+                                                this.store.store(),
+                                                type.string());
+            this.queryLatencies[type.ordinal()] = histogram;
+        }
+        return histogram;
+    }
+
+    private LatencyHistogram mutateLatency() {
+        LatencyHistogram histogram = this.mutateLatency;
+        if (histogram == null) {
+            histogram = MUTATE_LATENCY.histogram(this.graphName(),
+                                                 this.store.store());
+            this.mutateLatency = histogram;
+        }
+        return histogram;
     }
 
     private void injectOlapPkIfNeeded(Query query) {
@@ -311,17 +374,33 @@ public abstract class AbstractTransaction implements Transaction {
     protected void commitMutation2Backend(BackendMutation... mutations) {
         assert mutations.length > 0;
         this.committing2Backend = true;
+        long start = System.nanoTime();
 
         // If an exception occurred, catch in the upper layer and rollback
-        this.store.beginTx();
-        for (BackendMutation mutation : mutations) {
-            this.store.mutate(mutation);
+        GroupCommitter committer = this.groupCommitter();
+        try {
+            if (committer != null) {
+                // Coalesce with the mutations of concurrent transactions
+                committer.commit(mutations);
+            } else {
+                this.store.beginTx();
+                for (BackendMutation mutation : mutations) {
+                    this.store.mutate(mutation);
+                }
+                this.store.commitTx();
+            }
+        } finally {
+            // Also record the latency of the failed commit
+            this.mutateLatency().update((System.nanoTime() - start) / 1000L);
         }
-        this.store.commitTx();
-
         this.committing2Backend = false;
     }
 
+    protected GroupCommitter groupCommitter() {
+        // Commit directly by default
+        return null;
+    }
+
     protected void rollbackBackend() {
         this.committing2Backend = false;
         this.store.rollbackTx();
@@ -427,4 +506,88 @@ public abstract class AbstractTransaction implements Transaction {
         E.checkNotNull(entry, "entry");
         this.mutation.add(entry, action);
     }
+
+    /**
+     * The iterator of the backend results which records the time spent in
+     * the query setup and in fetching the results once the results are
+     * exhausted or closed. The results dropped without being exhausted or
+     * closed are recorded after they are garbage collected.
+     */
+    private static class LatencyIterator extends WrappedIterator<BackendEntry> {
+
+        private static final ReferenceQueue<LatencyIterator> DROPPED =
+                             new ReferenceQueue<>();
+        // Keep the records reachable until they are recorded
+        private static final Set<LatencyRecord> PENDING =
+                             ConcurrentHashMap.newKeySet();
+
+        private final Iterator<BackendEntry> results;
+        private final LatencyRecord record;
+
+        public LatencyIterator(Iterator<BackendEntry> results,
+                               LatencyHistogram latency, long setup) {
+            this.results = results;
+            this.record = new LatencyRecord(this, latency, setup);
+            PENDING.add(this.record);
+        }
+
+        @Override
+        protected Iterator<BackendEntry> originIterator() {
+            return this.results;
+        }
+
+        @Override
+        protected boolean fetch() {
+            long start = System.nanoTime();
+            boolean fetched;
+            try {
+                fetched = this.results.hasNext();
+                if (fetched) {
+                    this.current = this.results.next();
+                }
+            } finally {
+                this.record.elapsed += System.nanoTime() - start;
+            }
+            if (!fetched) {
+                this.record.record();
+            }
+            return fetched;
+        }
+
+        @Override
+        public void close() throws Exception {
+            this.record.record();
+            super.close();
+        }
+
+        public static void recordDropped() {
+            LatencyRecord record;
+            while ((record = (LatencyRecord) DROPPED.poll()) != null) {
+                record.record();
+            }
+        }
+
+        private static class LatencyRecord
+                       extends WeakReference<LatencyIterator> {
+
+            private final LatencyHistogram latency;
+            // Only updated by the thread iterating the results
+            private volatile long elapsed;
+
+            public LatencyRecord(LatencyIterator iterator,
+                                 LatencyHistogram latency, long setup) {
+                super(iterator, DROPPED);
+                this.latency = latency;
+                this.elapsed = setup;
+            }
+
+            public void record() {
+                // Record only once, the removal is atomic
+                if (PENDING.remove(this)) {
+                    this.clear();
+                    this.latency.update(this.elapsed / 1000L);
+                }
+            }
+        }
+    }
 }
@@ -21,6 +21,7 @@ import java.nio.CharBuffer;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -28,6 +29,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -73,6 +78,7 @@ import org.apache.hugegraph.job.EphemeralJob;
 import org.apache.hugegraph.job.system.DeleteExpiredJob;
 import org.apache.hugegraph.perf.PerfUtil.Watched;
 import org.apache.hugegraph.schema.IndexLabel;
+import org.apache.hugegraph.schema.IndexLabelStats;
 import org.apache.hugegraph.schema.PropertyKey;
 import org.apache.hugegraph.schema.SchemaLabel;
 import org.apache.hugegraph.structure.HugeEdge;
@@ -83,14 +89,17 @@ import org.apache.hugegraph.structure.HugeProperty;
 import org.apache.hugegraph.structure.HugeVertex;
 import org.apache.hugegraph.type.HugeType;
 import org.apache.hugegraph.type.define.Action;
+import org.apache.hugegraph.type.define.CollectionType;
 import org.apache.hugegraph.type.define.HugeKeys;
 import org.apache.hugegraph.type.define.IndexType;
 import org.apache.hugegraph.util.CollectionUtil;
+import org.apache.hugegraph.util.Consumers;
 import org.apache.hugegraph.util.E;
 import org.apache.hugegraph.util.InsertionOrderUtil;
 import org.apache.hugegraph.util.LockUtil;
 import org.apache.hugegraph.util.LongEncoding;
 import org.apache.hugegraph.util.NumericUtil;
+import org.apache.hugegraph.util.collection.IdSet;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 
@@ -102,6 +111,9 @@ public class GraphIndexTransaction extends AbstractTransaction {
 
     private final Analyzer textAnalyzer;
     private final int indexIntersectThresh;
+    private final int indexIntersectMaxIds;
+    private final int indexUpdateThreads;
+    private final int indexParallelBatch;
 
     public GraphIndexTransaction(HugeGraphParams graph, BackendStore store) {
         super(graph, store);
@@ -112,6 +124,11 @@ public class GraphIndexTransaction extends AbstractTransaction {
         final HugeConfig conf = graph.configuration();
         this.indexIntersectThresh =
              conf.get(CoreOptions.QUERY_INDEX_INTERSECT_THRESHOLD);
+        this.indexIntersectMaxIds =
+             conf.get(CoreOptions.QUERY_INDEX_INTERSECT_MAX_IDS);
+        this.indexUpdateThreads = conf.get(CoreOptions.INDEX_UPDATE_THREADS);
+        this.indexParallelBatch =
+             conf.get(CoreOptions.INDEX_PARALLEL_UPDATE_BATCH);
     }
 
     protected void asyncRemoveIndexLeft(ConditionQuery query,
@@ -151,12 +168,8 @@ public class GraphIndexTransaction extends AbstractTransaction {
 
     @Watched(prefix = "index")
     public void updateVertexIndex(HugeVertex vertex, boolean removed) {
-        if (vertex.olap()) {
-            this.updateVertexOlapIndex(vertex, removed);
-            return;
-        }
         // Update index(only property, no edge) of a vertex
-        for (Id id : vertex.schemaLabel().indexLabels()) {
+        for (Id id : this.indexLabelIds(vertex)) {
             this.updateIndex(id, vertex, removed);
         }
     }
@@ -164,24 +177,113 @@ public class GraphIndexTransaction extends AbstractTransaction {
     @Watched(prefix = "index")
     public void updateEdgeIndex(HugeEdge edge, boolean removed) {
         // Update index of an edge
-        for (Id id : edge.schemaLabel().indexLabels()) {
+        for (Id id : this.indexLabelIds(edge)) {
             this.updateIndex(id, edge, removed);
         }
     }
 
-    private void updateVertexOlapIndex(HugeVertex vertex, boolean removed) {
-        Set<Id> propKeys = vertex.getPropertyKeys();
+    /**
+     * Update property index and label index of a batch of vertices or edges,
+     * the index entries of a large batch are built by multi threads and then
+     * applied in the order of elements, so the result is the same as that of
+     * updating the elements one by one.
+     * @param elements  the vertices or edges
+     * @param removed   remove or add index
+     */
+    @Watched(prefix = "index")
+    public void updateIndexes(Collection<? extends HugeElement> elements,
+                              boolean removed) {
+        ExecutorService executor = this.params().indexUpdateExecutor();
+        if (executor == null || elements.size() < this.indexParallelBatch) {
+            for (HugeElement element : elements) {
+                for (Id id : this.indexLabelIds(element)) {
+                    this.updateIndex(id, element, removed);
+                }
+                this.updateLabelIndex(element, removed);
+            }
+            return;
+        }
+
+        /*
+         * Collect index values in current thread, since it may access
+         * schema or check unique index in store by the thread-bound tx
+         */
+        List<ElementIndexes> batch = new ArrayList<>(elements.size());
+        boolean hasSearchIndex = false;
+        for (HugeElement element : elements) {
+            ElementIndexes indexes = new ElementIndexes(element);
+            for (Id id : this.indexLabelIds(element)) {
+                IndexValues values = this.collectIndexValues(id, element,
+                                                             removed);
+                if (values != null) {
+                    indexes.values.add(values);
+                    hasSearchIndex |= values.indexLabel.indexType().isSearch();
+                }
+            }
+            batch.add(indexes);
+        }
+
+        // Build index entries by partitions, which are CPU-bound
+        Map<String, Set<String>> wordsCache = new ConcurrentHashMap<>();
+        int partitions = Math.min(this.indexUpdateThreads, batch.size());
+        int partitionSize = (batch.size() + partitions - 1) / partitions;
+        List<Future<?>> futures = new ArrayList<>(partitions);
+        for (int from = 0; from < batch.size(); from += partitionSize) {
+            List<ElementIndexes> partition = batch.subList(
+                                 from, Math.min(from + partitionSize,
+                                                batch.size()));
+            IndexEntriesBuilder builder = new IndexEntriesBuilder(
+                                          this.graph(), this.serializer,
+                                          hasSearchIndex ?
+                                          this.cachedSegmenter(wordsCache) :
+                                          null);
+            futures.add(executor.submit(() -> {
+                for (ElementIndexes indexes : partition) {
+                    for (IndexValues values : indexes.values) {
+                        builder.build(values, indexes.entries);
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new HugeException("Interrupted while building index",
+                                        e);
+            } catch (ExecutionException e) {
+                throw Consumers.wrapException(e.getCause());
+            }
+        }
+
+        // Apply index entries in the order of elements
+        for (ElementIndexes indexes : batch) {
+            this.applyIndexEntries(indexes.entries, removed);
+            this.updateLabelIndex(indexes.element, removed);
+        }
+    }
+
+    private Collection<Id> indexLabelIds(HugeElement element) {
+        if (!(element instanceof HugeVertex) ||
+            !((HugeVertex) element).olap()) {
+            return element.schemaLabel().indexLabels();
+        }
+
+        Set<Id> propKeys = element.getPropertyKeys();
         E.checkArgument(propKeys.size() == 1,
                         "Expect only 1 property for olap vertex, but got %s",
                         propKeys.size());
         Id pkId = propKeys.iterator().next();
         List<IndexLabel> indexLabels = this.params().schemaTransaction()
                                            .getIndexLabels();
+        List<Id> ids = new ArrayList<>();
         for (IndexLabel il : indexLabels) {
             if (il.indexFields().contains(pkId)) {
-                this.updateIndex(il.id(), vertex, removed);
+                ids.add(il.id());
             }
         }
+        return ids;
     }
 
     /**
@@ -191,6 +293,18 @@ public class GraphIndexTransaction extends AbstractTransaction {
      * @param removed   remove or add index
      */
     protected void updateIndex(Id ilId, HugeElement element, boolean removed) {
+        IndexValues values = this.collectIndexValues(ilId, element, removed);
+        if (values == null) {
+            return;
+        }
+        List<BackendEntry> entries = new ArrayList<>();
+        new IndexEntriesBuilder(this.graph(), this.serializer,
+                                this::segmentWords).build(values, entries);
+        this.applyIndexEntries(entries, removed);
+    }
+
+    private IndexValues collectIndexValues(Id ilId, HugeElement element,
+                                           boolean removed) {
         SchemaTransaction schema = this.params().schemaTransaction();
         IndexLabel indexLabel = schema.getIndexLabel(ilId);
         E.checkArgument(indexLabel != null,
@@ -217,93 +331,33 @@ public class GraphIndexTransaction extends AbstractTransaction {
 
         if (firstNullField == 0 && !indexLabel.indexType().isUnique()) {
             // The property value of first index field is null
-            return;
+            return null;
         }
-        // Not build index for record with nullable field (except unique index)
-        List<Object> nnPropValues = allPropValues.subList(0, firstNullField);
 
-        // Expired time
-        long expiredTime = element.expiredTime();
-
-        // Update index for each index type
-        switch (indexLabel.indexType()) {
-            case RANGE_INT:
-            case RANGE_FLOAT:
-            case RANGE_LONG:
-            case RANGE_DOUBLE:
-                E.checkState(nnPropValues.size() == 1,
-                             "Expect only one property in range index");
-                Object value = NumericUtil.convertToNumber(nnPropValues.get(0));
-                this.updateIndex(indexLabel, value, element.id(),
-                                 expiredTime, removed);
-                break;
-            case SEARCH:
-                E.checkState(nnPropValues.size() == 1,
-                             "Expect only one property in search index");
-                value = nnPropValues.get(0);
-                Set<String> words =
-                            this.segmentWords(propertyValueToString(value));
-                for (String word : words) {
-                    this.updateIndex(indexLabel, word, element.id(),
-                                     expiredTime, removed);
-                }
-                break;
-            case SECONDARY:
-                // Secondary index maybe include multi prefix index
-                if (isCollectionIndex(nnPropValues)) {
-                    /*
-                     * Property value is a collection
-                     * we should create index for each item
-                     */
-                    for (Object propValue : (Collection<?>) nnPropValues.get(0)) {
-                        value = ConditionQuery.concatValues(propValue);
-                        this.updateIndex(indexLabel, value, element.id(),
-                                         expiredTime, removed);
-                    }
-                } else {
-                    for (int i = 0, n = nnPropValues.size(); i < n; i++) {
-                        List<Object> prefixValues =
-                                     nnPropValues.subList(0, i + 1);
-                        value = ConditionQuery.concatValues(prefixValues);
-                        this.updateIndex(indexLabel, value, element.id(),
-                                         expiredTime, removed);
-                    }
-                }
-                break;
-            case SHARD:
-                value = ConditionQuery.concatValues(nnPropValues);
-                this.updateIndex(indexLabel, value, element.id(),
-                                 expiredTime, removed);
-                break;
-            case UNIQUE:
-                value = ConditionQuery.concatValues(allPropValues);
-                assert !"".equals(value);
-                Id id = element.id();
-                // TODO: add lock for updating unique index
-                if (!removed && this.existUniqueValue(indexLabel, value, id)) {
-                    throw new IllegalArgumentException(String.format(
-                              "Unique constraint %s conflict is found for %s",
-                              indexLabel, element));
-                }
-                this.updateIndex(indexLabel, value, element.id(),
-                                 expiredTime, removed);
-                break;
-            default:
-                throw new AssertionError(String.format(
-                          "Unknown index type '%s'", indexLabel.indexType()));
+        if (indexLabel.indexType().isUnique()) {
+            Object value = ConditionQuery.concatValues(allPropValues);
+            assert !"".equals(value);
+            // TODO: add lock for updating unique index
+            if (!removed &&
+                this.existUniqueValue(indexLabel, value, element.id())) {
+                throw new IllegalArgumentException(String.format(
+                          "Unique constraint %s conflict is found for %s",
+                          indexLabel, element));
+            }
         }
-    }
 
-    private void updateIndex(IndexLabel indexLabel, Object propValue,
-                             Id elementId, long expiredTime, boolean removed) {
-        HugeIndex index = new HugeIndex(this.graph(), indexLabel);
-        index.fieldValues(propValue);
-        index.elementIds(elementId, expiredTime);
+        return new IndexValues(indexLabel, allPropValues, firstNullField,
+                               element.id(), element.expiredTime());
+    }
 
-        if (removed) {
-            this.doEliminate(this.serializer.writeIndex(index));
-        } else {
-            this.doAppend(this.serializer.writeIndex(index));
+    private void applyIndexEntries(List<BackendEntry> entries,
+                                   boolean removed) {
+        for (BackendEntry entry : entries) {
+            if (removed) {
+                this.doEliminate(entry);
+            } else {
+                this.doAppend(entry);
+            }
         }
     }
 
@@ -488,7 +542,7 @@ public class GraphIndexTransaction extends AbstractTransaction {
                 // Do secondary-index, range-index or shard-index query
                 IndexQueries queries = index.constructIndexQueries(query);
                 assert !paging || queries.size() <= 1;
-                IdHolder holder = this.doSingleOrJointIndex(queries);
+                IdHolder holder = this.doSingleOrJointIndex(query, queries);
                 holders.add(holder);
             }
 
@@ -518,7 +572,7 @@ public class GraphIndexTransaction extends AbstractTransaction {
             }
             IndexQueries queries = index.constructIndexQueries(q);
             assert !query.paging() || queries.size() <= 1;
-            IdHolder holder = this.doSingleOrJointIndex(queries);
+            IdHolder holder = this.doSingleOrJointIndex(q, queries);
             // NOTE: ids will be merged into one IdHolder if not in paging
             holders.add(holder);
         }
@@ -526,25 +580,30 @@ public class GraphIndexTransaction extends AbstractTransaction {
     }
 
     @Watched(prefix = "index")
-    private IdHolder doSingleOrJointIndex(IndexQueries queries) {
+    private IdHolder doSingleOrJointIndex(ConditionQuery query,
+                                          IndexQueries queries) {
         if (queries.size() == 1) {
-            return this.doSingleOrCompositeIndex(queries);
+            return this.doSingleOrCompositeIndex(query, queries);
         } else {
-            return this.doJointIndex(queries);
+            return this.doJointIndex(query, queries);
         }
     }
 
     @Watched(prefix = "index")
-    private IdHolder doSingleOrCompositeIndex(IndexQueries queries) {
+    private IdHolder doSingleOrCompositeIndex(ConditionQuery parentQuery,
+                                              IndexQueries queries) {
         assert queries.size() == 1;
         Map.Entry<IndexLabel, ConditionQuery> entry = queries.one();
         IndexLabel indexLabel = entry.getKey();
         ConditionQuery query = entry.getValue();
+        recordSelectedIndex(parentQuery, indexLabel,
+                            estimateCost(indexLabel, parentQuery));
         return this.doIndexQuery(indexLabel, query);
     }
 
     @Watched(prefix = "index")
-    private IdHolder doJointIndex(IndexQueries queries) {
+    private IdHolder doJointIndex(ConditionQuery parentQuery,
+                                  IndexQueries queries) {
         if (queries.oomRisk()) {
             LOG.warn("There is OOM risk if the joint operation is based on a " +
                      "large amount of data, please use single index + filter " +
@@ -554,7 +613,11 @@ public class GraphIndexTransaction extends AbstractTransaction {
         Set<Id> intersectIds = null;
         boolean filtering = false;
         IdHolder resultHolder = null;
-        for (Map.Entry<IndexLabel, ConditionQuery> e : queries.entrySet()) {
+        List<BatchIdHolder> exceededHolders = new ArrayList<>(queries.size());
+        // Query the most selective index firstly
+        List<Map.Entry<IndexLabel, ConditionQuery>> entries =
+                                     sortByCost(parentQuery, queries);
+        for (Map.Entry<IndexLabel, ConditionQuery> e : entries) {
             IndexLabel indexLabel = e.getKey();
             ConditionQuery query = e.getValue();
             assert !query.paging();
@@ -569,23 +632,24 @@ public class GraphIndexTransaction extends AbstractTransaction {
              * 1.1 Return the holder of the first index that not exceeded the
              *     threshold if there exists one index, this holder will be used
              *     as the only query condition.
-             * 1.2 Return the holder of the first index if all indexes exceeded
-             *     the threshold.
+             * 1.2 Intersect all indexes by streaming if all indexes exceeded
+             *     the threshold, return the holder of the first index only if
+             *     the intersection needs too many ids in memory.
              * 2 Else intersect holders for all indexes, and return intersection
              *   ids of all indexes.
              */
-            IdHolder holder = this.doIndexQuery(indexLabel, query);
+            BatchIdHolder holder = (BatchIdHolder) this.doIndexQuery(indexLabel,
+                                                                     query);
             if (resultHolder == null) {
                 resultHolder = holder;
                 this.storeSelectedIndexField(indexLabel, query);
             }
             assert this.indexIntersectThresh > 0; // default value is 1000
-            Set<Id> ids = ((BatchIdHolder) holder).peekNext(
-                          this.indexIntersectThresh).ids();
+            Set<Id> ids = holder.peekNext(this.indexIntersectThresh).ids();
             if (ids.size() >= this.indexIntersectThresh) {
-                // Transform into filtering
+                // Transform into filtering or streaming intersection
                 filtering = true;
-                query.optimized(OptimizedType.INDEX_FILTER);
+                exceededHolders.add(holder);
             } else if (filtering) {
                 assert ids.size() < this.indexIntersectThresh;
                 resultHolder = holder;
@@ -603,7 +667,25 @@ public class GraphIndexTransaction extends AbstractTransaction {
             }
         }
 
+        if (filtering && exceededHolders.size() == queries.size() &&
+            this.indexIntersectMaxIds > 0) {
+            intersectIds = this.intersectByStreaming(exceededHolders);
+            if (intersectIds != null) {
+                return new FixedIdHolder(queries.asJointQuery(), intersectIds);
+            }
+            // Query the first index again since it has been consumed
+            Map.Entry<IndexLabel, ConditionQuery> first = entries.get(0);
+            resultHolder = this.doIndexQuery(first.getKey(), first.getValue());
+        }
+
         if (filtering) {
+            for (BatchIdHolder holder : exceededHolders) {
+                ((ConditionQuery) holder.query()).optimized(
+                                                  OptimizedType.INDEX_FILTER);
+                if (holder != resultHolder) {
+                    holder.close();
+                }
+            }
             return resultHolder;
         } else {
             assert intersectIds != null;
@@ -611,6 +693,125 @@ public class GraphIndexTransaction extends AbstractTransaction {
         }
     }
 
+    /**
+     * Intersect the indexes which all exceeded the intersect threshold by
+     * fetching them batch by batch in turn. The first exhausted index is the
+     * smallest one, then its ids are used to probe the rest batches of other
+     * indexes, so there is no back-table and at most indexIntersectMaxIds
+     * ids are kept in memory.
+     * @return the intersection ids, or null if there are too many ids to
+     *         intersect by streaming
+     */
+    private Set<Id> intersectByStreaming(List<BatchIdHolder> holders) {
+        int size = holders.size();
+        List<Set<Id>> fetchedIds = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            fetchedIds.add(new IdSet(CollectionType.EC));
+        }
+
+        // Fetch indexes in turn until the smallest one is exhausted
+        int smallest = -1;
+        long fetched = 0L;
+        while (smallest < 0) {
+            for (int i = 0; i < size; i++) {
+                BatchIdHolder holder = holders.get(i);
+                Set<Id> ids = holder.fetchNext(null, this.indexIntersectThresh)
+                                    .ids();
+                fetchedIds.get(i).addAll(ids);
+                fetched += ids.size();
+                if (!holder.hasNext()) {
+                    smallest = i;
+                    break;
+                }
+                if (fetched > this.indexIntersectMaxIds) {
+                    LOG.debug("Too many ids to intersect by streaming, " +
+                              "fallback to filtering: {}", holder.query());
+                    return null;
+                }
+            }
+        }
+
+        // Probe the ids of the smallest index with the rest of other indexes
+        Set<Id> results = fetchedIds.get(smallest);
+        for (int i = 0; i < size && !results.isEmpty(); i++) {
+            if (i == smallest) {
+                continue;
+            }
+            Set<Id> matched = new IdSet(CollectionType.EC);
+            retainIds(fetchedIds.get(i), results, matched);
+            // Release the fetched ids as early as possible
+            fetchedIds.set(i, null);
+            BatchIdHolder holder = holders.get(i);
+            // Stop early if all of the ids have been matched
+            while (matched.size() < results.size() && holder.hasNext()) {
+                Set<Id> ids = holder.fetchNext(null, this.indexIntersectThresh)
+                                    .ids();
+                retainIds(ids, results, matched);
+            }
+            holder.close();
+            results = matched;
+        }
+        for (BatchIdHolder holder : holders) {
+            holder.close();
+        }
+        return results;
+    }
+
+    private static void retainIds(Set<Id> ids, Set<Id> candidates,
+                                  Set<Id> matched) {
+        for (Id id : ids) {
+            if (candidates.contains(id)) {
+                matched.add(id);
+            }
+        }
+    }
+
+    private static List<Map.Entry<IndexLabel, ConditionQuery>> sortByCost(
+                                  ConditionQuery parentQuery,
+                                  IndexQueries queries) {
+        Map<IndexLabel, Long> costs = new HashMap<>();
+        for (IndexLabel indexLabel : queries.keySet()) {
+            long cost = estimateCost(indexLabel, parentQuery);
+            costs.put(indexLabel, cost == IndexLabelStats.UNKNOWN ?
+                                  Long.MAX_VALUE : cost);
+        }
+        List<Map.Entry<IndexLabel, ConditionQuery>> entries =
+                                     new ArrayList<>(queries.entrySet());
+        // Keep the origin order of the indexes without stats
+        entries.sort(Comparator.comparing(e -> costs.get(e.getKey())));
+        for (Map.Entry<IndexLabel, ConditionQuery> e : entries) {
+            long cost = costs.get(e.getKey());
+            recordSelectedIndex(parentQuery, e.getKey(),
+                                cost == Long.MAX_VALUE ?
+                                IndexLabelStats.UNKNOWN : cost);
+        }
+        return entries;
+    }
+
+    private static long estimateCost(IndexLabel indexLabel,
+                                     ConditionQuery query) {
+        IndexLabelStats stats = indexLabel.stats();
+        if (stats == null) {
+            return IndexLabelStats.UNKNOWN;
+        }
+        return stats.estimate(indexLabel, query);
+    }
+
+    private static void recordSelectedIndex(ConditionQuery query,
+                                            IndexLabel indexLabel,
+                                            long cost) {
+        Query rootQuery = query.rootOriginQuery();
+        if (!(rootQuery instanceof ConditionQuery)) {
+            return;
+        }
+        String estimated = cost == IndexLabelStats.UNKNOWN ?
+                           "no stats" : "estimated " + cost;
+        ((ConditionQuery) rootQuery).selectedIndex(String.format(
+                                     "%s(%s, %s)", indexLabel.name(),
+                                     indexLabel.indexType().string(),
+                                     estimated));
+    }
+
     private void storeSelectedIndexField(IndexLabel indexLabel,
                                          ConditionQuery query) {
         // Only store range index field
@@ -869,6 +1070,24 @@ public class GraphIndexTransaction extends AbstractTransaction {
     }
 
     private Set<String> segmentWords(String text) {
+        return segmentWords(this.textAnalyzer, text);
+    }
+
+    private Function<String, Set<String>> cachedSegmenter(
+                                          Map<String, Set<String>> cache) {
+        // The analyzer may be stateful, don't share it between threads
+        Analyzer analyzer = this.params().analyzer();
+        return text -> {
+            Set<String> words = cache.get(text);
+            if (words == null) {
+                words = segmentWords(analyzer, text);
+                cache.putIfAbsent(text, words);
+            }
+            return words;
+        };
+    }
+
+    private static Set<String> segmentWords(Analyzer analyzer, String text) {
         /*
          Support 3 kinds of query:
          - Text.contains("(word)"): query by user-specified word;
@@ -885,7 +1104,7 @@ public class GraphIndexTransaction extends AbstractTransaction {
                 return ImmutableSet.of(subText);
             }
         }
-        Set<String> segments = this.textAnalyzer.segment(text);
+        Set<String> segments = analyzer.segment(text);
 
         /*
          * Add original text to segments at the insertion stage,
@@ -925,6 +1144,8 @@ public class GraphIndexTransaction extends AbstractTransaction {
         boolean requireRange = query.hasRangeCondition();
         boolean requireSearch = query.hasSearchCondition();
         Set<Id> queryPropKeys = query.userpropKeys();
+        IndexLabel matched = null;
+        long matchedCost = IndexLabelStats.UNKNOWN;
         for (IndexLabel indexLabel : indexLabels) {
             List<Id> indexFields = indexLabel.indexFields();
             // Try to match fields
@@ -948,9 +1169,19 @@ public class GraphIndexTransaction extends AbstractTransaction {
             if (requireRange && !indexType.isNumeric()) {
                 continue;
             }
-            return ImmutableSet.of(indexLabel);
+            /*
+             * Choose the cheapest one if there are multiple matched indexes,
+             * or the first one if none of them has been analyzed
+             */
+            long cost = estimateCost(indexLabel, query);
+            if (matched == null || (cost != IndexLabelStats.UNKNOWN &&
+                (matchedCost == IndexLabelStats.UNKNOWN ||
+                 cost < matchedCost))) {
+                matched = indexLabel;
+                matchedCost = cost;
+            }
         }
-        return ImmutableSet.of();
+        return matched == null ? ImmutableSet.of() : ImmutableSet.of(matched);
     }
 
     /**
@@ -1554,6 +1785,128 @@ public class GraphIndexTransaction extends AbstractTransaction {
         this.doRemove(this.serializer.writeIndex(index));
     }
 
+    private static class IndexValues {
+
+        private final IndexLabel indexLabel;
+        private final List<Object> allPropValues;
+        private final int firstNullField;
+        private final Id elementId;
+        private final long expiredTime;
+
+        public IndexValues(IndexLabel indexLabel, List<Object> allPropValues,
+                           int firstNullField, Id elementId,
+                           long expiredTime) {
+            this.indexLabel = indexLabel;
+            this.allPropValues = allPropValues;
+            this.firstNullField = firstNullField;
+            this.elementId = elementId;
+            this.expiredTime = expiredTime;
+        }
+
+        public List<Object> nonNullPropValues() {
+            // Not build index for record with nullable field (except unique)
+            return this.allPropValues.subList(0, this.firstNullField);
+        }
+    }
+
+    private static class ElementIndexes {
+
+        private final HugeElement element;
+        private final List<IndexValues> values;
+        private final List<BackendEntry> entries;
+
+        public ElementIndexes(HugeElement element) {
+            this.element = element;
+            this.values = new ArrayList<>();
+            this.entries = new ArrayList<>();
+        }
+    }
+
+    private static class IndexEntriesBuilder {
+
+        private final HugeGraph graph;
+        private final AbstractSerializer serializer;
+        private final Function<String, Set<String>> segmenter;
+
+        public IndexEntriesBuilder(HugeGraph graph,
+                                   AbstractSerializer serializer,
+                                   Function<String, Set<String>> segmenter) {
+            this.graph = graph;
+            this.serializer = serializer;
+            this.segmenter = segmenter;
+        }
+
+        public void build(IndexValues values, List<BackendEntry> entries) {
+            IndexLabel indexLabel = values.indexLabel;
+            List<Object> nnPropValues = values.nonNullPropValues();
+            Object value;
+
+            // Build index for each index type
+            switch (indexLabel.indexType()) {
+                case RANGE_INT:
+                case RANGE_FLOAT:
+                case RANGE_LONG:
+                case RANGE_DOUBLE:
+                    E.checkState(nnPropValues.size() == 1,
+                                 "Expect only one property in range index");
+                    value = NumericUtil.convertToNumber(nnPropValues.get(0));
+                    entries.add(this.buildIndex(values, value));
+                    break;
+                case SEARCH:
+                    E.checkState(nnPropValues.size() == 1,
+                                 "Expect only one property in search index");
+                    value = nnPropValues.get(0);
+                    Set<String> words = this.segmenter.apply(
+                                        propertyValueToString(value));
+                    for (String word : words) {
+                        entries.add(this.buildIndex(values, word));
+                    }
+                    break;
+                case SECONDARY:
+                    // Secondary index maybe include multi prefix index
+                    if (isCollectionIndex(nnPropValues)) {
+                        /*
+                         * Property value is a collection
+                         * we should create index for each item
+                         */
+                        for (Object propValue :
+                             (Collection<?>) nnPropValues.get(0)) {
+                            value = ConditionQuery.concatValues(propValue);
+                            entries.add(this.buildIndex(values, value));
+                        }
+                    } else {
+                        for (int i = 0, n = nnPropValues.size(); i < n; i++) {
+                            List<Object> prefixValues =
+                                         nnPropValues.subList(0, i + 1);
+                            value = ConditionQuery.concatValues(prefixValues);
+                            entries.add(this.buildIndex(values, value));
+                        }
+                    }
+                    break;
+                case SHARD:
+                    value = ConditionQuery.concatValues(nnPropValues);
+                    entries.add(this.buildIndex(values, value));
+                    break;
+                case UNIQUE:
+                    // The unique constraint has been checked when collecting
+                    value = ConditionQuery.concatValues(values.allPropValues);
+                    entries.add(this.buildIndex(values, value));
+                    break;
+                default:
+                    throw new AssertionError(String.format(
+                              "Unknown index type '%s'",
+                              indexLabel.indexType()));
+            }
+        }
+
+        private BackendEntry buildIndex(IndexValues values, Object propValue) {
+            HugeIndex index = new HugeIndex(this.graph, values.indexLabel);
+            index.fieldValues(propValue);
+            index.elementIds(values.elementId, values.expiredTime);
+            return this.serializer.writeIndex(index);
+        }
+    }
+
     private static class MatchedIndex {
 
         private SchemaLabel schemaLabel;
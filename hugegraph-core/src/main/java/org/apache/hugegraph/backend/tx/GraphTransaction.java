@@ -48,6 +48,7 @@ import org.apache.hugegraph.backend.query.ConditionQuery;
 import org.apache.hugegraph.backend.query.ConditionQuery.OptimizedType;
 import org.apache.hugegraph.backend.query.ConditionQueryFlatten;
 import org.apache.hugegraph.backend.query.IdQuery;
+import org.apache.hugegraph.backend.query.ParallelScanner;
 import org.apache.hugegraph.backend.query.Query;
 import org.apache.hugegraph.backend.query.QueryResults;
 import org.apache.hugegraph.backend.store.BackendEntry;
@@ -103,6 +104,9 @@ public class GraphTransaction extends IndexableTransaction {
 
     public static final int COMMIT_BATCH = (int) Query.COMMIT_BATCH;
 
+    // Read the neighbors of a vertex from the adjacency blocks of backend
+    public static final String META_ADJACENCY = "adjacency";
+
     private final GraphIndexTransaction indexTx;
 
     private Map<Id, HugeVertex> addedVertices;
@@ -127,6 +131,7 @@ public class GraphTransaction extends IndexableTransaction {
     private final boolean removeLeftIndexOnOverwrite;
     private final boolean ignoreInvalidEntry;
     private final boolean optimizeAggrByIndex;
+    private final int parallelScanThreads;
     private final int commitPartOfAdjacentEdges;
     private final int batchSize;
     private final int pageSize;
@@ -157,6 +162,8 @@ public class GraphTransaction extends IndexableTransaction {
              conf.get(CoreOptions.QUERY_IGNORE_INVALID_DATA);
         this.optimizeAggrByIndex =
              conf.get(CoreOptions.QUERY_OPTIMIZE_AGGR_BY_INDEX);
+        this.parallelScanThreads =
+             conf.get(CoreOptions.QUERY_PARALLEL_SCAN_THREADS);
         this.batchSize = conf.get(CoreOptions.QUERY_BATCH_SIZE);
         this.pageSize = conf.get(CoreOptions.QUERY_PAGE_SIZE);
 
@@ -176,6 +183,15 @@ public class GraphTransaction extends IndexableTransaction {
         return this.mutationSize() > 0 || super.hasUpdate();
     }
 
+    @Override
+    public <R> R metadata(HugeType type, String meta, Object... args) {
+        if (META_ADJACENCY.equals(meta) && this.hasUpdate()) {
+            // The blocks don't contain the uncommitted edges of this tx
+            return null;
+        }
+        return super.metadata(type, meta, args);
+    }
+
     @Override
     public boolean hasUpdate(HugeType type, Action action) {
         if (type.isVertex()) {
@@ -255,6 +271,16 @@ public class GraphTransaction extends IndexableTransaction {
         return this.indexTx;
     }
 
+    @Override
+    protected GroupCommitter groupCommitter() {
+        GroupCommitter committer = this.params().groupCommitter();
+        // Only the graph store is group committed, the system store isn't
+        if (committer == null || committer.store() != this.store()) {
+            return null;
+        }
+        return committer;
+    }
+
     @Override
     protected void beforeWrite() {
         this.checkTxVerticesCapacity();
@@ -287,6 +313,10 @@ public class GraphTransaction extends IndexableTransaction {
         return new ArrayList<>(this.removedVertices.values());
     }
 
+    protected final Collection<HugeEdge> edgesInTxRemoved() {
+        return new ArrayList<>(this.removedEdges.values());
+    }
+
     protected final boolean removingEdgeOwner(HugeEdge edge) {
         for (HugeVertex vertex : this.removedVertices.values()) {
             if (edge.belongToVertex(vertex)) {
@@ -338,12 +368,12 @@ public class GraphTransaction extends IndexableTransaction {
 
             // Add vertex entry
             this.doInsert(this.serializer.writeVertex(v));
-            // Update index of vertex(only include props)
-            this.indexTx.updateVertexIndex(v, false);
-            this.indexTx.updateLabelIndex(v, false);
         }
+        // Update index of vertices(only include props)
+        this.indexTx.updateIndexes(addedVertices.values(), false);
 
         // Do edge update
+        List<HugeEdge> indexedEdges = new ArrayList<>(addedEdges.size());
         for (HugeEdge e : addedEdges.values()) {
             assert !e.removed();
             e.committed();
@@ -355,10 +385,10 @@ public class GraphTransaction extends IndexableTransaction {
             // Add edge entry of OUT and IN
             this.doInsert(this.serializer.writeEdge(e));
             this.doInsert(this.serializer.writeEdge(e.switchOwner()));
-            // Update index of edge
-            this.indexTx.updateEdgeIndex(e, false);
-            this.indexTx.updateLabelIndex(e, false);
+            indexedEdges.add(e);
         }
+        // Update index of edges
+        this.indexTx.updateIndexes(indexedEdges, false);
     }
 
     protected void prepareDeletions(Map<Id, HugeVertex> removedVertices,
@@ -398,9 +428,9 @@ public class GraphTransaction extends IndexableTransaction {
              * edges should be removed manually when removing vertex.
              */
             this.doRemove(this.serializer.writeVertex(v.prepareRemoved()));
-            this.indexTx.updateVertexIndex(v, true);
-            this.indexTx.updateLabelIndex(v, true);
         }
+        // Update index of vertices
+        this.indexTx.updateIndexes(removedVertices.values(), true);
 
         // Remove edges
         this.prepareDeletions(removedEdges);
@@ -410,14 +440,13 @@ public class GraphTransaction extends IndexableTransaction {
         // Remove edges
         for (HugeEdge e : removedEdges.values()) {
             this.checkAggregateProperty(e);
-            // Update edge index
-            this.indexTx.updateEdgeIndex(e, true);
-            this.indexTx.updateLabelIndex(e, true);
             // Remove edge of OUT and IN
             e = e.prepareRemoved();
             this.doRemove(this.serializer.writeEdge(e));
             this.doRemove(this.serializer.writeEdge(e.switchOwner()));
         }
+        // Update index of edges
+        this.indexTx.updateIndexes(removedEdges.values(), true);
     }
 
     protected void prepareUpdates(Set<HugeProperty<?>> addedProps,
@@ -549,6 +578,15 @@ public class GraphTransaction extends IndexableTransaction {
             E.checkArgument(!isConditionQuery,
                             "It's not allowed to query by index when " +
                             "there are uncommitted records.");
+        } else if (this.parallelScanThreads > 0 && isCountAll(query)) {
+            // Count all vertices or edges by shards in parallel if supported
+            ParallelScanner scanner = new ParallelScanner(
+                                      this.graph(),
+                                      this.params().parallelScanExecutor());
+            Long count = scanner.count(query);
+            if (count != null) {
+                return count;
+            }
         }
 
         QueryList<Number> queries = this.optimizeQueries(query, q -> {
@@ -601,6 +639,15 @@ public class GraphTransaction extends IndexableTransaction {
         return aggregate.reduce(results.iterator());
     }
 
+    private static boolean isCountAll(Query query) {
+        // Only a plain query without any id or condition is a full scan
+        return query.getClass() == Query.class &&
+               (query.resultType() == HugeType.VERTEX ||
+                query.resultType() == HugeType.EDGE) &&
+               query.aggregateNotNull().func() == AggregateFunc.COUNT &&
+               query.noLimit() && query.offset() == 0L;
+    }
+
     @Watched(prefix = "graph")
     public HugeVertex addVertex(Object... keyValues) {
         return this.addVertex(this.constructVertex(true, keyValues));
@@ -870,6 +917,10 @@ public class GraphTransaction extends IndexableTransaction {
 
         // Override edges in local `addedEdges`
         this.addedEdges.remove(edge.id());
+        // Load the properties skipped by the query to remove their indexes
+        if (!edge.isPropLoaded()) {
+            edge.forceLoad();
+        }
 
         // Collect the removed edge
         this.removedEdges.put(edge.id(), edge);
@@ -1012,9 +1063,10 @@ public class GraphTransaction extends IndexableTransaction {
         QueryResults<BackendEntry> results = this.query(query);
         Iterator<BackendEntry> entries = results.iterator();
 
+        Set<Id> properties = query.selectedProperties();
         Iterator<HugeEdge> edges = new FlatMapperIterator<>(entries, entry -> {
             // Edges are in a vertex
-            HugeVertex vertex = this.parseEntry(entry);
+            HugeVertex vertex = this.parseEntry(entry, properties);
             if (vertex == null) {
                 return null;
             }
@@ -1158,6 +1210,10 @@ public class GraphTransaction extends IndexableTransaction {
         PropertyKey propKey = prop.propertyKey();
         E.checkState(edge != null,
                      "No owner for removing property '%s'", prop.key());
+        // Load the properties skipped by the query before updating the edge
+        if (!edge.fresh() && !edge.isPropLoaded()) {
+            edge.forceLoad();
+        }
 
         // Maybe have ever been removed
         if (!edge.hasProperty(propKey.id())) {
@@ -1957,8 +2013,13 @@ public class GraphTransaction extends IndexableTransaction {
     }
 
     private HugeVertex parseEntry(BackendEntry entry) {
+        return this.parseEntry(entry, null);
+    }
+
+    private HugeVertex parseEntry(BackendEntry entry, Set<Id> edgeProperties) {
         try {
-            HugeVertex vertex = this.serializer.readVertex(graph(), entry);
+            HugeVertex vertex = this.serializer.readVertex(graph(), entry,
+                                                           edgeProperties);
             assert vertex != null;
             return vertex;
         } catch (ForbiddenException | SecurityException e) {
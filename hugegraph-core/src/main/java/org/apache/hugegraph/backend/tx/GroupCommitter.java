@@ -0,0 +1,259 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.hugegraph.backend.tx;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.hugegraph.backend.BackendException;
+import org.apache.hugegraph.backend.store.BackendMutation;
+import org.apache.hugegraph.backend.store.BackendStore;
+import org.apache.hugegraph.util.E;
+import org.apache.hugegraph.util.ExecutorUtil;
+import org.apache.hugegraph.util.Log;
+import org.slf4j.Logger;
+
+/**
+ * Coalesce the mutations of concurrent transactions into one backend write
+ * batch (like a RocksDB WriteBatch or a raft log entry), the transactions
+ * are committed by a single committer thread and each of them waits for
+ * its own future.
+ * A batch is committed once its size reaches maxBatchSize or the first
+ * transaction in it has waited for maxLingerMs. If the batch fails, all
+ * the transactions in it fail with the same error. They are not retried
+ * one by one, because the batch may have been partially written on the
+ * backends whose batch is not atomic (like HBase and Cassandra), and
+ * replaying it would double-apply the non-idempotent mutations like the
+ * counters and the aggregate properties.
+ */
+public class GroupCommitter implements AutoCloseable {
+
+    private static final Logger LOG = Log.logger(GroupCommitter.class);
+
+    private static final long POLL_INTERVAL = 1000L;
+    private static final long CLOSE_TIMEOUT = 30L;
+
+    private final BackendStore store;
+    private final int maxBatchSize;
+    private final long maxLingerNanos;
+
+    private final BlockingQueue<Request> queue;
+    private final ExecutorService committer;
+    private volatile boolean closed;
+
+    private final AtomicLong batches;
+    private final AtomicLong requests;
+
+    public GroupCommitter(String name, BackendStore store,
+                          int maxBatchSize, long maxLingerMs) {
+        E.checkNotNull(store, "store");
+        E.checkArgument(maxBatchSize > 0,
+                        "The max batch size must be > 0, but got %s",
+                        maxBatchSize);
+        E.checkArgument(maxLingerMs >= 0L,
+                        "The max linger must be >= 0, but got %s",
+                        maxLingerMs);
+        this.store = store;
+        this.maxBatchSize = maxBatchSize;
+        this.maxLingerNanos = TimeUnit.MILLISECONDS.toNanos(maxLingerMs);
+
+        this.queue = new LinkedBlockingQueue<>();
+        this.closed = false;
+        this.batches = new AtomicLong();
+        this.requests = new AtomicLong();
+
+        this.committer = ExecutorUtil.newFixedThreadPool(
+                         1, "group-commit-" + name + "-%d");
+        this.committer.submit(this::loop);
+    }
+
+    public BackendStore store() {
+        return this.store;
+    }
+
+    public long batches() {
+        return this.batches.get();
+    }
+
+    public long requests() {
+        return this.requests.get();
+    }
+
+    public CompletableFuture<Void> submit(BackendMutation... mutations) {
+        E.checkArgument(mutations.length > 0, "Can't commit empty mutations");
+        if (this.closed) {
+            throw new BackendException("The group committer has been closed");
+        }
+        Request request = new Request(mutations);
+        this.queue.add(request);
+        return request.future;
+    }
+
+    /**
+     * Submit the mutations and wait until they are committed
+     */
+    public void commit(BackendMutation... mutations) {
+        CompletableFuture<Void> future = this.submit(mutations);
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BackendException("Interrupted while waiting for " +
+                                       "group commit", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof BackendException) {
+                throw (BackendException) cause;
+            }
+            throw new BackendException("Failed to group commit", cause);
+        }
+    }
+
+    @Override
+    public void close() {
+        this.closed = true;
+        this.committer.shutdown();
+        try {
+            if (!this.committer.awaitTermination(CLOSE_TIMEOUT,
+                                                 TimeUnit.SECONDS)) {
+                LOG.warn("Timeout to wait group committer to finish");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Fail the requests which have not been committed
+        Request request;
+        while ((request = this.queue.poll()) != null) {
+            request.future.completeExceptionally(new BackendException(
+                    "The group committer has been closed"));
+        }
+    }
+
+    private void loop() {
+        List<Request> batch = new ArrayList<>();
+        while (!this.closed || !this.queue.isEmpty()) {
+            try {
+                Request first = this.queue.poll(POLL_INTERVAL,
+                                                TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                this.collect(first, batch);
+                this.commitBatch(batch);
+            } catch (InterruptedException e) {
+                LOG.warn("Interrupted while waiting for group commit");
+                for (Request request : batch) {
+                    request.future.completeExceptionally(e);
+                }
+                break;
+            } catch (Throwable e) {
+                // Never exit the committer thread due to unexpected errors
+                LOG.error("Unexpected error in group committer", e);
+                for (Request request : batch) {
+                    request.future.completeExceptionally(e);
+                }
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void collect(Request first, List<Request> batch)
+                         throws InterruptedException {
+        batch.add(first);
+        int size = first.size();
+        long deadline = System.nanoTime() + this.maxLingerNanos;
+        while (size < this.maxBatchSize) {
+            // Take the ready ones at first, then wait for the late ones
+            Request next = this.queue.poll();
+            if (next == null) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0L) {
+                    break;
+                }
+                next = this.queue.poll(remaining, TimeUnit.NANOSECONDS);
+                if (next == null) {
+                    break;
+                }
+            }
+            batch.add(next);
+            size += next.size();
+        }
+    }
+
+    private void commitBatch(List<Request> batch) {
+        this.batches.incrementAndGet();
+        this.requests.addAndGet(batch.size());
+        try {
+            this.commitToBackend(batch);
+        } catch (Throwable e) {
+            if (batch.size() > 1) {
+                LOG.warn("Failed to group commit {} transactions",
+                         batch.size(), e);
+            }
+            for (Request request : batch) {
+                request.future.completeExceptionally(e);
+            }
+            return;
+        }
+        for (Request request : batch) {
+            request.future.complete(null);
+        }
+    }
+
+    private void commitToBackend(List<Request> batch) {
+        this.store.beginTx();
+        try {
+            for (Request request : batch) {
+                for (BackendMutation mutation : request.mutations) {
+                    this.store.mutate(mutation);
+                }
+            }
+            this.store.commitTx();
+        } catch (Throwable e) {
+            this.store.rollbackTx();
+            throw e;
+        }
+    }
+
+    private static class Request {
+
+        private final BackendMutation[] mutations;
+        private final CompletableFuture<Void> future;
+
+        public Request(BackendMutation[] mutations) {
+            this.mutations = mutations;
+            this.future = new CompletableFuture<>();
+        }
+
+        public int size() {
+            int size = 0;
+            for (BackendMutation mutation : this.mutations) {
+                size += mutation.size();
+            }
+            return size;
+        }
+    }
+}
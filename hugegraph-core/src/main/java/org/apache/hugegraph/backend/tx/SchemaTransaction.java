@@ -42,6 +42,7 @@ import org.apache.hugegraph.config.CoreOptions;
 import org.apache.hugegraph.exception.NotAllowException;
 import org.apache.hugegraph.job.JobBuilder;
 import org.apache.hugegraph.job.schema.EdgeLabelRemoveJob;
+import org.apache.hugegraph.job.schema.IndexLabelAnalyzeJob;
 import org.apache.hugegraph.job.schema.IndexLabelRebuildJob;
 import org.apache.hugegraph.job.schema.IndexLabelRemoveJob;
 import org.apache.hugegraph.job.schema.OlapPropertyKeyClearJob;
@@ -52,6 +53,7 @@ import org.apache.hugegraph.job.schema.VertexLabelRemoveJob;
 import org.apache.hugegraph.perf.PerfUtil.Watched;
 import org.apache.hugegraph.schema.EdgeLabel;
 import org.apache.hugegraph.schema.IndexLabel;
+import org.apache.hugegraph.schema.IndexLabelStats;
 import org.apache.hugegraph.schema.PropertyKey;
 import org.apache.hugegraph.schema.SchemaElement;
 import org.apache.hugegraph.schema.SchemaLabel;
@@ -336,6 +338,29 @@ public class SchemaTransaction extends IndexableTransaction {
         return asyncRun(this.graph(), schema, callable, dependencies);
     }
 
+    @Watched(prefix = "schema")
+    public Id analyzeIndex(IndexLabel indexLabel) {
+        LOG.debug("SchemaTransaction analyze index label '{}'",
+                  indexLabel.id());
+        SchemaJob callable = new IndexLabelAnalyzeJob();
+        return asyncRun(this.graph(), indexLabel, callable);
+    }
+
+    @Watched(prefix = "schema")
+    public void updateIndexLabelStats(IndexLabel indexLabel,
+                                      IndexLabelStats stats) {
+        if (!this.existsSchemaId(indexLabel.type(), indexLabel.id())) {
+            LOG.warn("Can't update schema '{}', it may be deleted",
+                     indexLabel);
+            return;
+        }
+
+        this.updateSchema(indexLabel, schemaToUpdate -> {
+            // NOTE: Do schema update in the lock block
+            indexLabel.userdata(Userdata.STATISTICS, stats.asMap());
+        });
+    }
+
     public void createIndexLabelForOlapPk(PropertyKey propertyKey) {
         WriteType writeType = propertyKey.writeType();
         if (writeType == WriteType.OLTP ||
@@ -21,12 +21,15 @@ import static org.apache.hugegraph.backend.tx.GraphTransaction.COMMIT_BATCH;
 import static org.apache.hugegraph.config.OptionChecker.allowValues;
 import static org.apache.hugegraph.config.OptionChecker.disallowEmpty;
 import static org.apache.hugegraph.config.OptionChecker.positiveInt;
+import static org.apache.hugegraph.config.OptionChecker.rangeDouble;
 import static org.apache.hugegraph.config.OptionChecker.rangeInt;
 
 import org.apache.hugegraph.backend.query.Query;
 import org.apache.hugegraph.type.define.CollectionType;
 import org.apache.hugegraph.util.Bytes;
 
+import com.google.common.collect.ImmutableList;
+
 public class CoreOptions extends OptionHolder {
 
     public static final int CPUS = Runtime.getRuntime().availableProcessors();
@@ -193,6 +196,31 @@ public class CoreOptions extends OptionHolder {
                     "ReadOnlyLeaseBased"
             );
 
+    public static final ConfigOption<Integer> RAFT_READ_LEASE =
+            new ConfigOption<>(
+                    "raft.read_lease",
+                    "The lease in milliseconds to reuse the read index got " +
+                    "from the leader for the bounded-staleness reads on " +
+                    "followers, the reads in the lease are served locally " +
+                    "since the read index has been applied, which may miss " +
+                    "the writes committed in the lease, 0 means disabled. " +
+                    "The safe reads always request the read index, and the " +
+                    "leader lease of them follows raft.read_strategy.",
+                    rangeInt(0, Integer.MAX_VALUE),
+                    0
+            );
+
+    public static final ConfigOption<Integer> RAFT_MAX_READ_LAG =
+            new ConfigOption<>(
+                    "raft.max_read_lag",
+                    "The max number of committed but not yet applied raft " +
+                    "logs allowed for the bounded-staleness reads to be " +
+                    "served locally, otherwise the reads fall back to the " +
+                    "read index.",
+                    rangeInt(0, Integer.MAX_VALUE),
+                    100
+            );
+
     public static final ConfigOption<Integer> RAFT_APPLY_BATCH =
             new ConfigOption<>(
                     "raft.apply_batch",
@@ -202,6 +230,17 @@ public class CoreOptions extends OptionHolder {
                     1
             );
 
+    public static final ConfigOption<Integer> RAFT_APPLY_MERGE_SIZE =
+            new ConfigOption<>(
+                    "raft.apply_merge_size",
+                    "The max number of consecutive raft logs of followers " +
+                    "to be decoded in parallel and merged into one backend " +
+                    "transaction for each store when applying, " +
+                    "0 means apply each log separately.",
+                    rangeInt(0, 10000),
+                    0
+            );
+
     public static final ConfigOption<Integer> RAFT_QUEUE_SIZE =
             new ConfigOption<>(
                     "raft.queue_size",
@@ -339,6 +378,29 @@ public class CoreOptions extends OptionHolder {
                     false
             );
 
+    public static final ConfigOption<Integer> TASK_MAX_RUNNING =
+            new ConfigOption<>(
+                    "task.max_running",
+                    "The max number of running tasks of the graph on " +
+                    "current server, the tasks exceeding it wait in the " +
+                    "queue, 0 means no limit.",
+                    rangeInt(0, Integer.MAX_VALUE),
+                    0
+            );
+
+    public static final ConfigListOption<String> TASK_TYPE_MAX_RUNNING =
+            new ConfigListOption<>(
+                    "task.type_max_running",
+                    false,
+                    "The max number of running tasks of each task type of " +
+                    "the graph on current server, the format of each " +
+                    "element: `type:number`, like [algorithm:1, gremlin:2], " +
+                    "the tasks exceeding it wait in the queue.",
+                    null,
+                    String.class,
+                    ImmutableList.of()
+            );
+
     public static final ConfigOption<Long> STORE_CONN_DETECT_INTERVAL =
             new ConfigOption<>(
                     "store.connection_detect_interval",
@@ -350,6 +412,26 @@ public class CoreOptions extends OptionHolder {
                     600L
             );
 
+    public static final ConfigOption<Integer> STORE_GROUP_COMMIT_SIZE =
+            new ConfigOption<>(
+                    "store.group_commit_size",
+                    "The max size(items) of mutations from concurrent " +
+                    "transactions to be coalesced into one backend write " +
+                    "batch, a failed batch fails all the transactions " +
+                    "in it, enabled if size > 0, 0 means disabled.",
+                    rangeInt(0, 1000000),
+                    0
+            );
+
+    public static final ConfigOption<Integer> STORE_GROUP_COMMIT_LINGER =
+            new ConfigOption<>(
+                    "store.group_commit_linger",
+                    "The max time in milliseconds to wait for more " +
+                    "transactions to join a group commit batch.",
+                    rangeInt(0, 1000),
+                    2
+            );
+
     public static final ConfigOption<String> VERTEX_DEFAULT_LABEL =
             new ConfigOption<>(
                     "vertex.default_label",
@@ -427,6 +509,25 @@ public class CoreOptions extends OptionHolder {
                     10000
             );
 
+    public static final ConfigOption<Integer> INDEX_UPDATE_THREADS =
+            new ConfigOption<>(
+                    "index.update_threads",
+                    "The thread number to build index entries of vertices " +
+                    "and edges concurrently when committing a transaction, " +
+                    "the threads are owned by each graph, 0 means disabled.",
+                    rangeInt(0, 256),
+                    0
+            );
+
+    public static final ConfigOption<Integer> INDEX_PARALLEL_UPDATE_BATCH =
+            new ConfigOption<>(
+                    "index.parallel_update_batch",
+                    "The min number of vertices or edges in a transaction " +
+                    "to build their index entries concurrently.",
+                    rangeInt(1, Integer.MAX_VALUE),
+                    200
+            );
+
     public static final ConfigOption<Boolean> QUERY_IGNORE_INVALID_DATA =
             new ConfigOption<>(
                     "query.ignore_invalid_data",
@@ -469,6 +570,31 @@ public class CoreOptions extends OptionHolder {
                     1000
             );
 
+    public static final ConfigOption<Integer> QUERY_INDEX_INTERSECT_MAX_IDS =
+            new ConfigOption<>(
+                    "query.index_intersect_max_ids",
+                    "The maximum number of element ids kept in memory to " +
+                    "intersect indexes by streaming when all of the joint " +
+                    "indexes exceed query.index_intersect_threshold, " +
+                    "fallback to filter after back-table if exceeded, " +
+                    "0 means always filter after back-table.",
+                    rangeInt(0, Integer.MAX_VALUE),
+                    1000000
+            );
+
+    public static final ConfigOption<Integer> QUERY_PARALLEL_SCAN_THREADS =
+            new ConfigOption<>(
+                    "query.parallel_scan_threads",
+                    "The thread number to scan the shards of vertex or edge " +
+                    "table in parallel when counting all vertices or edges, " +
+                    "or when the algorithms with workers traverse all " +
+                    "vertices, only works for the backends which support " +
+                    "scanning by shards, the threads are owned by each " +
+                    "graph and each running algorithm, 0 means disabled.",
+                    rangeInt(0, 256),
+                    0
+            );
+
     public static final ConfigOption<Boolean> QUERY_RAMTABLE_ENABLE =
             new ConfigOption<>(
                     "query.ramtable_enable",
@@ -495,6 +621,25 @@ public class CoreOptions extends OptionHolder {
                     20000000
             );
 
+    public static final ConfigOption<String> QUERY_RAMTABLE_MMAP_DIR =
+            new ConfigOption<>(
+                    "query.ramtable_mmap_dir",
+                    "The directory to store the memory-mapped ramtable " +
+                    "file, which is reused when restarting instead of " +
+                    "reloading, keep ramtable in heap if it's empty.",
+                    null,
+                    ""
+            );
+
+    public static final ConfigOption<Double> QUERY_RAMTABLE_COMPACT_THRESHOLD =
+            new ConfigOption<>(
+                    "query.ramtable_compact_threshold",
+                    "The ratio of removed edges to all edges in ramtable " +
+                    "to trigger background compaction, 0 means disabled.",
+                    rangeDouble(0.0, 1.0),
+                    0.3
+            );
+
     /**
      * The schema name rule:
      * 1、Not allowed end with spaces
@@ -519,8 +664,10 @@ public class CoreOptions extends OptionHolder {
     public static final ConfigOption<String> VERTEX_CACHE_TYPE =
             new ConfigOption<>(
                     "vertex.cache_type",
-                    "The type of vertex cache, allowed values are [l1, l2].",
-                    allowValues("l1", "l2"),
+                    "The type of vertex cache, allowed values are " +
+                    "[l1, l2, tinylfu], tinylfu is a heap cache with " +
+                    "frequency-based admission which is scan resistant.",
+                    allowValues("l1", "l2", "tinylfu"),
                     "l2"
             );
 
@@ -543,8 +690,10 @@ public class CoreOptions extends OptionHolder {
     public static final ConfigOption<String> EDGE_CACHE_TYPE =
             new ConfigOption<>(
                     "edge.cache_type",
-                    "The type of edge cache, allowed values are [l1, l2].",
-                    allowValues("l1", "l2"),
+                    "The type of edge cache, allowed values are " +
+                    "[l1, l2, tinylfu], tinylfu is a heap cache with " +
+                    "frequency-based admission which is scan resistant.",
+                    allowValues("l1", "l2", "tinylfu"),
                     "l2"
             );
 
@@ -564,6 +713,16 @@ public class CoreOptions extends OptionHolder {
                     (60 * 10)
             );
 
+    public static final ConfigOption<Boolean> CACHE_LAZY_LOAD_PROPERTIES =
+            new ConfigOption<>(
+                    "cache.lazy_load_properties",
+                    "Whether to lazy load properties of vertices and edges " +
+                    "read from off-heap cache(the l2 cache type), which " +
+                    "are decoded when they are accessed at the first time.",
+                    disallowEmpty(),
+                    true
+            );
+
     public static final ConfigOption<Long> SNOWFLAKE_WORKER_ID =
             new ConfigOption<>(
                     "snowflake.worker_id",
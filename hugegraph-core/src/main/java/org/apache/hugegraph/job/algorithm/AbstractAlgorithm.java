@@ -31,7 +31,9 @@ import org.apache.commons.lang3.StringEscapeUtils;
 import org.apache.commons.lang3.mutable.MutableLong;
 import org.apache.hugegraph.backend.id.Id;
 import org.apache.hugegraph.backend.query.ConditionQuery;
+import org.apache.hugegraph.backend.query.ParallelScanner;
 import org.apache.hugegraph.backend.query.Query;
+import org.apache.hugegraph.config.CoreOptions;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Element;
@@ -92,6 +94,8 @@ public abstract class AbstractAlgorithm implements Algorithm {
     public static final String KEY_EXPORT_COMM = "export_community";
     public static final String KEY_SKIP_ISOLATED = "skip_isolated";
     public static final String KEY_CLEAR = "clear";
+    public static final String KEY_IN_MEMORY = "in_memory";
+    public static final String KEY_WRITE_PASS = "write_pass";
     public static final String KEY_CAPACITY = "capacity";
     public static final String KEY_LIMIT = "limit";
     public static final String KEY_EACH_LIMIT = "each_limit";
@@ -275,21 +279,28 @@ public abstract class AbstractAlgorithm implements Algorithm {
     public static class AlgoTraverser extends HugeTraverser
                                       implements AutoCloseable {
 
+        private static final long PROGRESS_BATCH = 1000L;
+
         private final UserJob<Object> job;
+        private final String prefix;
         protected final ExecutorService executor;
+        private ExecutorService scanExecutor;
         protected long progress;
 
         public AlgoTraverser(UserJob<Object> job) {
             super(job.graph());
             this.job = job;
+            this.prefix = null;
             this.executor = null;
+            this.scanExecutor = null;
         }
 
         protected AlgoTraverser(UserJob<Object> job, String name, int workers) {
             super(job.graph());
             this.job = job;
-            String prefix = name + "-" + this.jobId();
-            this.executor = Consumers.newThreadPool(prefix, workers);
+            this.prefix = name + "-" + this.jobId();
+            this.executor = Consumers.newThreadPool(this.prefix, workers);
+            this.scanExecutor = null;
         }
 
         public void updateProgress(long progress) {
@@ -305,6 +316,9 @@ public abstract class AbstractAlgorithm implements Algorithm {
             if (this.executor != null) {
                 this.executor.shutdown();
             }
+            if (this.scanExecutor != null) {
+                this.scanExecutor.shutdown();
+            }
         }
 
         protected long traverse(String sourceLabel, String sourceCLabel,
@@ -321,6 +335,16 @@ public abstract class AbstractAlgorithm implements Algorithm {
         protected long traverse(String sourceLabel, String sourceCLabel,
                                 Consumer<Vertex> consumer, Runnable done,
                                 long limit) {
+            if (sourceLabel == null && limit == NO_LIMIT &&
+                this.executor != null) {
+                // Scan all vertices by shards in parallel if enabled
+                ParallelScanner scanner = this.parallelScanner();
+                if (scanner != null && scanner.parallel()) {
+                    return this.traverse(scanner, sourceCLabel,
+                                         consumer, done);
+                }
+            }
+
             long actualLimit = limit == NO_LIMIT ? Query.NO_LIMIT : limit;
             Iterator<Vertex> vertices = this.vertices(sourceLabel, sourceCLabel,
                                                       actualLimit);
@@ -347,6 +371,68 @@ public abstract class AbstractAlgorithm implements Algorithm {
             return total;
         }
 
+        private long traverse(ParallelScanner scanner, String sourceCLabel,
+                              Consumer<Vertex> consumer, Runnable done) {
+            /*
+             * The shards are scanned by the scan threads, and the vertices
+             * are consumed by the workers like the sequential traversal, so
+             * the consumers write by the transactions of the workers rather
+             * than the scanning ones, and `done` is called once per worker
+             */
+            Consumers<Vertex> consumers = new Consumers<>(this.executor,
+                                                          consumer, done);
+            consumers.start("task-" + this.job.task().id());
+            try {
+                return scanner.scanVertices(vertices -> {
+                    if (sourceCLabel != null) {
+                        vertices = this.filter(vertices, C_LABEL,
+                                               sourceCLabel);
+                    }
+                    long total = 0L;
+                    try {
+                        while (vertices.hasNext()) {
+                            consumers.provide(vertices.next());
+                            if (++total % PROGRESS_BATCH == 0L) {
+                                this.addProgress(PROGRESS_BATCH);
+                            }
+                        }
+                    } catch (StopExecution e) {
+                        // Let the other shards stop too
+                        scanner.stop();
+                    } catch (Throwable e) {
+                        throw Consumers.wrapException(e);
+                    } finally {
+                        this.addProgress(total % PROGRESS_BATCH);
+                    }
+                    return total;
+                }, Long::sum);
+            } finally {
+                consumers.await();
+            }
+        }
+
+        private ParallelScanner parallelScanner() {
+            int threads = this.graph().option(
+                          CoreOptions.QUERY_PARALLEL_SCAN_THREADS);
+            if (threads <= 0) {
+                return null;
+            }
+            if (this.scanExecutor == null) {
+                /*
+                 * Can't scan by the workers since they are occupied by the
+                 * consumers while scanning
+                 */
+                this.scanExecutor = Consumers.newThreadPool(
+                                    this.prefix + "-scan", threads);
+            }
+            return new ParallelScanner(this.graph(), this.scanExecutor);
+        }
+
+        private synchronized void addProgress(long count) {
+            this.progress += count;
+            this.updateProgress(this.progress);
+        }
+
         protected Iterator<Vertex> vertices() {
             return this.vertices(Query.NO_LIMIT);
         }
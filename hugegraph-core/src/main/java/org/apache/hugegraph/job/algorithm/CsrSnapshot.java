@@ -0,0 +1,466 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.hugegraph.job.algorithm;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.BinaryOperator;
+
+import org.apache.hugegraph.HugeException;
+import org.apache.hugegraph.HugeGraph;
+import org.apache.hugegraph.backend.id.EdgeId;
+import org.apache.hugegraph.backend.id.Id;
+import org.apache.hugegraph.backend.query.ParallelScanner;
+import org.apache.hugegraph.backend.query.Query;
+import org.apache.hugegraph.structure.HugeEdge;
+import org.apache.hugegraph.structure.HugeVertex;
+import org.apache.hugegraph.type.HugeType;
+import org.apache.hugegraph.type.define.Directions;
+import org.apache.hugegraph.util.E;
+import org.apache.hugegraph.util.Log;
+import org.apache.hugegraph.util.collection.ObjectIntMappingFactory;
+import org.apache.hugegraph.util.collection.ObjectIntMappingFactory.DenseObjectIntMapping;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.util.CloseableIterator;
+import org.eclipse.collections.impl.list.mutable.primitive.DoubleArrayList;
+import org.eclipse.collections.impl.list.mutable.primitive.IntArrayList;
+import org.slf4j.Logger;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * An in-memory snapshot of a graph in compressed sparse row format for the
+ * iterative algorithms, which is built by one scan of the vertices and the
+ * edges, then the algorithms iterate on it without reading the backend.
+ * The vertices are mapped to dense codes [0, vertexCount), the adjacent
+ * vertices of vertex v are targets[offsets[v]...offsets[v+1]), and the
+ * reversed adjacency is kept too so that the algorithms can pull the values
+ * from the adjacent vertices in parallel without locks.
+ * NOTE: the adjacency is directed by the direction to build, like the
+ * adjacency of direction IN is from the target vertex to the source vertex,
+ * and each edge is added twice for direction BOTH.
+ */
+public final class CsrSnapshot {
+
+    private static final Logger LOG = Log.logger(CsrSnapshot.class);
+
+    public static final double DEFAULT_WEIGHT = 1.0D;
+
+    private final DenseObjectIntMapping<Id> vertices;
+    private final int[] offsets;
+    private final int[] targets;
+    private final double[] weights;
+    private final int[] reversedOffsets;
+    private final int[] reversedTargets;
+    private final double[] reversedWeights;
+
+    private CsrSnapshot(DenseObjectIntMapping<Id> vertices,
+                        int[] offsets, int[] targets, double[] weights,
+                        int[] reversedOffsets, int[] reversedTargets,
+                        double[] reversedWeights) {
+        this.vertices = vertices;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.reversedOffsets = reversedOffsets;
+        this.reversedTargets = reversedTargets;
+        this.reversedWeights = reversedWeights;
+    }
+
+    public int vertexCount() {
+        return this.offsets.length - 1;
+    }
+
+    public int edgeCount() {
+        return this.targets.length;
+    }
+
+    public Id vertexId(int vertex) {
+        return this.vertices.code2Object(vertex);
+    }
+
+    /**
+     * @return the code of the vertex, or -1 if it's not in the snapshot
+     */
+    public int vertexCode(Id vertex) {
+        return this.vertices.code(vertex);
+    }
+
+    public boolean weighted() {
+        return this.weights != null;
+    }
+
+    public int degree(int vertex) {
+        return this.offsets[vertex + 1] - this.offsets[vertex];
+    }
+
+    /**
+     * The adjacent vertices of vertex v are target(i) for i in
+     * [start(v), end(v))
+     */
+    public int start(int vertex) {
+        return this.offsets[vertex];
+    }
+
+    public int end(int vertex) {
+        return this.offsets[vertex + 1];
+    }
+
+    public int target(int index) {
+        return this.targets[index];
+    }
+
+    public double weight(int index) {
+        return this.weights == null ? DEFAULT_WEIGHT : this.weights[index];
+    }
+
+    public int reversedDegree(int vertex) {
+        return this.reversedOffsets[vertex + 1] - this.reversedOffsets[vertex];
+    }
+
+    /**
+     * The vertices adjacent to vertex v are reversedTarget(i) for i in
+     * [reversedStart(v), reversedEnd(v))
+     */
+    public int reversedStart(int vertex) {
+        return this.reversedOffsets[vertex];
+    }
+
+    public int reversedEnd(int vertex) {
+        return this.reversedOffsets[vertex + 1];
+    }
+
+    public int reversedTarget(int index) {
+        return this.reversedTargets[index];
+    }
+
+    public double reversedWeight(int index) {
+        return this.reversedWeights == null ?
+               DEFAULT_WEIGHT : this.reversedWeights[index];
+    }
+
+    /**
+     * Split the vertices [0, vertexCount) into ranges and compute them in
+     * parallel, then reduce the results of the ranges.
+     * @param executor the executor to run the ranges, compute in current
+     *                 thread if it's null
+     * @param function compute a range of vertices [start, end)
+     */
+    public <A> A compute(ExecutorService executor, RangeFunction<A> function,
+                         BinaryOperator<A> reducer) {
+        return compute(executor, this.vertexCount(), function, reducer);
+    }
+
+    /**
+     * Split [0, count) into ranges and compute them in parallel, the
+     * results are reduced in the order of the ranges.
+     */
+    public static <A> A compute(ExecutorService executor, int count,
+                                RangeFunction<A> function,
+                                BinaryOperator<A> reducer) {
+        int parallelism = executor == null ? 1 : Consumers.THREADS;
+        // Split into more ranges than threads to balance the skewed ranges
+        int ranges = Math.max(1, Math.min(count / 1024, parallelism * 4));
+        if (ranges == 1) {
+            return function.apply(0, count);
+        }
+
+        int step = (count + ranges - 1) / ranges;
+        List<Future<A>> futures = new ArrayList<>(ranges);
+        for (int start = 0; start < count; start += step) {
+            int from = start;
+            int to = Math.min(start + step, count);
+            futures.add(executor.submit(() -> function.apply(from, to)));
+        }
+        A result = null;
+        boolean first = true;
+        for (Future<A> future : futures) {
+            A value;
+            try {
+                value = future.get();
+            } catch (InterruptedException e) {
+                futures.forEach(f -> f.cancel(true));
+                throw new HugeException("Interrupted while computing", e);
+            } catch (ExecutionException e) {
+                futures.forEach(f -> f.cancel(true));
+                throw Consumers.wrapException(e.getCause());
+            }
+            result = first ? value : reducer.apply(result, value);
+            first = false;
+        }
+        return result;
+    }
+
+    /**
+     * Build a snapshot of all the vertices and edges of a graph
+     * @param graph     the graph to build snapshot
+     * @param executor  the executor to scan in parallel, it's optional
+     * @param direction the direction of adjacency
+     * @param degree    the max adjacent vertices of each vertex, the
+     *                  extra edges are ignored, -1 means no limit
+     * @param weightKey the property key of edge weight, the edges without
+     *                  weight are weighted by DEFAULT_WEIGHT, it's
+     *                  unweighted if null
+     */
+    public static CsrSnapshot build(HugeGraph graph, ExecutorService executor,
+                                    Directions direction, long degree,
+                                    String weightKey) {
+        E.checkNotNull(graph, "graph");
+        E.checkNotNull(direction, "direction");
+        Id weightKeyId = weightKey == null ?
+                         null : graph.propertyKey(weightKey).id();
+        // Just decode the weight of the edges, or nothing if unweighted
+        Set<Id> edgeProperties = weightKeyId == null ?
+                                 ImmutableSet.of() :
+                                 ImmutableSet.of(weightKeyId);
+        ParallelScanner scanner = new ParallelScanner(graph, executor);
+        boolean parallel = scanner.parallel();
+
+        // Assign the dense codes to vertices
+        DenseObjectIntMapping<Id> vertices =
+                ObjectIntMappingFactory.newDenseObjectIntMapping();
+        if (parallel) {
+            scanner.scanVertices(iter -> {
+                while (iter.hasNext()) {
+                    vertices.object2Code(((HugeVertex) iter.next()).id());
+                }
+                return null;
+            }, (a, b) -> null);
+        } else {
+            Iterator<Vertex> iter = graph.vertices(allQuery(HugeType.VERTEX));
+            try {
+                while (iter.hasNext()) {
+                    vertices.object2Code(((HugeVertex) iter.next()).id());
+                }
+            } finally {
+                CloseableIterator.closeIterator(iter);
+            }
+        }
+
+        // Collect the edges as pairs of source and target codes
+        List<EdgeChunk> chunks;
+        if (parallel) {
+            chunks = scanner.scanEdges(edgeProperties, iter -> {
+                EdgeChunk chunk = new EdgeChunk(weightKeyId != null);
+                chunk.addAll(iter, vertices, weightKeyId);
+                List<EdgeChunk> list = new ArrayList<>();
+                list.add(chunk);
+                return list;
+            }, (a, b) -> {
+                a.addAll(b);
+                return a;
+            });
+        } else {
+            EdgeChunk chunk = new EdgeChunk(weightKeyId != null);
+            Query query = allQuery(HugeType.EDGE_OUT);
+            query.selectProperties(edgeProperties);
+            Iterator<Edge> iter = graph.edges(query);
+            try {
+                chunk.addAll(iter, vertices, weightKeyId);
+            } finally {
+                CloseableIterator.closeIterator(iter);
+            }
+            chunks = Collections.singletonList(chunk);
+        }
+
+        int vertexCount = vertices.size();
+        Builder builder = new Builder(vertexCount, degree,
+                                      weightKeyId != null);
+        // Count the degrees first, then fill the adjacency
+        for (int round = 0; round < 2; round++) {
+            for (EdgeChunk chunk : chunks) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    int source = chunk.sources.get(i);
+                    int target = chunk.targets.get(i);
+                    double weight = chunk.weight(i);
+                    if (direction != Directions.IN) {
+                        builder.add(round, source, target, weight);
+                    }
+                    if (direction != Directions.OUT) {
+                        builder.add(round, target, source, weight);
+                    }
+                }
+            }
+            if (round == 0) {
+                builder.allocate();
+            }
+        }
+        CsrSnapshot snapshot = builder.build(vertices);
+        LOG.debug("Built csr snapshot of graph '{}' with {} vertices " +
+                  "and {} edges", graph, snapshot.vertexCount(),
+                  snapshot.edgeCount());
+        return snapshot;
+    }
+
+    private static Query allQuery(HugeType type) {
+        Query query = new Query(type);
+        query.capacity(Query.NO_CAPACITY);
+        query.limit(Query.NO_LIMIT);
+        return query;
+    }
+
+    @FunctionalInterface
+    public interface RangeFunction<A> {
+
+        A apply(int start, int end);
+    }
+
+    private static final class EdgeChunk {
+
+        private final IntArrayList sources;
+        private final IntArrayList targets;
+        private final DoubleArrayList weights;
+
+        public EdgeChunk(boolean weighted) {
+            this.sources = new IntArrayList();
+            this.targets = new IntArrayList();
+            this.weights = weighted ? new DoubleArrayList() : null;
+        }
+
+        public void addAll(Iterator<Edge> edges,
+                           DenseObjectIntMapping<Id> vertices,
+                           Id weightKey) {
+            while (edges.hasNext()) {
+                HugeEdge edge = (HugeEdge) edges.next();
+                EdgeId id = edge.id();
+                int source = vertices.code(id.ownerVertexId());
+                int target = vertices.code(id.otherVertexId());
+                if (source < 0 || target < 0) {
+                    // Skip the dangling edges
+                    continue;
+                }
+                this.sources.add(source);
+                this.targets.add(target);
+                if (this.weights != null) {
+                    // Only the weight is decoded when scanning the edges
+                    Object weight = edge.peekPropertyValue(weightKey);
+                    this.weights.add(weight instanceof Number ?
+                                     ((Number) weight).doubleValue() :
+                                     DEFAULT_WEIGHT);
+                }
+            }
+        }
+
+        public int size() {
+            return this.sources.size();
+        }
+
+        public double weight(int index) {
+            return this.weights == null ?
+                   DEFAULT_WEIGHT : this.weights.get(index);
+        }
+    }
+
+    private static final class Builder {
+
+        private final int vertexCount;
+        private final int maxDegree;
+        private final boolean weighted;
+
+        private final int[] degrees;
+        private int[] offsets;
+        private int[] targets;
+        private double[] weights;
+
+        public Builder(int vertexCount, long degree, boolean weighted) {
+            this.vertexCount = vertexCount;
+            this.maxDegree = degree < 0L || degree > Integer.MAX_VALUE ?
+                             Integer.MAX_VALUE : (int) degree;
+            this.weighted = weighted;
+            this.degrees = new int[vertexCount];
+        }
+
+        public void add(int round, int source, int target, double weight) {
+            if (round == 0) {
+                // Count the degree
+                if (this.degrees[source] < this.maxDegree) {
+                    this.degrees[source]++;
+                }
+                return;
+            }
+            // Fill by the cursor, the edges exceed max degree are ignored
+            int cursor = this.degrees[source];
+            if (cursor < this.offsets[source + 1]) {
+                this.targets[cursor] = target;
+                if (this.weights != null) {
+                    this.weights[cursor] = weight;
+                }
+                this.degrees[source]++;
+            }
+        }
+
+        public void allocate() {
+            this.offsets = prefixSum(this.degrees);
+            int edges = this.offsets[this.vertexCount];
+            this.targets = new int[edges];
+            this.weights = this.weighted ? new double[edges] : null;
+            // Reuse the degrees as the cursors of filling
+            System.arraycopy(this.offsets, 0, this.degrees, 0,
+                             this.vertexCount);
+        }
+
+        public CsrSnapshot build(DenseObjectIntMapping<Id> vertices) {
+            // Reverse the adjacency by counting sort of the targets
+            int[] counts = new int[this.vertexCount];
+            for (int target : this.targets) {
+                counts[target]++;
+            }
+            int[] reversedOffsets = prefixSum(counts);
+            int edges = this.targets.length;
+            int[] reversedTargets = new int[edges];
+            double[] reversedWeights = this.weighted ? new double[edges] : null;
+            System.arraycopy(reversedOffsets, 0, counts, 0, this.vertexCount);
+            for (int source = 0; source < this.vertexCount; source++) {
+                for (int i = this.offsets[source];
+                     i < this.offsets[source + 1]; i++) {
+                    int cursor = counts[this.targets[i]]++;
+                    reversedTargets[cursor] = source;
+                    if (reversedWeights != null) {
+                        reversedWeights[cursor] = this.weights[i];
+                    }
+                }
+            }
+            return new CsrSnapshot(vertices, this.offsets, this.targets,
+                                   this.weights, reversedOffsets,
+                                   reversedTargets, reversedWeights);
+        }
+
+        private static int[] prefixSum(int[] counts) {
+            int[] offsets = new int[counts.length + 1];
+            long sum = 0L;
+            for (int i = 0; i < counts.length; i++) {
+                offsets[i] = (int) sum;
+                sum += counts[i];
+                if (sum > Integer.MAX_VALUE) {
+                    throw new HugeException("Too many edges to build csr " +
+                                            "snapshot, exceed %s",
+                                            Integer.MAX_VALUE);
+                }
+            }
+            offsets[counts.length] = (int) sum;
+            return offsets;
+        }
+    }
+}
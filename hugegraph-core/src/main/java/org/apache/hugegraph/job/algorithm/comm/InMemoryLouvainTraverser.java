@@ -0,0 +1,575 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.hugegraph.job.algorithm.comm;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.apache.hugegraph.job.UserJob;
+import org.apache.hugegraph.job.algorithm.AbstractAlgorithm;
+import org.apache.hugegraph.job.algorithm.AbstractAlgorithm.AlgoTraverser;
+import org.apache.hugegraph.job.algorithm.CsrSnapshot;
+import org.apache.hugegraph.schema.SchemaLabel;
+import org.apache.hugegraph.schema.SchemaManager;
+import org.apache.hugegraph.schema.VertexLabel;
+import org.apache.hugegraph.structure.HugeVertex;
+import org.apache.hugegraph.type.define.Directions;
+import org.apache.hugegraph.util.InsertionOrderUtil;
+import org.apache.hugegraph.util.Log;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.util.CloseableIterator;
+import org.eclipse.collections.api.iterator.IntIterator;
+import org.eclipse.collections.impl.list.mutable.primitive.DoubleArrayList;
+import org.eclipse.collections.impl.list.mutable.primitive.IntArrayList;
+import org.eclipse.collections.impl.map.mutable.primitive.IntDoubleHashMap;
+import org.slf4j.Logger;
+
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * The louvain running on the csr snapshot of the graph, all the passes are
+ * computed in memory and only the communities of the final pass (or the
+ * requested pass) are written back to the c_label of source vertices.
+ *
+ * The nodes and communities of each pass are indexed by int, the vertices
+ * of a pass are moved in parallel ranges, the total degree of communities
+ * are updated by CAS without lock, and the communities of a pass are
+ * aggregated as the nodes of the next pass.
+ */
+public class InMemoryLouvainTraverser extends AlgoTraverser {
+
+    private static final long LIMIT = AbstractAlgorithm.MAX_QUERY_LIMIT;
+
+    private static final Logger LOG = Log.logger(InMemoryLouvainTraverser.class);
+
+    private final String sourceLabel;
+    private final String sourceCLabel;
+    private final long degree;
+    private final boolean skipIsolated;
+
+    public InMemoryLouvainTraverser(UserJob<Object> job, int workers,
+                                    long degree, String sourceLabel,
+                                    String sourceCLabel, boolean skipIsolated) {
+        super(job, LouvainAlgorithm.ALGO_NAME, workers);
+        this.sourceLabel = sourceLabel;
+        this.sourceCLabel = sourceCLabel;
+        this.degree = degree;
+        this.skipIsolated = skipIsolated;
+    }
+
+    /**
+     * @param writePass the pass to write back, write the final pass if
+     *                  it's null or greater than the final pass
+     */
+    public Object louvain(int maxTimes, int stableTimes, double precision,
+                          Long writePass) {
+        assert maxTimes > 0;
+        assert precision > 0d;
+
+        String weightKey = this.graph().existsPropertyKey(
+                           LouvainTraverser.C_WEIGHT) ?
+                           LouvainTraverser.C_WEIGHT : null;
+        CsrSnapshot snapshot = CsrSnapshot.build(this.graph(), this.executor,
+                                                 Directions.BOTH, this.degree,
+                                                 weightKey);
+        // The snapshot codes of the source vertices, indexed by node of pass 0
+        int[] sources = this.sourceVertices(snapshot);
+        Level level = Level.of(snapshot, sources, this.executor);
+
+        // The node of current pass of each source vertex
+        int[] membership = identity(sources.length);
+        int[] writeMembership = null;
+        int writeCommunities = 0;
+        double modularity = -1d;
+
+        int times = maxTimes;
+        int movedTimes = 0;
+        double movedPercent = 0d;
+        double lastMovedPercent;
+
+        for (int i = 0; i < maxTimes; i++) {
+            Moving moving = new Moving(level);
+            boolean finished = true;
+            lastMovedPercent = 1d;
+            int tinyChanges = 0;
+            while ((movedPercent = this.moveCommunities(i, moving)) > 0d) {
+                movedTimes++;
+                finished = false;
+                if (lastMovedPercent - movedPercent < precision) {
+                    tinyChanges++;
+                }
+                if (i == 0 && movedPercent < precision) {
+                    // stop the first round of iterations early
+                    break;
+                }
+                if (tinyChanges >= stableTimes) {
+                    // maybe always shaking and falling into an dead loop
+                    break;
+                }
+                lastMovedPercent = movedPercent;
+            }
+            if (finished) {
+                times = i;
+                break;
+            }
+
+            // Aggregate the communities as the nodes of next pass
+            int[] communities = moving.compactCommunities();
+            int count = moving.communityCount();
+            CsrSnapshot.compute(this.executor, membership.length,
+                                (start, end) -> {
+                for (int v = start; v < end; v++) {
+                    membership[v] = communities[membership[v]];
+                }
+                return null;
+            }, (a, b) -> null);
+            level = level.aggregate(communities, count, this.executor);
+            modularity = level.modularity();
+            LOG.info("Merged {} communities for pass {}, modularity: {}",
+                     count, i, modularity);
+
+            if (writePass != null && writePass.intValue() == i) {
+                writeMembership = membership;
+                writeCommunities = count;
+                times = i + 1;
+                break;
+            }
+        }
+
+        if (writeMembership == null && level.depth() > 0) {
+            writeMembership = membership;
+            writeCommunities = level.size();
+        }
+        if (writeMembership != null) {
+            this.writeBackCommunities(snapshot, sources, writeMembership,
+                                      writeCommunities);
+        }
+
+        Map<String, Object> results = InsertionOrderUtil.newMap();
+        results.putAll(ImmutableMap.of("pass_times", times,
+                                       "phase1_times", movedTimes,
+                                       "last_precision", movedPercent,
+                                       "times", maxTimes));
+        results.putAll(ImmutableMap.of("communities", writeCommunities,
+                                       "modularity", modularity));
+        return results;
+    }
+
+    private double moveCommunities(int pass, Moving moving) {
+        int size = moving.level.size();
+        long moved = CsrSnapshot.compute(this.executor, size,
+                                         moving::moveRange, Long::sum);
+        this.progress += size;
+        this.updateProgress(this.progress);
+        LOG.debug("Moved {}/{} nodes for pass {}", moved, size, pass);
+        return size == 0 ? 0d : (double) moved / size;
+    }
+
+    private int[] sourceVertices(CsrSnapshot snapshot) {
+        int count = snapshot.vertexCount();
+        boolean[] included = new boolean[count];
+        if (this.sourceLabel == null && this.sourceCLabel == null &&
+            !this.existsPassLabel()) {
+            Arrays.fill(included, true);
+        } else {
+            Iterator<Vertex> vertices = this.vertices(this.sourceLabel,
+                                                      this.sourceCLabel,
+                                                      LIMIT);
+            try {
+                while (vertices.hasNext()) {
+                    HugeVertex vertex = (HugeVertex) vertices.next();
+                    // Skip the intermediate data of the persisted louvain
+                    if (vertex.label().startsWith(LouvainTraverser.C_PASS)) {
+                        continue;
+                    }
+                    int code = snapshot.vertexCode(vertex.id());
+                    if (code >= 0) {
+                        included[code] = true;
+                    }
+                }
+            } finally {
+                CloseableIterator.closeIterator(vertices);
+            }
+        }
+
+        IntArrayList sources = new IntArrayList(count);
+        for (int v = 0; v < count; v++) {
+            if (!included[v]) {
+                continue;
+            }
+            if (this.skipIsolated && !hasNeighbor(snapshot, included, v)) {
+                continue;
+            }
+            sources.add(v);
+        }
+        return sources.toArray();
+    }
+
+    private boolean existsPassLabel() {
+        for (SchemaLabel label : this.graph().schema().getVertexLabels()) {
+            if (label.name().startsWith(LouvainTraverser.C_PASS)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void writeBackCommunities(CsrSnapshot snapshot, int[] sources,
+                                      int[] membership, int communities) {
+        this.initSchema();
+        // Label each community by the id of its first member
+        String[] labels = new String[communities];
+        for (int v = 0; v < sources.length; v++) {
+            int c = membership[v];
+            if (labels[c] == null) {
+                labels[c] = snapshot.vertexId(sources[v]).toString();
+            }
+            Vertex vertex = this.vertex(snapshot.vertexId(sources[v]));
+            if (vertex != null) {
+                vertex.property(AbstractAlgorithm.C_LABEL, labels[c]);
+                this.commitIfNeeded();
+            }
+            this.updateProgress(++this.progress);
+        }
+        this.graph().tx().commit();
+    }
+
+    private void initSchema() {
+        String cl = AbstractAlgorithm.C_LABEL;
+        SchemaManager schema = this.graph().schema();
+        schema.propertyKey(cl).asText().ifNotExist().create();
+        for (VertexLabel vl : schema.getVertexLabels()) {
+            schema.vertexLabel(vl.name()).properties(cl)
+                  .nullableKeys(cl).append();
+        }
+    }
+
+    private static boolean hasNeighbor(CsrSnapshot snapshot,
+                                       boolean[] included, int vertex) {
+        for (int i = snapshot.start(vertex); i < snapshot.end(vertex); i++) {
+            int target = snapshot.target(i);
+            if (target != vertex && included[target]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int[] identity(int size) {
+        int[] array = new int[size];
+        for (int i = 0; i < size; i++) {
+            array[i] = i;
+        }
+        return array;
+    }
+
+    private static void addDouble(AtomicLongArray array, int index,
+                                  double delta) {
+        long current;
+        long updated;
+        do {
+            current = array.get(index);
+            updated = Double.doubleToRawLongBits(
+                      Double.longBitsToDouble(current) + delta);
+        } while (!array.compareAndSet(index, current, updated));
+    }
+
+    /**
+     * The graph of a pass, each node is a community of the last pass, and
+     * the weight of the edges inside a node is kept as its self-loop.
+     */
+    private static final class Level {
+
+        private final int depth;
+        private final int[] offsets;
+        private final int[] targets;
+        private final double[] weights;
+        // The weight of inner edges of each node, each edge is counted twice
+        private final double[] selfLoops;
+        // The weighted degree of each node, including the self-loop
+        private final double[] degrees;
+        // The sum of weighted degrees, which is the 2m of modularity
+        private final double totalWeight;
+
+        private Level(int depth, Chunk chunk, double[] selfLoops) {
+            int size = selfLoops.length;
+            this.depth = depth;
+            this.offsets = new int[size + 1];
+            for (int i = 0; i < size; i++) {
+                this.offsets[i + 1] = this.offsets[i] + chunk.degrees.get(i);
+            }
+            this.targets = chunk.targets.toArray();
+            this.weights = chunk.weights.toArray();
+            this.selfLoops = selfLoops;
+            this.degrees = new double[size];
+            double total = 0d;
+            for (int i = 0; i < size; i++) {
+                double degree = selfLoops[i];
+                for (int j = this.offsets[i]; j < this.offsets[i + 1]; j++) {
+                    degree += this.weights[j];
+                }
+                this.degrees[i] = degree;
+                total += degree;
+            }
+            this.totalWeight = total;
+        }
+
+        public static Level of(CsrSnapshot snapshot, int[] sources,
+                               ExecutorService executor) {
+            int[] nodes = new int[snapshot.vertexCount()];
+            Arrays.fill(nodes, -1);
+            for (int i = 0; i < sources.length; i++) {
+                nodes[sources[i]] = i;
+            }
+            double[] selfLoops = new double[sources.length];
+            Chunk chunk = CsrSnapshot.compute(executor, sources.length,
+                                              (start, end) -> {
+                Chunk result = new Chunk();
+                for (int i = start; i < end; i++) {
+                    int vertex = sources[i];
+                    int degree = 0;
+                    for (int j = snapshot.start(vertex);
+                         j < snapshot.end(vertex); j++) {
+                        int target = nodes[snapshot.target(j)];
+                        if (target < 0) {
+                            continue;
+                        }
+                        double weight = snapshot.weight(j);
+                        if (target == i) {
+                            selfLoops[i] += weight;
+                        } else {
+                            result.targets.add(target);
+                            result.weights.add(weight);
+                            degree++;
+                        }
+                    }
+                    result.degrees.add(degree);
+                }
+                return result;
+            }, Chunk::append);
+            return new Level(0, chunk, selfLoops);
+        }
+
+        public Level aggregate(int[] communities, int count,
+                               ExecutorService executor) {
+            // The nodes of each community: members[memberOffsets[c]...]
+            int[] memberOffsets = new int[count + 1];
+            for (int community : communities) {
+                memberOffsets[community + 1]++;
+            }
+            for (int c = 0; c < count; c++) {
+                memberOffsets[c + 1] += memberOffsets[c];
+            }
+            int[] members = new int[communities.length];
+            int[] cursors = Arrays.copyOf(memberOffsets, count);
+            for (int i = 0; i < communities.length; i++) {
+                members[cursors[communities[i]]++] = i;
+            }
+
+            double[] loops = new double[count];
+            Chunk chunk = CsrSnapshot.compute(executor, count, (start, end) -> {
+                Chunk result = new Chunk();
+                IntDoubleHashMap neighbors = new IntDoubleHashMap();
+                for (int c = start; c < end; c++) {
+                    neighbors.clear();
+                    double selfLoop = 0d;
+                    for (int k = memberOffsets[c]; k < memberOffsets[c + 1];
+                         k++) {
+                        int node = members[k];
+                        selfLoop += this.selfLoops[node];
+                        for (int j = this.offsets[node];
+                             j < this.offsets[node + 1]; j++) {
+                            int target = communities[this.targets[j]];
+                            if (target == c) {
+                                selfLoop += this.weights[j];
+                            } else {
+                                neighbors.addToValue(target, this.weights[j]);
+                            }
+                        }
+                    }
+                    loops[c] = selfLoop;
+                    result.degrees.add(neighbors.size());
+                    IntIterator iter = neighbors.keysView().intIterator();
+                    while (iter.hasNext()) {
+                        int target = iter.next();
+                        result.targets.add(target);
+                        result.weights.add(neighbors.get(target));
+                    }
+                }
+                return result;
+            }, Chunk::append);
+            return new Level(this.depth + 1, chunk, loops);
+        }
+
+        public int depth() {
+            return this.depth;
+        }
+
+        public int size() {
+            return this.degrees.length;
+        }
+
+        /**
+         * The modularity of the communities of last pass, each of them is
+         * a node of this level: Q = ∑(in/2m - (tot/2m)^2)
+         */
+        public double modularity() {
+            double m2 = this.totalWeight;
+            if (m2 <= 0d) {
+                return 0d;
+            }
+            double q = 0d;
+            for (int i = 0; i < this.degrees.length; i++) {
+                double tot = this.degrees[i] / m2;
+                q += this.selfLoops[i] / m2 - tot * tot;
+            }
+            return q;
+        }
+    }
+
+    /**
+     * The communities of the nodes of a level while moving.
+     * The community of each node is read without lock by other threads,
+     * a stale community only leads to a sub-optimal move which will be
+     * corrected by the next round.
+     */
+    private static final class Moving {
+
+        private final Level level;
+        private final int[] communities;
+        // The weighted degree sum of each community, as bits of double
+        private final AtomicLongArray totals;
+        private final AtomicIntegerArray sizes;
+        private int communityCount;
+
+        public Moving(Level level) {
+            int size = level.size();
+            this.level = level;
+            this.communities = identity(size);
+            this.totals = new AtomicLongArray(size);
+            this.sizes = new AtomicIntegerArray(size);
+            for (int i = 0; i < size; i++) {
+                this.totals.set(i, Double.doubleToRawLongBits(
+                                   level.degrees[i]));
+                this.sizes.set(i, 1);
+            }
+            this.communityCount = -1;
+        }
+
+        private double total(int community) {
+            return Double.longBitsToDouble(this.totals.get(community));
+        }
+
+        public long moveRange(int start, int end) {
+            Level level = this.level;
+            double m2 = level.totalWeight;
+            IntDoubleHashMap neighbors = new IntDoubleHashMap();
+            long moved = 0L;
+            for (int i = start; i < end; i++) {
+                if (level.offsets[i] == level.offsets[i + 1]) {
+                    continue;
+                }
+                neighbors.clear();
+                for (int j = level.offsets[i]; j < level.offsets[i + 1]; j++) {
+                    neighbors.addToValue(this.communities[level.targets[j]],
+                                         level.weights[j]);
+                }
+
+                // △Q ∝ Ki_in - Ki * tot / 2m, exclude node i from its own
+                int own = this.communities[i];
+                double ki = level.degrees[i];
+                double ownTotal = Math.max(this.total(own) - ki, 0d);
+                double maxGain = neighbors.get(own) - ki * ownTotal / m2;
+                int best = own;
+                IntIterator iter = neighbors.keysView().intIterator();
+                while (iter.hasNext()) {
+                    int other = iter.next();
+                    if (other == own) {
+                        continue;
+                    }
+                    /*
+                     * Two singleton nodes may swap their communities at the
+                     * same time, only let the node join the smaller one
+                     */
+                    if (other > own && this.sizes.get(own) == 1 &&
+                        this.sizes.get(other) == 1) {
+                        continue;
+                    }
+                    double gain = neighbors.get(other) -
+                                  ki * this.total(other) / m2;
+                    if (gain > maxGain) {
+                        maxGain = gain;
+                        best = other;
+                    }
+                }
+                if (best != own) {
+                    addDouble(this.totals, own, -ki);
+                    addDouble(this.totals, best, ki);
+                    this.sizes.decrementAndGet(own);
+                    this.sizes.incrementAndGet(best);
+                    this.communities[i] = best;
+                    moved++;
+                }
+            }
+            return moved;
+        }
+
+        /**
+         * Renumber the non-empty communities to [0, communityCount)
+         */
+        public int[] compactCommunities() {
+            int[] codes = new int[this.communities.length];
+            Arrays.fill(codes, -1);
+            int[] compacted = new int[this.communities.length];
+            int count = 0;
+            for (int i = 0; i < this.communities.length; i++) {
+                int community = this.communities[i];
+                if (codes[community] < 0) {
+                    codes[community] = count++;
+                }
+                compacted[i] = codes[community];
+            }
+            this.communityCount = count;
+            return compacted;
+        }
+
+        public int communityCount() {
+            assert this.communityCount >= 0;
+            return this.communityCount;
+        }
+    }
+
+    private static final class Chunk {
+
+        private final IntArrayList degrees = new IntArrayList();
+        private final IntArrayList targets = new IntArrayList();
+        private final DoubleArrayList weights = new DoubleArrayList();
+
+        public Chunk append(Chunk other) {
+            this.degrees.addAll(other.degrees);
+            this.targets.addAll(other.targets);
+            this.weights.addAll(other.weights);
+            return this;
+        }
+    }
+}
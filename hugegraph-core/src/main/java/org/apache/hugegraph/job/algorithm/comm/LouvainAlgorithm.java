@@ -21,6 +21,7 @@ import java.util.Map;
 
 import org.apache.hugegraph.job.UserJob;
 import org.apache.hugegraph.traversal.algorithm.HugeTraverser;
+import org.apache.hugegraph.util.E;
 import org.apache.hugegraph.util.ParameterUtil;
 
 public class LouvainAlgorithm extends AbstractCommAlgorithm {
@@ -45,6 +46,8 @@ public class LouvainAlgorithm extends AbstractCommAlgorithm {
         exportCommunity(parameters);
         skipIsolated(parameters);
         clearPass(parameters);
+        inMemory(parameters);
+        writePass(parameters);
         workers(parameters);
     }
 
@@ -61,6 +64,26 @@ public class LouvainAlgorithm extends AbstractCommAlgorithm {
         String showComm = showCommunity(parameters);
         Long exportPass = exportCommunity(parameters);
 
+        if (inMemory(parameters)) {
+            E.checkArgument(clearPass == null && modPass == null &&
+                            showComm == null && exportPass == null,
+                            "Can't specify '%s', '%s', '%s' or '%s' when " +
+                            "'%s' is true, the passes are not persisted",
+                            KEY_CLEAR, KEY_SHOW_MOD, KEY_SHOW_COMM,
+                            KEY_EXPORT_COMM, KEY_IN_MEMORY);
+            try (InMemoryLouvainTraverser traverser =
+                 new InMemoryLouvainTraverser(job, workers, degree,
+                                              label, clabel, skipIsolated)) {
+                return traverser.louvain(times(parameters),
+                                         stableTimes(parameters),
+                                         precision(parameters),
+                                         writePass(parameters));
+            } catch (Throwable e) {
+                job.graph().tx().rollback();
+                throw e;
+            }
+        }
+
         try (LouvainTraverser traverser = new LouvainTraverser(
                                           job, workers, degree,
                                           label, clabel, skipIsolated)) {
@@ -94,6 +117,22 @@ public class LouvainAlgorithm extends AbstractCommAlgorithm {
         return pass;
     }
 
+    protected static boolean inMemory(Map<String, Object> parameters) {
+        if (!parameters.containsKey(KEY_IN_MEMORY)) {
+            return false;
+        }
+        return ParameterUtil.parameterBoolean(parameters, KEY_IN_MEMORY);
+    }
+
+    protected static Long writePass(Map<String, Object> parameters) {
+        if (!parameters.containsKey(KEY_WRITE_PASS)) {
+            return null;
+        }
+        long pass = ParameterUtil.parameterLong(parameters, KEY_WRITE_PASS);
+        HugeTraverser.checkNonNegative(pass, KEY_WRITE_PASS);
+        return pass;
+    }
+
     protected static Long showModularity(Map<String, Object> parameters) {
         if (!parameters.containsKey(KEY_SHOW_MOD)) {
             return null;
@@ -17,25 +17,18 @@
 
 package org.apache.hugegraph.job.algorithm.rank;
 
-import org.apache.hugegraph.backend.id.Id;
-import org.apache.hugegraph.traversal.algorithm.HugeTraverser;
-
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.List;
+import java.util.Arrays;
 import java.util.Map;
+import java.util.PriorityQueue;
 
-import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.slf4j.Logger;
 
 import org.apache.hugegraph.job.UserJob;
+import org.apache.hugegraph.job.algorithm.CsrSnapshot;
 import org.apache.hugegraph.job.algorithm.comm.AbstractCommAlgorithm;
 import org.apache.hugegraph.schema.SchemaManager;
 import org.apache.hugegraph.schema.VertexLabel;
-import org.apache.hugegraph.structure.HugeEdge;
-import org.apache.hugegraph.structure.HugeVertex;
 import org.apache.hugegraph.type.define.Directions;
 import org.apache.hugegraph.util.Log;
 import com.google.common.collect.ImmutableMap;
@@ -62,11 +55,13 @@ public class PageRankAlgorithm extends AbstractCommAlgorithm {
         degree(parameters);
         directionOutIn(parameters);
         top(parameters);
+        workers(parameters);
     }
 
     @Override
     public Object call(UserJob<Object> job, Map<String, Object> parameters) {
-        try (Traverser traverser = new Traverser(job)) {
+        int workers = workers(parameters);
+        try (Traverser traverser = new Traverser(job, workers)) {
             return traverser.pageRank(alpha(parameters),
                                       times(parameters),
                                       precision(parameters),
@@ -81,15 +76,19 @@ public class PageRankAlgorithm extends AbstractCommAlgorithm {
 
     private static class Traverser extends AlgoTraverser {
 
+        private static final String ALGO_NAME = "page_rank";
+
         /*
-         * DoublePair.left is rank computed by previous step,
-         * DoublePair.right is rank computed by current step.
+         * The ranks are indexed by the vertex codes of the snapshot,
+         * ranks is computed by previous step, and nextRanks is computed
+         * by current step.
          */
-        private final Map<Id, DoublePair> vertexRankMap;
+        private CsrSnapshot snapshot;
+        private double[] ranks;
+        private double[] nextRanks;
 
-        public Traverser(UserJob<Object> job) {
-            super(job);
-            this.vertexRankMap = new HashMap<>();
+        public Traverser(UserJob<Object> job, int workers) {
+            super(job, ALGO_NAME, workers);
         }
 
         /**
@@ -103,41 +102,19 @@ public class PageRankAlgorithm extends AbstractCommAlgorithm {
                                long topN) {
             this.initSchema();
 
+            // Scan the graph once, then iterate on the snapshot
+            this.snapshot = CsrSnapshot.build(this.graph(), this.executor,
+                                              direction, degree, null);
+            int numOfVertices = this.snapshot.vertexCount();
+            this.ranks = new double[numOfVertices];
+            this.nextRanks = new double[numOfVertices];
+            if (numOfVertices > 0) {
+                Arrays.fill(this.ranks, 1.0 / numOfVertices);
+            }
+
             int times;
             double changedRank = 0.0;
-            long numOfVertices = this.initRankMap();
-
-            for (times = 0; times < maxTimes; times++) {
-                Id currentSourceVertexId = null;
-                // the edges are ordered by ownerVertex
-                Iterator<Edge> edges = this.edges(direction);
-                List<Id> adjacentVertices = new ArrayList<>();
-
-                while (edges.hasNext()) {
-                    HugeEdge edge = (HugeEdge) edges.next();
-                    Id sourceVertexId = edge.ownerVertex().id();
-                    Id targetVertexId = edge.otherVertex().id();
-
-                    if (currentSourceVertexId == null) {
-                        currentSourceVertexId = sourceVertexId;
-                        adjacentVertices.add(targetVertexId);
-                    } else if (currentSourceVertexId.equals(sourceVertexId)) {
-                        if (adjacentVertices.size() < degree) {
-                            adjacentVertices.add(targetVertexId);
-                        }
-                    } else {
-                        this.contributeToAdjacentVertices(currentSourceVertexId,
-                                                          adjacentVertices);
-                        adjacentVertices = new ArrayList<>();
-                        currentSourceVertexId = sourceVertexId;
-                        adjacentVertices.add(targetVertexId);
-                    }
-                }
-
-                // deal with the last vertex
-                this.contributeToAdjacentVertices(currentSourceVertexId,
-                                                  adjacentVertices);
-
+            for (times = 0; times < maxTimes && numOfVertices > 0; times++) {
                 double sumRank = this.computeRank(alpha, numOfVertices);
 
                 double compensatedRank = 1.0 - sumRank;
@@ -167,67 +144,76 @@ public class PageRankAlgorithm extends AbstractCommAlgorithm {
         }
 
         private Object getTopRank(long topN) {
+            double[] ranks = this.ranks;
+            // The min heap of the vertex codes with the top ranks
+            PriorityQueue<Integer> tops = new PriorityQueue<>(
+                    (v1, v2) -> Double.compare(ranks[v1], ranks[v2]));
+            for (int v = 0; v < ranks.length; v++) {
+                if (tops.size() < topN) {
+                    tops.add(v);
+                } else if (ranks[v] > ranks[tops.peek()]) {
+                    tops.poll();
+                    tops.add(v);
+                }
+            }
+            Integer[] sorted = tops.toArray(new Integer[0]);
+            Arrays.sort(sorted, (v1, v2) -> Double.compare(ranks[v2],
+                                                           ranks[v1]));
+
             JsonMap jsonMap = new JsonMap();
             jsonMap.startObject();
-            Map<Id, DoublePair> topNMap =
-                    HugeTraverser.topN(this.vertexRankMap, true, topN);
-            for (Map.Entry<Id, DoublePair> e : topNMap.entrySet()) {
-                jsonMap.append(e.getKey().toString(), e.getValue().left);
+            for (int v : sorted) {
+                jsonMap.append(this.snapshot.vertexId(v).toString(),
+                               ranks[v]);
             }
             jsonMap.endObject();
             return jsonMap.asJson();
         }
 
-        private long initRankMap() {
-            long vertexCount = 0;
-            Iterator<Vertex> vertices = this.vertices();
-            while (vertices.hasNext()) {
-                Id vertex = ((HugeVertex) vertices.next()).id();
-                DoublePair pair = new DoublePair(0.0, 0.0);
-                this.vertexRankMap.put(vertex, pair);
-                vertexCount++;
-            }
-
-            double initValue = 1.0 / vertexCount;
-            for (DoublePair pair : this.vertexRankMap.values()) {
-                pair.left(initValue);
-            }
-            return vertexCount;
-        }
-
-        private void contributeToAdjacentVertices(Id sourceVertexId,
-                                                  List<Id> adjacentVertices) {
-            if (adjacentVertices.size() == 0) {
-                return;
-            }
-            DoublePair sourcePair = this.vertexRankMap.get(sourceVertexId);
-            // sourceVertexId not in vertices.
-            if (sourcePair == null) {
-                LOG.info("source vertex {} not exists.", sourceVertexId);
-                return;
-            }
-            double distributedValue = sourcePair.left() /
-                                      adjacentVertices.size();
-            for (Id targetId : adjacentVertices) {
-                DoublePair targetPair = this.vertexRankMap.get(targetId);
-                if (targetPair == null) {
-                    // targetId not in vertices
-                    LOG.warn("target vertex {} not exists.", targetId);
-                    continue;
+        /**
+         * Compute the rank of each vertex by pulling the ranks distributed
+         * from its adjacent vertices, the vertices are computed in parallel
+         * without locks since each one only writes its own rank.
+         */
+        private double computeRank(double alpha, int numOfVertices) {
+            CsrSnapshot snapshot = this.snapshot;
+            double[] ranks = this.ranks;
+            double[] nextRanks = this.nextRanks;
+            double oneMinusAlpha = 1.0 - alpha;
+            double baseRank = alpha / numOfVertices;
+            return snapshot.compute(this.executor, (start, end) -> {
+                double sum = 0.0;
+                for (int v = start; v < end; v++) {
+                    double received = 0.0;
+                    for (int i = snapshot.reversedStart(v);
+                         i < snapshot.reversedEnd(v); i++) {
+                        int source = snapshot.reversedTarget(i);
+                        received += ranks[source] / snapshot.degree(source);
+                    }
+                    double rankValue = baseRank + received * oneMinusAlpha;
+                    nextRanks[v] = rankValue;
+                    sum += rankValue;
                 }
-                targetPair.addRight(distributedValue);
-            }
+                return sum;
+            }, Double::sum);
         }
 
         private double compensateRank(double compensatedRank) {
-            double changedRank = 0.0;
-            for (DoublePair pair : this.vertexRankMap.values()) {
-                double previousRank = pair.left();
-                double currentRank = pair.right() + compensatedRank;
-                changedRank += Math.abs(previousRank - currentRank);
-                pair.left(currentRank);
-                pair.right(0.0);
-            }
+            double[] ranks = this.ranks;
+            double[] nextRanks = this.nextRanks;
+            double changedRank = this.snapshot.compute(this.executor,
+                                                       (start, end) -> {
+                double changed = 0.0;
+                for (int v = start; v < end; v++) {
+                    double currentRank = nextRanks[v] + compensatedRank;
+                    changed += Math.abs(ranks[v] - currentRank);
+                    nextRanks[v] = currentRank;
+                }
+                return changed;
+            }, Double::sum);
+            // Swap the ranks of previous step and current step
+            this.ranks = nextRanks;
+            this.nextRanks = ranks;
             return changedRank;
         }
 
@@ -241,96 +227,14 @@ public class PageRankAlgorithm extends AbstractCommAlgorithm {
         }
 
         private void writeBackRankValues() {
-            for (Map.Entry<Id, DoublePair> e : this.vertexRankMap.entrySet()) {
-                Id vertexId = e.getKey();
-                Vertex vertex = this.vertex(vertexId);
+            for (int v = 0; v < this.ranks.length; v++) {
+                Vertex vertex = this.vertex(this.snapshot.vertexId(v));
                 if (vertex != null) {
-                    vertex.property(R_RANK, e.getValue().left());
+                    vertex.property(R_RANK, this.ranks[v]);
                     this.commitIfNeeded();
                 }
             }
             this.graph().tx().commit();
         }
-
-        private double computeRank(double alpha, long numOfVertices) {
-            double oneMinusAlpha = 1.0 - alpha;
-            double sum = 0.0;
-            double baseRank = alpha / numOfVertices;
-            for (DoublePair pair : this.vertexRankMap.values()) {
-                double rankValue = baseRank + pair.right() * oneMinusAlpha;
-                pair.right(rankValue);
-                sum += rankValue;
-            }
-            return sum;
-        }
-    }
-
-    public static class DoublePair implements Comparable<DoublePair> {
-
-        private double left;
-        private double right;
-
-        private DoublePair(double left, double right) {
-            this.left = left;
-            this.right = right;
-        }
-
-        public void addLeft(double value) {
-            this.left += value;
-        }
-
-        public void addRight(double value) {
-            this.right += value;
-        }
-
-        public double left() {
-            return this.left;
-        }
-
-        public void left(double value) {
-            this.left = value;
-        }
-
-        public double right() {
-            return this.right;
-        }
-
-        public void right(double value) {
-            this.right = value;
-        }
-
-        @Override
-        public String toString() {
-            StringBuilder sb = new StringBuilder();
-            sb.append("left:").append(this.left)
-              .append(", right: ").append(this.right);
-            return sb.toString();
-        }
-
-        @Override
-        public boolean equals(Object obj) {
-            if (!(obj instanceof DoublePair)) {
-                return false;
-            }
-            DoublePair other = (DoublePair) obj;
-            return this.left == other.left && this.right == other.right;
-        }
-
-        @Override
-        public int hashCode() {
-            return Double.hashCode(this.left) ^ Double.hashCode(this.right);
-        }
-
-        // only left saves the rank value.
-        @Override
-        public int compareTo(DoublePair o) {
-            double result = this.left - o.left;
-            if (result > 0.0) {
-                return 1;
-            } else if (result < 0.0) {
-                return -1;
-            }
-            return 0;
-        }
     }
 }
@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.hugegraph.job.schema;
+
+import java.util.Map;
+
+import org.apache.hugegraph.backend.tx.GraphTransaction;
+import org.apache.hugegraph.backend.tx.SchemaTransaction;
+import org.apache.hugegraph.schema.EdgeLabel;
+import org.apache.hugegraph.schema.IndexLabel;
+import org.apache.hugegraph.schema.IndexLabelStats;
+import org.apache.hugegraph.schema.SchemaLabel;
+import org.apache.hugegraph.schema.VertexLabel;
+import org.apache.hugegraph.structure.HugeElement;
+import org.apache.hugegraph.type.HugeType;
+import org.apache.hugegraph.type.define.SchemaStatus;
+
+/**
+ * Collect the cardinality statistics of an index label by traversing all
+ * the elements of its base label, then save them with the index label.
+ */
+public class IndexLabelAnalyzeJob extends SchemaJob {
+
+    @Override
+    public String type() {
+        return ANALYZE_INDEX;
+    }
+
+    @Override
+    public Object execute() {
+        SchemaTransaction schemaTx = this.params().schemaTransaction();
+        IndexLabel indexLabel = schemaTx.getIndexLabel(this.schemaId());
+        // If the index label does not exist or is not ready, ignore it
+        if (indexLabel == null || indexLabel.olap() ||
+            indexLabel.status() != SchemaStatus.CREATED) {
+            return null;
+        }
+
+        IndexLabelStats.Collector collector =
+                                  new IndexLabelStats.Collector(indexLabel);
+        GraphTransaction graphTx = this.params().graphTransaction();
+        SchemaLabel label = indexLabel.baseLabel();
+        if (label.type() == HugeType.VERTEX_LABEL) {
+            graphTx.traverseVerticesByLabel((VertexLabel) label, vertex -> {
+                collector.collect((HugeElement) vertex);
+            }, false);
+        } else {
+            assert label.type() == HugeType.EDGE_LABEL;
+            graphTx.traverseEdgesByLabel((EdgeLabel) label, edge -> {
+                collector.collect((HugeElement) edge);
+            }, false);
+        }
+
+        IndexLabelStats stats = collector.build();
+        schemaTx.updateIndexLabelStats(indexLabel, stats);
+        Map<String, Object> result = stats.asMap();
+        LOG.info("Analyzed index label '{}': {}", indexLabel.name(), result);
+        return result;
+    }
+}
@@ -35,6 +35,7 @@ public abstract class SchemaJob extends SysJob<Object> {
 
     public static final String REMOVE_SCHEMA = "remove_schema";
     public static final String REBUILD_INDEX = "rebuild_index";
+    public static final String ANALYZE_INDEX = "analyze_index";
     public static final String CREATE_INDEX = "create_index";
     public static final String CREATE_OLAP = "create_olap";
     public static final String CLEAR_OLAP = "clear_olap";
@@ -23,6 +23,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.hugegraph.backend.id.Id;
 import org.apache.hugegraph.backend.id.IdGenerator;
 import org.apache.hugegraph.HugeGraph;
@@ -38,6 +39,8 @@ public class IndexLabel extends SchemaElement {
     private Id baseValue;
     private IndexType indexType;
     private List<Id> indexFields;
+    // The stats parsed from userdata, parse again if userdata is updated
+    private volatile Pair<Object, IndexLabelStats> stats;
 
     public IndexLabel(final HugeGraph graph, Id id, String name) {
         super(graph, id, name);
@@ -116,6 +119,31 @@ public class IndexLabel extends SchemaElement {
         return this.indexFields.get(0);
     }
 
+    /**
+     * Get the cardinality statistics collected by analyzing the index label
+     * @return the stats, or null if never analyzed
+     */
+    @SuppressWarnings("unchecked")
+    public IndexLabelStats stats() {
+        Object source = this.userdata().get(Userdata.STATISTICS);
+        if (!(source instanceof Map)) {
+            return null;
+        }
+        Pair<Object, IndexLabelStats> stats = this.stats;
+        if (stats == null || stats.getLeft() != source) {
+            IndexLabelStats parsed;
+            try {
+                parsed = IndexLabelStats.fromMap((Map<String, Object>) source);
+            } catch (IllegalArgumentException | ClassCastException e) {
+                // Ignore the invalid stats which may be set by users
+                parsed = null;
+            }
+            stats = Pair.of(source, parsed);
+            this.stats = stats;
+        }
+        return stats.getRight();
+    }
+
     public SchemaLabel baseLabel() {
         return getBaseLabel(this.graph, this.baseType, this.baseValue);
     }
@@ -253,6 +281,8 @@ public class IndexLabel extends SchemaElement {
 
         Id rebuild();
 
+        Id analyze();
+
         Builder onV(String baseValue);
 
         Builder onE(String baseValue);
@@ -0,0 +1,533 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.hugegraph.schema;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.apache.hugegraph.backend.id.Id;
+import org.apache.hugegraph.backend.query.Condition.Relation;
+import org.apache.hugegraph.backend.query.Condition.RelationType;
+import org.apache.hugegraph.backend.query.ConditionQuery;
+import org.apache.hugegraph.structure.HugeElement;
+import org.apache.hugegraph.type.define.IndexType;
+import org.apache.hugegraph.util.E;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+/**
+ * The cardinality statistics of an index label, which are collected by
+ * IndexLabelAnalyzeJob and persisted into the userdata of the index label.
+ * It's used to estimate how many elements an index query will hit, so that
+ * the index transaction can choose the cheapest index and intersection order.
+ */
+public final class IndexLabelStats {
+
+    public static final long UNKNOWN = -1L;
+
+    public static final String COUNT = "count";
+    public static final String DISTINCT = "distinct";
+    public static final String HISTOGRAM = "histogram";
+    public static final String HEAVY_HITTERS = "heavy_hitters";
+    public static final String UPDATE_TIME = "update_time";
+
+    // The selectivity of range condition without histogram, like shard index
+    private static final double DEFAULT_RANGE_SELECTIVITY = 1.0 / 3;
+    private static final String VALUE_DELIMITER = "\u0001";
+
+    private final long count;
+    private final long distinct;
+    private final double[] histogram;
+    private final Map<String, Long> heavyHitters;
+    private final long heavyHittersCount;
+    private final long updateTime;
+
+    public IndexLabelStats(long count, long distinct, double[] histogram,
+                           Map<String, Long> heavyHitters, long updateTime) {
+        E.checkArgument(count >= 0L && distinct >= 0L,
+                        "The count and distinct of index label stats " +
+                        "must be >= 0, but got %s and %s", count, distinct);
+        this.count = count;
+        this.distinct = distinct;
+        this.histogram = histogram == null ? new double[0] : histogram;
+        this.heavyHitters = heavyHitters == null ?
+                            Collections.emptyMap() : heavyHitters;
+        long heavyHittersCount = 0L;
+        for (long hits : this.heavyHitters.values()) {
+            heavyHittersCount += hits;
+        }
+        this.heavyHittersCount = heavyHittersCount;
+        this.updateTime = updateTime;
+    }
+
+    public long count() {
+        return this.count;
+    }
+
+    public long distinct() {
+        return this.distinct;
+    }
+
+    public double[] histogram() {
+        return this.histogram;
+    }
+
+    public Map<String, Long> heavyHitters() {
+        return Collections.unmodifiableMap(this.heavyHitters);
+    }
+
+    public long updateTime() {
+        return this.updateTime;
+    }
+
+    /**
+     * Estimate the number of elements matched by the conditions of the query
+     * on the fields of the index label
+     * @return the estimated number, or UNKNOWN if can't be estimated
+     */
+    public long estimate(IndexLabel indexLabel, ConditionQuery query) {
+        IndexType type = indexLabel.indexType();
+        if (type.isSearch() || type.isUnique()) {
+            return UNKNOWN;
+        }
+        if (this.count == 0L) {
+            return 0L;
+        }
+
+        List<Id> fields = indexLabel.indexFields();
+        List<List<String>> prefixes = new ArrayList<>();
+        prefixes.add(new ArrayList<>());
+        double selectivity = 1.0;
+        int matchedFields = 0;
+        for (Id field : fields) {
+            List<Relation> relations = relations(query, field);
+            List<Object> values = equalValues(relations);
+            if (values != null) {
+                prefixes = appendValues(prefixes, values);
+                matchedFields++;
+                continue;
+            }
+            // The last field of range/shard index may be range condition
+            if (!relations.isEmpty()) {
+                selectivity = this.rangeSelectivity(type, relations);
+            }
+            break;
+        }
+
+        double estimated;
+        if (matchedFields == 0) {
+            estimated = this.count * selectivity;
+        } else if (matchedFields == fields.size()) {
+            estimated = 0.0;
+            for (List<String> prefix : prefixes) {
+                estimated += this.estimateEqual(valueKey(prefix));
+            }
+        } else {
+            // Assume the fields are independent for prefix matching
+            double fraction = (double) matchedFields / fields.size();
+            double perPrefix = this.count /
+                               Math.pow(Math.max(this.distinct, 1L), fraction);
+            estimated = perPrefix * prefixes.size() * selectivity;
+        }
+        return Math.min(this.count, Math.round(estimated));
+    }
+
+    private double estimateEqual(String key) {
+        Long hits = this.heavyHitters.get(key);
+        if (hits != null) {
+            return hits;
+        }
+        // The rest values are assumed to be distributed uniformly
+        long rest = Math.max(this.count - this.heavyHittersCount, 0L);
+        long restDistinct = this.distinct - this.heavyHitters.size();
+        return (double) rest / Math.max(restDistinct, 1L);
+    }
+
+    private double rangeSelectivity(IndexType type,
+                                    List<Relation> relations) {
+        double low = Double.NEGATIVE_INFINITY;
+        double high = Double.POSITIVE_INFINITY;
+        for (Relation relation : relations) {
+            Double value = toDouble(relation.value());
+            if (value == null) {
+                return DEFAULT_RANGE_SELECTIVITY;
+            }
+            switch (relation.relation()) {
+                case GT:
+                case GTE:
+                    low = Math.max(low, value);
+                    break;
+                case LT:
+                case LTE:
+                    high = Math.min(high, value);
+                    break;
+                default:
+                    return DEFAULT_RANGE_SELECTIVITY;
+            }
+        }
+        if (!type.isRange() || this.histogram.length < 2) {
+            return DEFAULT_RANGE_SELECTIVITY;
+        }
+        return histogramSelectivity(this.histogram, low, high);
+    }
+
+    /**
+     * Each bucket of the equi-depth histogram holds the same number of values,
+     * and the values are assumed to be distributed uniformly in a bucket
+     */
+    public static double histogramSelectivity(double[] bounds,
+                                              double low, double high) {
+        if (low > high) {
+            return 0.0;
+        }
+        int buckets = bounds.length - 1;
+        double matched = 0.0;
+        for (int i = 0; i < buckets; i++) {
+            double lower = bounds[i];
+            double upper = bounds[i + 1];
+            if (upper <= lower) {
+                // All values in the bucket are the same one
+                if (low <= lower && lower <= high) {
+                    matched += 1.0;
+                }
+                continue;
+            }
+            double overlap = Math.min(high, upper) - Math.max(low, lower);
+            if (overlap > 0.0) {
+                matched += Math.min(overlap / (upper - lower), 1.0);
+            }
+        }
+        return matched / buckets;
+    }
+
+    public Map<String, Object> asMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put(COUNT, this.count);
+        map.put(DISTINCT, this.distinct);
+        if (this.histogram.length > 0) {
+            List<Double> bounds = new ArrayList<>(this.histogram.length);
+            for (double bound : this.histogram) {
+                bounds.add(bound);
+            }
+            map.put(HISTOGRAM, bounds);
+        }
+        map.put(HEAVY_HITTERS, this.heavyHitters);
+        map.put(UPDATE_TIME, this.updateTime);
+        return map;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static IndexLabelStats fromMap(Map<String, Object> map) {
+        E.checkArgument(map.get(COUNT) instanceof Number &&
+                        map.get(DISTINCT) instanceof Number,
+                        "Invalid index label stats: %s", map);
+        long count = ((Number) map.get(COUNT)).longValue();
+        long distinct = ((Number) map.get(DISTINCT)).longValue();
+
+        double[] histogram = null;
+        Object bounds = map.get(HISTOGRAM);
+        if (bounds instanceof List) {
+            List<Number> list = (List<Number>) bounds;
+            histogram = new double[list.size()];
+            for (int i = 0; i < histogram.length; i++) {
+                histogram[i] = list.get(i).doubleValue();
+            }
+        }
+
+        Map<String, Long> heavyHitters = new HashMap<>();
+        Object hitters = map.get(HEAVY_HITTERS);
+        if (hitters instanceof Map) {
+            for (Map.Entry<String, Number> e :
+                 ((Map<String, Number>) hitters).entrySet()) {
+                heavyHitters.put(e.getKey(), e.getValue().longValue());
+            }
+        }
+
+        Object time = map.get(UPDATE_TIME);
+        long updateTime = time instanceof Number ?
+                          ((Number) time).longValue() : 0L;
+        return new IndexLabelStats(count, distinct, histogram,
+                                   heavyHitters, updateTime);
+    }
+
+    private static List<Relation> relations(ConditionQuery query, Id field) {
+        List<Relation> relations = new ArrayList<>();
+        for (Relation relation : query.userpropRelations()) {
+            if (field.equals(relation.key())) {
+                relations.add(relation);
+            }
+        }
+        return relations;
+    }
+
+    private static List<Object> equalValues(List<Relation> relations) {
+        for (Relation relation : relations) {
+            RelationType type = relation.relation();
+            if (type == RelationType.EQ || type == RelationType.CONTAINS) {
+                return Collections.singletonList(relation.value());
+            } else if (type == RelationType.IN) {
+                return new ArrayList<>((Collection<?>) relation.value());
+            }
+        }
+        return null;
+    }
+
+    private static List<List<String>> appendValues(List<List<String>> prefixes,
+                                                   List<Object> values) {
+        List<List<String>> results = new ArrayList<>(prefixes.size() *
+                                                     values.size());
+        for (List<String> prefix : prefixes) {
+            for (Object value : values) {
+                List<String> result = new ArrayList<>(prefix);
+                result.add(valueKey(value));
+                results.add(result);
+            }
+        }
+        return results;
+    }
+
+    private static String valueKey(List<String> keys) {
+        if (keys.size() == 1) {
+            return keys.get(0);
+        }
+        return String.join(VALUE_DELIMITER, keys);
+    }
+
+    /**
+     * The key of a value, numbers of different types with the same value
+     * (like int 1 and long 1) are treated as the same key
+     */
+    public static String valueKey(Object value) {
+        if (value instanceof Double || value instanceof Float) {
+            return Double.toString(((Number) value).doubleValue());
+        } else if (value instanceof Number) {
+            return Long.toString(((Number) value).longValue());
+        } else if (value instanceof Date) {
+            return Long.toString(((Date) value).getTime());
+        }
+        return String.valueOf(value);
+    }
+
+    private static Double toDouble(Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        } else if (value instanceof Date) {
+            return (double) ((Date) value).getTime();
+        }
+        return null;
+    }
+
+    /**
+     * Collect the stats of an index label from the elements in one pass:
+     * the distinct count is estimated by HyperLogLog, the histogram is built
+     * from a reservoir sample of the values, and the heavy hitters are
+     * tracked by the space-saving algorithm, all of them in bounded memory.
+     */
+    public static class Collector {
+
+        public static final int HLL_PRECISION = 12;
+        public static final int HISTOGRAM_BUCKETS = 32;
+        public static final int SAMPLE_SIZE = 4096;
+        public static final int HEAVY_HITTERS = 16;
+
+        private static final int HEAVY_HITTERS_CAPACITY = HEAVY_HITTERS * 8;
+        private static final HashFunction HASH = Hashing.murmur3_128();
+
+        private final IndexLabel indexLabel;
+        private final boolean numeric;
+
+        private long count;
+        private final byte[] registers;
+        private final double[] samples;
+        private final Random random;
+        private final Map<String, long[]> hitters;
+
+        public Collector(IndexLabel indexLabel) {
+            this.indexLabel = indexLabel;
+            this.numeric = indexLabel.indexType().isRange();
+            this.count = 0L;
+            this.registers = new byte[1 << HLL_PRECISION];
+            this.samples = this.numeric ? new double[SAMPLE_SIZE] : null;
+            // Fixed seed to make the stats reproducible
+            this.random = new Random(indexLabel.id().asLong());
+            this.hitters = new HashMap<>();
+        }
+
+        public void collect(HugeElement element) {
+            List<Id> fields = this.indexLabel.indexFields();
+            List<Object> values = new ArrayList<>(fields.size());
+            for (Id field : fields) {
+                if (!element.hasProperty(field)) {
+                    // The element is not indexed by the index label
+                    return;
+                }
+                values.add(element.getPropertyValue(field));
+            }
+            this.collect(values);
+        }
+
+        public void collect(List<Object> values) {
+            if (values.size() == 1 && values.get(0) instanceof Collection) {
+                // Each value of a set/list property is indexed separately
+                for (Object value : (Collection<?>) values.get(0)) {
+                    this.collectValue(valueKey(value), value);
+                }
+                return;
+            }
+            List<String> keys = new ArrayList<>(values.size());
+            for (Object value : values) {
+                keys.add(valueKey(value));
+            }
+            this.collectValue(valueKey(keys), values.get(0));
+        }
+
+        private void collectValue(String key, Object value) {
+            this.count++;
+            this.addToSketch(key);
+            this.addToHitters(key);
+            if (this.numeric) {
+                Double number = toDouble(value);
+                if (number != null) {
+                    this.addToSamples(number);
+                }
+            }
+        }
+
+        private void addToSketch(String key) {
+            long hash = HASH.hashString(key, StandardCharsets.UTF_8).asLong();
+            int index = (int) (hash >>> (Long.SIZE - HLL_PRECISION));
+            long rest = hash << HLL_PRECISION;
+            int rank = Math.min(Long.numberOfLeadingZeros(rest) + 1,
+                                Long.SIZE - HLL_PRECISION + 1);
+            if (rank > this.registers[index]) {
+                this.registers[index] = (byte) rank;
+            }
+        }
+
+        private void addToHitters(String key) {
+            long[] counter = this.hitters.get(key);
+            if (counter != null) {
+                counter[0]++;
+                return;
+            }
+            if (this.hitters.size() < HEAVY_HITTERS_CAPACITY) {
+                // The counter is [count, max error]
+                this.hitters.put(key, new long[]{1L, 0L});
+                return;
+            }
+            // Replace the min one, its count is inherited as the max error
+            String minKey = null;
+            long[] minCounter = null;
+            for (Map.Entry<String, long[]> e : this.hitters.entrySet()) {
+                if (minCounter == null || e.getValue()[0] < minCounter[0]) {
+                    minKey = e.getKey();
+                    minCounter = e.getValue();
+                }
+            }
+            this.hitters.remove(minKey);
+            minCounter[1] = minCounter[0];
+            minCounter[0]++;
+            this.hitters.put(key, minCounter);
+        }
+
+        private void addToSamples(double value) {
+            long seen = this.count;
+            if (seen <= SAMPLE_SIZE) {
+                this.samples[(int) seen - 1] = value;
+                return;
+            }
+            long index = (long) (this.random.nextDouble() * seen);
+            if (index < SAMPLE_SIZE) {
+                this.samples[(int) index] = value;
+            }
+        }
+
+        private static long guaranteed(long[] counter) {
+            return counter[0] - counter[1];
+        }
+
+        public long count() {
+            return this.count;
+        }
+
+        public long distinct() {
+            int size = this.registers.length;
+            double sum = 0.0;
+            int zeros = 0;
+            for (byte register : this.registers) {
+                sum += 1.0 / (1L << register);
+                if (register == 0) {
+                    zeros++;
+                }
+            }
+            double alpha = 0.7213 / (1.0 + 1.079 / size);
+            double estimate = alpha * size * size / sum;
+            if (estimate <= 2.5 * size && zeros > 0) {
+                // Linear counting for small cardinality
+                estimate = size * Math.log((double) size / zeros);
+            }
+            return Math.min(Math.round(estimate), this.count);
+        }
+
+        public IndexLabelStats build() {
+            double[] histogram = null;
+            if (this.numeric && this.count > 0L) {
+                int size = (int) Math.min(this.count, SAMPLE_SIZE);
+                double[] sorted = Arrays.copyOf(this.samples, size);
+                Arrays.sort(sorted);
+                int buckets = Math.min(HISTOGRAM_BUCKETS, size);
+                histogram = new double[buckets + 1];
+                for (int i = 0; i <= buckets; i++) {
+                    histogram[i] = sorted[(int) ((long) i * (size - 1) /
+                                                 buckets)];
+                }
+            }
+
+            // Sort by the guaranteed count (count - max error)
+            List<Map.Entry<String, long[]>> entries =
+                                            new ArrayList<>(this.hitters
+                                                                .entrySet());
+            entries.sort((e1, e2) -> Long.compare(guaranteed(e2.getValue()),
+                                                  guaranteed(e1.getValue())));
+            Map<String, Long> heavyHitters = new LinkedHashMap<>();
+            long distinct = this.distinct();
+            for (Map.Entry<String, long[]> e : entries) {
+                long hits = guaranteed(e.getValue());
+                // Only keep the values much more frequent than the average
+                if (heavyHitters.size() >= HEAVY_HITTERS ||
+                    hits * distinct <= 2L * this.count) {
+                    break;
+                }
+                heavyHitters.put(e.getKey(), hits);
+            }
+            return new IndexLabelStats(this.count, distinct, histogram,
+                                       heavyHitters,
+                                       System.currentTimeMillis());
+        }
+    }
+}
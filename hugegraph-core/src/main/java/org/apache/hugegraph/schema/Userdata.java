@@ -29,6 +29,7 @@ public class Userdata extends HashMap<String, Object> {
 
     public static final String CREATE_TIME = "~create_time";
     public static final String DEFAULT_VALUE = "~default_value";
+    public static final String STATISTICS = "~statistics";
 
     public Userdata() {
     }
@@ -322,6 +322,16 @@ public class IndexLabelBuilder extends AbstractBuilder
         return this.graph().rebuildIndex(indexLabel);
     }
 
+    @Override
+    public Id analyze() {
+        IndexLabel indexLabel = this.indexLabelOrNull(this.name);
+        if (indexLabel == null) {
+            throw new NotFoundException("Can't analyze index label '%s' " +
+                                        "since it doesn't exist", this.name);
+        }
+        return this.graph().analyzeIndex(indexLabel);
+    }
+
     @Override
     public IndexLabelBuilder id(long id) {
         E.checkArgument(id != 0L,
@@ -202,6 +202,10 @@ public class HugeEdge extends HugeElement implements Edge, Cloneable {
         E.checkArgument(this.label.properties().contains(propertyKey.id()),
                         "Invalid property '%s' for edge label '%s'",
                         key, this.label());
+        // Load the properties skipped by the query before updating the edge
+        if (!this.fresh() && !this.isPropLoaded()) {
+            this.forceLoad();
+        }
         if (value == null) {
             this.removeProperty(propertyKey.id());
             return EmptyProperty.instance();
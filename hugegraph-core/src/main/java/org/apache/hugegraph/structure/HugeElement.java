@@ -25,6 +25,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 import org.apache.hugegraph.HugeGraph;
@@ -60,6 +61,8 @@ public abstract class HugeElement implements Element, GraphType, Idfiable, Compa
 
     private final HugeGraph graph;
     private MutableIntObjectMap<HugeProperty<?>> properties;
+    private volatile Consumer<HugeElement> lazyProperties;
+    private boolean loadingProperties;
     // TODO: move into properties to keep small object
     private long expiredTime;
 
@@ -72,6 +75,7 @@ public abstract class HugeElement implements Element, GraphType, Idfiable, Compa
         E.checkArgument(graph != null, "HugeElement graph can't be null");
         this.graph = graph;
         this.properties = EMPTY_MAP;
+        this.lazyProperties = null;
         this.expiredTime = 0L;
         this.removed = false;
         this.fresh = false;
@@ -97,7 +101,7 @@ public abstract class HugeElement implements Element, GraphType, Idfiable, Compa
         this.defaultValueUpdated = true;
         // Set default value if needed
         for (Id pkeyId : this.schemaLabel().properties()) {
-            if (this.properties.containsKey(intFromId(pkeyId))) {
+            if (this.properties().containsKey(intFromId(pkeyId))) {
                 continue;
             }
             PropertyKey pkey = this.graph().propertyKey(pkeyId);
@@ -199,7 +203,7 @@ public abstract class HugeElement implements Element, GraphType, Idfiable, Compa
 
     public Set<Id> getPropertyKeys() {
         Set<Id> propKeys = InsertionOrderUtil.newSet();
-        IntIterator keys = this.properties.keysView().intIterator();
+        IntIterator keys = this.properties().keysView().intIterator();
         while (keys.hasNext()) {
             propKeys.add(IdGenerator.of(keys.next()));
         }
@@ -207,7 +211,7 @@ public abstract class HugeElement implements Element, GraphType, Idfiable, Compa
     }
 
     public Collection<HugeProperty<?>> getProperties() {
-        return this.properties.values();
+        return this.properties().values();
     }
 
     public Collection<HugeProperty<?>> getFilledProperties() {
@@ -217,7 +221,7 @@ public abstract class HugeElement implements Element, GraphType, Idfiable, Compa
 
     public Map<Id, Object> getPropertiesMap() {
         Map<Id, Object> props = InsertionOrderUtil.newMap();
-        for (HugeProperty<?> prop : this.properties.values()) {
+        for (HugeProperty<?> prop : this.properties().values()) {
             props.put(prop.propertyKey().id(), prop.value());
         }
         // TODO: return MutableIntObjectMap<Object> for this method?
@@ -226,7 +230,7 @@ public abstract class HugeElement implements Element, GraphType, Idfiable, Compa
 
     public Collection<HugeProperty<?>> getAggregateProperties() {
         List<HugeProperty<?>> aggrProps = InsertionOrderUtil.newList();
-        for (HugeProperty<?> prop : this.properties.values()) {
+        for (HugeProperty<?> prop : this.properties().values()) {
             if (prop.type().isAggregateProperty()) {
                 aggrProps.add(prop);
             }
@@ -236,12 +240,26 @@ public abstract class HugeElement implements Element, GraphType, Idfiable, Compa
 
     @SuppressWarnings("unchecked")
     public <V> HugeProperty<V> getProperty(Id key) {
-        return (HugeProperty<V>) this.properties.get(intFromId(key));
+        return (HugeProperty<V>) this.properties().get(intFromId(key));
+    }
+
+    /**
+     * Get the value of a property like getPropertyValue(), but only the
+     * specified property is decoded if the properties are lazy loaded, it's
+     * used to filter elements by properties, which avoids decoding all the
+     * properties of the elements to be filtered out.
+     */
+    public Object peekPropertyValue(Id key) {
+        Consumer<HugeElement> loader = this.lazyProperties;
+        if (loader instanceof PropertiesLoader) {
+            return ((PropertiesLoader) loader).loadValue(this, key);
+        }
+        return this.getPropertyValue(key);
     }
 
     @SuppressWarnings("unchecked")
     public <V> V getPropertyValue(Id key) {
-        HugeProperty<?> prop = this.properties.get(intFromId(key));
+        HugeProperty<?> prop = this.properties().get(intFromId(key));
         if (prop == null) {
             return null;
         }
@@ -249,20 +267,20 @@ public abstract class HugeElement implements Element, GraphType, Idfiable, Compa
     }
 
     public boolean hasProperty(Id key) {
-        return this.properties.containsKey(intFromId(key));
+        return this.properties().containsKey(intFromId(key));
     }
 
     public boolean hasProperties() {
-        return this.properties.size() > 0;
+        return this.properties().size() > 0;
     }
 
     public int sizeOfProperties() {
-        return this.properties.size();
+        return this.properties().size();
     }
 
     public int sizeOfSubProperties() {
         int size = 0;
-        for (HugeProperty<?> p : this.properties.values()) {
+        for (HugeProperty<?> p : this.properties().values()) {
             size++;
             if (p.propertyKey().cardinality() != Cardinality.SINGLE &&
                 p.value() instanceof Collection) {
@@ -274,7 +292,7 @@ public abstract class HugeElement implements Element, GraphType, Idfiable, Compa
 
     @Watched(prefix = "element")
     public <V> HugeProperty<?> setProperty(HugeProperty<V> prop) {
-        if (this.properties == EMPTY_MAP) {
+        if (this.properties() == EMPTY_MAP) {
             this.properties = CollectionFactory.newIntObjectMap();
         }
         PropertyKey pkey = prop.propertyKey();
@@ -286,7 +304,7 @@ public abstract class HugeElement implements Element, GraphType, Idfiable, Compa
     }
 
     public <V> HugeProperty<?> removeProperty(Id key) {
-        return this.properties.remove(intFromId(key));
+        return this.properties().remove(intFromId(key));
     }
 
     public <V> HugeProperty<V> addProperty(PropertyKey pkey, V value) {
@@ -364,19 +382,70 @@ public abstract class HugeElement implements Element, GraphType, Idfiable, Compa
 
     public void resetProperties() {
         this.properties = CollectionFactory.newIntObjectMap();
+        this.lazyProperties = null;
         this.propLoaded = false;
     }
 
     protected void copyProperties(HugeElement element) {
-        if (element.properties == EMPTY_MAP) {
+        MutableIntObjectMap<HugeProperty<?>> properties = element.properties();
+        if (properties == EMPTY_MAP) {
             this.properties = EMPTY_MAP;
         } else {
-            this.properties = CollectionFactory.newIntObjectMap(
-                              element.properties);
+            this.properties = CollectionFactory.newIntObjectMap(properties);
         }
+        this.lazyProperties = null;
         this.propLoaded = true;
     }
 
+    /**
+     * Set a loader to fill the properties when they are accessed at the
+     * first time, used to avoid decoding the properties of the elements
+     * which are read but never touched, like elements from off-heap cache
+     * or adjacent edges from backend.
+     * NOTE: the loader is called at most once even if the element is shared
+     * by multiple threads, like edges in the edge cache.
+     */
+    public void lazyProperties(Consumer<HugeElement> loader) {
+        E.checkNotNull(loader, "loader");
+        this.properties = EMPTY_MAP;
+        this.lazyProperties = loader;
+    }
+
+    private MutableIntObjectMap<HugeProperty<?>> properties() {
+        if (this.lazyProperties != null) {
+            this.loadLazyProperties();
+        }
+        return this.properties;
+    }
+
+    private synchronized void loadLazyProperties() {
+        Consumer<HugeElement> loader = this.lazyProperties;
+        // Loaded by another thread, or called by setProperty() of the loader
+        if (loader == null || this.loadingProperties) {
+            return;
+        }
+        this.loadingProperties = true;
+        try {
+            loader.accept(this);
+        } finally {
+            this.loadingProperties = false;
+        }
+        // Publish the loaded properties to the other threads
+        this.lazyProperties = null;
+    }
+
+    /**
+     * The loader of lazy properties which can also decode a single property
+     * alone, the loader must not change after it's created.
+     */
+    public interface PropertiesLoader extends Consumer<HugeElement> {
+
+        /**
+         * @return the value of the property, or null if it doesn't exist
+         */
+        Object loadValue(HugeElement owner, Id key);
+    }
+
     public HugeElement copyAsFresh() {
         HugeElement elem = this.copy();
         elem.fresh = true;
@@ -48,8 +48,10 @@ import org.apache.hugegraph.HugeGraph;
 import org.apache.hugegraph.backend.serializer.BytesBuffer;
 import org.apache.hugegraph.exception.LimitExceedException;
 import org.apache.hugegraph.exception.NotFoundException;
+import org.apache.hugegraph.job.AlgorithmJob;
 import org.apache.hugegraph.job.ComputerJob;
 import org.apache.hugegraph.job.EphemeralJob;
+import org.apache.hugegraph.job.schema.SchemaJob;
 
 public class HugeTask<V> extends FutureTask<V> {
 
@@ -263,6 +265,17 @@ public class HugeTask<V> extends FutureTask<V> {
         return ComputerJob.COMPUTER.equals(this.type);
     }
 
+    public TaskPriority priority() {
+        if (this.callable instanceof EphemeralJob) {
+            return TaskPriority.HIGH;
+        }
+        if (this.callable instanceof SchemaJob || this.computer() ||
+            AlgorithmJob.TASK_TYPE.equals(this.type)) {
+            return TaskPriority.LOW;
+        }
+        return TaskPriority.NORMAL;
+    }
+
     @Override
     public String toString() {
         return String.format("HugeTask(%s)%s", this.id, this.asMap());
@@ -40,6 +40,7 @@ import org.apache.hugegraph.backend.query.QueryResults;
 import org.apache.hugegraph.backend.store.BackendStore;
 import org.apache.hugegraph.backend.tx.GraphTransaction;
 import org.apache.hugegraph.config.CoreOptions;
+import org.apache.hugegraph.config.HugeConfig;
 import org.apache.hugegraph.exception.ConnectionException;
 import org.apache.hugegraph.exception.NotFoundException;
 import org.apache.hugegraph.iterator.ExtendableIterator;
@@ -72,8 +73,9 @@ public class StandardTaskScheduler implements TaskScheduler {
     private final HugeGraphParams graph;
     private final ServerInfoManager serverManager;
 
-    private final ExecutorService taskExecutor;
+    private final TaskDispatcher taskDispatcher;
     private final ExecutorService taskDbExecutor;
+    private final TaskDispatcher.Quota quota;
 
     private final Map<Id, HugeTask<?>> tasks;
 
@@ -85,16 +87,20 @@ public class StandardTaskScheduler implements TaskScheduler {
     private static final int MAX_PENDING_TASKS = 10000;
 
     public StandardTaskScheduler(HugeGraphParams graph,
-                                 ExecutorService taskExecutor,
+                                 TaskDispatcher taskDispatcher,
                                  ExecutorService taskDbExecutor,
                                  ExecutorService serverInfoDbExecutor) {
         E.checkNotNull(graph, "graph");
-        E.checkNotNull(taskExecutor, "taskExecutor");
+        E.checkNotNull(taskDispatcher, "taskDispatcher");
         E.checkNotNull(taskDbExecutor, "dbExecutor");
 
         this.graph = graph;
-        this.taskExecutor = taskExecutor;
+        this.taskDispatcher = taskDispatcher;
         this.taskDbExecutor = taskDbExecutor;
+        HugeConfig config = graph.configuration();
+        this.quota = TaskDispatcher.Quota.parse(
+                     config.get(CoreOptions.TASK_MAX_RUNNING),
+                     config.getMap(CoreOptions.TASK_TYPE_MAX_RUNNING));
 
         this.serverManager = new ServerInfoManager(graph, serverInfoDbExecutor);
         this.tasks = new ConcurrentHashMap<>();
@@ -231,7 +237,7 @@ public class StandardTaskScheduler implements TaskScheduler {
         this.initTaskCallable(task);
         assert !this.tasks.containsKey(task.id()) : task;
         this.tasks.put(task.id(), task);
-        return this.taskExecutor.submit(task);
+        return this.dispatch(task);
     }
 
     private <V> Future<?> resubmitTask(HugeTask<V> task) {
@@ -241,7 +247,14 @@ public class StandardTaskScheduler implements TaskScheduler {
         E.checkArgument(this.tasks.containsKey(task.id()),
                         "Can't resubmit task '%s' not been submitted before",
                         task.id());
-        return this.taskExecutor.submit(task);
+        return this.dispatch(task);
+    }
+
+    private <V> Future<?> dispatch(HugeTask<V> task) {
+        // HugeTask is a future itself, just run it on the task workers
+        this.taskDispatcher.submit(task, this.graphName(), task.type(),
+                                   task.priority(), this.quota);
+        return task;
     }
 
     public <V> void initTaskCallable(HugeTask<V> task) {
@@ -0,0 +1,357 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.hugegraph.task;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.apache.hugegraph.util.E;
+import org.apache.hugegraph.util.InsertionOrderUtil;
+import org.apache.hugegraph.util.LatencyHistogram;
+import org.apache.hugegraph.util.Log;
+import org.slf4j.Logger;
+
+/**
+ * Dispatch the tasks of all the graphs to the shared task workers by
+ * priority, the tasks with the same priority are dispatched in FIFO order.
+ * A task is kept in the queue until there is an idle worker for it, and:
+ *  1.the running tasks of its graph don't exceed the quota of the graph;
+ *  2.the running tasks of its type in the graph don't exceed the quota of
+ *    the type;
+ *  3.the running low priority tasks don't exceed the low priority workers,
+ *    so the long-running tasks can't starve the others.
+ * The tasks blocked by the quotas don't block the tasks behind them.
+ */
+public final class TaskDispatcher {
+
+    private static final Logger LOG = Log.logger(TaskDispatcher.class);
+
+    // The bounds in milliseconds of the histograms: 10ms ~ 1h
+    private static final long[] LATENCY_BOUNDS = {
+            10L, 100L, 1000L, 10_000L, 60_000L, 600_000L, 3_600_000L
+    };
+
+    private final ExecutorService executor;
+    private final int workers;
+    private final int lowPriorityWorkers;
+
+    private final PriorityQueue<Entry> queue;
+    private final Map<String, Integer> runningGraphs;
+    private final Map<String, Integer> runningTypes;
+    private int running;
+    private int runningLowPriority;
+    private long sequence;
+    private boolean shutdown;
+
+    private final Map<TaskPriority, LatencyHistogram> waitTimes;
+    private final Map<TaskPriority, LatencyHistogram> runTimes;
+
+    public TaskDispatcher(ExecutorService executor, int workers) {
+        this(executor, workers, lowPriorityWorkers(workers));
+    }
+
+    public TaskDispatcher(ExecutorService executor, int workers,
+                          int lowPriorityWorkers) {
+        E.checkNotNull(executor, "executor");
+        E.checkArgument(workers > 0,
+                        "The workers must be > 0, but got %s", workers);
+        E.checkArgument(lowPriorityWorkers > 0 &&
+                        lowPriorityWorkers <= workers,
+                        "The low priority workers must be in [1, %s], " +
+                        "but got %s", workers, lowPriorityWorkers);
+        this.executor = executor;
+        this.workers = workers;
+        this.lowPriorityWorkers = lowPriorityWorkers;
+
+        this.queue = new PriorityQueue<>();
+        this.runningGraphs = new HashMap<>();
+        this.runningTypes = new HashMap<>();
+        this.running = 0;
+        this.runningLowPriority = 0;
+        this.sequence = 0L;
+        this.shutdown = false;
+
+        this.waitTimes = new EnumMap<>(TaskPriority.class);
+        this.runTimes = new EnumMap<>(TaskPriority.class);
+        for (TaskPriority priority : TaskPriority.values()) {
+            this.waitTimes.put(priority, new LatencyHistogram(LATENCY_BOUNDS));
+            this.runTimes.put(priority, new LatencyHistogram(LATENCY_BOUNDS));
+        }
+    }
+
+    public void submit(Runnable task, String graph, String type,
+                       TaskPriority priority, Quota quota) {
+        E.checkNotNull(task, "task");
+        E.checkNotNull(graph, "graph");
+        E.checkNotNull(priority, "priority");
+        synchronized (this) {
+            if (this.shutdown) {
+                throw new RejectedExecutionException(String.format(
+                          "The task dispatcher has been shutdown, can't " +
+                          "submit task of graph '%s'", graph));
+            }
+            this.queue.add(new Entry(task, graph, type, priority,
+                                     quota == null ? Quota.NONE : quota,
+                                     this.sequence++));
+        }
+        this.dispatch();
+    }
+
+    /**
+     * Stop dispatching and cancel the tasks still waiting in the queue,
+     * they would never be run once the task workers are shutdown.
+     * The running tasks are not affected.
+     * @return the tasks removed from the queue in dispatching order
+     */
+    public List<Runnable> shutdown() {
+        List<Entry> pending;
+        synchronized (this) {
+            this.shutdown = true;
+            pending = new ArrayList<>(this.queue);
+            this.queue.clear();
+        }
+        Collections.sort(pending);
+
+        List<Runnable> tasks = new ArrayList<>(pending.size());
+        for (Entry entry : pending) {
+            cancel(entry);
+            tasks.add(entry.task);
+        }
+        return tasks;
+    }
+
+    public synchronized int pending() {
+        return this.queue.size();
+    }
+
+    public synchronized int running() {
+        return this.running;
+    }
+
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = InsertionOrderUtil.newMap();
+        synchronized (this) {
+            metrics.put("workers", this.workers);
+            metrics.put("low_priority_workers", this.lowPriorityWorkers);
+            metrics.put("running", this.running);
+            metrics.put("pending", this.queue.size());
+            metrics.put("running_graphs", new HashMap<>(this.runningGraphs));
+        }
+        Map<String, Object> waitTimes = InsertionOrderUtil.newMap();
+        Map<String, Object> runTimes = InsertionOrderUtil.newMap();
+        for (TaskPriority priority : TaskPriority.values()) {
+            String name = priority.name().toLowerCase();
+            waitTimes.put(name, this.waitTimes.get(priority).asMap());
+            runTimes.put(name, this.runTimes.get(priority).asMap());
+        }
+        metrics.put("queue_wait_time_ms", waitTimes);
+        metrics.put("run_time_ms", runTimes);
+        return metrics;
+    }
+
+    private void dispatch() {
+        List<Entry> ready = new ArrayList<>();
+        synchronized (this) {
+            List<Entry> blocked = new ArrayList<>();
+            while (this.running < this.workers && !this.queue.isEmpty()) {
+                Entry entry = this.queue.poll();
+                if (this.acquire(entry)) {
+                    ready.add(entry);
+                } else {
+                    // Keep the position in the queue by the sequence
+                    blocked.add(entry);
+                }
+            }
+            this.queue.addAll(blocked);
+        }
+
+        for (Entry entry : ready) {
+            try {
+                this.executor.execute(() -> this.run(entry));
+            } catch (RejectedExecutionException e) {
+                LOG.warn("Failed to execute task of graph '{}' since the " +
+                         "task workers may be shutdown", entry.graph, e);
+                synchronized (this) {
+                    this.release(entry);
+                }
+                cancel(entry);
+            }
+        }
+    }
+
+    private void run(Entry entry) {
+        long start = System.currentTimeMillis();
+        this.waitTimes.get(entry.priority).update(start - entry.submitTime);
+        try {
+            entry.task.run();
+        } finally {
+            long end = System.currentTimeMillis();
+            this.runTimes.get(entry.priority).update(end - start);
+            synchronized (this) {
+                this.release(entry);
+            }
+            // Let the tasks waiting for the worker/quota run
+            this.dispatch();
+        }
+    }
+
+    private boolean acquire(Entry entry) {
+        if (entry.priority == TaskPriority.LOW &&
+            this.runningLowPriority >= this.lowPriorityWorkers) {
+            return false;
+        }
+        int graphLimit = entry.quota.graphLimit;
+        if (graphLimit > 0 &&
+            this.runningGraphs.getOrDefault(entry.graph, 0) >= graphLimit) {
+            return false;
+        }
+        int typeLimit = entry.quota.typeLimit(entry.type);
+        if (typeLimit > 0 &&
+            this.runningTypes.getOrDefault(entry.typeKey(), 0) >= typeLimit) {
+            return false;
+        }
+
+        this.running++;
+        if (entry.priority == TaskPriority.LOW) {
+            this.runningLowPriority++;
+        }
+        this.runningGraphs.merge(entry.graph, 1, Integer::sum);
+        this.runningTypes.merge(entry.typeKey(), 1, Integer::sum);
+        return true;
+    }
+
+    private void release(Entry entry) {
+        this.running--;
+        if (entry.priority == TaskPriority.LOW) {
+            this.runningLowPriority--;
+        }
+        this.runningGraphs.computeIfPresent(entry.graph,
+                                            (k, v) -> v > 1 ? v - 1 : null);
+        this.runningTypes.computeIfPresent(entry.typeKey(),
+                                           (k, v) -> v > 1 ? v - 1 : null);
+        assert this.running >= 0 && this.runningLowPriority >= 0;
+    }
+
+    private static void cancel(Entry entry) {
+        if (entry.task instanceof Future) {
+            ((Future<?>) entry.task).cancel(false);
+        }
+    }
+
+    /**
+     * Keep a worker for the tasks with high or normal priority if there
+     * are more than one workers
+     */
+    private static int lowPriorityWorkers(int workers) {
+        return Math.max(workers - 1, 1);
+    }
+
+    /**
+     * The max number of running tasks of a graph on current server
+     */
+    public static final class Quota {
+
+        public static final Quota NONE = new Quota(0, Collections.emptyMap());
+
+        private final int graphLimit;
+        private final Map<String, Integer> typeLimits;
+
+        public Quota(int graphLimit, Map<String, Integer> typeLimits) {
+            E.checkArgument(graphLimit >= 0,
+                            "The graph quota must be >= 0, but got %s",
+                            graphLimit);
+            this.graphLimit = graphLimit;
+            this.typeLimits = typeLimits;
+        }
+
+        /**
+         * Parse the quotas of the task types like 'algorithm:1'
+         */
+        public static Quota parse(int graphLimit, Map<String, String> types) {
+            Map<String, Integer> typeLimits = new HashMap<>();
+            for (Map.Entry<String, String> e : types.entrySet()) {
+                int limit;
+                try {
+                    limit = Integer.parseInt(e.getValue().trim());
+                } catch (NumberFormatException ignored) {
+                    limit = -1;
+                }
+                E.checkArgument(limit >= 0,
+                                "The quota of task type '%s' must be a " +
+                                "number >= 0, but got '%s'",
+                                e.getKey(), e.getValue());
+                typeLimits.put(e.getKey().trim(), limit);
+            }
+            return new Quota(graphLimit, typeLimits);
+        }
+
+        public int graphLimit() {
+            return this.graphLimit;
+        }
+
+        public int typeLimit(String type) {
+            if (type == null) {
+                return 0;
+            }
+            return this.typeLimits.getOrDefault(type, 0);
+        }
+    }
+
+    private static final class Entry implements Comparable<Entry> {
+
+        private final Runnable task;
+        private final String graph;
+        private final String type;
+        private final TaskPriority priority;
+        private final Quota quota;
+        private final long sequence;
+        private final long submitTime;
+
+        public Entry(Runnable task, String graph, String type,
+                     TaskPriority priority, Quota quota, long sequence) {
+            this.task = task;
+            this.graph = graph;
+            this.type = type;
+            this.priority = priority;
+            this.quota = quota;
+            this.sequence = sequence;
+            this.submitTime = System.currentTimeMillis();
+        }
+
+        public String typeKey() {
+            return this.graph + "/" + this.type;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            int cmp = this.priority.compareTo(other.priority);
+            if (cmp != 0) {
+                return cmp;
+            }
+            return Long.compare(this.sequence, other.sequence);
+        }
+    }
+}
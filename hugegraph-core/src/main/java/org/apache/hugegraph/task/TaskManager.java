@@ -17,6 +17,7 @@
 
 package org.apache.hugegraph.task;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.concurrent.Callable;
@@ -34,6 +35,7 @@ import org.slf4j.Logger;
 
 import org.apache.hugegraph.HugeException;
 import org.apache.hugegraph.HugeGraphParams;
+import org.apache.hugegraph.backend.store.ReadConsistency;
 import org.apache.hugegraph.concurrent.PausableScheduledThreadPool;
 
 public final class TaskManager {
@@ -55,6 +57,7 @@ public final class TaskManager {
     private final Map<HugeGraphParams, TaskScheduler> schedulers;
 
     private final ExecutorService taskExecutor;
+    private final TaskDispatcher taskDispatcher;
     private final ExecutorService taskDbExecutor;
     private final ExecutorService serverInfoDbExecutor;
     private final PausableScheduledThreadPool schedulerExecutor;
@@ -70,6 +73,7 @@ public final class TaskManager {
 
         // For execute tasks
         this.taskExecutor = ExecutorUtil.newFixedThreadPool(pool, TASK_WORKER);
+        this.taskDispatcher = new TaskDispatcher(this.taskExecutor, pool);
         // For save/query task state, just one thread is ok
         this.taskDbExecutor = ExecutorUtil.newFixedThreadPool(
                               1, TASK_DB_WORKER);
@@ -89,7 +93,7 @@ public final class TaskManager {
         E.checkArgumentNotNull(graph, "The graph can't be null");
 
         TaskScheduler scheduler = new StandardTaskScheduler(graph,
-                                  this.taskExecutor, this.taskDbExecutor,
+                                  this.taskDispatcher, this.taskDbExecutor,
                                   this.serverInfoDbExecutor);
         this.schedulers.put(graph, scheduler);
     }
@@ -195,6 +199,12 @@ public final class TaskManager {
         }
 
         if (terminated && !this.taskExecutor.isShutdown()) {
+            // The queued tasks can't be run after the workers are shutdown
+            List<Runnable> cancelled = this.taskDispatcher.shutdown();
+            if (!cancelled.isEmpty()) {
+                LOG.info("Cancelled {} pending tasks when shutdown",
+                         cancelled.size());
+            }
             this.taskExecutor.shutdown();
             try {
                 terminated = this.taskExecutor.awaitTermination(timeout, unit);
@@ -242,6 +252,14 @@ public final class TaskManager {
         return size;
     }
 
+    /**
+     * @return the running/pending tasks, and the histograms of queue-wait
+     *         time and run time by the priority of the tasks on task workers
+     */
+    public Map<String, Object> taskMetrics() {
+        return this.taskDispatcher.metrics();
+    }
+
     protected void notifyNewTask(HugeTask<?> task) {
         Queue<Runnable> queue = ((ThreadPoolExecutor) this.schedulerExecutor)
                                                           .getQueue();
@@ -373,20 +391,24 @@ public final class TaskManager {
 
         private final Callable<V> callable;
         private final String context;
+        private final ReadConsistency readConsistency;
 
         public ContextCallable(Callable<V> callable) {
             E.checkNotNull(callable, "callable");
             this.context = getContext();
+            this.readConsistency = ReadConsistency.current();
             this.callable = callable;
         }
 
         @Override
         public V call() throws Exception {
             setContext(this.context);
+            ReadConsistency.current(this.readConsistency);
             try {
                 return this.callable.call();
             } finally {
                 resetContext();
+                ReadConsistency.reset();
             }
         }
     }
@@ -29,6 +29,7 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import org.apache.commons.collections.CollectionUtils;
@@ -96,6 +97,8 @@ public class HugeTraverser {
     protected static final int MAX_VERTICES = 10;
     private static CollectionFactory collectionFactory;
     private final HugeGraph graph;
+    // Whether exists edge label with ttl, which is checked at the first use
+    private Boolean ttlEdgeLabel;
     // for apimeasure
     public AtomicLong edgeIterCounter = new AtomicLong(0);
     public AtomicLong vertexIterCounter = new AtomicLong(0);
@@ -315,17 +318,28 @@ public class HugeTraverser {
                                        Directions dir, Id label,
                                        Set<Id> excluded, long degree,
                                        long limit) {
+        return this.adjacentVertices(sourceV, vertices, dir, label,
+                                     excluded, degree, limit, null);
+    }
+
+    /**
+     * Same as adjacentVertices() above, and pass each new neighbor to the
+     * consumer as soon as it's found if the consumer is not null
+     */
+    protected Set<Id> adjacentVertices(Id sourceV, Set<Id> vertices,
+                                       Directions dir, Id label,
+                                       Set<Id> excluded, long degree,
+                                       long limit, Consumer<Id> consumer) {
         if (limit == 0) {
             return ImmutableSet.of();
         }
 
         Set<Id> neighbors = newIdSet();
         for (Id source : vertices) {
-            Iterator<Edge> edges = this.edgesOfVertex(source, dir,
-                                                      label, degree);
-            while (edges.hasNext()) {
-                HugeEdge e = (HugeEdge) edges.next();
-                Id target = e.id().otherVertexId();
+            Iterator<Id> targets = this.adjacentVertices(source, dir,
+                                                         label, degree);
+            while (targets.hasNext()) {
+                Id target = targets.next();
                 boolean matchExcluded = (excluded != null &&
                                          excluded.contains(target));
                 if (matchExcluded || neighbors.contains(target) ||
@@ -333,6 +347,9 @@ public class HugeTraverser {
                     continue;
                 }
                 neighbors.add(target);
+                if (consumer != null) {
+                    consumer.accept(target);
+                }
                 if (limit != NO_LIMIT && neighbors.size() >= limit) {
                     return neighbors;
                 }
@@ -343,6 +360,11 @@ public class HugeTraverser {
 
     protected Iterator<Id> adjacentVertices(Id source, Directions dir,
                                             Id label, long limit) {
+        Iterator<Id> neighbors = this.adjacentVerticesOfBlocks(source, dir,
+                                                               label, limit);
+        if (neighbors != null) {
+            return neighbors;
+        }
         Iterator<Edge> edges = this.edgesOfVertex(source, dir, label, limit);
         return new MapperIterator<>(edges, e -> {
             HugeEdge edge = (HugeEdge) e;
@@ -350,6 +372,34 @@ public class HugeTraverser {
         });
     }
 
+    /**
+     * Read the neighbors from the adjacency blocks if the backend supports,
+     * which skips decoding the edges one by one. The blocks don't keep the
+     * expired time, so the edges of the labels with ttl are not read here.
+     * @return the neighbors, or null if the blocks are unavailable
+     */
+    private Iterator<Id> adjacentVerticesOfBlocks(Id source, Directions dir,
+                                                  Id label, long limit) {
+        if (!this.graph.backendStoreFeatures().supportsAdjacencyBlock()) {
+            return null;
+        }
+        if (label != null ? this.graph.edgeLabel(label).ttl() > 0L :
+                            this.existsTtlEdgeLabel()) {
+            return null;
+        }
+        return this.graph.metadata(null, GraphTransaction.META_ADJACENCY,
+                                   source, dir, label,
+                                   limit == NO_LIMIT ? Query.NO_LIMIT : limit);
+    }
+
+    private boolean existsTtlEdgeLabel() {
+        if (this.ttlEdgeLabel == null) {
+            this.ttlEdgeLabel = this.graph.edgeLabels().stream()
+                                          .anyMatch(el -> el.ttl() > 0L);
+        }
+        return this.ttlEdgeLabel;
+    }
+
     protected Set<Id> adjacentVertices(Id source, EdgeStep step) {
         Set<Id> neighbors = newSet();
         Iterator<Edge> edges = this.edgesOfVertex(source, step);
@@ -371,6 +421,19 @@ public class HugeTraverser {
     @Watched
     protected Iterator<Edge> edgesOfVertex(Id source, Directions dir,
                                            Id label, long limit) {
+        return this.edgesOfVertex(source, dir, label, limit, null);
+    }
+
+    /**
+     * Get the adjacent edges like edgesOfVertex(source, dir, label, limit),
+     * but only the specified properties of the edges are decoded.
+     * @param properties the keys of the edge properties to be decoded, the
+     *                   other properties are loaded again when accessed,
+     *                   null means all properties
+     */
+    protected Iterator<Edge> edgesOfVertex(Id source, Directions dir,
+                                           Id label, long limit,
+                                           Set<Id> properties) {
         Id[] labels = {};
         if (label != null) {
             labels = new Id[]{label};
@@ -380,6 +443,7 @@ public class HugeTraverser {
         if (limit != NO_LIMIT) {
             query.limit(limit);
         }
+        query.selectProperties(properties);
         return this.graph.edges(query);
     }
 
@@ -450,6 +514,10 @@ public class HugeTraverser {
         } else {
             filter = (ConditionQuery) query.copy();
             this.fillFilterByProperties(filter, edgeStep.properties());
+            if (!filter.userpropKeys().isEmpty()) {
+                // Just decode the properties to be filtered by
+                query.selectProperties(filter.userpropKeys());
+            }
         }
         query.capacity(Query.NO_CAPACITY);
         if (edgeStep.limit() != NO_LIMIT) {
@@ -39,6 +39,17 @@ public class KneighborTraverser extends OltpTraverser {
     public Set<Id> kneighbor(Id sourceV, Directions dir,
                              String label, int depth,
                              long degree, long limit) {
+        return this.kneighbor(sourceV, dir, label, depth, degree, limit, null);
+    }
+
+    /**
+     * Same as kneighbor() above, and pass each neighbor to the consumer as
+     * soon as it's found if the consumer is not null, so the results can be
+     * sent before the traversal is finished
+     */
+    public Set<Id> kneighbor(Id sourceV, Directions dir, String label,
+                             int depth, long degree, long limit,
+                             Consumer<Id> consumer) {
         E.checkNotNull(sourceV, "source vertex id");
         this.checkVertexExist(sourceV, "source vertex");
         E.checkNotNull(dir, "direction");
@@ -57,7 +68,7 @@ public class KneighborTraverser extends OltpTraverser {
         while (depth-- > 0) {
             long remaining = limit == NO_LIMIT ? NO_LIMIT : limit - all.size();
             latest = this.adjacentVertices(sourceV, latest, dir, labelId,
-                                           all, degree, remaining);
+                                           all, degree, remaining, consumer);
             all.addAll(latest);
             this.vertexIterCounter.addAndGet(1L);
             this.edgeIterCounter.addAndGet(latest.size());
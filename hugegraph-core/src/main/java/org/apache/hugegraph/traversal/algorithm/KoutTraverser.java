@@ -40,6 +40,18 @@ public class KoutTraverser extends OltpTraverser {
     public Set<Id> kout(Id sourceV, Directions dir, String label,
                         int depth, boolean nearest,
                         long degree, long capacity, long limit) {
+        return this.kout(sourceV, dir, label, depth, nearest,
+                         degree, capacity, limit, null);
+    }
+
+    /**
+     * Same as kout() above, and pass each vertex of the last layer to the
+     * consumer as soon as it's found if the consumer is not null, so the
+     * results can be sent before the traversal is finished
+     */
+    public Set<Id> kout(Id sourceV, Directions dir, String label,
+                        int depth, boolean nearest, long degree,
+                        long capacity, long limit, Consumer<Id> consumer) {
         E.checkNotNull(sourceV, "source vertex id");
         this.checkVertexExist(sourceV, "source vertex");
         E.checkNotNull(dir, "direction");
@@ -72,13 +84,17 @@ public class KoutTraverser extends OltpTraverser {
                 (limit < remaining || remaining == NO_LIMIT)) {
                 remaining = limit;
             }
+            // Only the vertices of the last layer are the results
+            Consumer<Id> results = depth == 0 ? consumer : null;
             if (nearest) {
                 latest = this.adjacentVertices(sourceV, latest, dir, labelId,
-                                               all, degree, remaining);
+                                               all, degree, remaining,
+                                               results);
                 all.addAll(latest);
             } else {
                 latest = this.adjacentVertices(sourceV, latest, dir, labelId,
-                                               null, degree, remaining);
+                                               null, degree, remaining,
+                                               results);
             }
             this.vertexIterCounter.addAndGet(1L);
             this.edgeIterCounter.addAndGet(latest.size());
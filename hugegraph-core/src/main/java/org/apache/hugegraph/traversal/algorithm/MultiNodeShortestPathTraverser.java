@@ -94,8 +94,9 @@ public class MultiNodeShortestPathTraverser extends OltpTraverser {
                                                            long capacity) {
         List<Path> paths = new CopyOnWriteArrayList<>();
         Set<Edge> edges = new CopyOnWriteArraySet<>();
+        // The pairs are traversed concurrently, so expand layers serially
         ShortestPathTraverser traverser =
-                new ShortestPathTraverser(this.graph());
+                new ShortestPathTraverser(this.graph(), false);
         this.traversePairs(pairs.iterator(), pair -> {
             Path path = traverser.shortestPath(pair.getLeft(), pair.getRight(),
                                                step, maxDepth, capacity);
@@ -73,6 +73,10 @@ public abstract class OltpTraverser extends HugeTraverser
         }
     }
 
+    protected static boolean concurrentEnabled() {
+        return executors != null;
+    }
+
     protected long traversePairs(Iterator<Pair<Id, Id>> pairs,
                                  Consumer<Pair<Id, Id>> consumer) {
         return this.traverse(pairs, consumer, "traverse-pairs");
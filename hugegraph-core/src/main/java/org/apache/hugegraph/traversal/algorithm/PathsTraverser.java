@@ -18,6 +18,7 @@
 package org.apache.hugegraph.traversal.algorithm;
 
 import java.util.Iterator;
+import java.util.function.Consumer;
 
 import org.apache.hugegraph.HugeGraph;
 import org.apache.hugegraph.backend.id.Id;
@@ -38,6 +39,19 @@ public class PathsTraverser extends HugeTraverser {
     public PathSet paths(Id sourceV, Directions sourceDir,
                          Id targetV, Directions targetDir, String label,
                          int depth, long degree, long capacity, long limit) {
+        return this.paths(sourceV, sourceDir, targetV, targetDir, label,
+                          depth, degree, capacity, limit, null);
+    }
+
+    /**
+     * Same as paths() above, and pass each path to the consumer as soon as
+     * it's found if the consumer is not null, so the results can be sent
+     * before the traversal is finished
+     */
+    public PathSet paths(Id sourceV, Directions sourceDir,
+                         Id targetV, Directions targetDir, String label,
+                         int depth, long degree, long capacity, long limit,
+                         Consumer<Path> consumer) {
         E.checkNotNull(sourceV, "source vertex id");
         E.checkNotNull(targetV, "target vertex id");
         this.checkVertexExist(sourceV, "source vertex");
@@ -61,7 +75,8 @@ public class PathsTraverser extends HugeTraverser {
 
         Id labelId = this.getEdgeLabelId(label);
         Traverser traverser = new Traverser(sourceV, targetV, labelId,
-                                            degree, capacity, limit);
+                                            degree, capacity, limit,
+                                            consumer);
         // We should stop early if walk backtrace or reach limit
         while (true) {
             if (--depth < 0 || traverser.reachLimit()) {
@@ -87,18 +102,20 @@ public class PathsTraverser extends HugeTraverser {
         private final long degree;
         private final long capacity;
         private final long limit;
+        private final Consumer<Path> consumer;
 
         private final PathSet paths;
         private long vertexCounter;
         private long edgeCounter;
 
-        public Traverser(Id sourceV, Id targetV, Id label,
-                         long degree, long capacity, long limit) {
+        public Traverser(Id sourceV, Id targetV, Id label, long degree,
+                         long capacity, long limit, Consumer<Path> consumer) {
             this.record = new PathsRecords(false, sourceV, targetV);
             this.label = label;
             this.degree = degree;
             this.capacity = capacity;
             this.limit = limit;
+            this.consumer = consumer;
             this.vertexCounter = 0L;
             this.edgeCounter = 0L;
 
@@ -129,7 +146,7 @@ public class PathsTraverser extends HugeTraverser {
                     PathSet results = this.record.findPath(target, null,
                                                            true, false);
                     for (Path path : results) {
-                        this.paths.add(path);
+                        this.addPath(path);
                         if (this.reachLimit()) {
                             return;
                         }
@@ -163,7 +180,7 @@ public class PathsTraverser extends HugeTraverser {
                     PathSet results = this.record.findPath(target, null,
                                                            true, false);
                     for (Path path : results) {
-                        this.paths.add(path);
+                        this.addPath(path);
                         if (this.reachLimit()) {
                             return;
                         }
@@ -174,6 +191,12 @@ public class PathsTraverser extends HugeTraverser {
             this.record.finishOneLayer();
         }
 
+        private void addPath(Path path) {
+            if (this.paths.add(path) && this.consumer != null) {
+                this.consumer.accept(path);
+            }
+        }
+
         public PathSet paths() {
             return this.paths;
         }
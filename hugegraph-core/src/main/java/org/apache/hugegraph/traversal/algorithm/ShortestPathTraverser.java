@@ -17,16 +17,21 @@
 
 package org.apache.hugegraph.traversal.algorithm;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.hugegraph.HugeGraph;
 import org.apache.hugegraph.backend.id.Id;
 import org.apache.hugegraph.perf.PerfUtil.Watched;
 import org.apache.hugegraph.structure.HugeEdge;
-import org.apache.hugegraph.traversal.algorithm.records.ShortestPathRecords;
 import org.apache.hugegraph.traversal.algorithm.steps.EdgeStep;
 import org.apache.hugegraph.type.define.Directions;
 import org.apache.hugegraph.util.E;
@@ -35,10 +40,31 @@ import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
 import com.google.common.collect.ImmutableList;
 
-public class ShortestPathTraverser extends HugeTraverser {
+/**
+ * Search the shortest paths from both the source and the target, the side
+ * with the smaller frontier is expanded by one layer each time, and the
+ * vertices of a large frontier are expanded concurrently in batches.
+ * The search stops at the layer where the two sides meet, all the paths
+ * which meet in the layer have the same length which is the shortest.
+ */
+public class ShortestPathTraverser extends OltpTraverser {
+
+    // The number of frontier vertices expanded by a task
+    private static final int BATCH = 16;
+
+    private final boolean concurrent;
 
     public ShortestPathTraverser(HugeGraph graph) {
+        this(graph, true);
+    }
+
+    /**
+     * @param concurrent whether to expand the layers concurrently, it's
+     *                   expected to be false if the caller is concurrent
+     */
+    public ShortestPathTraverser(HugeGraph graph, boolean concurrent) {
         super(graph);
+        this.concurrent = concurrent && concurrentEnabled();
     }
 
     @Watched
@@ -59,37 +85,19 @@ public class ShortestPathTraverser extends HugeTraverser {
             return new Path(ImmutableList.of(sourceV));
         }
 
-        Map<Id, String> labelMap = newMap(labels.size());
-        for (String label : labels) {
-            labelMap.put(this.getEdgeLabelId(label), label);
-        }
-        Traverser traverser = new Traverser(sourceV, targetV, dir, labelMap,
-                                            degree, skipDegree, capacity);
-        PathSet paths;
-        while (true) {
-            // Found, reach max depth or reach capacity, stop searching
-            if (!(paths = traverser.forward(false)).isEmpty() ||
-                --depth <= 0) {
-                break;
-            }
-            checkCapacity(traverser.capacity, traverser.accessed(),
-                          "shortest path");
+        Traverser traverser = new Traverser(sourceV, targetV, dir,
+                                            this.labelMap(labels), degree,
+                                            skipDegree, capacity, false);
+        traverser.search(depth);
+        this.vertexIterCounter.addAndGet(traverser.vertexCount.get());
+        this.edgeIterCounter.addAndGet(traverser.edgeCount.get());
 
-            if (!(paths = traverser.backward(false)).isEmpty() ||
-                --depth <= 0) {
-                break;
-            }
-            checkCapacity(traverser.capacity, traverser.accessed(),
-                          "shortest path");
+        PathSet paths = traverser.paths();
+        if (paths.isEmpty()) {
+            return Path.EMPTY;
         }
-
-        this.vertexIterCounter.addAndGet(traverser.vertexCount);
-        this.edgeIterCounter.addAndGet(traverser.pathResults.accessed());
-
-        Path path = paths.isEmpty() ? Path.EMPTY : paths.iterator().next();
-
-        Set<Edge> edges = traverser.edgeResults.getEdges(path);
-        path.setEdges(edges);
+        Path path = paths.iterator().next();
+        path.setEdges(traverser.edges(path));
         return path;
     }
 
@@ -120,160 +128,315 @@ public class ShortestPathTraverser extends HugeTraverser {
             return paths;
         }
 
+        Traverser traverser = new Traverser(sourceV, targetV, dir,
+                                            this.labelMap(labels), degree,
+                                            skipDegree, capacity, true);
+        traverser.search(depth);
+        this.vertexIterCounter.addAndGet(traverser.vertexCount.get());
+        this.edgeIterCounter.addAndGet(traverser.edgeCount.get());
+
+        paths = traverser.paths();
+        Set<Edge> edges = newSet();
+        for (Path path : paths) {
+            edges.addAll(traverser.edges(path));
+        }
+        paths.setEdges(edges);
+        return paths;
+    }
+
+    private Map<Id, String> labelMap(List<String> labels) {
         Map<Id, String> labelMap = newMap(labels.size());
         for (String label : labels) {
             labelMap.put(this.getEdgeLabelId(label), label);
         }
-        Traverser traverser = new Traverser(sourceV, targetV, dir, labelMap,
-                                            degree, skipDegree, capacity);
-        while (true) {
-            paths = traverser.traverse(true);
-            // Found, reach max depth or reach capacity, stop searching
-            if (!paths.isEmpty() || --depth <= 0) {
-                break;
-            }
-            checkCapacity(traverser.capacity, traverser.accessed(),
-                          "shortest path");
-        }
-
-        this.vertexIterCounter.addAndGet(traverser.vertexCount);
-        this.edgeIterCounter.addAndGet(traverser.pathResults.accessed());
-
-        paths.setEdges(traverser.edgeResults.getEdges(paths));
-        return paths;
+        return labelMap;
     }
 
     private class Traverser {
 
-        private final ShortestPathRecords pathResults;
-        private final EdgeRecord edgeResults;
         private final Directions direction;
         private final Map<Id, String> labels;
         private final long degree;
         private final long skipDegree;
         private final long capacity;
-        private long vertexCount;
+        private final boolean all;
 
-        public Traverser(Id sourceV, Id targetV, Directions dir,
+        // The visited vertices of each side with the links to parents
+        private final Map<Id, Visited> sourceNodes;
+        private final Map<Id, Visited> targetNodes;
+        private List<Id> sourceFrontier;
+        private List<Id> targetFrontier;
+        private int sourceDepth;
+        private int targetDepth;
+
+        // The vertices where the two sides meet
+        private final Queue<Id> meets;
+        private volatile boolean found;
+
+        private final AtomicLong vertexCount;
+        private final AtomicLong edgeCount;
+
+        public Traverser(Id source, Id target, Directions dir,
                          Map<Id, String> labels, long degree,
-                         long skipDegree, long capacity) {
-            this.pathResults = new ShortestPathRecords(sourceV, targetV);
-            this.edgeResults = new EdgeRecord(false);
+                         long skipDegree, long capacity, boolean all) {
             this.direction = dir;
             this.labels = labels;
             this.degree = degree;
             this.skipDegree = skipDegree;
             this.capacity = capacity;
-            this.vertexCount = 0L;
+            this.all = all;
+
+            this.sourceNodes = new ConcurrentHashMap<>();
+            this.targetNodes = new ConcurrentHashMap<>();
+            this.sourceNodes.put(source, new Visited(0));
+            this.targetNodes.put(target, new Visited(0));
+            this.sourceFrontier = ImmutableList.of(source);
+            this.targetFrontier = ImmutableList.of(target);
+            this.sourceDepth = 0;
+            this.targetDepth = 0;
+
+            this.meets = new ConcurrentLinkedQueue<>();
+            this.found = false;
+
+            this.vertexCount = new AtomicLong(0L);
+            this.edgeCount = new AtomicLong(0L);
         }
 
-        public PathSet traverse(boolean all) {
-            return this.pathResults.sourcesLessThanTargets() ?
-                   this.forward(all) : this.backward(all);
+        public void search(int maxDepth) {
+            for (int depth = maxDepth; depth > 0; depth--) {
+                // Expand the smaller frontier to access fewer vertices
+                boolean forward = this.sourceFrontier.size() <=
+                                  this.targetFrontier.size();
+                List<Id> frontier = forward ? this.expand(true) :
+                                              this.expand(false);
+                if (this.found || frontier.isEmpty()) {
+                    // Found, or no path from one side
+                    break;
+                }
+                if (forward) {
+                    this.sourceFrontier = frontier;
+                    this.sourceDepth++;
+                } else {
+                    this.targetFrontier = frontier;
+                    this.targetDepth++;
+                }
+                checkCapacity(this.capacity, this.accessed(), "shortest path");
+            }
         }
 
-        /**
-         * Search forward from source
-         */
         @Watched
-        public PathSet forward(boolean all) {
-            PathSet results = new PathSet();
-            long degree = this.skipDegree > 0L ? this.skipDegree : this.degree;
-
-            this.pathResults.startOneLayer(true);
-            while (this.pathResults.hasNextKey()) {
-                Id source = this.pathResults.nextKey();
-
-                Iterator<Edge> edges = edgesOfVertex(source, this.direction,
-                                                     this.labels, degree);
-                edges = skipSuperNodeIfNeeded(edges, this.degree,
-                                              this.skipDegree);
-
-                this.vertexCount += 1L;
+        private List<Id> expand(boolean forward) {
+            List<Id> frontier = forward ? this.sourceFrontier :
+                                          this.targetFrontier;
+            int depth = (forward ? this.sourceDepth : this.targetDepth) + 1;
+            Queue<Id> next = new ConcurrentLinkedQueue<>();
+
+            if (ShortestPathTraverser.this.concurrent &&
+                frontier.size() > BATCH) {
+                List<List<Id>> batches = new ArrayList<>();
+                for (int i = 0; i < frontier.size(); i += BATCH) {
+                    batches.add(frontier.subList(i, Math.min(
+                                i + BATCH, frontier.size())));
+                }
+                traverse(batches.iterator(), batch -> {
+                    for (Id vertex : batch) {
+                        this.expand(vertex, forward, depth, next);
+                    }
+                }, "shortest-path");
+            } else {
+                for (Id vertex : frontier) {
+                    this.expand(vertex, forward, depth, next);
+                }
+            }
+            return new ArrayList<>(next);
+        }
 
+        private void expand(Id vertex, boolean forward, int depth,
+                            Collection<Id> next) {
+            if (this.found && !this.all) {
+                return;
+            }
+            Directions dir = forward ? this.direction :
+                                       this.direction.opposite();
+            Map<Id, Visited> nodes = forward ? this.sourceNodes :
+                                            this.targetNodes;
+            Map<Id, Visited> others = forward ? this.targetNodes :
+                                             this.sourceNodes;
+            long limit = this.skipDegree > 0L ? this.skipDegree : this.degree;
+
+            Iterator<Edge> edges = edgesOfVertex(vertex, dir,
+                                                 this.labels, limit);
+            edges = skipSuperNodeIfNeeded(edges, this.degree,
+                                          this.skipDegree);
+            this.vertexCount.incrementAndGet();
+
+            long scanned = 0L;
+            try {
                 while (edges.hasNext()) {
                     HugeEdge edge = (HugeEdge) edges.next();
-                    Id target = edge.id().otherVertexId();
-
-                    this.edgeResults.addEdge(source, target, edge);
-
-                    PathSet paths = this.pathResults.findPath(target,
-                                                         t -> !this.superNode(t, this.direction),
-                                                         all, false);
-
-                    if (paths.isEmpty()) {
+                    Id other = edge.id().otherVertexId();
+                    scanned++;
+
+                    if (others.containsKey(other)) {
+                        // The two sides meet, all meets are the shortest
+                        if (this.superNode(other, dir)) {
+                            continue;
+                        }
+                        Visited node = nodes.computeIfAbsent(
+                                       other, k -> new Visited(depth));
+                        if (node.depth == depth) {
+                            node.link(vertex, edge);
+                            this.meets.add(other);
+                        }
+                        this.found = true;
+                        if (!this.all) {
+                            return;
+                        }
                         continue;
                     }
-                    results.addAll(paths);
-                    if (!all) {
-                        return paths;
+                    if (this.found) {
+                        // Only collect the meets of this layer
+                        continue;
+                    }
+
+                    Visited node = nodes.get(other);
+                    if (node == null) {
+                        Visited newNode = new Visited(depth);
+                        node = nodes.putIfAbsent(other, newNode);
+                        if (node == null) {
+                            newNode.link(vertex, edge);
+                            next.add(other);
+                            continue;
+                        }
+                    }
+                    if (this.all && node.depth == depth) {
+                        // Another shortest path to the vertex
+                        node.link(vertex, edge);
                     }
                 }
+            } finally {
+                this.edgeCount.addAndGet(scanned);
+            }
+        }
 
+        private boolean superNode(Id vertex, Directions dir) {
+            if (this.skipDegree <= 0L) {
+                return false;
             }
+            Iterator<Edge> edges = edgesOfVertex(vertex, dir, this.labels,
+                                                 this.skipDegree);
+            return IteratorUtils.count(edges) >= this.skipDegree;
+        }
 
-            this.pathResults.finishOneLayer();
+        private long accessed() {
+            return this.sourceNodes.size() + this.targetNodes.size();
+        }
 
-            return results;
+        public PathSet paths() {
+            PathSet paths = new PathSet();
+            for (Id meet : newSet(this.meets)) {
+                List<List<Id>> heads = this.walk(this.sourceNodes, meet);
+                List<List<Id>> tails = this.walk(this.targetNodes, meet);
+                for (List<Id> head : heads) {
+                    for (List<Id> tail : tails) {
+                        // The head ends with the meet and the tail too
+                        List<Id> ids = new ArrayList<>(head.size() +
+                                                       tail.size() - 1);
+                        ids.addAll(head);
+                        for (int i = tail.size() - 2; i >= 0; i--) {
+                            ids.add(tail.get(i));
+                        }
+                        paths.add(new Path(ids));
+                        if (!this.all) {
+                            return paths;
+                        }
+                    }
+                }
+            }
+            return paths;
         }
 
         /**
-         * Search backward from target
+         * Walk from the vertex to the root of a side through the links,
+         * @return the paths from the root to the vertex
          */
-        @Watched
-        public PathSet backward(boolean all) {
-            PathSet results = new PathSet();
-            long degree = this.skipDegree > 0L ? this.skipDegree : this.degree;
-            Directions opposite = this.direction.opposite();
-
-            this.pathResults.startOneLayer(false);
-            while (this.pathResults.hasNextKey()) {
-                Id source = this.pathResults.nextKey();
-
-                Iterator<Edge> edges = edgesOfVertex(source, opposite,
-                                                     this.labels, degree);
-                edges = skipSuperNodeIfNeeded(edges, this.degree,
-                                              this.skipDegree);
-
-                this.vertexCount += 1L;
-
-                while (edges.hasNext()) {
-                    HugeEdge edge = (HugeEdge) edges.next();
-                    Id target = edge.id().otherVertexId();
-
-                    this.edgeResults.addEdge(source, target, edge);
+        private List<List<Id>> walk(Map<Id, Visited> nodes, Id vertex) {
+            Visited node = nodes.get(vertex);
+            assert node != null : vertex;
+            List<List<Id>> paths = new ArrayList<>();
+            if (node.depth == 0) {
+                List<Id> path = new ArrayList<>();
+                path.add(vertex);
+                paths.add(path);
+                return paths;
+            }
+            for (Link link : node.links) {
+                for (List<Id> path : this.walk(nodes, link.parent)) {
+                    path.add(vertex);
+                    paths.add(path);
+                }
+                if (!this.all) {
+                    break;
+                }
+            }
+            return paths;
+        }
 
-                    PathSet paths = this.pathResults.findPath(target,
-                                                         t -> !this.superNode(t, opposite),
-                                                         all, false);
+        public Set<Edge> edges(Path path) {
+            Set<Edge> edges = newSet();
+            List<Id> vertices = path.vertices();
+            for (int i = 1; i < vertices.size(); i++) {
+                Id first = vertices.get(i - 1);
+                Id second = vertices.get(i);
+                Edge edge = this.edge(this.sourceNodes, first, second);
+                if (edge == null) {
+                    edge = this.edge(this.targetNodes, second, first);
+                }
+                if (edge != null) {
+                    edges.add(edge);
+                }
+            }
+            return edges;
+        }
 
-                    if (paths.isEmpty()) {
-                        continue;
-                    }
-                    results.addAll(paths);
-                    if (!all) {
-                        return results;
-                    }
+        private Edge edge(Map<Id, Visited> nodes, Id parent, Id vertex) {
+            Visited node = nodes.get(vertex);
+            if (node == null) {
+                return null;
+            }
+            for (Link link : node.links) {
+                if (link.parent.equals(parent)) {
+                    return link.edge;
                 }
             }
+            return null;
+        }
+    }
+
+    private static class Visited {
 
-            // Re-init targets
-            this.pathResults.finishOneLayer();
+        private final int depth;
+        // The links to the parents in the last layer
+        private final List<Link> links;
 
-            return results;
+        public Visited(int depth) {
+            this.depth = depth;
+            this.links = new ArrayList<>(1);
         }
 
-        private boolean superNode(Id vertex, Directions direction) {
-            if (this.skipDegree <= 0L) {
-                return false;
-            }
-            Iterator<Edge> edges = edgesOfVertex(vertex, direction,
-                                                 this.labels, this.skipDegree);
-            return IteratorUtils.count(edges) >= this.skipDegree;
+        public synchronized void link(Id parent, Edge edge) {
+            this.links.add(new Link(parent, edge));
         }
+    }
 
-        private long accessed() {
-            return this.pathResults.accessed();
+    private static class Link {
+
+        private final Id parent;
+        private final Edge edge;
+
+        public Link(Id parent, Edge edge) {
+            this.parent = parent;
+            this.edge = edge;
         }
     }
 }
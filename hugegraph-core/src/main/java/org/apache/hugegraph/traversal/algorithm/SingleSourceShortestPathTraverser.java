@@ -18,6 +18,7 @@
 package org.apache.hugegraph.traversal.algorithm;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -31,16 +32,27 @@ import org.apache.hugegraph.backend.id.Id;
 import org.apache.hugegraph.backend.query.QueryResults;
 import org.apache.hugegraph.structure.HugeEdge;
 import org.apache.hugegraph.type.define.Directions;
-import org.apache.hugegraph.util.CollectionUtil;
 import org.apache.hugegraph.util.E;
-import org.apache.hugegraph.util.InsertionOrderUtil;
 import org.apache.hugegraph.util.NumericUtil;
+import org.apache.hugegraph.util.collection.IntDoubleHeap;
+import org.apache.hugegraph.util.collection.ObjectIntMappingFactory;
+import org.apache.hugegraph.util.collection.ObjectIntMappingFactory.DenseObjectIntMapping;
 import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.eclipse.collections.impl.list.mutable.primitive.DoubleArrayList;
+import org.eclipse.collections.impl.list.mutable.primitive.IntArrayList;
 
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 
-public class SingleSourceShortestPathTraverser extends HugeTraverser {
+/**
+ * Search the weighted shortest paths from the source by Dijkstra, the
+ * vertices are coded as int and the tentative weights are kept in a primitive
+ * heap. All the vertices with the same min weight are settled together, and
+ * their edges are fetched concurrently, then relaxed in order.
+ * The weight of an edge is decoded alone from the lazy loaded properties,
+ * and the weight of an edge without the weight property is 1.
+ */
+public class SingleSourceShortestPathTraverser extends OltpTraverser {
 
     public SingleSourceShortestPathTraverser(HugeGraph graph) {
         super(graph);
@@ -61,23 +73,18 @@ public class SingleSourceShortestPathTraverser extends HugeTraverser {
         Id labelId = this.getEdgeLabelId(label);
         Traverser traverser = new Traverser(sourceV, dir, labelId, weight,
                                             degree, skipDegree, capacity, limit);
-        while (true) {
-            // Found, reach max depth or reach capacity, stop searching
-            traverser.forward();
-            if (traverser.done()) {
-                this.vertexIterCounter.addAndGet(traverser.vertexCount);
-                this.edgeIterCounter.addAndGet(traverser.edgeCount);
-                WeightedPaths paths = traverser.shortestPaths();
-                List<List<Id>> pathList = paths.pathList();
-                Set<Edge> edges = new HashSet<>();
-                for (List<Id> path : pathList) {
-                    edges.addAll(traverser.edgeRecord.getEdges(path.iterator()));
-                }
-                paths.setEdges(edges);
-                return paths;
-            }
-            checkCapacity(traverser.capacity, traverser.size, "shortest path");
+        traverser.search(null);
+        this.vertexIterCounter.addAndGet(traverser.vertexCount);
+        this.edgeIterCounter.addAndGet(traverser.edgeCount);
+
+        WeightedPaths paths = traverser.shortestPaths();
+        // The paths are closed under prefix, so it's the parent edges
+        Set<Edge> edges = new HashSet<>();
+        for (Id vertex : paths.keySet()) {
+            edges.add(traverser.parentEdge(vertex));
         }
+        paths.setEdges(edges);
+        return paths;
     }
 
     public NodeWithWeight weightedShortestPath(Id sourceV, Id targetV,
@@ -98,22 +105,20 @@ public class SingleSourceShortestPathTraverser extends HugeTraverser {
         Traverser traverser = new Traverser(sourceV, dir, labelId, weight,
                                             degree, skipDegree, capacity,
                                             NO_LIMIT);
-        while (true) {
-            traverser.forward();
-            Map<Id, NodeWithWeight> results = traverser.shortestPaths();
-            if (results.containsKey(targetV) || traverser.done()) {
-                this.vertexIterCounter.addAndGet(traverser.vertexCount);
-                this.edgeIterCounter.addAndGet(traverser.edgeCount);
-                NodeWithWeight nodeWithWeight = results.get(targetV);
-                if (nodeWithWeight != null) {
-                    Iterator<Id> vertexIter = nodeWithWeight.node.path().iterator();
-                    Set<Edge> edges = traverser.edgeRecord.getEdges(vertexIter);
-                    nodeWithWeight.setEdges(edges);
-                }
-                return nodeWithWeight;
+        traverser.search(targetV);
+        this.vertexIterCounter.addAndGet(traverser.vertexCount);
+        this.edgeIterCounter.addAndGet(traverser.edgeCount);
+
+        NodeWithWeight nodeWithWeight = traverser.shortestPaths().get(targetV);
+        if (nodeWithWeight != null) {
+            Set<Edge> edges = new HashSet<>();
+            List<Id> path = nodeWithWeight.node().path();
+            for (Id vertex : path.subList(1, path.size())) {
+                edges.add(traverser.parentEdge(vertex));
             }
-            checkCapacity(traverser.capacity, traverser.size, "shortest path");
+            nodeWithWeight.setEdges(edges);
         }
+        return nodeWithWeight;
     }
 
     public static class NodeWithWeight implements Comparable<NodeWithWeight> {
@@ -203,129 +208,217 @@ public class SingleSourceShortestPathTraverser extends HugeTraverser {
 
     private class Traverser {
 
+        private final Id source;
         private final Directions direction;
         private final Id label;
-        private final String weight;
+        private final Id weight;
+        // Just decode the weight of the edges if weighted
+        private final Set<Id> edgeProperties;
         private final long degree;
         private final long skipDegree;
         private final long capacity;
         private final long limit;
-        private final WeightedPaths findingNodes = new WeightedPaths();
+
+        // The codes of vertices index the arrays below, the source is 0
+        private final DenseObjectIntMapping<Id> codes;
+        private final IntDoubleHeap heap;
+        private int[] parents;
+        private HugeEdge[] parentEdges;
+        // The nodes of settled vertices, null if not settled yet
+        private Node[] nodes;
+        private double[] weights;
+
         private final WeightedPaths foundNodes = new WeightedPaths();
-        private final EdgeRecord edgeRecord;
-        private final Id source;
-        private final long size;
-        private Set<NodeWithWeight> sources;
         private long vertexCount;
         private long edgeCount;
-        private boolean done = false;
 
         public Traverser(Id sourceV, Directions dir, Id label, String weight,
-                         long degree, long skipDegree, long capacity, long limit) {
+                         long degree, long skipDegree, long capacity,
+                         long limit) {
             this.source = sourceV;
-            this.sources = ImmutableSet.of(new NodeWithWeight(
-                    0D, new Node(sourceV, null)));
             this.direction = dir;
             this.label = label;
-            this.weight = weight;
+            this.weight = weight == null ? null :
+                          graph().propertyKey(weight).id();
+            this.edgeProperties = this.weight == null ?
+                                  null : ImmutableSet.of(this.weight);
             this.degree = degree;
             this.skipDegree = skipDegree;
             this.capacity = capacity;
             this.limit = limit;
-            this.size = 0L;
+
+            this.codes = ObjectIntMappingFactory.newDenseObjectIntMapping();
+            this.heap = new IntDoubleHeap();
+            int length = 16;
+            this.parents = new int[length];
+            this.parentEdges = new HugeEdge[length];
+            this.nodes = new Node[length];
+            this.weights = new double[length];
             this.vertexCount = 0L;
             this.edgeCount = 0L;
-            this.edgeRecord = new EdgeRecord(false);
         }
 
         /**
-         * Search forward from source
+         * Search until all the reachable vertices are settled, or the target
+         * is settled, or the limit of settled vertices is reached
          */
-        public void forward() {
-            long degree = this.skipDegree > 0L ? this.skipDegree : this.degree;
-            for (NodeWithWeight node : this.sources) {
-                Iterator<Edge> edges = edgesOfVertex(node.node().id(),
-                                                     this.direction,
-                                                     this.label, degree);
-                edges = this.skipSuperNodeIfNeeded(edges);
-                while (edges.hasNext()) {
-                    HugeEdge edge = (HugeEdge) edges.next();
-                    Id target = edge.id().otherVertexId();
-
-                    this.edgeCount += 1L;
-
-                    if (this.foundNodes.containsKey(target) ||
-                        this.source.equals(target)) {
-                        // Already find shortest path for target, skip
-                        continue;
+        public void search(Id target) {
+            int sourceCode = this.codes.object2Code(this.source);
+            this.ensureCapacity(sourceCode);
+            this.nodes[sourceCode] = new Node(this.source);
+            this.weights[sourceCode] = 0D;
+
+            IntArrayList settled = IntArrayList.newListWith(sourceCode);
+            while (true) {
+                this.relax(settled, this.expand(settled));
+                settled.clear();
+                if (this.heap.isEmpty()) {
+                    return;
+                }
+                // Settle all the vertices with the same min weight
+                double minWeight = this.heap.peekKey();
+                while (!this.heap.isEmpty() &&
+                       this.heap.peekKey() == minWeight) {
+                    int code = this.heap.poll();
+                    Id id = this.settle(code, minWeight);
+                    if (id.equals(target) || (this.limit != NO_LIMIT &&
+                        this.foundNodes.size() >= this.limit)) {
+                        return;
+                    }
+                    settled.add(code);
+                }
+                checkCapacity(this.capacity, this.codes.size(),
+                              "shortest path");
+            }
+        }
+
+        public WeightedPaths shortestPaths() {
+            return this.foundNodes;
+        }
+
+        public HugeEdge parentEdge(Id vertex) {
+            int code = this.codes.code(vertex);
+            assert code != DenseObjectIntMapping.NULL_CODE;
+            return this.parentEdges[code];
+        }
+
+        private Id settle(int code, double weight) {
+            Id id = this.codes.code2Object(code);
+            Node node = new Node(id, this.nodes[this.parents[code]]);
+            this.nodes[code] = node;
+            this.weights[code] = weight;
+            this.foundNodes.put(id, new NodeWithWeight(weight, node));
+            return id;
+        }
+
+        private Adjacency[] expand(IntArrayList settled) {
+            int size = settled.size();
+            Adjacency[] adjacencies = new Adjacency[size];
+            if (size > 1 && concurrentEnabled()) {
+                // The edges of each vertex are fetched by a task
+                Iterator<Integer> indexes = new Iterator<Integer>() {
+                    private int index = 0;
+
+                    @Override
+                    public boolean hasNext() {
+                        return this.index < size;
                     }
 
-                    this.edgeRecord.addEdge(node.node().id(), target, edge);
-
-                    double currentWeight = this.edgeWeight(edge);
-                    double weight = currentWeight + node.weight();
-                    NodeWithWeight nw = new NodeWithWeight(weight, target, node);
-                    NodeWithWeight exist = this.findingNodes.get(target);
-                    if (exist == null || weight < exist.weight()) {
-                        /*
-                         * There are 2 scenarios to update finding nodes:
-                         * 1. The 'target' found first time, add current path
-                         * 2. Already exist path for 'target' and current
-                         *    path is shorter, update path for 'target'
-                         */
-                        this.findingNodes.put(target, nw);
+                    @Override
+                    public Integer next() {
+                        return this.index++;
                     }
+                };
+                traverse(indexes, i -> {
+                    adjacencies[i] = this.adjacency(settled.get(i));
+                }, "single-source-shortest-path");
+            } else {
+                for (int i = 0; i < size; i++) {
+                    adjacencies[i] = this.adjacency(settled.get(i));
                 }
             }
-            this.vertexCount += sources.size();
-
-            Map<Id, NodeWithWeight> sorted = CollectionUtil.sortByValue(
-                    this.findingNodes, true);
-            double minWeight = 0;
-            Set<NodeWithWeight> newSources = InsertionOrderUtil.newSet();
-            for (Map.Entry<Id, NodeWithWeight> entry : sorted.entrySet()) {
-                Id id = entry.getKey();
-                NodeWithWeight wn = entry.getValue();
-                if (minWeight == 0) {
-                    minWeight = wn.weight();
-                } else if (wn.weight() > minWeight) {
-                    break;
-                }
-                // Move shortest paths from 'findingNodes' to 'foundNodes'
-                this.foundNodes.put(id, wn);
-                if (this.limit != NO_LIMIT &&
-                    this.foundNodes.size() >= this.limit) {
-                    this.done = true;
-                    return;
+            return adjacencies;
+        }
+
+        /**
+         * Fetch the edges of a settled vertex to the unsettled vertices with
+         * their weights, it's called concurrently while the arrays are
+         * read only
+         */
+        private Adjacency adjacency(int code) {
+            Id vertex = this.codes.code2Object(code);
+            long degree = this.skipDegree > 0L ? this.skipDegree : this.degree;
+            Iterator<Edge> edges = edgesOfVertex(vertex, this.direction,
+                                                 this.label, degree,
+                                                 this.edgeProperties);
+            edges = this.skipSuperNodeIfNeeded(edges);
+
+            Adjacency adjacency = new Adjacency();
+            while (edges.hasNext()) {
+                HugeEdge edge = (HugeEdge) edges.next();
+                adjacency.scanned++;
+                int target = this.codes.code(edge.id().otherVertexId());
+                if (target != DenseObjectIntMapping.NULL_CODE &&
+                    this.nodes[target] != null) {
+                    // Already found the shortest path of target, skip
+                    continue;
                 }
-                this.findingNodes.remove(id);
-                // Re-init 'sources'
-                newSources.add(wn);
-            }
-            this.sources = newSources;
-            if (this.sources.isEmpty()) {
-                this.done = true;
+                adjacency.edges.add(edge);
+                adjacency.weights.add(this.edgeWeight(edge));
             }
+            return adjacency;
         }
 
-        public boolean done() {
-            return this.done;
+        private void relax(IntArrayList settled, Adjacency[] adjacencies) {
+            for (int i = 0; i < adjacencies.length; i++) {
+                int source = settled.get(i);
+                double sourceWeight = this.weights[source];
+                Adjacency adjacency = adjacencies[i];
+                for (int j = 0; j < adjacency.edges.size(); j++) {
+                    HugeEdge edge = adjacency.edges.get(j);
+                    int target = this.codes.object2Code(
+                                 edge.id().otherVertexId());
+                    this.ensureCapacity(target);
+                    if (this.nodes[target] != null) {
+                        // Settled by another vertex of the same batch
+                        continue;
+                    }
+                    double weight = sourceWeight + adjacency.weights.get(j);
+                    if (this.heap.offer(target, weight)) {
+                        this.parents[target] = source;
+                        this.parentEdges[target] = edge;
+                    }
+                }
+                this.edgeCount += adjacency.scanned;
+            }
+            this.vertexCount += adjacencies.length;
         }
 
-        public WeightedPaths shortestPaths() {
-            return this.foundNodes;
+        private void ensureCapacity(int code) {
+            int length = this.nodes.length;
+            if (code < length) {
+                return;
+            }
+            int capacity = Math.max(length << 1, code + 1);
+            this.parents = Arrays.copyOf(this.parents, capacity);
+            this.parentEdges = Arrays.copyOf(this.parentEdges, capacity);
+            this.nodes = Arrays.copyOf(this.nodes, capacity);
+            this.weights = Arrays.copyOf(this.weights, capacity);
         }
 
         private double edgeWeight(HugeEdge edge) {
-            double edgeWeight;
-            if (this.weight == null ||
-                !edge.property(this.weight).isPresent()) {
-                edgeWeight = 1.0;
-            } else {
-                edgeWeight = NumericUtil.convertToNumber(
-                        edge.value(this.weight)).doubleValue();
+            if (this.weight == null) {
+                return 1.0;
+            }
+            // Only the weight is decoded if the edge is read by the traverser
+            Object value = edge.peekPropertyValue(this.weight);
+            if (value == null) {
+                return 1.0;
+            }
+            if (value instanceof Number) {
+                return ((Number) value).doubleValue();
             }
-            return edgeWeight;
+            return NumericUtil.convertToNumber(value).doubleValue();
         }
 
         private Iterator<Edge> skipSuperNodeIfNeeded(Iterator<Edge> edges) {
@@ -346,4 +439,11 @@ public class SingleSourceShortestPathTraverser extends HugeTraverser {
             return edgeList.iterator();
         }
     }
+
+    private static class Adjacency {
+
+        private final List<HugeEdge> edges = new ArrayList<>();
+        private final DoubleArrayList weights = new DoubleArrayList();
+        private long scanned = 0L;
+    }
 }
@@ -28,7 +28,15 @@ import org.apache.hugegraph.traversal.algorithm.records.record.RecordType;
 
 public abstract class AbstractRecords implements Records {
 
+    private static final int ID_CACHE_SIZE = 1 << 10;
+
     private final ObjectIntMapping<Id> idMapping;
+    /*
+     * The flyweight of decoded number ids, the slot of an id may be
+     * replaced by another one with the same low bits. It's safe to share
+     * without lock since the id is immutable.
+     */
+    private final Id[] idCache;
     private final RecordType type;
     private final boolean concurrent;
     private Record currentRecord;
@@ -38,7 +46,8 @@ public abstract class AbstractRecords implements Records {
         this.type = type;
         this.concurrent = concurrent;
         this.parentRecord = null;
-        this.idMapping = ObjectIntMappingFactory.newObjectIntMapping(this.concurrent);
+        this.idMapping = ObjectIntMappingFactory.newIdIntMapping(this.concurrent);
+        this.idCache = new Id[ID_CACHE_SIZE];
     }
 
     @Watched
@@ -57,7 +66,13 @@ public abstract class AbstractRecords implements Records {
     @Watched
     protected final Id id(int code) {
         if (code >= 0) {
-            return IdGenerator.of(code);
+            int slot = code & (ID_CACHE_SIZE - 1);
+            Id id = this.idCache[slot];
+            if (id == null || id.asLong() != code) {
+                id = IdGenerator.of(code);
+                this.idCache[slot] = id;
+            }
+            return id;
         }
         return this.idMapping.code2Object(-code);
     }
@@ -28,8 +28,10 @@ import org.apache.hugegraph.backend.query.ConditionQuery;
 import org.apache.hugegraph.backend.query.Query;
 import org.apache.hugegraph.backend.query.QueryResults;
 import org.apache.hugegraph.type.HugeType;
+import org.apache.tinkerpop.gremlin.process.traversal.step.Profiling;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.GraphStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.process.traversal.util.MutableMetrics;
 import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
 import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
@@ -38,12 +40,14 @@ import org.slf4j.Logger;
 import org.apache.hugegraph.util.Log;
 
 public final class HugeGraphStep<S, E extends Element>
-             extends GraphStep<S, E> implements QueryHolder {
+             extends GraphStep<S, E> implements QueryHolder, Profiling {
 
     private static final long serialVersionUID = -679873894532085972L;
 
     private static final Logger LOG = Log.logger(HugeGraphStep.class);
 
+    private static final String SELECTED_INDEXES = "selected indexes";
+
     private final List<HasContainer> hasContainers = new ArrayList<>();
 
     // Store limit/order-by
@@ -51,6 +55,9 @@ public final class HugeGraphStep<S, E extends Element>
 
     private Iterator<E> lastTimeResults = QueryResults.emptyIterator();
 
+    // Only set when the traversal is profiled
+    private transient MutableMetrics metrics = null;
+
     public HugeGraphStep(final GraphStep<S, E> originGraphStep) {
         super(originGraphStep.getTraversal(),
               originGraphStep.getReturnClass(),
@@ -117,6 +124,7 @@ public final class HugeGraphStep<S, E extends Element>
         Query query = this.makeQuery(graph, HugeType.VERTEX);
         @SuppressWarnings("unchecked")
         Iterator<E> result = (Iterator<E>) graph.vertices(query);
+        this.annotateSelectedIndexes(query);
         return result;
     }
 
@@ -138,6 +146,7 @@ public final class HugeGraphStep<S, E extends Element>
         Query query = this.makeQuery(graph, HugeType.EDGE);
         @SuppressWarnings("unchecked")
         Iterator<E> result = (Iterator<E>) graph.edges(query);
+        this.annotateSelectedIndexes(query);
         return result;
     }
 
@@ -159,6 +168,23 @@ public final class HugeGraphStep<S, E extends Element>
         return query;
     }
 
+    private void annotateSelectedIndexes(Query query) {
+        // The indexes have been selected once the query is submitted
+        if (this.metrics == null || !(query instanceof ConditionQuery)) {
+            return;
+        }
+        List<String> indexes = ((ConditionQuery) query).selectedIndexes();
+        if (!indexes.isEmpty()) {
+            this.metrics.setAnnotation(SELECTED_INDEXES,
+                                       String.join(", ", indexes));
+        }
+    }
+
+    @Override
+    public void setMetrics(MutableMetrics metrics) {
+        this.metrics = metrics;
+    }
+
     @Override
     public String toString() {
         if (this.hasContainers.isEmpty()) {
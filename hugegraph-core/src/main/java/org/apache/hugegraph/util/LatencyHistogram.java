@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.hugegraph.util;
+
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of latencies with fixed buckets, the bucket i
+ * counts the latencies in (bounds[i-1], bounds[i]], and the last bucket
+ * counts the latencies greater than the max bound.
+ * The percentiles are estimated by the upper bound of the bucket.
+ */
+public final class LatencyHistogram {
+
+    private final long[] bounds;
+    private final LongAdder[] buckets;
+    private final LongAdder count;
+    private final LongAdder sum;
+    private final LongAccumulator max;
+
+    public LatencyHistogram(long... bounds) {
+        E.checkArgument(bounds.length > 0,
+                        "The bounds of histogram can't be empty");
+        for (int i = 1; i < bounds.length; i++) {
+            E.checkArgument(bounds[i - 1] < bounds[i],
+                            "The bounds of histogram must be ascending, " +
+                            "but got %s before %s", bounds[i - 1], bounds[i]);
+        }
+        this.bounds = bounds.clone();
+        this.buckets = new LongAdder[bounds.length + 1];
+        for (int i = 0; i < this.buckets.length; i++) {
+            this.buckets[i] = new LongAdder();
+        }
+        this.count = new LongAdder();
+        this.sum = new LongAdder();
+        this.max = new LongAccumulator(Math::max, 0L);
+    }
+
+    public void update(long latency) {
+        if (latency < 0L) {
+            latency = 0L;
+        }
+        this.buckets[this.bucket(latency)].increment();
+        this.count.increment();
+        this.sum.add(latency);
+        this.max.accumulate(latency);
+    }
+
+    public long count() {
+        return this.count.sum();
+    }
+
+    public long sum() {
+        return this.sum.sum();
+    }
+
+    public long max() {
+        return this.max.get();
+    }
+
+    public long[] bounds() {
+        return this.bounds.clone();
+    }
+
+    /**
+     * @return the count of each bucket, the last one is the count of the
+     *         latencies greater than the max bound
+     */
+    public long[] bucketCounts() {
+        long[] counts = new long[this.buckets.length];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = this.buckets[i].sum();
+        }
+        return counts;
+    }
+
+    /**
+     * Estimate the percentile by the upper bound of the bucket it falls in,
+     * the max latency is returned if it falls in the last bucket
+     */
+    public long percentile(double percent) {
+        E.checkArgument(percent > 0.0 && percent <= 1.0,
+                        "The percent must be in (0, 1], but got %s",
+                        percent);
+        long[] counts = this.bucketCounts();
+        long total = 0L;
+        for (long count : counts) {
+            total += count;
+        }
+        if (total == 0L) {
+            return 0L;
+        }
+        long rank = (long) Math.ceil(total * percent);
+        long seen = 0L;
+        for (int i = 0; i < this.bounds.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(this.bounds[i], this.max());
+            }
+        }
+        return this.max();
+    }
+
+    public Map<String, Object> asMap() {
+        long count = this.count();
+        Map<String, Object> results = InsertionOrderUtil.newMap();
+        results.put("count", count);
+        results.put("sum", this.sum());
+        results.put("mean", count == 0L ? 0.0 : (double) this.sum() / count);
+        results.put("max", this.max());
+        results.put("p50", this.percentile(0.5));
+        results.put("p95", this.percentile(0.95));
+        results.put("p99", this.percentile(0.99));
+
+        Map<String, Long> buckets = InsertionOrderUtil.newMap();
+        long[] counts = this.bucketCounts();
+        for (int i = 0; i < this.bounds.length; i++) {
+            buckets.put("le_" + this.bounds[i], counts[i]);
+        }
+        buckets.put("gt_" + this.bounds[this.bounds.length - 1],
+                    counts[this.bounds.length]);
+        results.put("buckets", buckets);
+        return results;
+    }
+
+    private int bucket(long latency) {
+        // Binary search the first bound >= latency
+        int low = 0;
+        int high = this.bounds.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (this.bounds[mid] < latency) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
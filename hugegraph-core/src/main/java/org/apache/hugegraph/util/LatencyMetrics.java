@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.hugegraph.util;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A family of latency histograms with the same name and label names, like
+ * the latencies of the REST APIs labeled by the resource method, one
+ * histogram for each label values.
+ * The families are registered globally so they can be exported together,
+ * like by the prometheus endpoint, reading them is lock-free and never
+ * blocks the threads which are updating them.
+ */
+public final class LatencyMetrics {
+
+    // The bounds in microseconds of the histograms: 100us ~ 60s
+    public static final long[] DEFAULT_BOUNDS = {
+            100L, 500L, 1_000L, 5_000L, 10_000L, 50_000L, 100_000L,
+            500_000L, 1_000_000L, 5_000_000L, 10_000_000L, 60_000_000L
+    };
+
+    private static final Map<String, LatencyMetrics> FAMILIES =
+                                                     new ConcurrentHashMap<>();
+
+    private final String name;
+    private final String description;
+    private final List<String> labelNames;
+    private final Map<List<String>, LatencyHistogram> histograms;
+
+    private LatencyMetrics(String name, String description,
+                           String... labelNames) {
+        this.name = name;
+        this.description = description;
+        this.labelNames = Collections.unmodifiableList(
+                          Arrays.asList(labelNames.clone()));
+        this.histograms = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Register a family or get the registered one with the same name
+     */
+    public static LatencyMetrics register(String name, String description,
+                                          String... labelNames) {
+        E.checkArgument(name != null && !name.isEmpty(),
+                        "The name of latency metrics can't be empty");
+        LatencyMetrics metrics = FAMILIES.computeIfAbsent(name, k -> {
+            return new LatencyMetrics(name, description, labelNames);
+        });
+        E.checkArgument(metrics.labelNames.equals(Arrays.asList(labelNames)),
+                        "The latency metrics '%s' has been registered with " +
+                        "labels %s, but got %s", name, metrics.labelNames,
+                        Arrays.toString(labelNames));
+        return metrics;
+    }
+
+    public static Collection<LatencyMetrics> families() {
+        return Collections.unmodifiableCollection(FAMILIES.values());
+    }
+
+    public String name() {
+        return this.name;
+    }
+
+    public String description() {
+        return this.description;
+    }
+
+    public List<String> labelNames() {
+        return this.labelNames;
+    }
+
+    /**
+     * The unit of the latencies recorded by the histograms
+     */
+    public TimeUnit unit() {
+        return TimeUnit.MICROSECONDS;
+    }
+
+    /**
+     * Get the histogram of the label values, the caller is expected to
+     * keep the histogram for the hot path to avoid the lookup
+     */
+    public LatencyHistogram histogram(String... labelValues) {
+        E.checkArgument(labelValues.length == this.labelNames.size(),
+                        "Expect %s label values for latency metrics '%s', " +
+                        "but got %s", this.labelNames.size(), this.name,
+                        labelValues.length);
+        List<String> key = Arrays.asList(labelValues);
+        LatencyHistogram histogram = this.histograms.get(key);
+        if (histogram == null) {
+            histogram = this.histograms.computeIfAbsent(
+                        Arrays.asList(labelValues.clone()),
+                        k -> new LatencyHistogram(DEFAULT_BOUNDS));
+        }
+        return histogram;
+    }
+
+    /**
+     * Record the latency from the start time got by System.nanoTime()
+     */
+    public void updateSince(long startNanos, String... labelValues) {
+        long micros = (System.nanoTime() - startNanos) / 1000L;
+        this.histogram(labelValues).update(micros);
+    }
+
+    public Map<List<String>, LatencyHistogram> histograms() {
+        return Collections.unmodifiableMap(this.histograms);
+    }
+}
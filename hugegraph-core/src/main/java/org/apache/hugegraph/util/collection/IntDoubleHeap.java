@@ -0,0 +1,211 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.hugegraph.util.collection;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+import org.apache.hugegraph.util.E;
+
+/**
+ * An indexed binary min-heap of non-negative int elements like the codes of
+ * ObjectIntMapping, ordered by a double key. Each element is in the heap at
+ * most once, and the key of an element in the heap can be decreased in place,
+ * so it's suitable for Dijkstra without the boxed entries and the stale
+ * entries of java.util.PriorityQueue. It's not thread-safe.
+ */
+public class IntDoubleHeap {
+
+    private static final int INIT_CAPACITY = 16;
+    private static final int NOT_IN_HEAP = -1;
+
+    private int[] elements;
+    private double[] keys;
+    // The position in heap of each element, indexed by element
+    private int[] positions;
+    private int size;
+
+    public IntDoubleHeap() {
+        this(INIT_CAPACITY);
+    }
+
+    public IntDoubleHeap(int capacity) {
+        E.checkArgument(capacity > 0,
+                        "The capacity of heap must be > 0, but got %s",
+                        capacity);
+        this.elements = new int[capacity];
+        this.keys = new double[capacity];
+        this.positions = new int[capacity];
+        Arrays.fill(this.positions, NOT_IN_HEAP);
+        this.size = 0;
+    }
+
+    /**
+     * Add the element with the key, or decrease the key of the element if
+     * it's already in the heap and the new key is smaller
+     * @return true if the element is added or its key is decreased
+     */
+    public boolean offer(int element, double key) {
+        E.checkArgument(element >= 0,
+                        "The element of heap must be >= 0, but got %s",
+                        element);
+        this.ensurePositions(element);
+        int pos = this.positions[element];
+        if (pos != NOT_IN_HEAP) {
+            if (Double.compare(key, this.keys[pos]) >= 0) {
+                return false;
+            }
+            this.keys[pos] = key;
+            this.siftUp(pos);
+            return true;
+        }
+        if (this.size == this.elements.length) {
+            int capacity = this.size << 1;
+            this.elements = Arrays.copyOf(this.elements, capacity);
+            this.keys = Arrays.copyOf(this.keys, capacity);
+        }
+        pos = this.size++;
+        this.elements[pos] = element;
+        this.keys[pos] = key;
+        this.positions[element] = pos;
+        this.siftUp(pos);
+        return true;
+    }
+
+    public int peek() {
+        this.checkNotEmpty();
+        return this.elements[0];
+    }
+
+    public double peekKey() {
+        this.checkNotEmpty();
+        return this.keys[0];
+    }
+
+    /**
+     * Remove the element with the smallest key
+     * @return the removed element
+     */
+    public int poll() {
+        this.checkNotEmpty();
+        int top = this.elements[0];
+        this.positions[top] = NOT_IN_HEAP;
+        int last = --this.size;
+        if (last > 0) {
+            this.elements[0] = this.elements[last];
+            this.keys[0] = this.keys[last];
+            this.positions[this.elements[0]] = 0;
+            this.siftDown(0);
+        }
+        return top;
+    }
+
+    public boolean contains(int element) {
+        return element >= 0 && element < this.positions.length &&
+               this.positions[element] != NOT_IN_HEAP;
+    }
+
+    /**
+     * Get the key of an element in the heap
+     * @return the key or NaN if the element isn't in the heap
+     */
+    public double key(int element) {
+        if (!this.contains(element)) {
+            return Double.NaN;
+        }
+        return this.keys[this.positions[element]];
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    public void clear() {
+        for (int i = 0; i < this.size; i++) {
+            this.positions[this.elements[i]] = NOT_IN_HEAP;
+        }
+        this.size = 0;
+    }
+
+    private void siftUp(int pos) {
+        int element = this.elements[pos];
+        double key = this.keys[pos];
+        while (pos > 0) {
+            int parent = (pos - 1) >>> 1;
+            if (Double.compare(this.keys[parent], key) <= 0) {
+                break;
+            }
+            this.move(parent, pos);
+            pos = parent;
+        }
+        this.place(element, key, pos);
+    }
+
+    private void siftDown(int pos) {
+        int element = this.elements[pos];
+        double key = this.keys[pos];
+        int half = this.size >>> 1;
+        while (pos < half) {
+            int child = (pos << 1) + 1;
+            int right = child + 1;
+            if (right < this.size &&
+                Double.compare(this.keys[right], this.keys[child]) < 0) {
+                child = right;
+            }
+            if (Double.compare(key, this.keys[child]) <= 0) {
+                break;
+            }
+            this.move(child, pos);
+            pos = child;
+        }
+        this.place(element, key, pos);
+    }
+
+    private void move(int from, int to) {
+        this.elements[to] = this.elements[from];
+        this.keys[to] = this.keys[from];
+        this.positions[this.elements[to]] = to;
+    }
+
+    private void place(int element, double key, int pos) {
+        this.elements[pos] = element;
+        this.keys[pos] = key;
+        this.positions[element] = pos;
+    }
+
+    private void ensurePositions(int element) {
+        int length = this.positions.length;
+        if (element < length) {
+            return;
+        }
+        int capacity = (int) Math.min(Math.max(length * 2L, element + 1L),
+                                      Integer.MAX_VALUE);
+        this.positions = Arrays.copyOf(this.positions, capacity);
+        Arrays.fill(this.positions, length, capacity, NOT_IN_HEAP);
+    }
+
+    private void checkNotEmpty() {
+        if (this.size == 0) {
+            throw new NoSuchElementException("The heap is empty");
+        }
+    }
+}
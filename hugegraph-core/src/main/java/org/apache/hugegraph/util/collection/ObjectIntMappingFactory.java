@@ -17,9 +17,19 @@
 
 package org.apache.hugegraph.util.collection;
 
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
 import org.eclipse.collections.impl.map.mutable.primitive.IntObjectHashMap;
 
 import org.apache.hugegraph.HugeException;
+import org.apache.hugegraph.backend.id.Id;
 import org.apache.hugegraph.perf.PerfUtil.Watched;
 
 public class ObjectIntMappingFactory {
@@ -34,6 +44,15 @@ public class ObjectIntMappingFactory {
                             new SingleThreadObjectIntMapping<>();
     }
 
+    public static ObjectIntMapping<Id> newIdIntMapping(boolean concurrent) {
+        return concurrent ? new ConcurrentIdIntMapping() :
+                            new SingleThreadObjectIntMapping<>();
+    }
+
+    public static <V> DenseObjectIntMapping<V> newDenseObjectIntMapping() {
+        return new DenseObjectIntMapping<>();
+    }
+
     public static final class SingleThreadObjectIntMapping<V>
                         implements ObjectIntMapping<V> {
 
@@ -133,4 +152,319 @@ public class ObjectIntMappingFactory {
             return this.objectIntMapping.toString();
         }
     }
+
+    /**
+     * The thread-safe mapping of ids with an open-addressing table, the
+     * codes are assigned from 1 by order of addition.
+     * The lookup of existed ids and codes are lock-free, the additions are
+     * CAS on the slots of table and don't block each other, only the
+     * resizing of table blocks the additions. The hash is computed from the
+     * value of long/uuid/string id directly instead of the boxed object.
+     */
+    public static final class ConcurrentIdIntMapping
+                        implements ObjectIntMapping<Id> {
+
+        private static final int INIT_CAPACITY = 256;
+        private static final int MAX_CAPACITY = 1 << 30;
+
+        private final ReadWriteLock resizeLock;
+        private final AtomicInteger codes;
+        private volatile Table table;
+        // The objects[code] is published by the write of table slot code
+        private volatile Id[] objects;
+
+        public ConcurrentIdIntMapping() {
+            this.resizeLock = new ReentrantReadWriteLock();
+            this.codes = new AtomicInteger(1);
+            this.table = new Table(INIT_CAPACITY);
+            this.objects = new Id[this.table.threshold];
+        }
+
+        @Watched
+        @Override
+        public int object2Code(Object object) {
+            Id id = (Id) object;
+            int hash = hash(id);
+            // Lock-free lookup, the table contains all the existed ids
+            int code = this.table.find(id, hash);
+            if (code > 0) {
+                return code;
+            }
+            while (true) {
+                this.resizeLock.readLock().lock();
+                try {
+                    Table table = this.table;
+                    code = this.reserveCode(table);
+                    if (code > 0) {
+                        return table.insert(id, hash, code, this.objects);
+                    }
+                } finally {
+                    this.resizeLock.readLock().unlock();
+                }
+                this.resize();
+            }
+        }
+
+        @Watched
+        @Override
+        public Id code2Object(int code) {
+            assert code > 0;
+            Id[] objects = this.objects;
+            if (code >= objects.length) {
+                return null;
+            }
+            return objects[code];
+        }
+
+        @Override
+        public void clear() {
+            this.resizeLock.writeLock().lock();
+            try {
+                this.codes.set(1);
+                this.table = new Table(INIT_CAPACITY);
+                this.objects = new Id[this.table.threshold];
+            } finally {
+                this.resizeLock.writeLock().unlock();
+            }
+        }
+
+        public int size() {
+            return this.codes.get() - 1;
+        }
+
+        private int reserveCode(Table table) {
+            while (true) {
+                int code = this.codes.get();
+                if (code >= table.threshold) {
+                    return -1;
+                }
+                if (this.codes.compareAndSet(code, code + 1)) {
+                    return code;
+                }
+            }
+        }
+
+        private void resize() {
+            this.resizeLock.writeLock().lock();
+            try {
+                Table table = this.table;
+                if (this.codes.get() < table.threshold) {
+                    // Resized by other threads
+                    return;
+                }
+                if (table.capacity() >= MAX_CAPACITY) {
+                    throw new HugeException("Failed to get code for id, " +
+                                            "exceed max size: %s",
+                                            table.threshold);
+                }
+                Table resized = new Table(table.capacity() << 1);
+                for (int i = 0; i < table.capacity(); i++) {
+                    Id id = table.keys.get(i);
+                    if (id != null) {
+                        resized.put(id, hash(id), table.codes.get(i));
+                    }
+                }
+                // Update objects before table to let readers see the codes
+                this.objects = Arrays.copyOf(this.objects, resized.threshold);
+                this.table = resized;
+            } finally {
+                this.resizeLock.writeLock().unlock();
+            }
+        }
+
+        @Override
+        public String toString() {
+            return String.format("ConcurrentIdIntMapping{size=%s}",
+                                 this.size());
+        }
+
+        private static int hash(Id id) {
+            long hash;
+            switch (id.type()) {
+                case LONG:
+                    hash = id.asLong();
+                    break;
+                case UUID:
+                    UUID uuid = (UUID) id.asObject();
+                    hash = uuid.getMostSignificantBits() * 31L +
+                           uuid.getLeastSignificantBits();
+                    break;
+                default:
+                    hash = id.hashCode();
+                    break;
+            }
+            // The finalizer of murmur3 to spread the bits over the table
+            hash ^= hash >>> 33;
+            hash *= 0xff51afd7ed558ccdL;
+            hash ^= hash >>> 33;
+            return (int) hash;
+        }
+
+        private static final class Table {
+
+            private final AtomicReferenceArray<Id> keys;
+            // The code of keys[i] is codes[i], 0 means it's being inserted
+            private final AtomicIntegerArray codes;
+            private final int mask;
+            // The max codes, keep the load factor under 0.5
+            private final int threshold;
+
+            public Table(int capacity) {
+                assert Integer.bitCount(capacity) == 1;
+                this.keys = new AtomicReferenceArray<>(capacity);
+                this.codes = new AtomicIntegerArray(capacity);
+                this.mask = capacity - 1;
+                this.threshold = capacity >> 1;
+            }
+
+            public int capacity() {
+                return this.mask + 1;
+            }
+
+            public int find(Id id, int hash) {
+                for (int i = hash & this.mask; ; i = (i + 1) & this.mask) {
+                    Id key = this.keys.get(i);
+                    if (key == null) {
+                        return -1;
+                    }
+                    if (key.equals(id)) {
+                        return this.awaitCode(i);
+                    }
+                }
+            }
+
+            public int insert(Id id, int hash, int code, Id[] objects) {
+                int i = hash & this.mask;
+                while (true) {
+                    Id key = this.keys.get(i);
+                    if (key == null) {
+                        if (!this.keys.compareAndSet(i, null, id)) {
+                            // Lost the slot, check the winner again
+                            continue;
+                        }
+                        objects[code] = id;
+                        this.codes.set(i, code);
+                        return code;
+                    }
+                    if (key.equals(id)) {
+                        /*
+                         * Added by another thread concurrently, the reserved
+                         * code is left unused
+                         */
+                        return this.awaitCode(i);
+                    }
+                    i = (i + 1) & this.mask;
+                }
+            }
+
+            public void put(Id id, int hash, int code) {
+                int i = hash & this.mask;
+                while (this.keys.get(i) != null) {
+                    i = (i + 1) & this.mask;
+                }
+                this.keys.set(i, id);
+                this.codes.set(i, code);
+            }
+
+            private int awaitCode(int i) {
+                int code;
+                while ((code = this.codes.get(i)) == 0) {
+                    Thread.yield();
+                }
+                return code;
+            }
+        }
+    }
+
+    /**
+     * The mapping assigns dense codes [0, size) to objects by order of
+     * addition, which is suitable to index arrays by code. It's thread-safe,
+     * the lookup of code and object are lock-free and don't allocate.
+     */
+    public static final class DenseObjectIntMapping<V>
+                        implements ObjectIntMapping<V> {
+
+        public static final int NULL_CODE = -1;
+
+        private static final int INIT_CAPACITY = 1024;
+
+        private final ConcurrentHashMap<Object, Integer> object2Codes;
+        // The objects[code] is published by the write of size
+        private volatile Object[] objects;
+        private volatile int size;
+
+        public DenseObjectIntMapping() {
+            this.object2Codes = new ConcurrentHashMap<>();
+            this.objects = new Object[INIT_CAPACITY];
+            this.size = 0;
+        }
+
+        @Watched
+        @Override
+        public int object2Code(Object object) {
+            Integer code = this.object2Codes.get(object);
+            if (code != null) {
+                return code;
+            }
+            synchronized (this) {
+                code = this.object2Codes.get(object);
+                if (code != null) {
+                    return code;
+                }
+                int size = this.size;
+                if (size == Integer.MAX_VALUE) {
+                    throw new HugeException("Failed to get code for " +
+                                            "object: %s, exceed max size",
+                                            object);
+                }
+                Object[] objects = this.objects;
+                if (size == objects.length) {
+                    int capacity = (int) Math.min(size * 2L,
+                                                  Integer.MAX_VALUE);
+                    objects = Arrays.copyOf(objects, capacity);
+                    this.objects = objects;
+                }
+                objects[size] = object;
+                this.size = size + 1;
+                this.object2Codes.put(object, size);
+                return size;
+            }
+        }
+
+        /**
+         * Get the code of an object without adding it
+         * @return the code or NULL_CODE if the object doesn't exist
+         */
+        public int code(Object object) {
+            Integer code = this.object2Codes.get(object);
+            return code == null ? NULL_CODE : code;
+        }
+
+        @Watched
+        @SuppressWarnings("unchecked")
+        @Override
+        public V code2Object(int code) {
+            // Read size first to make sure the object is visible
+            if (code < 0 || code >= this.size) {
+                return null;
+            }
+            return (V) this.objects[code];
+        }
+
+        public int size() {
+            return this.size;
+        }
+
+        @Override
+        public synchronized void clear() {
+            this.object2Codes.clear();
+            this.objects = new Object[INIT_CAPACITY];
+            this.size = 0;
+        }
+
+        @Override
+        public String toString() {
+            return this.object2Codes.toString();
+        }
+    }
 }
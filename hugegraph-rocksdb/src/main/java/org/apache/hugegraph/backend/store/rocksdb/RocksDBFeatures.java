@@ -21,6 +21,16 @@ import org.apache.hugegraph.backend.store.BackendFeatures;
 
 public class RocksDBFeatures implements BackendFeatures {
 
+    private final boolean adjacencyBlock;
+
+    public RocksDBFeatures() {
+        this(false);
+    }
+
+    public RocksDBFeatures(boolean adjacencyBlock) {
+        this.adjacencyBlock = adjacencyBlock;
+    }
+
     @Override
     public boolean supportsSharedStorage() {
         return false;
@@ -31,6 +41,11 @@ public class RocksDBFeatures implements BackendFeatures {
         return true;
     }
 
+    @Override
+    public boolean supportsAdjacencyBlock() {
+        return this.adjacencyBlock;
+    }
+
     @Override
     public boolean supportsScanToken() {
         return false;
@@ -127,6 +127,19 @@ public class RocksDBOptions extends OptionHolder {
                     true
             );
 
+    public static final ConfigOption<Boolean> ADJACENCY_BLOCK =
+            new ConfigOption<>(
+                    "rocksdb.adjacency_block",
+                    "Whether to also pack the adjacent edges of each vertex " +
+                    "and edge label into adjacency blocks, which are updated " +
+                    "through the merge operator and read by the traversals " +
+                    "like kout and kneighbor. The blocks are only used if " +
+                    "the option is enabled before any edge is written, and " +
+                    "the store needs to be initialized again after enabling.",
+                    disallowEmpty(),
+                    false
+            );
+
     public static final ConfigOption<Boolean> BULKLOAD_MODE =
             new ConfigOption<>(
                     "rocksdb.bulkload_mode",
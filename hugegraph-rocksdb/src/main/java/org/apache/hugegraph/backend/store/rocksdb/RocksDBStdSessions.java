@@ -52,6 +52,7 @@ import org.rocksdb.RocksDB;
 import org.rocksdb.RocksDBException;
 import org.rocksdb.RocksIterator;
 import org.rocksdb.SstFileManager;
+import org.rocksdb.StringAppendOperator;
 import org.rocksdb.TableFormatConfig;
 import org.rocksdb.WriteBatch;
 import org.rocksdb.WriteOptions;
@@ -148,6 +149,7 @@ public class RocksDBStdSessions extends RocksDBSessions {
                                          encode(table));
             ColumnFamilyOptions options = cfd.getOptions();
             initOptions(this.config(), null, null, options, options);
+            initTableOptions(table, options);
             cfds.add(cfd);
         }
 
@@ -414,6 +416,7 @@ public class RocksDBStdSessions extends RocksDBSessions {
             ColumnFamilyOptions options = cfd.getOptions();
             RocksDBStdSessions.initOptions(config, null, null,
                                            options, options);
+            RocksDBStdSessions.initTableOptions(cf, options);
             cfds.add(cfd);
         }
 
@@ -461,6 +464,14 @@ public class RocksDBStdSessions extends RocksDBSessions {
         return cfs;
     }
 
+    private static void initTableOptions(String table,
+                                         ColumnFamilyOptions options) {
+        if (RocksDBTables.EdgeBlock.isEdgeBlock(table)) {
+            // Append the records to the adjacency blocks by merge()
+            options.setMergeOperator(new StringAppendOperator(""));
+        }
+    }
+
     public static void initOptions(HugeConfig conf,
                                    DBOptionsInterface<?> db,
                                    MutableDBOptionsInterface<?> mdb,
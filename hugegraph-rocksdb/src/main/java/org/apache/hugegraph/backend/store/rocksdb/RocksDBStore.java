@@ -55,6 +55,7 @@ import org.apache.hugegraph.backend.serializer.MergeIterator;
 import org.apache.hugegraph.backend.store.AbstractBackendStore;
 import org.apache.hugegraph.backend.store.BackendAction;
 import org.apache.hugegraph.backend.store.BackendEntry;
+import org.apache.hugegraph.backend.store.BackendEntry.BackendColumnIterator;
 import org.apache.hugegraph.backend.store.BackendFeatures;
 import org.apache.hugegraph.backend.store.BackendMutation;
 import org.apache.hugegraph.backend.store.BackendSessionPool;
@@ -64,6 +65,7 @@ import org.apache.hugegraph.config.CoreOptions;
 import org.apache.hugegraph.config.HugeConfig;
 import org.apache.hugegraph.exception.ConnectionException;
 import org.apache.hugegraph.type.HugeType;
+import org.apache.hugegraph.type.define.Directions;
 import org.apache.hugegraph.util.Consumers;
 import org.apache.hugegraph.util.E;
 import org.apache.hugegraph.util.ExecutorUtil;
@@ -1000,10 +1002,33 @@ public abstract class RocksDBStore extends AbstractBackendStore<RocksDBSessions.
 
     public static class RocksDBGraphStore extends RocksDBStore {
 
+        private static final BackendFeatures BLOCK_FEATURES =
+                             new RocksDBFeatures(true);
+
+        private final RocksDBTables.EdgeBlock outBlocks;
+        private final RocksDBTables.EdgeBlock inBlocks;
+        // Whether to write the adjacency blocks
+        private boolean edgeBlocks;
+        // Whether the adjacency blocks contain all the edges
+        private volatile boolean edgeBlocksReady;
+
         public RocksDBGraphStore(BackendStoreProvider provider,
                                  String database, String store) {
             super(provider, database, store);
 
+            this.outBlocks = RocksDBTables.EdgeBlock.out(database);
+            this.inBlocks = RocksDBTables.EdgeBlock.in(database);
+            this.edgeBlocks = false;
+            this.edgeBlocksReady = false;
+
+            this.registerMetaHandler("adjacency", (session, meta, args) -> {
+                E.checkArgument(args.length == 4,
+                                "The args count of %s must be 4", meta);
+                return this.queryNeighbors(session, (Id) args[0],
+                                           (Directions) args[1],
+                                           (Id) args[2], (long) args[3]);
+            });
+
             registerTableManager(HugeType.VERTEX,
                                  new RocksDBTables.Vertex(database));
 
@@ -1050,6 +1075,156 @@ public abstract class RocksDBStore extends AbstractBackendStore<RocksDBSessions.
             return false;
         }
 
+        @Override
+        public BackendFeatures features() {
+            return this.edgeBlocks ? BLOCK_FEATURES : super.features();
+        }
+
+        @Override
+        public synchronized void open(HugeConfig config) {
+            this.edgeBlocks = config.get(RocksDBOptions.ADJACENCY_BLOCK);
+            /*
+             * The block tables are not in tableNames() since they may not
+             * exist yet when the option is enabled for an existing store,
+             * they are opened with the other existing CFs if they exist
+             */
+            super.open(config);
+
+            RocksDBSessions.Session session = super.session(null);
+            if (!this.existsEdgeBlocks()) {
+                this.edgeBlocksReady = false;
+            } else if (this.edgeBlocks) {
+                this.edgeBlocksReady = this.outBlocks.marked(session);
+            } else if (this.outBlocks.marked(session)) {
+                // The blocks are out of date once edges are written
+                this.outBlocks.mark(session, false);
+                this.edgeBlocksReady = false;
+            }
+        }
+
+        @Override
+        public synchronized void init() {
+            super.init();
+            if (!this.edgeBlocks) {
+                return;
+            }
+
+            Lock writeLock = this.storeLock().writeLock();
+            writeLock.lock();
+            try {
+                RocksDBSessions.Session session = super.session(null);
+                if (this.existsEdgeBlocks() &&
+                    this.outBlocks.marked(session)) {
+                    this.edgeBlocksReady = true;
+                } else if (this.noEdges()) {
+                    // Drop the blocks left when the option was disabled
+                    String[] tables = this.edgeBlockTables();
+                    this.dropTable(super.sessions, tables);
+                    this.createTable(super.sessions, tables);
+                    this.outBlocks.mark(session, true);
+                    this.edgeBlocksReady = true;
+                } else {
+                    LOG.warn("The adjacency blocks of store '{}' are not " +
+                             "used since there are edges written without " +
+                             "them", this.store());
+                    this.edgeBlocksReady = false;
+                }
+            } finally {
+                writeLock.unlock();
+            }
+        }
+
+        @Override
+        public synchronized void clear(boolean clearSpace) {
+            this.edgeBlocksReady = false;
+            super.clear(clearSpace);
+
+            Lock writeLock = this.storeLock().writeLock();
+            writeLock.lock();
+            try {
+                this.dropTable(super.sessions, this.edgeBlockTables());
+            } finally {
+                writeLock.unlock();
+            }
+        }
+
+        @Override
+        public void mutate(BackendMutation mutation) {
+            super.mutate(mutation);
+            if (!this.edgeBlocksReady) {
+                return;
+            }
+
+            Lock readLock = this.storeLock().readLock();
+            readLock.lock();
+            try {
+                this.checkOpened();
+                // The blocks are stored in the main disk
+                RocksDBSessions.Session session = super.session(null);
+                this.outBlocks.mergeEdges(session,
+                                          mutation.mutation(HugeType.EDGE_OUT));
+                this.inBlocks.mergeEdges(session,
+                                         mutation.mutation(HugeType.EDGE_IN));
+            } finally {
+                readLock.unlock();
+            }
+        }
+
+        private String[] edgeBlockTables() {
+            return new String[]{this.outBlocks.table(), this.inBlocks.table()};
+        }
+
+        private boolean existsEdgeBlocks() {
+            return super.sessions.existsTable(this.outBlocks.table()) &&
+                   super.sessions.existsTable(this.inBlocks.table());
+        }
+
+        private boolean noEdges() {
+            for (HugeType type : new HugeType[]{HugeType.EDGE_OUT,
+                                                HugeType.EDGE_IN}) {
+                RocksDBSessions.Session session = super.session(type);
+                String table = this.table(type).table();
+                try (BackendColumnIterator iter = session.scan(table)) {
+                    if (iter.hasNext()) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Read the neighbors from the adjacency blocks, return null if the
+         * blocks are not available
+         */
+        private Iterator<Id> queryNeighbors(RocksDBSessions.Session session,
+                                            Id vertex, Directions dir,
+                                            Id label, long limit) {
+            if (!this.edgeBlocksReady) {
+                return null;
+            }
+
+            Lock readLock = this.storeLock().readLock();
+            readLock.lock();
+            try {
+                this.checkOpened();
+                List<Id> neighbors = new ArrayList<>();
+                if (dir == Directions.OUT || dir == Directions.BOTH) {
+                    this.outBlocks.queryNeighbors(session, vertex,
+                                                  HugeType.EDGE_OUT, label,
+                                                  limit, neighbors);
+                }
+                if (dir == Directions.IN || dir == Directions.BOTH) {
+                    this.inBlocks.queryNeighbors(session, vertex,
+                                                 HugeType.EDGE_IN, label,
+                                                 limit, neighbors);
+                }
+                return neighbors.iterator();
+            } finally {
+                readLock.unlock();
+            }
+        }
+
         @Override
         public Id nextId(HugeType type) {
             throw new UnsupportedOperationException(
@@ -22,7 +22,6 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Set;
 
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
@@ -52,11 +51,15 @@ import org.apache.hugegraph.util.Bytes;
 import org.apache.hugegraph.util.E;
 import org.apache.hugegraph.util.Log;
 import org.apache.hugegraph.util.StringEncoding;
+import com.google.common.collect.Iterators;
 
 public class RocksDBTable extends BackendTable<RocksDBSessions.Session, BackendEntry> {
 
     private static final Logger LOG = Log.logger(RocksDBTable.class);
 
+    // The max number of keys to get from rocksdb by one multi-get
+    private static final int MULTI_GET_BATCH = 1000;
+
     private final RocksDBShardSplitter shardSplitter;
 
     public RocksDBTable(String database, String table) {
@@ -216,11 +219,24 @@ public class RocksDBTable extends BackendTable<RocksDBSessions.Session, BackendE
         return BackendColumnIterator.iterator(col);
     }
 
-    protected BackendColumnIterator getByIds(RocksDBSessions.Session session, Set<Id> ids) {
+    protected BackendColumnIterator getByIds(RocksDBSessions.Session session,
+                                             Collection<Id> ids) {
         if (ids.size() == 1) {
             return this.getById(session, ids.iterator().next());
         }
+        if (ids.size() <= MULTI_GET_BATCH) {
+            return this.multiGet(session, ids);
+        }
+
+        // Split into batches to avoid holding too many values in memory
+        return BackendColumnIterator.wrap(new FlatMapperIterator<>(
+               Iterators.partition(ids.iterator(), MULTI_GET_BATCH),
+               batch -> this.multiGet(session, batch)
+        ));
+    }
 
+    private BackendColumnIterator multiGet(RocksDBSessions.Session session,
+                                           Collection<Id> ids) {
         List<byte[]> keys = new ArrayList<>(ids.size());
         for (Id id : ids) {
             keys.add(id.asBytes());
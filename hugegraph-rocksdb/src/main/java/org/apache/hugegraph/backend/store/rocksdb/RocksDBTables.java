@@ -17,22 +17,37 @@
 
 package org.apache.hugegraph.backend.store.rocksdb;
 
+import java.nio.Buffer;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.tuple.Pair;
 
 import org.apache.hugegraph.backend.id.Id;
+import org.apache.hugegraph.backend.id.IdGenerator;
 import org.apache.hugegraph.backend.query.Condition;
 import org.apache.hugegraph.backend.query.Condition.Relation;
 import org.apache.hugegraph.backend.query.ConditionQuery;
 import org.apache.hugegraph.backend.serializer.BinarySerializer;
+import org.apache.hugegraph.backend.serializer.BytesBuffer;
+import org.apache.hugegraph.backend.store.BackendAction;
 import org.apache.hugegraph.backend.store.BackendEntry;
+import org.apache.hugegraph.backend.store.BackendEntry.BackendColumn;
 import org.apache.hugegraph.backend.store.BackendEntry.BackendColumnIterator;
 import org.apache.hugegraph.type.HugeType;
+import org.apache.hugegraph.type.define.Action;
 import org.apache.hugegraph.type.define.HugeKeys;
 import org.apache.hugegraph.util.E;
 import org.apache.hugegraph.util.StringEncoding;
+import com.google.common.collect.ImmutableList;
 
 public class RocksDBTables {
 
@@ -183,8 +198,7 @@ public class RocksDBTables {
         @Override
         protected BackendColumnIterator queryByIds(RocksDBSessions.Session session,
                                                    Collection<Id> ids) {
-            // TODO: use getByIds() after batch version multi-get is ready
-            return super.queryByIds(session, ids);
+            return this.getByIds(session, ids);
         }
     }
 
@@ -209,6 +223,340 @@ public class RocksDBTables {
         protected BackendColumnIterator queryById(RocksDBSessions.Session session, Id id) {
             return this.getById(session, id);
         }
+
+        @Override
+        protected BackendColumnIterator queryByIds(RocksDBSessions.Session session,
+                                                   Collection<Id> ids) {
+            return this.getByIds(session, ids);
+        }
+    }
+
+    /**
+     * The adjacency blocks of the edges, each block packs the adjacent edges
+     * of one vertex and one edge label into one value. The edges added or
+     * removed by one commit are appended to the block as a record through the
+     * merge operator of the table, and the records are folded in order when
+     * the block is read. The edges are still stored one by one in the Edge
+     * tables, the blocks are only used to read the neighbors of a vertex.
+     */
+    public static class EdgeBlock extends RocksDBTable {
+
+        public static final String TABLE_SUFFIX = HugeType.EDGE.string() + "b";
+
+        /*
+         * The marker means that the blocks contain all the edges, it's only
+         * written if no edge exists when the blocks are created
+         */
+        private static final byte[] MARKER_KEY = BytesBuffer.BYTES_EMPTY;
+        private static final byte[] MARKER_VALUE = new byte[]{1};
+
+        private static final byte FLAG_REMOVED = 0x01;
+        private static final byte FLAG_NUMBER_IDS = 0x02;
+        private static final byte FLAG_SORT_VALUES = 0x04;
+
+        public EdgeBlock(boolean out, String database) {
+            // Edge out/in block table
+            super(database, (out ? 'o' : 'i') + TABLE_SUFFIX);
+        }
+
+        public static EdgeBlock out(String database) {
+            return new EdgeBlock(true, database);
+        }
+
+        public static EdgeBlock in(String database) {
+            return new EdgeBlock(false, database);
+        }
+
+        public static boolean isEdgeBlock(String table) {
+            // NOTE: the table names are in lower case
+            String suffix = TABLE_SUFFIX.toLowerCase();
+            return table.endsWith("+o" + suffix) ||
+                   table.endsWith("+i" + suffix);
+        }
+
+        public boolean marked(RocksDBSessions.Session session) {
+            return session.get(this.table(), MARKER_KEY) != null;
+        }
+
+        public void mark(RocksDBSessions.Session session, boolean marked) {
+            if (marked) {
+                session.put(this.table(), MARKER_KEY, MARKER_VALUE);
+            } else {
+                session.delete(this.table(), MARKER_KEY);
+            }
+            try {
+                session.commit();
+            } catch (Exception e) {
+                session.rollback();
+                throw e;
+            }
+        }
+
+        /**
+         * Append the edges inserted or deleted by the actions to the blocks,
+         * one record of the added edges and one record of the removed edges
+         * are merged into each block
+         */
+        public void mergeEdges(RocksDBSessions.Session session,
+                               Iterator<BackendAction> actions) {
+            Map<ByteBuffer, BlockUpdates> blocks = new LinkedHashMap<>();
+            while (actions.hasNext()) {
+                BackendAction item = actions.next();
+                Action action = item.action();
+                if (action != Action.INSERT && action != Action.DELETE) {
+                    // The edge properties are updated by inserting the edge
+                    continue;
+                }
+                BackendEntry entry = item.entry();
+                Collection<BackendColumn> columns = entry.columns();
+                if (columns.isEmpty()) {
+                    columns = ImmutableList.of(BackendColumn.of(
+                              entry.id().asBytes(), BytesBuffer.BYTES_EMPTY));
+                }
+                for (BackendColumn col : columns) {
+                    int length = blockKeyLength(col.name);
+                    ByteBuffer key = ByteBuffer.wrap(Arrays.copyOf(col.name,
+                                                                   length));
+                    BlockUpdates updates = blocks.computeIfAbsent(
+                                           key, k -> new BlockUpdates(length));
+                    updates.update(col, action == Action.DELETE);
+                }
+            }
+
+            for (Map.Entry<ByteBuffer, BlockUpdates> e : blocks.entrySet()) {
+                byte[] key = e.getKey().array();
+                BlockUpdates updates = e.getValue();
+                if (!updates.removed.isEmpty()) {
+                    session.merge(this.table(), key,
+                                  encodeRecord(updates.removed.values(), true));
+                }
+                if (!updates.added.isEmpty()) {
+                    session.merge(this.table(), key,
+                                  encodeRecord(updates.added.values(), false));
+                }
+            }
+        }
+
+        /**
+         * Read the neighbors of the vertex from the block of the label, or
+         * from the blocks of all the labels if the label is null, at most
+         * `limit` neighbors are added to the list
+         */
+        public void queryNeighbors(RocksDBSessions.Session session, Id vertex,
+                                   HugeType direction, Id label, long limit,
+                                   List<Id> neighbors) {
+            BytesBuffer buffer = BytesBuffer.allocate(BytesBuffer.BUF_EDGE_ID);
+            buffer.writeId(vertex);
+            buffer.write(direction.code());
+            if (label != null) {
+                buffer.writeId(label);
+                byte[] block = session.get(this.table(), buffer.bytes());
+                if (block != null) {
+                    decodeNeighbors(block, limit, neighbors);
+                }
+                return;
+            }
+            try (BackendColumnIterator iter = session.scan(this.table(),
+                                                           buffer.bytes())) {
+                while (iter.hasNext() && neighbors.size() < limit) {
+                    decodeNeighbors(iter.next().value, limit, neighbors);
+                }
+            }
+        }
+
+        private static int blockKeyLength(byte[] edgeKey) {
+            // owner-vertex + dir + edge-label + sort-values + other-vertex
+            BytesBuffer buffer = BytesBuffer.wrap(edgeKey);
+            buffer.readId();
+            buffer.read();
+            buffer.readId();
+            return buffer.position();
+        }
+
+        /**
+         * Encode the edges of one block into a record:
+         *  flags + count + other-vertex-ids + [sort-values] + [properties]
+         * The other vertex ids are sorted and delta-encoded if they are all
+         * number ids, and the properties of all the edges are stored
+         * together as a column behind the ids, which can be skipped at once.
+         */
+        protected static byte[] encodeRecord(Collection<BlockEdge> edges,
+                                             boolean removed) {
+            List<BlockEdge> sorted = new ArrayList<>(edges);
+            boolean numberIds = true;
+            boolean sortValues = false;
+            for (BlockEdge edge : sorted) {
+                numberIds &= edge.otherVertex.number();
+                sortValues |= !edge.sortValues.isEmpty();
+            }
+            if (numberIds) {
+                sorted.sort(Comparator.comparingLong(e -> e.otherVertex.asLong()));
+            }
+
+            byte flags = 0;
+            if (removed) {
+                flags |= FLAG_REMOVED;
+            }
+            if (numberIds) {
+                flags |= FLAG_NUMBER_IDS;
+            }
+            if (sortValues) {
+                flags |= FLAG_SORT_VALUES;
+            }
+
+            BytesBuffer buffer = BytesBuffer.allocate(8 * sorted.size() + 8);
+            buffer.write(flags);
+            buffer.writeVInt(sorted.size());
+            long last = 0L;
+            for (BlockEdge edge : sorted) {
+                if (numberIds) {
+                    long id = edge.otherVertex.asLong();
+                    buffer.writeVLong(id - last);
+                    last = id;
+                } else {
+                    buffer.writeId(edge.otherVertex);
+                }
+            }
+            if (sortValues) {
+                for (BlockEdge edge : sorted) {
+                    buffer.writeStringWithEnding(edge.sortValues);
+                }
+            }
+            if (!removed) {
+                // The lengths of the properties and then the properties
+                BytesBuffer column = BytesBuffer.allocate(32 * sorted.size());
+                for (BlockEdge edge : sorted) {
+                    column.writeVInt(edge.properties.length);
+                }
+                for (BlockEdge edge : sorted) {
+                    column.write(edge.properties);
+                }
+                buffer.writeBigBytes(column.bytes());
+            }
+            return buffer.bytes();
+        }
+
+        /**
+         * Decode the neighbors from the records of a block, the edges removed
+         * by a later record are dropped, and the edges added again (like
+         * updating the properties) are kept at the first position
+         */
+        protected static void decodeNeighbors(byte[] block, long limit,
+                                              List<Id> neighbors) {
+            BytesBuffer buffer = BytesBuffer.wrap(block);
+            List<Object> keys = new ArrayList<>();
+            Map<Object, Id> edges = null;
+            while (buffer.remaining() > 0) {
+                byte flags = buffer.read();
+                int count = buffer.readVInt();
+                Id[] ids = new Id[count];
+                if ((flags & FLAG_NUMBER_IDS) != 0) {
+                    long id = 0L;
+                    for (int i = 0; i < count; i++) {
+                        id += buffer.readVLong();
+                        ids[i] = IdGenerator.of(id);
+                    }
+                } else {
+                    for (int i = 0; i < count; i++) {
+                        ids[i] = buffer.readId();
+                    }
+                }
+                String[] sortValues = null;
+                if ((flags & FLAG_SORT_VALUES) != 0) {
+                    sortValues = new String[count];
+                    for (int i = 0; i < count; i++) {
+                        sortValues[i] = buffer.readStringWithEnding();
+                    }
+                }
+                boolean removed = (flags & FLAG_REMOVED) != 0;
+                if (!removed) {
+                    // Skip the column of properties
+                    ByteBuffer bytes = buffer.asByteBuffer();
+                    int length = buffer.readVInt();
+                    ((Buffer) bytes).position(bytes.position() + length);
+                }
+
+                if (edges == null && !removed && buffer.remaining() == 0) {
+                    // Only one record of added edges in the block
+                    for (int i = 0; i < count && neighbors.size() < limit; i++) {
+                        neighbors.add(ids[i]);
+                    }
+                    return;
+                }
+
+                if (edges == null) {
+                    edges = new LinkedHashMap<>();
+                }
+                for (int i = 0; i < count; i++) {
+                    Object key = sortValues == null || sortValues[i].isEmpty() ?
+                                 ids[i] : Pair.of(ids[i], sortValues[i]);
+                    if (removed) {
+                        edges.remove(key);
+                    } else {
+                        edges.putIfAbsent(key, ids[i]);
+                    }
+                }
+            }
+
+            if (edges == null) {
+                return;
+            }
+            for (Id id : edges.values()) {
+                if (neighbors.size() >= limit) {
+                    break;
+                }
+                neighbors.add(id);
+            }
+        }
+
+        protected static final class BlockEdge {
+
+            private final Id otherVertex;
+            private final String sortValues;
+            private final byte[] properties;
+
+            public BlockEdge(Id otherVertex, String sortValues,
+                             byte[] properties) {
+                this.otherVertex = otherVertex;
+                this.sortValues = sortValues;
+                this.properties = properties;
+            }
+        }
+
+        private static final class BlockUpdates {
+
+            private final int keyLength;
+            // The latest added/removed edges of the block by the edge key
+            private final Map<ByteBuffer, BlockEdge> added;
+            private final Map<ByteBuffer, BlockEdge> removed;
+
+            public BlockUpdates(int keyLength) {
+                this.keyLength = keyLength;
+                this.added = new LinkedHashMap<>();
+                this.removed = new LinkedHashMap<>();
+            }
+
+            public void update(BackendColumn col, boolean remove) {
+                BytesBuffer buffer = BytesBuffer.wrap(col.name, this.keyLength,
+                                                      col.name.length -
+                                                      this.keyLength);
+                String sortValues = buffer.readStringWithEnding();
+                Id otherVertex = buffer.readId();
+                BlockEdge edge = new BlockEdge(otherVertex, sortValues,
+                                               col.value == null ?
+                                               BytesBuffer.BYTES_EMPTY :
+                                               col.value);
+
+                ByteBuffer key = ByteBuffer.wrap(col.name);
+                if (remove) {
+                    this.added.remove(key);
+                    this.removed.put(key, edge);
+                } else {
+                    this.removed.remove(key);
+                    this.added.put(key, edge);
+                }
+            }
+        }
     }
 
     public static class IndexTable extends RocksDBTable {
@@ -404,6 +752,12 @@ public class RocksDBTables {
             return this.getById(session, id);
         }
 
+        @Override
+        protected BackendColumnIterator queryByIds(RocksDBSessions.Session session,
+                                                   Collection<Id> ids) {
+            return this.getByIds(session, ids);
+        }
+
         @Override
         public boolean isOlap() {
             return true;
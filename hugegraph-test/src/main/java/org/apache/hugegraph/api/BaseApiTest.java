@@ -19,6 +19,7 @@ package org.apache.hugegraph.api;
 
 import java.io.IOException;
 import java.net.URLEncoder;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -621,6 +622,16 @@ public class BaseApiTest {
         return assertMapContains(json, key);
     }
 
+    public static List<Map<?, ?>> readNdjson(String response) {
+        List<Map<?, ?>> lines = new ArrayList<>();
+        for (String line : response.split("\n")) {
+            if (!line.isEmpty()) {
+                lines.add(JsonUtil.fromJson(line, Map.class));
+            }
+        }
+        return lines;
+    }
+
     @SuppressWarnings("unchecked")
     public static <T> T assertMapContains(Map<?, ?> map, String key) {
         String message = String.format("Expect contains key '%s' in %s",
@@ -51,6 +51,43 @@ public class MetricsApiTest extends BaseApiTest {
         assertJsonContains(result, "garbage_collector");
     }
 
+    @Test
+    public void testMetricsTasks() {
+        Response r = client().get(path, "tasks");
+        String result = assertResponseStatus(200, r);
+        assertJsonContains(result, "workers");
+        assertJsonContains(result, "running");
+        assertJsonContains(result, "pending");
+
+        Object value = assertJsonContains(result, "queue_wait_time_ms");
+        Assert.assertTrue(value instanceof Map);
+        Map<?, ?> low = assertMapContains((Map<?, ?>) value, "low");
+        assertMapContains(low, "count");
+        assertMapContains(low, "p99");
+        assertMapContains(low, "buckets");
+        assertJsonContains(result, "run_time_ms");
+    }
+
+    @Test
+    public void testMetricsPrometheus() {
+        // Make sure there are some requests recorded
+        assertResponseStatus(200, client().get(path, "system"));
+
+        Response r = client().get(path, "prometheus");
+        String result = assertResponseStatus(200, r);
+        Assert.assertTrue(r.getMediaType().toString().startsWith("text/plain"));
+        Assert.assertContains("# TYPE hugegraph_api_latency_seconds histogram",
+                              result);
+        Assert.assertContains("hugegraph_api_latency_seconds_bucket{" +
+                              "method=\"GET\",resource=\"MetricsAPI.system\"",
+                              result);
+        Assert.assertContains("le=\"+Inf\"", result);
+        Assert.assertContains("# TYPE hugegraph_backend_query_latency_seconds " +
+                              "histogram", result);
+        Assert.assertContains("# TYPE hugegraph_cache_hits_total counter",
+                              result);
+    }
+
     @Test
     public void testMetricsBackend() {
         Response r = client().get(path, "backend");
@@ -17,6 +17,7 @@
 
 package org.apache.hugegraph.api.traversers;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -70,6 +71,50 @@ public class KoutApiTest extends BaseApiTest {
                                                                 joshId)));
     }
 
+    @Test
+    public void testGetWithStream() {
+        Map<String, String> name2Ids = listAllVertexName2Ids();
+        String markoId = name2Ids.get("marko");
+        String peterId = name2Ids.get("peter");
+        String joshId = name2Ids.get("josh");
+        String rippleId = name2Ids.get("ripple");
+
+        Response r = client().get(PATH, ImmutableMap.of("source",
+                                                        id2Json(markoId),
+                                                        "max_depth", 2,
+                                                        "nearest", "false",
+                                                        "stream", "true"));
+        String content = assertResponseStatus(200, r);
+        Assert.assertEquals("application/x-ndjson",
+                            r.getMediaType().getType() + "/" +
+                            r.getMediaType().getSubtype());
+
+        List<Map<?, ?>> lines = readNdjson(content);
+        Assert.assertEquals(4, lines.size());
+        List<Object> vertices = new ArrayList<>();
+        for (Map<?, ?> line : lines.subList(0, 3)) {
+            vertices.add(assertMapContains(line, "vertices"));
+        }
+        Assert.assertTrue(vertices.containsAll(ImmutableList.of(peterId,
+                                                                rippleId,
+                                                                joshId)));
+        Map<?, ?> measure = assertMapContains(lines.get(3), "measure");
+        // The iterations are counted after the vertices are written
+        assertMapContains(measure, "vertice_iterations");
+
+        // Count only
+        r = client().get(PATH, ImmutableMap.of("source", id2Json(markoId),
+                                               "max_depth", 2,
+                                               "nearest", "false",
+                                               "count_only", "true",
+                                               "stream", "true"));
+        content = assertResponseStatus(200, r);
+        lines = readNdjson(content);
+        Assert.assertEquals(2, lines.size());
+        Object size = assertMapContains(lines.get(0), "vertices_size");
+        Assert.assertEquals(3, size);
+    }
+
     @Test
     public void testPost() {
         Map<String, String> name2Ids = listAllVertexName2Ids();
@@ -58,6 +58,29 @@ public class PathsApiTest extends BaseApiTest {
         Assert.assertEquals(1, paths.size());
     }
 
+    @Test
+    public void testGetWithStream() {
+        Map<String, String> name2Ids = listAllVertexName2Ids();
+        String markoId = name2Ids.get("marko");
+        String vadasId = name2Ids.get("vadas");
+        Response r = client().get(PATH, ImmutableMap.of("source",
+                                                        id2Json(markoId),
+                                                        "target",
+                                                        id2Json(vadasId),
+                                                        "max_depth", 3,
+                                                        "stream", "true"));
+        String content = assertResponseStatus(200, r);
+        List<Map<?, ?>> lines = readNdjson(content);
+        Assert.assertEquals(2, lines.size());
+        Map<?, ?> path = assertMapContains(lines.get(0), "paths");
+        List<Object> objects = assertMapContains(path, "objects");
+        Assert.assertEquals(2, objects.size());
+
+        // The iterations are counted after the paths are written
+        Map<?, ?> measure = assertMapContains(lines.get(1), "measure");
+        assertMapContains(measure, "vertice_iterations");
+    }
+
     @Test
     public void testPost() {
         Map<String, String> name2Ids = listAllVertexName2Ids();
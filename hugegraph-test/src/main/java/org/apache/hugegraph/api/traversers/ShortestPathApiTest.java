@@ -58,4 +58,30 @@ public class ShortestPathApiTest extends BaseApiTest {
         List<String> paths = assertJsonContains(content, "path");
         Assert.assertEquals(ImmutableList.of(markoId, peterId, joshId), paths);
     }
+
+    @Test
+    public void testGetWithMeasure() {
+        Map<String, String> name2Ids = listAllVertexName2Ids();
+        String markoId = name2Ids.get("marko");
+        String vadasId = name2Ids.get("vadas");
+        Response r = client().get(PATH, ImmutableMap.of("source",
+                                                        id2Json(markoId),
+                                                        "target",
+                                                        id2Json(vadasId),
+                                                        "max_depth", 100));
+        String content = assertResponseStatus(200, r);
+        List<String> paths = assertJsonContains(content, "path");
+        Assert.assertEquals(4, paths.size());
+        Map<?, ?> measure = assertJsonContains(content, "measure");
+        assertMapContains(measure, "vertice_iterations");
+        assertMapContains(measure, "edge_iterations");
+
+        // The path is longer than max depth
+        r = client().get(PATH, ImmutableMap.of("source", id2Json(markoId),
+                                               "target", id2Json(vadasId),
+                                               "max_depth", 2));
+        content = assertResponseStatus(200, r);
+        paths = assertJsonContains(content, "path");
+        Assert.assertTrue(paths.isEmpty());
+    }
 }
@@ -52,4 +52,22 @@ public class SingleSourceShortestPathApiTest extends BaseApiTest {
         Map<String, Map<?, ?>> paths = assertJsonContains(content, "paths");
         Assert.assertEquals(4, paths.size());
     }
+
+    @Test
+    public void testGetWithLimit() {
+        Map<String, String> name2Ids = listAllVertexName2Ids();
+        String markoId = name2Ids.get("marko");
+        Response r = client().get(PATH, ImmutableMap.of("source",
+                                                        id2Json(markoId),
+                                                        "weight", "weight",
+                                                        "with_edge", true,
+                                                        "limit", 2));
+        String content = assertResponseStatus(200, r);
+        Map<String, Map<?, ?>> paths = assertJsonContains(content, "paths");
+        Assert.assertEquals(2, paths.size());
+        Assert.assertFalse(paths.containsKey(markoId));
+        for (Map<?, ?> path : paths.values()) {
+            Assert.assertTrue(path.containsKey("weight"));
+        }
+    }
 }
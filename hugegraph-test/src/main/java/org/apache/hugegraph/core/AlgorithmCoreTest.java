@@ -0,0 +1,519 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.hugegraph.core;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.hugegraph.HugeGraph;
+import org.apache.hugegraph.backend.id.Id;
+import org.apache.hugegraph.job.AlgorithmJob;
+import org.apache.hugegraph.job.JobBuilder;
+import org.apache.hugegraph.job.algorithm.AbstractAlgorithm;
+import org.apache.hugegraph.job.algorithm.CsrSnapshot;
+import org.apache.hugegraph.schema.SchemaManager;
+import org.apache.hugegraph.task.HugeTask;
+import org.apache.hugegraph.task.TaskStatus;
+import org.apache.hugegraph.testutil.Assert;
+import org.apache.hugegraph.type.define.Directions;
+import org.apache.hugegraph.util.JsonUtil;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+public class AlgorithmCoreTest extends BaseCoreTest {
+
+    private static final double DELTA = 1e-9;
+
+    @Before
+    @Override
+    public void setup() {
+        super.setup();
+
+        SchemaManager schema = graph().schema();
+        schema.propertyKey("name").asText().ifNotExist().create();
+    }
+
+    @Test
+    public void testBuildCsrSnapshot() {
+        HugeGraph graph = graph();
+        SchemaManager schema = graph.schema();
+        schema.propertyKey("weight").asDouble().ifNotExist().create();
+        schema.vertexLabel("user")
+              .properties("name")
+              .primaryKeys("name")
+              .ifNotExist()
+              .create();
+        schema.edgeLabel("like")
+              .sourceLabel("user")
+              .targetLabel("user")
+              .properties("weight")
+              .nullableKeys("weight")
+              .ifNotExist()
+              .create();
+
+        Vertex marko = graph.addVertex(T.label, "user", "name", "marko");
+        Vertex vadas = graph.addVertex(T.label, "user", "name", "vadas");
+        Vertex josh = graph.addVertex(T.label, "user", "name", "josh");
+        marko.addEdge("like", vadas, "weight", 0.5);
+        marko.addEdge("like", josh, "weight", 0.8);
+        vadas.addEdge("like", josh);
+        graph.tx().commit();
+
+        CsrSnapshot snapshot = CsrSnapshot.build(graph, null, Directions.OUT,
+                                                 -1L, "weight");
+        Assert.assertEquals(3, snapshot.vertexCount());
+        Assert.assertEquals(3, snapshot.edgeCount());
+        Assert.assertTrue(snapshot.weighted());
+
+        int markoCode = snapshot.vertexCode((Id) marko.id());
+        int vadasCode = snapshot.vertexCode((Id) vadas.id());
+        int joshCode = snapshot.vertexCode((Id) josh.id());
+        Assert.assertEquals(marko.id(), snapshot.vertexId(markoCode));
+        Assert.assertEquals(2, snapshot.degree(markoCode));
+        Assert.assertEquals(1, snapshot.degree(vadasCode));
+        Assert.assertEquals(0, snapshot.degree(joshCode));
+        Assert.assertEquals(0, snapshot.reversedDegree(markoCode));
+        Assert.assertEquals(2, snapshot.reversedDegree(joshCode));
+
+        int index = snapshot.start(vadasCode);
+        Assert.assertEquals(joshCode, snapshot.target(index));
+        Assert.assertEquals(1.0, snapshot.weight(index), 0.0);
+        double weights = 0.0;
+        for (int i = snapshot.start(markoCode);
+             i < snapshot.end(markoCode); i++) {
+            weights += snapshot.weight(i);
+        }
+        Assert.assertEquals(1.3, weights, 0.00001);
+
+        // Limit degree and build without weight
+        snapshot = CsrSnapshot.build(graph, null, Directions.OUT, 1L, null);
+        Assert.assertEquals(2, snapshot.edgeCount());
+        Assert.assertFalse(snapshot.weighted());
+        Assert.assertEquals(1, snapshot.degree(snapshot.vertexCode(
+                                                   (Id) marko.id())));
+
+        snapshot = CsrSnapshot.build(graph, null, Directions.IN, -1L, null);
+        Assert.assertEquals(3, snapshot.edgeCount());
+        Assert.assertEquals(2, snapshot.degree(snapshot.vertexCode(
+                                                   (Id) josh.id())));
+
+        snapshot = CsrSnapshot.build(graph, null, Directions.BOTH, -1L, null);
+        Assert.assertEquals(6, snapshot.edgeCount());
+        CsrSnapshot both = snapshot;
+        int degrees = both.compute(null, (start, end) -> {
+            int sum = 0;
+            for (int v = start; v < end; v++) {
+                sum += both.degree(v);
+            }
+            return sum;
+        }, Integer::sum);
+        Assert.assertEquals(6, degrees);
+    }
+
+
+    @Test
+    public void testPageRank() throws TimeoutException {
+        HugeGraph graph = graph();
+        this.initUserSchema();
+
+        Vertex a = graph.addVertex(T.label, "user", "name", "a");
+        Vertex b = graph.addVertex(T.label, "user", "name", "b");
+        Vertex c = graph.addVertex(T.label, "user", "name", "c");
+        Vertex d = graph.addVertex(T.label, "user", "name", "d");
+        a.addEdge("like", b);
+        a.addEdge("like", c);
+        b.addEdge("like", c);
+        c.addEdge("like", a);
+        d.addEdge("like", c);
+        graph.tx().commit();
+
+        List<Vertex> vertices = ImmutableList.of(a, b, c, d);
+        Map<Vertex, List<Vertex>> adjacency = ImmutableMap.of(
+                a, ImmutableList.of(b, c),
+                b, ImmutableList.of(c),
+                c, ImmutableList.of(a),
+                d, ImmutableList.of(c));
+        Map<Vertex, Double> expected = new HashMap<>();
+        int times = pageRankOfOldImpl(vertices, adjacency, 0.15, 100,
+                                      1e-10, expected);
+
+        Map<String, Object> result = runPageRank(ImmutableMap.of(
+                                                 "alpha", 0.15,
+                                                 "times", 100,
+                                                 "precision", 1e-10));
+        Assert.assertEquals(times, result.get("iteration_times"));
+        Assert.assertFalse(result.containsKey("top"));
+        double sum = 0.0;
+        for (Vertex vertex : vertices) {
+            double rank = rankOf(vertex);
+            Assert.assertEquals(expected.get(vertex), rank, DELTA);
+            sum += rank;
+        }
+        Assert.assertEquals(1.0, sum, DELTA);
+        // The vertex c is linked by all the others
+        Assert.assertTrue(rankOf(c) > rankOf(a));
+        Assert.assertTrue(rankOf(a) > rankOf(b));
+        Assert.assertTrue(rankOf(b) > rankOf(d));
+    }
+
+    @Test
+    public void testPageRankWithTop() throws TimeoutException {
+        HugeGraph graph = graph();
+        this.initUserSchema();
+
+        Vertex a = graph.addVertex(T.label, "user", "name", "a");
+        Vertex b = graph.addVertex(T.label, "user", "name", "b");
+        Vertex c = graph.addVertex(T.label, "user", "name", "c");
+        Vertex d = graph.addVertex(T.label, "user", "name", "d");
+        a.addEdge("like", b);
+        a.addEdge("like", c);
+        b.addEdge("like", c);
+        c.addEdge("like", a);
+        d.addEdge("like", c);
+        graph.tx().commit();
+
+        Map<String, Object> result = runPageRank(ImmutableMap.of(
+                                                 "alpha", 0.15,
+                                                 "times", 100,
+                                                 "precision", 1e-10,
+                                                 "top", 2));
+        Object value = result.get("top");
+        Assert.assertTrue(value instanceof Map);
+        Map<?, ?> top = (Map<?, ?>) value;
+        // The top ranks are in descending order
+        Assert.assertEquals(ImmutableList.of(c.id().toString(),
+                                             a.id().toString()),
+                            ImmutableList.copyOf(top.keySet()));
+        Assert.assertEquals(rankOf(c),
+                            ((Number) top.get(c.id().toString()))
+                            .doubleValue(), DELTA);
+        Assert.assertEquals(rankOf(a),
+                            ((Number) top.get(a.id().toString()))
+                            .doubleValue(), DELTA);
+
+        // The top is larger than the count of vertices
+        result = runPageRank(ImmutableMap.of("times", 100,
+                                             "precision", 1e-10,
+                                             "top", 10));
+        top = (Map<?, ?>) result.get("top");
+        Assert.assertEquals(4, top.size());
+        Assert.assertEquals(c.id().toString(), top.keySet().iterator().next());
+    }
+
+    @Test
+    public void testPageRankWithDanglingVertices() throws TimeoutException {
+        HugeGraph graph = graph();
+        this.initUserSchema();
+
+        // The vertices d and e have no out edges, e has no edges at all
+        Vertex a = graph.addVertex(T.label, "user", "name", "a");
+        Vertex b = graph.addVertex(T.label, "user", "name", "b");
+        Vertex c = graph.addVertex(T.label, "user", "name", "c");
+        Vertex d = graph.addVertex(T.label, "user", "name", "d");
+        Vertex e = graph.addVertex(T.label, "user", "name", "e");
+        a.addEdge("like", b);
+        b.addEdge("like", c);
+        c.addEdge("like", a);
+        c.addEdge("like", d);
+        graph.tx().commit();
+
+        List<Vertex> vertices = ImmutableList.of(a, b, c, d, e);
+        Map<Vertex, List<Vertex>> adjacency = ImmutableMap.of(
+                a, ImmutableList.of(b),
+                b, ImmutableList.of(c),
+                c, ImmutableList.of(a, d));
+        Map<Vertex, Double> expected = new HashMap<>();
+        int times = pageRankOfOldImpl(vertices, adjacency, 0.5, 100,
+                                      1e-10, expected);
+
+        Map<String, Object> result = runPageRank(ImmutableMap.of(
+                                                 "times", 100,
+                                                 "precision", 1e-10));
+        Assert.assertEquals(times, result.get("iteration_times"));
+        Assert.assertEquals(0.5, result.get("alpha"));
+        double sum = 0.0;
+        for (Vertex vertex : vertices) {
+            double rank = rankOf(vertex);
+            Assert.assertEquals(expected.get(vertex), rank, DELTA);
+            sum += rank;
+        }
+        // The ranks lost by dangling vertices are compensated to all
+        Assert.assertEquals(1.0, sum, DELTA);
+        Assert.assertTrue(rankOf(e) > 0.0);
+        Assert.assertTrue(rankOf(d) > rankOf(e));
+    }
+
+    @Test
+    public void testLouvainInMemory() throws TimeoutException {
+        HugeGraph graph = graph();
+        this.initUserSchema();
+
+        // Two cliques of 4 vertices linked by one edge
+        List<Vertex> vertices = this.addCliques(2, 4);
+        vertices.get(3).addEdge("like", vertices.get(4));
+        graph.tx().commit();
+
+        Map<String, Object> result = runAlgorithm("louvain", ImmutableMap.of(
+                                                  "in_memory", true));
+        Assert.assertEquals(2, result.get("communities"));
+        // 2 * (12/26 - (13/26)^2) with 13 edges
+        Assert.assertEquals(11.0 / 26,
+                            ((Number) result.get("modularity")).doubleValue(),
+                            DELTA);
+
+        Map<String, Set<Object>> communities = communitiesOf(vertices);
+        Assert.assertEquals(2, communities.size());
+        for (int i = 0; i < vertices.size(); i++) {
+            String label = labelOf(vertices.get(i));
+            // The community is labeled by the id of one of its members
+            Assert.assertTrue(communities.get(label).contains(label));
+            int clique = i / 4;
+            for (int j = 0; j < vertices.size(); j++) {
+                boolean same = label.equals(labelOf(vertices.get(j)));
+                Assert.assertEquals(clique == j / 4, same);
+            }
+        }
+
+        // The pass 0 is the final pass
+        result = runAlgorithm("louvain", ImmutableMap.of("in_memory", true,
+                                                         "write_pass", 0));
+        Assert.assertEquals(1, result.get("pass_times"));
+        Assert.assertEquals(2, result.get("communities"));
+        Assert.assertEquals(communities, communitiesOf(vertices));
+    }
+
+    @Test
+    public void testLouvainInMemoryWithWritePass() throws TimeoutException {
+        HugeGraph graph = graph();
+        this.initUserSchema();
+
+        /*
+         * A ring of 8 cliques of 4 vertices, each pair of cliques is linked
+         * by 2 edges and the pairs are linked by 1 edge, so the cliques are
+         * merged as pairs in the later pass
+         */
+        List<Vertex> vertices = this.addCliques(8, 4);
+        for (int i = 0; i < 32; i += 8) {
+            vertices.get(i).addEdge("like", vertices.get(i + 4));
+            vertices.get(i + 1).addEdge("like", vertices.get(i + 5));
+            vertices.get(i + 7).addEdge("like", vertices.get((i + 11) % 32));
+        }
+        graph.tx().commit();
+
+        Map<String, Object> result = runAlgorithm("louvain", ImmutableMap.of(
+                                                  "in_memory", true));
+        int passTimes = (int) result.get("pass_times");
+        int communityCount = (int) result.get("communities");
+        double modularity = ((Number) result.get("modularity")).doubleValue();
+        Map<String, Set<Object>> communities = communitiesOf(vertices);
+        Assert.assertEquals(communityCount, communities.size());
+        Assert.assertTrue(passTimes >= 1);
+        Assert.assertTrue(modularity > 0.5);
+
+        // Write back the communities of the first pass
+        result = runAlgorithm("louvain", ImmutableMap.of("in_memory", true,
+                                                         "write_pass", 0));
+        Assert.assertEquals(1, result.get("pass_times"));
+        Map<String, Set<Object>> firstCommunities = communitiesOf(vertices);
+        Assert.assertEquals(result.get("communities"),
+                            firstCommunities.size());
+        Assert.assertTrue(firstCommunities.size() >= communities.size());
+        Assert.assertTrue(((Number) result.get("modularity")).doubleValue() <=
+                          modularity);
+        // Each community of the first pass is in one of the final pass
+        for (Set<Object> members : firstCommunities.values()) {
+            boolean contained = false;
+            for (Set<Object> finalMembers : communities.values()) {
+                if (finalMembers.containsAll(members)) {
+                    contained = true;
+                    break;
+                }
+            }
+            Assert.assertTrue(contained);
+        }
+
+        // Write back the final pass if the write pass is out of range
+        result = runAlgorithm("louvain", ImmutableMap.of("in_memory", true,
+                                                         "write_pass", 100));
+        Assert.assertEquals(passTimes, result.get("pass_times"));
+        Assert.assertEquals(communityCount, result.get("communities"));
+        Assert.assertEquals(communities, communitiesOf(vertices));
+    }
+
+    @Test
+    public void testLpaWithWorkers() throws TimeoutException {
+        HugeGraph graph = graph();
+        this.initUserSchema();
+
+        // Two separate cliques of 4 vertices
+        List<Vertex> vertices = this.addCliques(2, 4);
+        graph.tx().commit();
+
+        /*
+         * The vertices are labeled by the workers which commit their own
+         * transactions when done, the scanning ones only read, that works
+         * when scanning all vertices by shards in parallel too
+         */
+        runAlgorithm("lpa", ImmutableMap.of("workers", 2, "degree", -1));
+        for (int i = 0; i < vertices.size(); i++) {
+            String label = labelOf(vertices.get(i));
+            // The label can't be passed between the separate cliques
+            for (int j = 0; j < vertices.size(); j++) {
+                if (i / 4 != j / 4) {
+                    Assert.assertNotEquals(label, labelOf(vertices.get(j)));
+                }
+            }
+        }
+    }
+
+    private List<Vertex> addCliques(int cliques, int size) {
+        HugeGraph graph = graph();
+        List<Vertex> vertices = new ArrayList<>();
+        for (int i = 0; i < cliques * size; i++) {
+            vertices.add(graph.addVertex(T.label, "user", "name", "v" + i));
+        }
+        for (int c = 0; c < cliques * size; c += size) {
+            for (int i = c; i < c + size; i++) {
+                for (int j = i + 1; j < c + size; j++) {
+                    vertices.get(i).addEdge("like", vertices.get(j));
+                }
+            }
+        }
+        return vertices;
+    }
+
+    private void initUserSchema() {
+        SchemaManager schema = graph().schema();
+        schema.vertexLabel("user")
+              .properties("name")
+              .primaryKeys("name")
+              .ifNotExist()
+              .create();
+        schema.edgeLabel("like")
+              .sourceLabel("user")
+              .targetLabel("user")
+              .ifNotExist()
+              .create();
+    }
+
+    private static Map<String, Object> runPageRank(Map<String, Object> params)
+                                                   throws TimeoutException {
+        return runAlgorithm("page_rank", params);
+    }
+
+    private static Map<String, Object> runAlgorithm(String name,
+                                                    Map<String, Object> params)
+                                                    throws TimeoutException {
+        HugeGraph graph = graph();
+        Map<String, Object> input = ImmutableMap.of("algorithm", name,
+                                                    "parameters", params);
+        JobBuilder<Object> builder = JobBuilder.of(graph);
+        builder.name("test-algorithm-" + name)
+               .input(JsonUtil.toJson(input))
+               .job(new AlgorithmJob());
+        HugeTask<Object> task = builder.schedule();
+        task = graph.taskScheduler().waitUntilTaskCompleted(task.id(), 20);
+        Assert.assertEquals(TaskStatus.SUCCESS, task.status());
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> result = JsonUtil.fromJson(task.result(),
+                                                       Map.class);
+        return result;
+    }
+
+    private static String labelOf(Vertex vertex) {
+        Vertex current = graph().vertex(vertex.id());
+        return current.value(AbstractAlgorithm.C_LABEL);
+    }
+
+    private static Map<String, Set<Object>> communitiesOf(
+                                            List<Vertex> vertices) {
+        Map<String, Set<Object>> communities = new HashMap<>();
+        for (Vertex vertex : vertices) {
+            communities.computeIfAbsent(labelOf(vertex), k -> new HashSet<>())
+                       .add(vertex.id().toString());
+        }
+        return communities;
+    }
+
+    private static double rankOf(Vertex vertex) {
+        Vertex current = graph().vertex(vertex.id());
+        return current.<Double>value(AbstractAlgorithm.R_RANK);
+    }
+
+    /**
+     * The PageRank of the implementation before CsrSnapshot, which iterates
+     * on the ranks of a map, to check the results are unchanged
+     */
+    private static int pageRankOfOldImpl(List<Vertex> vertices,
+                                         Map<Vertex, List<Vertex>> adjacency,
+                                         double alpha, int maxTimes,
+                                         double precision,
+                                         Map<Vertex, Double> ranks) {
+        int numOfVertices = vertices.size();
+        for (Vertex vertex : vertices) {
+            ranks.put(vertex, 1.0 / numOfVertices);
+        }
+        int times;
+        for (times = 0; times < maxTimes; times++) {
+            Map<Vertex, Double> received = new HashMap<>();
+            for (Vertex vertex : vertices) {
+                received.put(vertex, 0.0);
+            }
+            for (Map.Entry<Vertex, List<Vertex>> e : adjacency.entrySet()) {
+                double distributed = ranks.get(e.getKey()) /
+                                     e.getValue().size();
+                for (Vertex target : e.getValue()) {
+                    received.put(target, received.get(target) + distributed);
+                }
+            }
+
+            double sumRank = 0.0;
+            List<Double> nextRanks = new ArrayList<>();
+            for (Vertex vertex : vertices) {
+                double rank = alpha / numOfVertices +
+                              received.get(vertex) * (1.0 - alpha);
+                nextRanks.add(rank);
+                sumRank += rank;
+            }
+
+            double compensated = (1.0 - sumRank) / numOfVertices;
+            double changedRank = 0.0;
+            for (int i = 0; i < numOfVertices; i++) {
+                Vertex vertex = vertices.get(i);
+                double rank = nextRanks.get(i) + compensated;
+                changedRank += Math.abs(ranks.get(vertex) - rank);
+                ranks.put(vertex, rank);
+            }
+            if (changedRank < precision) {
+                break;
+            }
+        }
+        return times;
+    }
+}
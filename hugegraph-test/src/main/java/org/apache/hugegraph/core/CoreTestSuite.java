@@ -34,6 +34,7 @@ import org.junit.runners.Suite;
     EdgePropertyCoreTest.class,
     RestoreCoreTest.class,
     TaskCoreTest.class,
+    AlgorithmCoreTest.class,
     AuthTest.class,
     MultiGraphsTest.class,
     RamTableTest.class,
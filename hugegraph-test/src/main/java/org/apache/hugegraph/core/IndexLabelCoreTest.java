@@ -21,6 +21,7 @@ import java.util.Date;
 import java.util.List;
 
 import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalMetrics;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.T;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
@@ -29,11 +30,13 @@ import org.junit.Test;
 
 import org.apache.hugegraph.HugeException;
 import org.apache.hugegraph.HugeGraph;
+import org.apache.hugegraph.backend.id.Id;
 import org.apache.hugegraph.exception.ExistedException;
 import org.apache.hugegraph.exception.NoIndexException;
 import org.apache.hugegraph.exception.NotFoundException;
 import org.apache.hugegraph.schema.EdgeLabel;
 import org.apache.hugegraph.schema.IndexLabel;
+import org.apache.hugegraph.schema.IndexLabelStats;
 import org.apache.hugegraph.schema.SchemaManager;
 import org.apache.hugegraph.schema.Userdata;
 import org.apache.hugegraph.schema.VertexLabel;
@@ -1392,6 +1395,64 @@ public class IndexLabelCoreTest extends SchemaCoreTest {
         Assert.assertNotNull(vertex);
     }
 
+    @Test
+    public void testAnalyzeIndexLabel() throws Exception {
+        Assume.assumeTrue("Not support range condition query",
+                          storeFeatures().supportsQueryWithRangeCondition());
+        super.initPropertyKeys();
+        SchemaManager schema = graph().schema();
+        schema.vertexLabel("person").properties("name", "age", "city")
+              .primaryKeys("name").create();
+        schema.indexLabel("personByCity").onV("person").secondary()
+              .by("city").create();
+        schema.indexLabel("personByAge").onV("person").range()
+              .by("age").create();
+
+        for (int i = 0; i < 100; i++) {
+            graph().addVertex(T.label, "person", "name", "p" + i,
+                              "city", i < 90 ? "Beijing" : "Shanghai",
+                              "age", i);
+        }
+        graph().tx().commit();
+        Assert.assertNull(schema.getIndexLabel("personByAge").stats());
+
+        Id task = schema.indexLabel("personByCity").analyze();
+        graph().taskScheduler().waitUntilTaskCompleted(task, 10);
+        task = schema.indexLabel("personByAge").analyze();
+        graph().taskScheduler().waitUntilTaskCompleted(task, 10);
+
+        IndexLabelStats cityStats = schema.getIndexLabel("personByCity")
+                                          .stats();
+        Assert.assertNotNull(cityStats);
+        Assert.assertEquals(100L, cityStats.count());
+        Assert.assertEquals(2L, cityStats.distinct());
+        IndexLabelStats ageStats = schema.getIndexLabel("personByAge")
+                                         .stats();
+        Assert.assertNotNull(ageStats);
+        Assert.assertEquals(100L, ageStats.count());
+        Assert.assertTrue(ageStats.histogram().length > 1);
+
+        // Query by the more selective index firstly
+        TraversalMetrics metrics = graph().traversal().V()
+                                          .has("city", "Beijing")
+                                          .has("age", P.lt(5))
+                                          .profile().next();
+        String selected = (String) metrics.getMetrics(0).getAnnotation(
+                                   "selected indexes");
+        Assert.assertNotNull(selected);
+        Assert.assertTrue(selected, selected.indexOf("personByAge") <
+                                    selected.indexOf("personByCity"));
+
+        List<Vertex> vertices = graph().traversal().V()
+                                       .has("city", "Beijing")
+                                       .has("age", P.lt(5)).toList();
+        Assert.assertEquals(5, vertices.size());
+
+        Assert.assertThrows(NotFoundException.class, () -> {
+            schema.indexLabel("not-exist-il").analyze();
+        });
+    }
+
     @Test
     public void testRebuildIndexLabelOfVertexLabel() {
         Assume.assumeTrue("Not support range condition query",
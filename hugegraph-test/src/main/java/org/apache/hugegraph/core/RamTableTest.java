@@ -211,6 +211,73 @@ public class RamTableTest extends BaseCoreTest {
         }
     }
 
+    @Test
+    public void testReloadAndQueryWithStringId() throws Exception {
+        HugeGraph graph = this.graph();
+        graph.schema().vertexLabel("vl3").useCustomizeStringId().create();
+        graph.schema().edgeLabel("el3")
+                      .sourceLabel("vl3")
+                      .targetLabel("vl3")
+                      .create();
+
+        // insert vertices and edges
+        for (int i = 0; i < 100; i++) {
+            Vertex v1 = graph.addVertex(T.label, "vl3", T.id, "v" + i);
+            Vertex v2 = graph.addVertex(T.label, "vl3", T.id, "v" + (i + 100));
+            v1.addEdge("el3", v2);
+        }
+        graph.tx().commit();
+
+        for (int i = 0; i < 100; i++) {
+            Vertex v1 = graph.addVertex(T.label, "vl1", T.id, i);
+            Vertex v2 = graph.addVertex(T.label, "vl1", T.id, i + 100);
+            v1.addEdge("el1", v2);
+        }
+        graph.tx().commit();
+
+        // reload ramtable, and reload again from the exported file
+        Whitebox.invoke(graph.getClass(), "reloadRamtable", graph);
+        this.checkStringIdEdges();
+        Whitebox.invoke(graph.getClass(), "reloadRamtable", graph, true);
+        this.checkStringIdEdges();
+
+        // query the not existed vertex
+        Iterator<Edge> edges = this.edgesOfVertex(IdGenerator.of("v-none"),
+                                                  Directions.BOTH, null);
+        Assert.assertFalse(edges.hasNext());
+    }
+
+    private void checkStringIdEdges() {
+        for (int i = 0; i < 100; i++) {
+            Iterator<Edge> edges = this.edgesOfVertex(IdGenerator.of("v" + i),
+                                                      Directions.OUT, null);
+            Assert.assertTrue(edges.hasNext());
+            HugeEdge edge = (HugeEdge) edges.next();
+            Assert.assertEquals("v" + (i + 100),
+                                edge.id().otherVertexId().asString());
+            Assert.assertEquals(Directions.OUT, edge.direction());
+            Assert.assertEquals("el3", edge.label());
+            Assert.assertFalse(edges.hasNext());
+
+            edges = this.edgesOfVertex(IdGenerator.of("v" + (i + 100)),
+                                       Directions.IN, null);
+            Assert.assertTrue(edges.hasNext());
+            edge = (HugeEdge) edges.next();
+            Assert.assertEquals("v" + i,
+                                edge.id().otherVertexId().asString());
+            Assert.assertEquals(Directions.IN, edge.direction());
+            Assert.assertFalse(edges.hasNext());
+
+            edges = this.edgesOfVertex(IdGenerator.of(i),
+                                       Directions.OUT, null);
+            Assert.assertTrue(edges.hasNext());
+            edge = (HugeEdge) edges.next();
+            Assert.assertEquals(i + 100, edge.id().otherVertexId().asLong());
+            Assert.assertEquals("el1", edge.label());
+            Assert.assertFalse(edges.hasNext());
+        }
+    }
+
     @Test
     public void testReloadAndQueryWithMultiEdges() throws Exception {
         HugeGraph graph = this.graph();
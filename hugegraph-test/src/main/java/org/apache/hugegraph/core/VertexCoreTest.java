@@ -29,7 +29,9 @@ import java.util.NoSuchElementException;
 import java.util.Random;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 import org.apache.hugegraph.HugeException;
 import org.apache.hugegraph.HugeGraph;
@@ -41,7 +43,9 @@ import org.apache.hugegraph.backend.id.SnowflakeIdGenerator;
 import org.apache.hugegraph.backend.id.SplicingIdGenerator;
 import org.apache.hugegraph.backend.page.PageInfo;
 import org.apache.hugegraph.backend.query.Condition;
+import org.apache.hugegraph.backend.query.Aggregate.AggregateFunc;
 import org.apache.hugegraph.backend.query.ConditionQuery;
+import org.apache.hugegraph.backend.query.ParallelScanner;
 import org.apache.hugegraph.backend.query.Query;
 import org.apache.hugegraph.backend.store.BackendTable;
 import org.apache.hugegraph.backend.store.Shard;
@@ -67,6 +71,7 @@ import org.apache.hugegraph.type.define.HugeKeys;
 import org.apache.hugegraph.type.define.WriteType;
 import org.apache.hugegraph.util.Blob;
 import org.apache.hugegraph.util.CollectionUtil;
+import org.apache.hugegraph.util.ExecutorUtil;
 import org.apache.hugegraph.util.LongEncoding;
 import org.apache.tinkerpop.gremlin.process.traversal.P;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
@@ -4549,6 +4554,57 @@ public class VertexCoreTest extends BaseCoreTest {
         });
     }
 
+    @Test
+    public void testQueryByIndexesAfterCommitLargeBatch() {
+        HugeGraph graph = graph();
+
+        graph.schema().indexLabel("authorByLived").onV("author")
+             .search().by("lived").create();
+        graph.schema().indexLabel("authorByAge").onV("author")
+             .range().by("age").create();
+        graph.schema().indexLabel("authorByName").onV("author")
+             .secondary().by("name").create();
+
+        // Large enough to build index entries concurrently
+        int size = 500;
+        for (int i = 0; i < size; i++) {
+            graph.addVertex(T.label, "author", "id", i,
+                            "name", "author-" + (i % 10), "age", i % 100,
+                            "lived", i % 2 == 0 ? "San Francisco Bay Area" :
+                                                  "Beijing Haidian");
+        }
+        this.commitTx();
+
+        List<Vertex> vertices = graph.traversal().V()
+                                     .hasLabel("author")
+                                     .has("lived", Text.contains("Bay Area"))
+                                     .toList();
+        Assert.assertEquals(size / 2, vertices.size());
+
+        vertices = graph.traversal().V().hasLabel("author")
+                        .has("age", P.lt(10)).toList();
+        Assert.assertEquals(size / 10, vertices.size());
+
+        vertices = graph.traversal().V().hasLabel("author")
+                        .has("name", "author-1").toList();
+        Assert.assertEquals(size / 10, vertices.size());
+
+        graph.traversal().V().hasLabel("author").drop().iterate();
+        this.commitTx();
+
+        vertices = graph.traversal().V()
+                        .hasLabel("author")
+                        .has("lived", Text.contains("Bay Area"))
+                        .toList();
+        Assert.assertEquals(0, vertices.size());
+        vertices = graph.traversal().V().hasLabel("author")
+                        .has("age", P.lt(10)).toList();
+        Assert.assertEquals(0, vertices.size());
+        vertices = graph.traversal().V().hasLabel("author")
+                        .has("name", "author-1").toList();
+        Assert.assertEquals(0, vertices.size());
+    }
+
     @Test
     public void testQueryByTextContainsAndExactMatchProperty() {
         HugeGraph graph = graph();
@@ -4982,6 +5038,55 @@ public class VertexCoreTest extends BaseCoreTest {
         }
     }
 
+    @Test
+    public void testQueryByJointIndexesWithStreamingIntersection() {
+        HugeGraph graph = graph();
+
+        initPersonIndex(true);
+        this.init5Persons();
+
+        Object tx = Whitebox.invoke(graph.getClass(),
+                                    "graphTransaction", graph);
+        Object oldThresh = Whitebox.getInternalState(
+                           tx, "indexTx.indexIntersectThresh");
+        Object oldMaxIds = Whitebox.getInternalState(
+                           tx, "indexTx.indexIntersectMaxIds");
+        try {
+            // Let all of the joint indexes exceed the threshold
+            Whitebox.setInternalState(tx, "indexTx.indexIntersectThresh", 1);
+            // 0 means filtering, 1 means fallback to filtering after fetched
+            for (int maxIds : new int[]{0, 1, 2, 3, 100}) {
+                Whitebox.setInternalState(tx, "indexTx.indexIntersectMaxIds",
+                                          maxIds);
+                List<Vertex> vertices;
+
+                vertices = graph.traversal().V()
+                                .has("city", "Beijing").has("age", 20).toList();
+                Assert.assertEquals(2, vertices.size());
+
+                vertices = graph.traversal().V()
+                                .has("city", "Beijing").has("age", 20)
+                                .skip(1).toList();
+                Assert.assertEquals(1, vertices.size());
+
+                vertices = graph.traversal().V()
+                                .has("city", "Beijing").has("age", P.lt(21))
+                                .toList();
+                Assert.assertEquals(3, vertices.size());
+
+                vertices = graph.traversal().V()
+                                .has("city", "Beijing").has("age", P.gt(20))
+                                .toList();
+                Assert.assertEquals(0, vertices.size());
+            }
+        } finally {
+            Whitebox.setInternalState(tx, "indexTx.indexIntersectThresh",
+                                      oldThresh);
+            Whitebox.setInternalState(tx, "indexTx.indexIntersectMaxIds",
+                                      oldMaxIds);
+        }
+    }
+
     @Test
     public void testQueryByJointIndexesAndCompositeIndexForOneLabel() {
         initPersonIndex(true);
@@ -7563,6 +7668,42 @@ public class VertexCoreTest extends BaseCoreTest {
         Assert.assertEquals(10, vertices.size());
     }
 
+    @Test
+    public void testScanVerticesInParallel() {
+        HugeGraph graph = graph();
+        this.init10VerticesAndCommit();
+
+        ExecutorService executor = ExecutorUtil.newFixedThreadPool(
+                                   4, "parallel-scan-test-%d");
+        try {
+            ParallelScanner scanner = new ParallelScanner(graph, executor);
+            long count = scanner.scanVertices(vertices -> {
+                long shardCount = 0L;
+                while (vertices.hasNext()) {
+                    vertices.next();
+                    shardCount++;
+                }
+                return shardCount;
+            }, Long::sum);
+            Assert.assertEquals(10L, count);
+
+            Set<Object> ids = scanner.collectVertices(
+                              Collectors.mapping(Vertex::id,
+                                                 Collectors.toSet()));
+            Assert.assertEquals(10, ids.size());
+
+            Query query = new Query(HugeType.VERTEX);
+            query.aggregate(AggregateFunc.COUNT, null);
+            Long shardsCount = scanner.count(query);
+            if (shardsCount != null) {
+                Assert.assertEquals(10L, (long) shardsCount);
+            }
+        } finally {
+            executor.shutdown();
+        }
+        Assert.assertEquals(10L, graph.traversal().V().count().next());
+    }
+
     @Test
     public void testScanVertexInPaging() {
         HugeGraph graph = graph();
@@ -8781,6 +8922,32 @@ public class VertexCoreTest extends BaseCoreTest {
         Assert.assertEquals(3, vertices.size());
     }
 
+    @Test
+    public void testQueryVerticesByManyIds() {
+        HugeGraph graph = graph();
+        SchemaManager schema = graph.schema();
+
+        schema.vertexLabel("user").useCustomizeNumberId().create();
+
+        // More than a batch of backend multi-get
+        int count = 2500;
+        for (int i = 0; i < count; i++) {
+            graph.addVertex(T.label, "user", T.id, i * 2);
+        }
+        this.commitTx();
+
+        // Query the existed ids mixed with not existed ids
+        Object[] ids = new Object[count * 2];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = i;
+        }
+        List<Vertex> vertices = ImmutableList.copyOf(graph.vertices(ids));
+        Assert.assertEquals(count, vertices.size());
+        for (int i = 0; i < count; i++) {
+            Assert.assertEquals(IdGenerator.of(i * 2L), vertices.get(i).id());
+        }
+    }
+
     @Test
     public void testQueryVerticesByLabelsWithOneLabelNotExist() {
         HugeGraph graph = graph();
@@ -25,6 +25,7 @@ import org.apache.hugegraph.unit.id.SplicingIdGeneratorTest;
 import org.apache.hugegraph.unit.mysql.MysqlUtilTest;
 import org.apache.hugegraph.unit.mysql.WhereBuilderTest;
 import org.apache.hugegraph.unit.rocksdb.RocksDBCountersTest;
+import org.apache.hugegraph.unit.rocksdb.RocksDBEdgeBlockTest;
 import org.apache.hugegraph.unit.rocksdb.RocksDBSessionTest;
 import org.apache.hugegraph.unit.rocksdb.RocksDBSessionsTest;
 import org.junit.runner.RunWith;
@@ -45,14 +46,22 @@ import org.apache.hugegraph.unit.core.ConditionTest;
 import org.apache.hugegraph.unit.core.DataTypeTest;
 import org.apache.hugegraph.unit.core.DirectionsTest;
 import org.apache.hugegraph.unit.core.ExceptionTest;
+import org.apache.hugegraph.unit.core.GroupCommitterTest;
+import org.apache.hugegraph.unit.core.IndexLabelStatsTest;
+import org.apache.hugegraph.unit.core.ParallelScannerTest;
+import org.apache.hugegraph.unit.core.ReadConsistencyTest;
+import org.apache.hugegraph.unit.core.TaskDispatcherTest;
+import org.apache.hugegraph.unit.core.TransactionLatencyTest;
 import org.apache.hugegraph.unit.core.LocksTableTest;
 import org.apache.hugegraph.unit.core.PageStateTest;
 import org.apache.hugegraph.unit.core.QueryTest;
+import org.apache.hugegraph.unit.core.RaftBackendStoreTest;
 import org.apache.hugegraph.unit.core.RangeTest;
 import org.apache.hugegraph.unit.core.RolePermissionTest;
 import org.apache.hugegraph.unit.core.RowLockTest;
 import org.apache.hugegraph.unit.core.SecurityManagerTest;
 import org.apache.hugegraph.unit.core.SerialEnumTest;
+import org.apache.hugegraph.unit.core.StoreStateMachineTest;
 import org.apache.hugegraph.unit.core.TraversalUtilTest;
 import org.apache.hugegraph.unit.serializer.BinaryBackendEntryTest;
 import org.apache.hugegraph.unit.serializer.BinaryScatterSerializerTest;
@@ -64,10 +73,13 @@ import org.apache.hugegraph.unit.serializer.TableBackendEntryTest;
 import org.apache.hugegraph.unit.serializer.TextBackendEntryTest;
 import org.apache.hugegraph.unit.util.CompressUtilTest;
 import org.apache.hugegraph.unit.util.JsonUtilTest;
+import org.apache.hugegraph.unit.util.LatencyHistogramTest;
+import org.apache.hugegraph.unit.util.LatencyMetricsTest;
 import org.apache.hugegraph.unit.util.StringEncodingTest;
 import org.apache.hugegraph.unit.util.VersionTest;
 import org.apache.hugegraph.unit.util.collection.CollectionFactoryTest;
 import org.apache.hugegraph.unit.util.collection.IdSetTest;
+import org.apache.hugegraph.unit.util.collection.IntDoubleHeapTest;
 import org.apache.hugegraph.unit.util.collection.Int2IntsMapTest;
 import org.apache.hugegraph.unit.util.collection.IntMapTest;
 import org.apache.hugegraph.unit.util.collection.IntSetTest;
@@ -77,6 +89,7 @@ import org.apache.hugegraph.unit.util.collection.ObjectIntMappingTest;
 @Suite.SuiteClasses({
     /* cache */
     CacheTest.RamCacheTest.class,
+    CacheTest.TinyLfuCacheTest.class,
     CacheTest.OffheapCacheTest.class,
     CacheTest.LevelCacheTest.class,
     CachedSchemaTransactionTest.class,
@@ -111,6 +124,14 @@ import org.apache.hugegraph.unit.util.collection.ObjectIntMappingTest;
     TraversalUtilTest.class,
     PageStateTest.class,
     SystemSchemaStoreTest.class,
+    GroupCommitterTest.class,
+    IndexLabelStatsTest.class,
+    ParallelScannerTest.class,
+    ReadConsistencyTest.class,
+    RaftBackendStoreTest.class,
+    StoreStateMachineTest.class,
+    TaskDispatcherTest.class,
+    TransactionLatencyTest.class,
 
     /* serializer */
     BytesBufferTest.class,
@@ -133,6 +154,7 @@ import org.apache.hugegraph.unit.util.collection.ObjectIntMappingTest;
     RocksDBSessionsTest.class,
     RocksDBSessionTest.class,
     RocksDBCountersTest.class,
+    RocksDBEdgeBlockTest.class,
 
     /* utils */
     VersionTest.class,
@@ -141,6 +163,8 @@ import org.apache.hugegraph.unit.util.collection.ObjectIntMappingTest;
     CompressUtilTest.class,
     RateLimiterTest.FixedTimerWindowRateLimiterTest.class,
     RateLimiterTest.FixedWatchWindowRateLimiterTest.class,
+    LatencyHistogramTest.class,
+    LatencyMetricsTest.class,
 
     /* utils.collection */
     CollectionFactoryTest.class,
@@ -148,7 +172,8 @@ import org.apache.hugegraph.unit.util.collection.ObjectIntMappingTest;
     Int2IntsMapTest.class,
     IdSetTest.class,
     IntMapTest.class,
-    IntSetTest.class
+    IntSetTest.class,
+    IntDoubleHeapTest.class
 })
 public class UnitTestSuite {
 }
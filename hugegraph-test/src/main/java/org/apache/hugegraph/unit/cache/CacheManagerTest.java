@@ -90,6 +90,11 @@ public class CacheManagerTest extends BaseUnitTest {
         Assert.assertEquals(c3, c33);
         Assert.assertEquals(c3.capacity(), c33.capacity());
 
+        Cache<Id, Object> c4 = manager.tinyLfuCache("c4", 1);
+        Cache<Id, Object> c42 = manager.tinyLfuCache("c4", 2);
+        Assert.assertEquals(c4, c42);
+        Assert.assertEquals(c4.capacity(), c42.capacity());
+
         Assert.assertThrows(IllegalArgumentException.class, () -> {
             manager.cache("c2");
         }, e -> {
@@ -129,9 +134,23 @@ public class CacheManagerTest extends BaseUnitTest {
             Assert.assertContains("OffheapCache", e.getMessage());
         });
 
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+            manager.tinyLfuCache("c1", 1);
+        }, e -> {
+            Assert.assertContains("Invalid cache implement:", e.getMessage());
+            Assert.assertContains("RamCache", e.getMessage());
+        });
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+            manager.cache("c4");
+        }, e -> {
+            Assert.assertContains("Invalid cache implement:", e.getMessage());
+            Assert.assertContains("TinyLfuCache", e.getMessage());
+        });
+
         this.originCaches.remove("c1");
         this.originCaches.remove("c2");
         this.originCaches.remove("c3");
+        this.originCaches.remove("c4");
     }
 
     @Test
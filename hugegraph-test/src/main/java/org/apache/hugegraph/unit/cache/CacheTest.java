@@ -35,11 +35,15 @@ import org.apache.hugegraph.backend.cache.Cache;
 import org.apache.hugegraph.backend.cache.LevelCache;
 import org.apache.hugegraph.backend.cache.OffheapCache;
 import org.apache.hugegraph.backend.cache.RamCache;
+import org.apache.hugegraph.backend.cache.TinyLfuCache;
 import org.apache.hugegraph.backend.id.Id;
 import org.apache.hugegraph.backend.id.IdGenerator;
+import org.apache.hugegraph.structure.HugeEdge;
+import org.apache.hugegraph.structure.HugeVertex;
 import org.apache.hugegraph.testutil.Assert;
 import org.apache.hugegraph.testutil.Whitebox;
 import org.apache.hugegraph.unit.BaseUnitTest;
+import org.apache.hugegraph.unit.FakeObjects;
 import org.apache.hugegraph.util.Blob;
 import org.apache.hugegraph.util.Bytes;
 
@@ -136,6 +140,95 @@ public abstract class CacheTest extends BaseUnitTest {
         }
     }
 
+    public static class TinyLfuCacheTest extends CacheTest {
+
+        @Override
+        protected Cache<Id, Object> newCache() {
+            return new TinyLfuCache();
+        }
+
+        @Override
+        protected Cache<Id, Object> newCache(long capacity) {
+            return new TinyLfuCache(capacity);
+        }
+
+        @Override
+        protected void checkSize(Cache<Id, Object> cache, long size,
+                                 Map<Id, Object> kvs) {
+            Assert.assertEquals(size, cache.size());
+            if (kvs != null) {
+                // NOTE: the new items may be rejected by admission policy
+                for (Map.Entry<Id, Object> kv : kvs.entrySet()) {
+                    Object value = cache.get(kv.getKey());
+                    if (value != null) {
+                        Assert.assertEquals(kv.getValue(), value);
+                    }
+                }
+            }
+        }
+
+        @Override
+        protected void checkInCache(Cache<Id, Object> cache, Id id) {
+            Assert.assertTrue(cache.containsKey(id));
+        }
+
+        @Override
+        protected void checkNotInCache(Cache<Id, Object> cache, Id id) {
+            Assert.assertFalse(cache.containsKey(id));
+        }
+
+        @Test
+        public void testHotItemsSurviveScan() {
+            int limit = 100;
+            Cache<Id, Object> cache = newCache(limit);
+
+            int hot = 50;
+            for (int i = 0; i < hot; i++) {
+                cache.update(IdGenerator.of("hot-" + i), "value-" + i);
+            }
+            // Push the last hot item out of the admission window
+            cache.update(IdGenerator.of("warm"), "value-warm");
+            for (int round = 0; round < 5; round++) {
+                for (int i = 0; i < hot; i++) {
+                    Id id = IdGenerator.of("hot-" + i);
+                    Assert.assertEquals("value-" + i, cache.get(id));
+                }
+            }
+
+            // Scan a lot of items which are accessed only once
+            for (int i = 0; i < 100 * limit; i++) {
+                cache.update(IdGenerator.of("scan-" + i), "value-" + i);
+            }
+            Assert.assertEquals(limit, cache.size());
+
+            for (int i = 0; i < hot; i++) {
+                Id id = IdGenerator.of("hot-" + i);
+                Assert.assertEquals("value-" + i, cache.get(id));
+            }
+        }
+
+        @Test
+        public void testFrequentItemAdmitted() {
+            int limit = 10;
+            Cache<Id, Object> cache = newCache(limit);
+
+            for (int i = 0; i < limit; i++) {
+                cache.update(IdGenerator.of("key-" + i), "value-" + i);
+            }
+
+            Id id = IdGenerator.of("frequent");
+            for (int i = 0; i < 5; i++) {
+                cache.get(id);
+            }
+            cache.update(id, "frequent");
+            // Push it out of the admission window
+            cache.update(IdGenerator.of("key-new"), "value-new");
+
+            Assert.assertEquals(limit, cache.size());
+            Assert.assertEquals("frequent", cache.get(id));
+        }
+    }
+
     public static class OffheapCacheTest extends CacheTest {
 
         private static final long ENTRY_SIZE = 40L;
@@ -200,6 +293,48 @@ public abstract class CacheTest extends BaseUnitTest {
             cache.update(id, "string");
             Assert.assertEquals("string", cache.get(id));
         }
+
+        @Test
+        public void testUpdateAndGetElementsWithLazyProperties() {
+            HugeEdge edge = new FakeObjects().newEdge(123, 456);
+            HugeVertex source = edge.sourceVertex();
+            Cache<Id, Object> cache = new OffheapCache(edge.graph(), 10000L,
+                                                       ENTRY_SIZE, true);
+
+            cache.update(source.id(), source);
+            HugeVertex vertex = (HugeVertex) cache.get(source.id());
+            Assert.assertEquals(source, vertex);
+            Assert.assertEquals(source.schemaLabel(), vertex.schemaLabel());
+            // Properties are decoded when accessed at the first time
+            Assert.assertNotNull(Whitebox.getInternalState(vertex,
+                                                           "lazyProperties"));
+            assertCollectionEquals(source.getProperties(),
+                                   vertex.getProperties());
+            Assert.assertNull(Whitebox.getInternalState(vertex,
+                                                        "lazyProperties"));
+
+            cache.update(edge.id(), edge);
+            HugeEdge edge1 = (HugeEdge) cache.get(edge.id());
+            Assert.assertEquals(edge, edge1);
+            Assert.assertEquals(edge.schemaLabel(), edge1.schemaLabel());
+            assertCollectionEquals(edge.getProperties(),
+                                   edge1.getProperties());
+
+            Id key = IdGenerator.of("edges");
+            cache.update(key, ImmutableList.of(edge, edge.switchOwner()));
+            @SuppressWarnings("unchecked")
+            List<HugeEdge> edges = (List<HugeEdge>) cache.get(key);
+            Assert.assertEquals(2, edges.size());
+            Assert.assertEquals(edge, edges.get(0));
+            Assert.assertEquals(edge.switchOwner(), edges.get(1));
+            assertCollectionEquals(edge.getProperties(),
+                                   edges.get(1).getProperties());
+
+            // The copy of element should have the properties
+            HugeVertex copy = ((HugeVertex) cache.get(source.id())).copy();
+            assertCollectionEquals(source.getProperties(),
+                                   copy.getProperties());
+        }
     }
 
     public static class LevelCacheTest extends OffheapCacheTest {
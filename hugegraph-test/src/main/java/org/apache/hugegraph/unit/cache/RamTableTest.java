@@ -17,8 +17,12 @@
 
 package org.apache.hugegraph.unit.cache;
 
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.Iterator;
 
+import org.apache.commons.io.FileUtils;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -34,6 +38,7 @@ import org.apache.hugegraph.schema.VertexLabel;
 import org.apache.hugegraph.structure.HugeEdge;
 import org.apache.hugegraph.structure.HugeVertex;
 import org.apache.hugegraph.testutil.Assert;
+import org.apache.hugegraph.testutil.Whitebox;
 import org.apache.hugegraph.type.define.Directions;
 import org.apache.hugegraph.unit.FakeObjects;
 
@@ -237,6 +242,215 @@ public class RamTableTest {
         }
     }
 
+    @Test
+    public void testMappedTableWarmStart() throws Exception {
+        HugeGraph graph = this.graph();
+        int el1 = (int) graph.edgeLabel("el1").id().asLong();
+        int el2 = (int) graph.edgeLabel("el2").id().asLong();
+
+        int vertices = 100000;
+        File dir = Files.createTempDirectory("ramtable").toFile();
+        String file = new File(dir, "test.ramtable").getPath();
+        try {
+            RamTable table = new RamTable(graph, vertices, 3 * vertices,
+                                          file);
+            Assert.assertEquals(0L, table.edgesSize());
+            for (int i = 0; i < vertices; i++) {
+                table.addEdge(true, i, i, Directions.OUT, el1);
+                table.addEdge(false, i, i + 1, Directions.IN, el2);
+            }
+            Assert.assertEquals(2L * vertices, table.edgesSize());
+            table.close();
+
+            // Reopen the mapped file without reloading
+            table = new RamTable(graph, vertices, 3 * vertices, file);
+            Assert.assertEquals(2L * vertices, table.edgesSize());
+            for (int i = 0; i < vertices; i++) {
+                Iterator<HugeEdge> edges = table.query(i, Directions.IN, el2);
+                Assert.assertTrue(edges.hasNext());
+                HugeEdge edge = edges.next();
+                Assert.assertEquals(i, edge.id().ownerVertexId().asLong());
+                Assert.assertEquals(i + 1L,
+                                    edge.id().otherVertexId().asLong());
+                Assert.assertFalse(edges.hasNext());
+            }
+
+            // Not closed cleanly after writing, expect to be discarded
+            table.addEdge(true, vertices, 1, Directions.OUT, el1);
+            table = new RamTable(graph, vertices, 3 * vertices, file);
+            Assert.assertEquals(0L, table.edgesSize());
+            table.close();
+
+            // Mismatched capacity, expect to be discarded
+            table = new RamTable(graph, vertices, vertices, file);
+            Assert.assertEquals(0L, table.edgesSize());
+            table.close();
+        } finally {
+            FileUtils.deleteDirectory(dir);
+        }
+    }
+
+    @Test
+    public void testRemoveAndCompact() throws Exception {
+        HugeGraph graph = this.graph();
+        int el1 = (int) graph.edgeLabel("el1").id().asLong();
+        int el2 = (int) graph.edgeLabel("el2").id().asLong();
+
+        int vertices = 1000;
+        // Disable the background compaction
+        RamTable table = new RamTable(graph, vertices, 2 * vertices,
+                                      null, 0D);
+        for (int i = 0; i < vertices; i++) {
+            table.addEdge(true, i, i, Directions.OUT, el1);
+            table.addEdge(false, i, i + 1, Directions.IN, el2);
+        }
+        Assert.assertEquals(0L, table.deadEdgesSize());
+        Assert.assertEquals(0D, table.fragmentationRatio(), 0D);
+
+        // Remove the OUT edges of even vertices
+        for (int i = 0; i < vertices; i += 2) {
+            Assert.assertTrue(table.removeEdge(i, i, Directions.OUT, el1));
+        }
+        // Remove the not existed edges
+        Assert.assertFalse(table.removeEdge(0, 0, Directions.OUT, el1));
+        Assert.assertFalse(table.removeEdge(1, 1, Directions.OUT, el2));
+        Assert.assertFalse(table.removeEdge(vertices + 1, 1,
+                                            Directions.OUT, el1));
+        Assert.assertEquals(vertices / 2L, table.deadEdgesSize());
+        Assert.assertEquals(0.25D, table.fragmentationRatio(), 0D);
+
+        // Remove the odd vertices with all their edges
+        for (int i = 1; i < vertices; i += 4) {
+            Assert.assertEquals(2, table.removeVertex(i));
+            Assert.assertEquals(0, table.removeVertex(i));
+        }
+        long dead = vertices / 2L + 2L * (vertices / 4);
+        Assert.assertEquals(dead, table.deadEdgesSize());
+        Assert.assertEquals(2L * vertices, table.edgesSize());
+
+        this.checkRemovedEdges(table, vertices, el1, el2);
+
+        // Compact and check again
+        Assert.assertEquals(dead, table.compact());
+        Assert.assertEquals(0L, table.deadEdgesSize());
+        Assert.assertEquals(0D, table.fragmentationRatio(), 0D);
+        Assert.assertEquals(2L * vertices - dead, table.edgesSize());
+
+        this.checkRemovedEdges(table, vertices, el1, el2);
+
+        // Add edges after compaction
+        table.addEdge(true, vertices, 1, Directions.OUT, el1);
+        Iterator<HugeEdge> edges = table.query(vertices, Directions.OUT, 0);
+        Assert.assertTrue(edges.hasNext());
+        Assert.assertEquals(1L, edges.next().id().otherVertexId().asLong());
+        Assert.assertFalse(edges.hasNext());
+        Assert.assertEquals(0L, table.compact());
+    }
+
+    private void checkRemovedEdges(RamTable table, int vertices,
+                                   int el1, int el2) {
+        for (int i = 0; i < vertices; i++) {
+            Iterator<HugeEdge> edges = table.query(i, Directions.BOTH, 0);
+            if (i % 4 == 1) {
+                // Removed vertex
+                Assert.assertFalse(edges.hasNext());
+                continue;
+            }
+            if (i % 2 == 1) {
+                Assert.assertTrue(edges.hasNext());
+                HugeEdge edge = edges.next();
+                Assert.assertEquals(Directions.OUT, edge.direction());
+                Assert.assertEquals(i, edge.id().otherVertexId().asLong());
+            }
+            Assert.assertTrue(edges.hasNext());
+            HugeEdge edge = edges.next();
+            Assert.assertEquals(Directions.IN, edge.direction());
+            Assert.assertEquals(i + 1L, edge.id().otherVertexId().asLong());
+            Assert.assertFalse(edges.hasNext());
+
+            Assert.assertFalse(table.query(i, Directions.OUT, el2).hasNext());
+            Assert.assertEquals(i % 2 == 1,
+                                table.query(i, Directions.OUT, el1).hasNext());
+        }
+    }
+
+    @Test
+    public void testRemoveWhileLoading() {
+        HugeGraph graph = this.graph();
+        int el1 = (int) graph.edgeLabel("el1").id().asLong();
+
+        int vertices = 10;
+        RamTable table = new RamTable(graph, vertices, 2 * vertices,
+                                      null, 0D);
+        for (int i = 0; i < vertices; i++) {
+            table.addEdge(true, i, i + 1, Directions.OUT, el1);
+        }
+
+        // Mock a loading task, the removals are queued instead of dropped
+        Whitebox.setInternalState(table, "loading", true);
+        Whitebox.setInternalState(table, "loadingRemovals",
+                                  new ArrayList<Runnable>());
+        Assert.assertFalse(table.removeEdge(0, 1, Directions.OUT, el1));
+        Assert.assertEquals(0, table.removeVertex(2));
+        Assert.assertEquals(0L, table.deadEdgesSize());
+
+        // The removals are replayed after loaded
+        Whitebox.invoke(RamTable.class, new Class[]{boolean.class},
+                        "finishLoading", table, true);
+        Assert.assertEquals(2L, table.deadEdgesSize());
+        Assert.assertFalse(table.query(0, Directions.OUT, 0).hasNext());
+        Assert.assertTrue(table.query(1, Directions.OUT, 0).hasNext());
+        Assert.assertFalse(table.query(2, Directions.OUT, 0).hasNext());
+        Assert.assertTrue(table.query(3, Directions.OUT, 0).hasNext());
+
+        // The removals are dropped if failed to load
+        Whitebox.setInternalState(table, "loading", true);
+        Whitebox.setInternalState(table, "loadingRemovals",
+                                  new ArrayList<Runnable>());
+        Assert.assertFalse(table.removeEdge(3, 4, Directions.OUT, el1));
+        Whitebox.invoke(RamTable.class, new Class[]{boolean.class},
+                        "finishLoading", table, false);
+        Assert.assertEquals(2L, table.deadEdgesSize());
+        Assert.assertTrue(table.query(3, Directions.OUT, 0).hasNext());
+    }
+
+    @Test
+    public void testMappedTableCompact() throws Exception {
+        HugeGraph graph = this.graph();
+        int el1 = (int) graph.edgeLabel("el1").id().asLong();
+
+        int vertices = 100;
+        File dir = Files.createTempDirectory("ramtable").toFile();
+        String file = new File(dir, "test.ramtable").getPath();
+        try {
+            RamTable table = new RamTable(graph, vertices, 2 * vertices,
+                                          file, 0D);
+            for (int i = 0; i < vertices; i++) {
+                table.addEdge(true, i, i + 1, Directions.OUT, el1);
+            }
+            table.removeEdge(0, 1, Directions.OUT, el1);
+            table.close();
+
+            // The dead edges are persisted
+            table = new RamTable(graph, vertices, 2 * vertices, file, 0D);
+            Assert.assertEquals(1L, table.deadEdgesSize());
+            Assert.assertFalse(table.query(0, Directions.OUT, 0).hasNext());
+
+            Assert.assertEquals(1L, table.compact());
+            table.close();
+            Assert.assertFalse(new File(file + ".compacting").exists());
+
+            table = new RamTable(graph, vertices, 2 * vertices, file, 0D);
+            Assert.assertEquals(vertices - 1L, table.edgesSize());
+            Assert.assertEquals(0L, table.deadEdgesSize());
+            Assert.assertFalse(table.query(0, Directions.OUT, 0).hasNext());
+            Assert.assertTrue(table.query(1, Directions.OUT, 0).hasNext());
+            table.close();
+        } finally {
+            FileUtils.deleteDirectory(dir);
+        }
+    }
+
     @Test
     public void testAddInvalidVertexOrEdge() {
         HugeGraph graph = this.graph();
@@ -0,0 +1,189 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.hugegraph.unit.core;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import org.apache.hugegraph.backend.BackendException;
+import org.apache.hugegraph.backend.id.IdGenerator;
+import org.apache.hugegraph.backend.serializer.TextBackendEntry;
+import org.apache.hugegraph.backend.store.BackendMutation;
+import org.apache.hugegraph.backend.store.BackendStore;
+import org.apache.hugegraph.backend.tx.GroupCommitter;
+import org.apache.hugegraph.testutil.Assert;
+import org.apache.hugegraph.type.HugeType;
+import org.apache.hugegraph.type.define.Action;
+import org.apache.hugegraph.unit.BaseUnitTest;
+
+public class GroupCommitterTest extends BaseUnitTest {
+
+    private static final int THREADS_NUM = 8;
+    private static final int COMMITS_PER_THREAD = 100;
+
+    private BackendStore store;
+    private Set<BackendMutation> mutated;
+    private AtomicInteger commits;
+
+    @Before
+    public void setup() {
+        this.store = Mockito.mock(BackendStore.class);
+        this.mutated = ConcurrentHashMap.newKeySet();
+        this.commits = new AtomicInteger();
+
+        Mockito.doAnswer(invocation -> {
+            BackendMutation mutation = (BackendMutation)
+                                       invocation.getArguments()[0];
+            if (mutation.size() == 0) {
+                throw new BackendException("Invalid empty mutation");
+            }
+            this.mutated.add(mutation);
+            return null;
+        }).when(this.store).mutate(Mockito.any());
+        Mockito.doAnswer(invocation -> {
+            this.commits.incrementAndGet();
+            return null;
+        }).when(this.store).commitTx();
+    }
+
+    @After
+    public void teardown() throws Exception {
+        // pass
+    }
+
+    @Test
+    public void testCommitWithMultiThreads() {
+        GroupCommitter committer = new GroupCommitter("test", this.store,
+                                                      1000, 10L);
+        AtomicInteger ids = new AtomicInteger();
+        try {
+            runWithThreads(THREADS_NUM, () -> {
+                for (int i = 0; i < COMMITS_PER_THREAD; i++) {
+                    committer.commit(newMutation(ids.incrementAndGet()));
+                }
+            });
+        } finally {
+            committer.close();
+        }
+
+        int total = THREADS_NUM * COMMITS_PER_THREAD;
+        Assert.assertEquals(total, this.mutated.size());
+        Assert.assertEquals(total, committer.requests());
+        Assert.assertEquals(committer.batches(), this.commits.get());
+        Assert.assertTrue(committer.batches() <= total);
+        Mockito.verify(this.store, Mockito.never()).rollbackTx();
+    }
+
+    @Test
+    public void testCommitWithMaxBatchSize() {
+        GroupCommitter committer = new GroupCommitter("test", this.store,
+                                                      1, 1000L);
+        try {
+            committer.commit(newMutation(1));
+            committer.commit(newMutation(2));
+        } finally {
+            committer.close();
+        }
+
+        // Each batch is committed once it is full, without any linger
+        Assert.assertEquals(2, this.mutated.size());
+        Assert.assertEquals(2L, committer.batches());
+        Assert.assertEquals(2, this.commits.get());
+    }
+
+    @Test
+    public void testCommitWithFailedMutation() {
+        GroupCommitter committer = new GroupCommitter("test", this.store,
+                                                      1000, 200L);
+        try {
+            BackendMutation good1 = newMutation(1);
+            BackendMutation bad = new BackendMutation();
+            BackendMutation good2 = newMutation(2);
+
+            // Submit in the same batch, the whole batch should fail
+            CompletableFuture<Void> future1 = committer.submit(good1);
+            Assert.assertThrows(BackendException.class, () -> {
+                committer.commit(bad);
+            }, e -> {
+                Assert.assertContains("Invalid empty mutation",
+                                      e.getMessage());
+            });
+            Assert.assertThrows(ExecutionException.class, future1::get, e -> {
+                Assert.assertContains("Invalid empty mutation",
+                                      e.getCause().getMessage());
+            });
+
+            // The batch is not replayed, the later one is not affected
+            committer.commit(good2);
+            Assert.assertTrue(this.mutated.contains(good2));
+            Assert.assertFalse(this.mutated.contains(bad));
+        } finally {
+            committer.close();
+        }
+        Assert.assertEquals(1, this.commits.get());
+        Mockito.verify(this.store, Mockito.times(1)).rollbackTx();
+    }
+
+    @Test
+    public void testCommitAfterClose() {
+        GroupCommitter committer = new GroupCommitter("test", this.store,
+                                                      1000, 2L);
+        committer.commit(newMutation(1));
+        committer.close();
+
+        Assert.assertThrows(BackendException.class, () -> {
+            committer.commit(newMutation(2));
+        }, e -> {
+            Assert.assertContains("has been closed", e.getMessage());
+        });
+        Assert.assertEquals(1, this.mutated.size());
+    }
+
+    @Test
+    public void testCreateWithInvalidArgs() {
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+            new GroupCommitter("test", this.store, 0, 2L);
+        }, e -> {
+            Assert.assertContains("The max batch size must be > 0",
+                                  e.getMessage());
+        });
+
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+            new GroupCommitter("test", this.store, 10, -1L);
+        }, e -> {
+            Assert.assertContains("The max linger must be >= 0",
+                                  e.getMessage());
+        });
+    }
+
+    private static BackendMutation newMutation(int id) {
+        BackendMutation mutation = new BackendMutation();
+        mutation.add(new TextBackendEntry(HugeType.VERTEX,
+                                          IdGenerator.of(id)),
+                     Action.INSERT);
+        return mutation;
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.hugegraph.unit.core;
+
+import java.util.Map;
+
+import org.junit.Test;
+
+import org.apache.hugegraph.backend.id.Id;
+import org.apache.hugegraph.backend.id.IdGenerator;
+import org.apache.hugegraph.backend.query.Condition;
+import org.apache.hugegraph.backend.query.ConditionQuery;
+import org.apache.hugegraph.schema.IndexLabel;
+import org.apache.hugegraph.schema.IndexLabelStats;
+import org.apache.hugegraph.schema.Userdata;
+import org.apache.hugegraph.testutil.Assert;
+import org.apache.hugegraph.type.HugeType;
+import org.apache.hugegraph.type.define.IndexType;
+import org.apache.hugegraph.util.JsonUtil;
+import com.google.common.collect.ImmutableList;
+
+public class IndexLabelStatsTest {
+
+    private static final Id CITY = IdGenerator.of(1);
+    private static final Id AGE = IdGenerator.of(2);
+
+    @Test
+    public void testCollectDistinctAndHeavyHitters() {
+        IndexLabel indexLabel = indexLabel(1, IndexType.SECONDARY, CITY);
+        IndexLabelStats.Collector collector =
+                                  new IndexLabelStats.Collector(indexLabel);
+        // One heavy hitter and 1000 unique values
+        for (int i = 0; i < 5000; i++) {
+            collector.collect(ImmutableList.of("Beijing"));
+        }
+        for (int i = 0; i < 1000; i++) {
+            collector.collect(ImmutableList.of("city-" + i));
+        }
+        IndexLabelStats stats = collector.build();
+
+        Assert.assertEquals(6000L, stats.count());
+        // The error of HyperLogLog with 4096 registers is about 1.6%
+        Assert.assertTrue(stats.distinct() > 950L);
+        Assert.assertTrue(stats.distinct() < 1050L);
+        Assert.assertEquals(1, stats.heavyHitters().size());
+        Assert.assertEquals(5000L, (long) stats.heavyHitters().get("Beijing"));
+        Assert.assertEquals(0, stats.histogram().length);
+
+        ConditionQuery query = new ConditionQuery(HugeType.VERTEX);
+        query.query(Condition.eq(CITY, "Beijing"));
+        Assert.assertEquals(5000L, stats.estimate(indexLabel, query));
+
+        query = new ConditionQuery(HugeType.VERTEX);
+        query.query(Condition.eq(CITY, "city-1"));
+        Assert.assertEquals(1L, stats.estimate(indexLabel, query));
+
+        query = new ConditionQuery(HugeType.VERTEX);
+        query.query(Condition.in(CITY, ImmutableList.of("Beijing",
+                                                        "city-1")));
+        Assert.assertEquals(5001L, stats.estimate(indexLabel, query));
+    }
+
+    @Test
+    public void testCollectHistogram() {
+        IndexLabel indexLabel = indexLabel(2, IndexType.RANGE_INT, AGE);
+        IndexLabelStats.Collector collector =
+                                  new IndexLabelStats.Collector(indexLabel);
+        for (int i = 0; i < 10000; i++) {
+            collector.collect(ImmutableList.of(i % 100));
+        }
+        IndexLabelStats stats = collector.build();
+
+        Assert.assertEquals(10000L, stats.count());
+        Assert.assertEquals(IndexLabelStats.Collector.HISTOGRAM_BUCKETS + 1,
+                            stats.histogram().length);
+        Assert.assertEquals(0.0, stats.histogram()[0], 0.0);
+        Assert.assertEquals(99.0,
+                            stats.histogram()[stats.histogram().length - 1],
+                            0.0);
+
+        ConditionQuery query = new ConditionQuery(HugeType.VERTEX);
+        query.query(Condition.lt(AGE, 10));
+        long estimated = stats.estimate(indexLabel, query);
+        Assert.assertTrue(estimated > 500L && estimated < 1500L);
+
+        query = new ConditionQuery(HugeType.VERTEX);
+        query.query(Condition.gte(AGE, 50));
+        query.query(Condition.lt(AGE, 100));
+        estimated = stats.estimate(indexLabel, query);
+        Assert.assertTrue(estimated > 4000L && estimated < 6000L);
+
+        query = new ConditionQuery(HugeType.VERTEX);
+        query.query(Condition.gt(AGE, 200));
+        Assert.assertEquals(0L, stats.estimate(indexLabel, query));
+
+        query = new ConditionQuery(HugeType.VERTEX);
+        query.query(Condition.eq(AGE, 20L));
+        estimated = stats.estimate(indexLabel, query);
+        Assert.assertTrue(estimated >= 90L && estimated <= 110L);
+    }
+
+    @Test
+    public void testEstimateCompositeIndexPrefix() {
+        IndexLabel indexLabel = indexLabel(3, IndexType.SECONDARY,
+                                           CITY, AGE);
+        IndexLabelStats stats = new IndexLabelStats(10000L, 100L, null,
+                                                    null, 0L);
+
+        ConditionQuery query = new ConditionQuery(HugeType.VERTEX);
+        query.query(Condition.eq(CITY, "Beijing"));
+        query.query(Condition.eq(AGE, 20));
+        Assert.assertEquals(100L, stats.estimate(indexLabel, query));
+
+        // Only match the prefix field
+        query = new ConditionQuery(HugeType.VERTEX);
+        query.query(Condition.eq(CITY, "Beijing"));
+        Assert.assertEquals(1000L, stats.estimate(indexLabel, query));
+
+        IndexLabel searchIndex = indexLabel(4, IndexType.SEARCH, CITY);
+        Assert.assertEquals(IndexLabelStats.UNKNOWN,
+                            stats.estimate(searchIndex, query));
+    }
+
+    @Test
+    public void testStatsFromUserdata() {
+        IndexLabel indexLabel = indexLabel(5, IndexType.RANGE_INT, AGE);
+        Assert.assertNull(indexLabel.stats());
+
+        IndexLabelStats.Collector collector =
+                                  new IndexLabelStats.Collector(indexLabel);
+        for (int i = 0; i < 100; i++) {
+            collector.collect(ImmutableList.of(i));
+        }
+        IndexLabelStats stats = collector.build();
+
+        // Userdata is serialized as json when saved into backend
+        @SuppressWarnings("unchecked")
+        Map<String, Object> userdata = JsonUtil.fromJson(
+                                       JsonUtil.toJson(stats.asMap()),
+                                       Map.class);
+        indexLabel.userdata(Userdata.STATISTICS, userdata);
+
+        IndexLabelStats parsed = indexLabel.stats();
+        Assert.assertNotNull(parsed);
+        Assert.assertSame(parsed, indexLabel.stats());
+        Assert.assertEquals(stats.count(), parsed.count());
+        Assert.assertEquals(stats.distinct(), parsed.distinct());
+        Assert.assertArrayEquals(stats.histogram(), parsed.histogram(), 0.0);
+
+        // Invalid stats are ignored
+        indexLabel.userdata(Userdata.STATISTICS,
+                            ImmutableList.of("invalid"));
+        Assert.assertNull(indexLabel.stats());
+    }
+
+    private static IndexLabel indexLabel(long id, IndexType type,
+                                         Id... fields) {
+        IndexLabel indexLabel = new IndexLabel(null, IdGenerator.of(id),
+                                               "index-" + id);
+        indexLabel.baseType(HugeType.VERTEX_LABEL);
+        indexLabel.indexType(type);
+        indexLabel.indexFields(fields);
+        return indexLabel;
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.hugegraph.unit.core;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import org.apache.hugegraph.backend.query.ParallelScanner;
+import org.apache.hugegraph.backend.store.Shard;
+import org.apache.hugegraph.testutil.Assert;
+import com.google.common.collect.ImmutableList;
+
+public class ParallelScannerTest {
+
+    @Test
+    public void testGroupShards() {
+        List<Shard> shards = shards(10);
+        List<List<Shard>> groups = ParallelScanner.groupShards(shards, 4);
+
+        Assert.assertEquals(4, groups.size());
+        Assert.assertEquals(2, groups.get(0).size());
+        Assert.assertEquals(3, groups.get(1).size());
+        Assert.assertEquals(2, groups.get(2).size());
+        Assert.assertEquals(3, groups.get(3).size());
+
+        // The adjacent shards are in the same group and keep the order
+        List<Shard> flatten = new ArrayList<>();
+        for (List<Shard> group : groups) {
+            flatten.addAll(group);
+        }
+        Assert.assertEquals(shards, flatten);
+    }
+
+    @Test
+    public void testGroupShardsLessThanGroups() {
+        List<Shard> shards = shards(3);
+        List<List<Shard>> groups = ParallelScanner.groupShards(shards, 8);
+
+        Assert.assertEquals(3, groups.size());
+        for (int i = 0; i < 3; i++) {
+            Assert.assertEquals(ImmutableList.of(shards.get(i)), groups.get(i));
+        }
+
+        groups = ParallelScanner.groupShards(ImmutableList.of(), 8);
+        Assert.assertEquals(0, groups.size());
+    }
+
+    @Test
+    public void testGroupShardsWithInvalidGroups() {
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+            ParallelScanner.groupShards(shards(3), 0);
+        }, e -> {
+            Assert.assertContains("The groups must be > 0", e.getMessage());
+        });
+    }
+
+    private static List<Shard> shards(int count) {
+        List<Shard> shards = new ArrayList<>(count);
+        String last = "";
+        for (int i = 1; i <= count; i++) {
+            String current = i == count ? "" : String.valueOf(i * 100);
+            shards.add(new Shard(last, current, 0L));
+            last = current;
+        }
+        return shards;
+    }
+}
@@ -0,0 +1,253 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.hugegraph.unit.core;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.commons.configuration2.Configuration;
+import org.apache.commons.configuration2.PropertiesConfiguration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.objenesis.ObjenesisStd;
+
+import com.alipay.sofa.jraft.Node;
+import com.alipay.sofa.jraft.Status;
+import com.alipay.sofa.jraft.closure.ReadIndexClosure;
+import com.alipay.sofa.jraft.entity.PeerId;
+import com.alipay.sofa.jraft.error.RaftError;
+import org.apache.hugegraph.HugeGraphParams;
+import org.apache.hugegraph.backend.BackendException;
+import org.apache.hugegraph.backend.query.Query;
+import org.apache.hugegraph.backend.store.BackendStore;
+import org.apache.hugegraph.backend.store.ReadConsistency;
+import org.apache.hugegraph.backend.store.raft.RaftBackendStore;
+import org.apache.hugegraph.backend.store.raft.RaftContext;
+import org.apache.hugegraph.backend.store.raft.RaftNode;
+import org.apache.hugegraph.backend.store.raft.StoreStateMachine;
+import org.apache.hugegraph.backend.store.raft.rpc.RaftRequests.StoreType;
+import org.apache.hugegraph.config.CoreOptions;
+import org.apache.hugegraph.config.HugeConfig;
+import org.apache.hugegraph.config.OptionSpace;
+import org.apache.hugegraph.testutil.Assert;
+import org.apache.hugegraph.testutil.Whitebox;
+import org.apache.hugegraph.type.HugeType;
+import org.apache.hugegraph.unit.BaseUnitTest;
+
+public class RaftBackendStoreTest extends BaseUnitTest {
+
+    private static final int READ_LEASE = 100;
+    private static final int MAX_READ_LAG = 10;
+
+    private BackendStore store;
+    private Node node;
+    private long leaderCommittedIndex;
+    private Status readIndexStatus;
+    private RaftContext context;
+    private RaftNode raftNode;
+    private StoreStateMachine stateMachine;
+
+    @Before
+    public void setup() {
+        OptionSpace.register("core", CoreOptions.class.getName());
+
+        this.store = Mockito.mock(FakeStore.class);
+        Mockito.doReturn(Collections.emptyIterator())
+               .when(this.store).query(Mockito.any());
+
+        // The read index of leader is the committed index
+        this.node = Mockito.mock(Node.class);
+        this.leaderCommittedIndex = 0L;
+        this.readIndexStatus = Status.OK();
+        Mockito.doAnswer(invocation -> {
+            ReadIndexClosure closure = (ReadIndexClosure)
+                                       invocation.getArguments()[1];
+            long index = this.leaderCommittedIndex;
+            closure.setResult(index, (byte[]) invocation.getArguments()[0]);
+            closure.run(this.readIndexStatus);
+            return null;
+        }).when(this.node).readIndex(Mockito.any(), Mockito.any());
+    }
+
+    @After
+    public void teardown() {
+        ReadConsistency.reset();
+        if (this.context != null) {
+            this.context.backendExecutor().shutdown();
+            this.context.snapshotExecutor().shutdown();
+            this.context.readIndexExecutor().shutdown();
+        }
+    }
+
+    @Test
+    public void testQueryWithDefaultConsistency() {
+        RaftBackendStore raftStore = this.newRaftStore(READ_LEASE);
+        Query query = new Query(HugeType.VERTEX);
+
+        // The safe reads always request the read index even in the lease
+        raftStore.query(query);
+        raftStore.query(query);
+        Mockito.verify(this.node, Mockito.times(2))
+               .readIndex(Mockito.any(), Mockito.any());
+
+        Mockito.verify(this.store, Mockito.times(2)).query(query);
+        Map<String, Object> metrics = this.raftNode.readMetrics();
+        Assert.assertEquals(2L, metrics.get("read_index_reads"));
+        Assert.assertEquals(0L, metrics.get("lease_reads"));
+    }
+
+    @Test
+    public void testQueryWithReadLease() throws InterruptedException {
+        RaftBackendStore raftStore = this.newRaftStore(READ_LEASE);
+        Query query = new Query(HugeType.VERTEX);
+        ReadConsistency.current(ReadConsistency.BOUNDED_STALENESS);
+        // The local replica is too far behind to read by the applied lag
+        this.leaderCommittedIndex = 20L + MAX_READ_LAG;
+        Whitebox.setInternalState(this.stateMachine, "lastCommittedIndex",
+                                  this.leaderCommittedIndex);
+
+        // Request the read index since there is no lease
+        raftStore.query(query);
+        Mockito.verify(this.node, Mockito.times(1))
+               .readIndex(Mockito.any(), Mockito.any());
+
+        // Read locally in the lease of read index
+        raftStore.query(query);
+        Mockito.verify(this.node, Mockito.times(1))
+               .readIndex(Mockito.any(), Mockito.any());
+
+        // Fall back to the read index after the lease expired
+        Thread.sleep(READ_LEASE + 50L);
+        raftStore.query(query);
+        Mockito.verify(this.node, Mockito.times(2))
+               .readIndex(Mockito.any(), Mockito.any());
+
+        Mockito.verify(this.store, Mockito.times(3)).query(query);
+        Map<String, Object> metrics = this.raftNode.readMetrics();
+        Assert.assertEquals(2L, metrics.get("read_index_reads"));
+        Assert.assertEquals(1L, metrics.get("lease_reads"));
+
+        // The lease of the previous leader is not used any more
+        raftStore.query(query);
+        this.raftNode.onLeaderInfoChange(new PeerId("127.0.0.1", 8283),
+                                         false);
+        raftStore.query(query);
+        Mockito.verify(this.node, Mockito.times(3))
+               .readIndex(Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    public void testQueryWithMaxReadLag() {
+        // Disable the read lease to request read index every time
+        RaftBackendStore raftStore = this.newRaftStore(0);
+        Query query = new Query(HugeType.VERTEX);
+        ReadConsistency.current(ReadConsistency.BOUNDED_STALENESS);
+        Whitebox.setInternalState(this.stateMachine, "lastAppliedIndex", 20L);
+        this.leaderCommittedIndex = 40L;
+
+        // Read locally if the applied lag doesn't exceed max_read_lag
+        Whitebox.setInternalState(this.stateMachine, "lastCommittedIndex",
+                                  20L + MAX_READ_LAG);
+        Assert.assertEquals(10L, this.raftNode.appliedLag());
+        raftStore.query(query);
+        Mockito.verify(this.node, Mockito.never())
+               .readIndex(Mockito.any(), Mockito.any());
+
+        // Fall back to the read index if the applied lag exceeds it
+        Whitebox.setInternalState(this.stateMachine, "lastCommittedIndex",
+                                  21L + MAX_READ_LAG);
+        Assert.assertEquals(11L, this.raftNode.appliedLag());
+        raftStore.query(query);
+        Mockito.verify(this.node, Mockito.times(1))
+               .readIndex(Mockito.any(), Mockito.any());
+
+        // The committed index is raised by the read index of the leader
+        Assert.assertEquals(40L, this.raftNode.committedIndex());
+        Assert.assertEquals(20L, this.raftNode.appliedLag());
+
+        // The error of the read index is thrown
+        this.readIndexStatus = new Status(RaftError.ETIMEDOUT,
+                                          "Read index timeout");
+        Assert.assertThrows(BackendException.class, () -> {
+            raftStore.query(query);
+        }, e -> {
+            Assert.assertContains("Failed to execute query", e.getMessage());
+            Assert.assertContains("Read index timeout",
+                                  e.getCause().getMessage());
+        });
+
+        Mockito.verify(this.store, Mockito.times(2)).query(query);
+        Map<String, Object> metrics = this.raftNode.readMetrics();
+        Assert.assertEquals(40L, metrics.get("committed_index"));
+        Assert.assertEquals(20L, metrics.get("applied_index"));
+        Assert.assertEquals(2L, metrics.get("read_index_reads"));
+        Assert.assertEquals(1L, metrics.get("local_reads"));
+    }
+
+    private RaftBackendStore newRaftStore(int readLease) {
+        Configuration conf = new PropertiesConfiguration();
+        conf.setProperty("raft.group_peers", "127.0.0.1:8281");
+        conf.setProperty(CoreOptions.RAFT_SAFE_READ.name(), "true");
+        conf.setProperty(CoreOptions.RAFT_READ_LEASE.name(),
+                         String.valueOf(readLease));
+        conf.setProperty(CoreOptions.RAFT_MAX_READ_LAG.name(),
+                         String.valueOf(MAX_READ_LAG));
+        HugeConfig config = new HugeConfig(conf);
+
+        HugeGraphParams params = Mockito.mock(HugeGraphParams.class);
+        Mockito.doReturn(config).when(params).configuration();
+
+        this.context = new RaftContext(params);
+        RaftBackendStore raftStore = new RaftBackendStore(this.store,
+                                                          this.context);
+        this.context.addStore(StoreType.SCHEMA, raftStore);
+        this.context.addStore(StoreType.GRAPH, raftStore);
+        this.context.addStore(StoreType.SYSTEM, raftStore);
+        this.stateMachine = new StoreStateMachine(this.context);
+
+        // The raft node of a follower without starting jraft
+        this.raftNode = new ObjenesisStd().newInstance(RaftNode.class);
+        Whitebox.setInternalState(this.raftNode, "context", this.context);
+        Whitebox.setInternalState(this.raftNode, "node", this.node);
+        Whitebox.setInternalState(this.raftNode, "stateMachine",
+                                  this.stateMachine);
+        Whitebox.setInternalState(this.raftNode, "leaderInfo",
+                                  new AtomicReference<>());
+        Whitebox.setInternalState(this.raftNode, "readIndexReads",
+                                  new LongAdder());
+        Whitebox.setInternalState(this.raftNode, "leaseReads",
+                                  new LongAdder());
+        Whitebox.setInternalState(this.raftNode, "localReads",
+                                  new LongAdder());
+        this.raftNode.onLeaderInfoChange(new PeerId("127.0.0.1", 8282), false);
+        Whitebox.setInternalState(this.context, "raftNode", this.raftNode);
+        return raftStore;
+    }
+
+    /**
+     * The store with the method called by the snapshot of state machine
+     */
+    public abstract static class FakeStore implements BackendStore {
+
+        public abstract Map<String, String> reportDiskMapping();
+    }
+}
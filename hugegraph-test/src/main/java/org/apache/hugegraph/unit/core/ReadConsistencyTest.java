@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.hugegraph.unit.core;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.After;
+import org.junit.Test;
+
+import org.apache.hugegraph.backend.store.ReadConsistency;
+import org.apache.hugegraph.task.TaskManager.ContextCallable;
+import org.apache.hugegraph.testutil.Assert;
+
+public class ReadConsistencyTest {
+
+    @After
+    public void teardown() {
+        ReadConsistency.reset();
+    }
+
+    @Test
+    public void testParse() {
+        Assert.assertEquals(ReadConsistency.DEFAULT,
+                            ReadConsistency.parse(null));
+        Assert.assertEquals(ReadConsistency.DEFAULT,
+                            ReadConsistency.parse(""));
+        Assert.assertEquals(ReadConsistency.LINEARIZABLE,
+                            ReadConsistency.parse("linearizable"));
+        Assert.assertEquals(ReadConsistency.BOUNDED_STALENESS,
+                            ReadConsistency.parse("BOUNDED_STALENESS"));
+
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+            ReadConsistency.parse("eventual");
+        }, e -> {
+            Assert.assertContains("Invalid read consistency 'eventual'",
+                                  e.getMessage());
+        });
+    }
+
+    @Test
+    public void testCurrentAndReset() {
+        Assert.assertEquals(ReadConsistency.DEFAULT,
+                            ReadConsistency.current());
+
+        ReadConsistency.current(ReadConsistency.BOUNDED_STALENESS);
+        Assert.assertEquals(ReadConsistency.BOUNDED_STALENESS,
+                            ReadConsistency.current());
+
+        ReadConsistency.current(null);
+        Assert.assertEquals(ReadConsistency.DEFAULT,
+                            ReadConsistency.current());
+
+        ReadConsistency.current(ReadConsistency.LINEARIZABLE);
+        ReadConsistency.reset();
+        Assert.assertEquals(ReadConsistency.DEFAULT,
+                            ReadConsistency.current());
+    }
+
+    @Test
+    public void testPassToWorkerThread() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            ReadConsistency.current(ReadConsistency.BOUNDED_STALENESS);
+            ReadConsistency consistency = executor.submit(
+                            new ContextCallable<>(ReadConsistency::current))
+                            .get();
+            Assert.assertEquals(ReadConsistency.BOUNDED_STALENESS,
+                                consistency);
+
+            // The worker thread is reset after the task finished
+            Callable<ReadConsistency> current = () -> ReadConsistency.current();
+            consistency = executor.submit(current).get();
+            Assert.assertEquals(ReadConsistency.DEFAULT, consistency);
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
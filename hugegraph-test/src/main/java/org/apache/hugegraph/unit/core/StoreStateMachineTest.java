@@ -0,0 +1,325 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.hugegraph.unit.core;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.commons.configuration2.Configuration;
+import org.apache.commons.configuration2.PropertiesConfiguration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.alipay.sofa.jraft.Closure;
+import com.alipay.sofa.jraft.Iterator;
+import com.alipay.sofa.jraft.Status;
+import org.apache.hugegraph.HugeGraphParams;
+import org.apache.hugegraph.backend.BackendException;
+import org.apache.hugegraph.backend.id.IdGenerator;
+import org.apache.hugegraph.backend.serializer.BinaryBackendEntry;
+import org.apache.hugegraph.backend.serializer.BytesBuffer;
+import org.apache.hugegraph.backend.store.BackendEntry;
+import org.apache.hugegraph.backend.store.BackendEntry.BackendColumn;
+import org.apache.hugegraph.backend.store.BackendMutation;
+import org.apache.hugegraph.backend.store.BackendStore;
+import org.apache.hugegraph.backend.store.raft.RaftBackendStore;
+import org.apache.hugegraph.backend.store.raft.RaftContext;
+import org.apache.hugegraph.backend.store.raft.RaftStoreClosure;
+import org.apache.hugegraph.backend.store.raft.StoreCommand;
+import org.apache.hugegraph.backend.store.raft.StoreSerializer;
+import org.apache.hugegraph.backend.store.raft.StoreStateMachine;
+import org.apache.hugegraph.backend.store.raft.rpc.RaftRequests.StoreAction;
+import org.apache.hugegraph.backend.store.raft.rpc.RaftRequests.StoreType;
+import org.apache.hugegraph.config.CoreOptions;
+import org.apache.hugegraph.config.HugeConfig;
+import org.apache.hugegraph.config.OptionSpace;
+import org.apache.hugegraph.testutil.Assert;
+import org.apache.hugegraph.testutil.Whitebox;
+import org.apache.hugegraph.type.HugeType;
+import org.apache.hugegraph.type.define.Action;
+import org.apache.hugegraph.type.define.GraphMode;
+import org.apache.hugegraph.unit.BaseUnitTest;
+import org.apache.hugegraph.util.LZ4Util;
+
+public class StoreStateMachineTest extends BaseUnitTest {
+
+    private static final String BAD_LOG = "bad";
+
+    private BackendStore store;
+    private List<String> events;
+    private RaftContext context;
+
+    @Before
+    public void setup() {
+        OptionSpace.register("core", CoreOptions.class.getName());
+
+        this.store = Mockito.mock(RaftBackendStoreTest.FakeStore.class);
+        this.events = Collections.synchronizedList(new ArrayList<>());
+
+        Mockito.doAnswer(invocation -> {
+            BackendMutation mutation = (BackendMutation)
+                                       invocation.getArguments()[0];
+            BackendEntry entry = mutation.mutation().next().entry();
+            String log = new String(entry.columns().iterator().next().name);
+            if (log.equals(BAD_LOG)) {
+                throw new BackendException("Invalid mutation");
+            }
+            this.events.add(log);
+            return null;
+        }).when(this.store).mutate(Mockito.any());
+        Mockito.doAnswer(invocation -> {
+            this.events.add("commit");
+            return null;
+        }).when(this.store).commitTx();
+        Mockito.doAnswer(invocation -> {
+            this.events.add("rollback");
+            return null;
+        }).when(this.store).rollbackTx();
+    }
+
+    @After
+    public void teardown() {
+        if (this.context != null) {
+            this.context.backendExecutor().shutdown();
+            this.context.snapshotExecutor().shutdown();
+        }
+    }
+
+    @Test
+    public void testApplyMergedFollowerLogs() {
+        StoreStateMachine stateMachine = this.newStateMachine(3);
+        FakeIterator iter = new FakeIterator();
+        for (int i = 1; i <= 4; i++) {
+            iter.addFollowerLog(commitCommand("log" + i));
+        }
+        applyMerged(stateMachine, iter);
+
+        Assert.assertEquals(-1L, iter.rollbackIndex);
+        // Merge 3 logs into one commit by apply_merge_size, then the rest
+        Assert.assertEquals(list("log1", "log2", "log3", "commit",
+                                 "log4", "commit"), this.events);
+        Map<String, Object> metrics = stateMachine.metrics();
+        Assert.assertEquals(4L, metrics.get("applied_logs"));
+        Assert.assertEquals(2L, metrics.get("backend_commits"));
+    }
+
+    @Test
+    public void testApplyMergedWithLeaderLog() throws Exception {
+        StoreStateMachine stateMachine = this.newStateMachine(10);
+        FakeIterator iter = new FakeIterator();
+        iter.addFollowerLog(commitCommand("log1"));
+        iter.addFollowerLog(commitCommand("log2"));
+        RaftStoreClosure closure = iter.addLeaderLog(commitCommand("log3"));
+        iter.addFollowerLog(commitCommand("log4"));
+
+        // The leader log is applied by the producer thread
+        CompletableFuture<Object> producer = CompletableFuture.supplyAsync(
+                                             () -> {
+            try {
+                return closure.waitFinished();
+            } catch (Throwable e) {
+                throw new RuntimeException(e);
+            }
+        });
+        applyMerged(stateMachine, iter);
+        producer.get();
+
+        Assert.assertEquals(-1L, iter.rollbackIndex);
+        // The follower logs before the leader log are applied before it
+        Assert.assertEquals(list("log1", "log2", "commit",
+                                 "log3", "commit",
+                                 "log4", "commit"), this.events);
+        Map<String, Object> metrics = stateMachine.metrics();
+        Assert.assertEquals(4L, metrics.get("applied_logs"));
+        Assert.assertEquals(3L, metrics.get("backend_commits"));
+    }
+
+    @Test
+    public void testApplyMergedWithFailure() {
+        // Fail when flushing after the current log is added
+        StoreStateMachine stateMachine = this.newStateMachine(2);
+        FakeIterator iter = new FakeIterator();
+        iter.addFollowerLog(commitCommand("log1"));
+        iter.addFollowerLog(commitCommand("log2"));
+        iter.addFollowerLog(commitCommand(BAD_LOG));
+        iter.addFollowerLog(commitCommand("log4"));
+        iter.addFollowerLog(commitCommand("log5"));
+        applyMerged(stateMachine, iter);
+
+        // Roll back to the first log not applied
+        Assert.assertEquals(3L, iter.rollbackIndex);
+        Assert.assertEquals(list("log1", "log2", "commit", "rollback"),
+                            this.events);
+        Assert.assertEquals(2L, stateMachine.metrics().get("applied_logs"));
+
+        // Fail when flushing before the current leader log is added
+        this.events.clear();
+        stateMachine = this.newStateMachine(10);
+        iter = new FakeIterator();
+        iter.addFollowerLog(commitCommand("log1"));
+        iter.addFollowerLog(commitCommand(BAD_LOG));
+        iter.addLeaderLog(commitCommand("log3"));
+        iter.addFollowerLog(commitCommand("log4"));
+        applyMerged(stateMachine, iter);
+
+        // The current leader log is also rolled back
+        Assert.assertEquals(1L, iter.rollbackIndex);
+        Assert.assertEquals(list("log1", "rollback"), this.events);
+        Assert.assertEquals(0L, stateMachine.metrics().get("applied_logs"));
+    }
+
+    private StoreStateMachine newStateMachine(int applyMergeSize) {
+        if (this.context != null) {
+            this.teardown();
+        }
+        Configuration conf = new PropertiesConfiguration();
+        conf.setProperty("raft.group_peers", "127.0.0.1:8281");
+        conf.setProperty(CoreOptions.RAFT_APPLY_MERGE_SIZE.name(),
+                         String.valueOf(applyMergeSize));
+        conf.setProperty(CoreOptions.RAFT_BACKEND_THREADS.name(), "2");
+        HugeConfig config = new HugeConfig(conf);
+
+        HugeGraphParams params = Mockito.mock(HugeGraphParams.class);
+        Mockito.doReturn(config).when(params).configuration();
+        // Don't update the cache which depends on the raft node
+        Mockito.doReturn(GraphMode.RESTORING).when(params).mode();
+
+        this.context = new RaftContext(params);
+        RaftBackendStore raftStore = new RaftBackendStore(this.store,
+                                                          this.context);
+        this.context.addStore(StoreType.SCHEMA, raftStore);
+        this.context.addStore(StoreType.GRAPH, raftStore);
+        this.context.addStore(StoreType.SYSTEM, raftStore);
+        return new StoreStateMachine(this.context);
+    }
+
+    private static void applyMerged(StoreStateMachine stateMachine,
+                                    Iterator iter) {
+        Whitebox.invoke(StoreStateMachine.class,
+                        new Class<?>[]{Iterator.class}, "onApplyMerged",
+                        stateMachine, iter);
+    }
+
+    private static StoreCommand commitCommand(String log) {
+        BytesBuffer id = BytesBuffer.allocate(BytesBuffer.BUF_EDGE_ID);
+        id.writeId(IdGenerator.of(log));
+        BackendEntry entry = new BinaryBackendEntry(HugeType.VERTEX,
+                                                    id.bytes());
+        entry.columns(BackendColumn.of(log.getBytes(), new byte[]{1}));
+        BackendMutation mutation = new BackendMutation();
+        mutation.add(entry, Action.INSERT);
+
+        byte[] data = StoreSerializer.writeMutations(
+                      Collections.singletonList(mutation));
+        return new StoreCommand(StoreType.GRAPH, StoreAction.COMMIT_TX, data);
+    }
+
+    private static List<String> list(String... items) {
+        List<String> list = new ArrayList<>();
+        Collections.addAll(list, items);
+        return list;
+    }
+
+    /**
+     * An iterator of the logs of one apply batch, which rolls back like
+     * the jraft one does
+     */
+    private static class FakeIterator implements Iterator {
+
+        private final List<ByteBuffer> datas = new ArrayList<>();
+        private final List<Closure> closures = new ArrayList<>();
+        private int position = 0;
+        private long rollbackIndex = -1L;
+
+        public void addFollowerLog(StoreCommand command) {
+            BytesBuffer buffer = LZ4Util.compress(command.data(),
+                                                  RaftContext.BLOCK_SIZE);
+            this.datas.add(ByteBuffer.wrap(buffer.bytes()));
+            this.closures.add(null);
+        }
+
+        public RaftStoreClosure addLeaderLog(StoreCommand command) {
+            RaftStoreClosure closure = new RaftStoreClosure(command);
+            this.datas.add(ByteBuffer.wrap(command.data()));
+            this.closures.add(closure);
+            return closure;
+        }
+
+        @Override
+        public ByteBuffer getData() {
+            return this.datas.get(this.position);
+        }
+
+        @Override
+        public long getIndex() {
+            // The log index starts from 1
+            return this.position + 1L;
+        }
+
+        @Override
+        public long getTerm() {
+            return 1L;
+        }
+
+        @Override
+        public Closure done() {
+            return this.closures.get(this.position);
+        }
+
+        @Override
+        public boolean commit() {
+            return false;
+        }
+
+        @Override
+        public void commitAndSnapshotSync(Closure done) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void setErrorAndRollback(long ntail, Status status) {
+            Assert.assertTrue(ntail > 0L);
+            // The current log is counted in ntail if it's still iterating
+            long index = this.getIndex();
+            if (this.hasNext()) {
+                this.rollbackIndex = index - (ntail - 1L);
+            } else {
+                this.rollbackIndex = index - ntail;
+            }
+            this.position = this.datas.size();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.position < this.datas.size();
+        }
+
+        @Override
+        public ByteBuffer next() {
+            ByteBuffer data = this.getData();
+            this.position++;
+            return data;
+        }
+    }
+}
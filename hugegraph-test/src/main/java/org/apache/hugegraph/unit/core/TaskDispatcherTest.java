@@ -0,0 +1,273 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.hugegraph.unit.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+import org.apache.hugegraph.task.TaskDispatcher;
+import org.apache.hugegraph.task.TaskDispatcher.Quota;
+import org.apache.hugegraph.task.TaskPriority;
+import org.apache.hugegraph.testutil.Assert;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+public class TaskDispatcherTest {
+
+    private static final String GRAPH = "hugegraph";
+
+    private ExecutorService executor;
+
+    @After
+    public void teardown() {
+        if (this.executor != null) {
+            this.executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testDispatchByPriority() throws InterruptedException {
+        this.executor = Executors.newFixedThreadPool(1);
+        TaskDispatcher dispatcher = new TaskDispatcher(this.executor, 1, 1);
+
+        List<String> executed = Collections.synchronizedList(
+                                new ArrayList<>());
+        CountDownLatch blocker = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(5);
+
+        dispatcher.submit(task("blocker", executed, blocker, finished),
+                          GRAPH, "gremlin", TaskPriority.NORMAL, null);
+        dispatcher.submit(task("low", executed, null, finished),
+                          GRAPH, "algorithm", TaskPriority.LOW, null);
+        dispatcher.submit(task("normal1", executed, null, finished),
+                          GRAPH, "gremlin", TaskPriority.NORMAL, null);
+        dispatcher.submit(task("high", executed, null, finished),
+                          GRAPH, "ephemeral", TaskPriority.HIGH, null);
+        dispatcher.submit(task("normal2", executed, null, finished),
+                          GRAPH, "gremlin", TaskPriority.NORMAL, null);
+        Assert.assertEquals(4, dispatcher.pending());
+
+        blocker.countDown();
+        Assert.assertTrue(finished.await(10L, TimeUnit.SECONDS));
+        Assert.assertEquals(0, dispatcher.pending());
+        Assert.assertEquals(ImmutableList.of("blocker", "high", "normal1",
+                                             "normal2", "low"), executed);
+    }
+
+    @Test
+    public void testLowPriorityWorkers() throws InterruptedException {
+        this.executor = Executors.newFixedThreadPool(2);
+        TaskDispatcher dispatcher = new TaskDispatcher(this.executor, 2, 1);
+
+        List<String> executed = Collections.synchronizedList(
+                                new ArrayList<>());
+        CountDownLatch blocker = new CountDownLatch(1);
+        CountDownLatch normalFinished = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(2);
+
+        dispatcher.submit(task("low1", executed, blocker, finished),
+                          GRAPH, "algorithm", TaskPriority.LOW, null);
+        dispatcher.submit(task("low2", executed, null, finished),
+                          GRAPH, "algorithm", TaskPriority.LOW, null);
+        // The low2 waits for the low priority worker
+        Assert.assertEquals(1, dispatcher.pending());
+
+        dispatcher.submit(task("normal", executed, null, normalFinished),
+                          GRAPH, "gremlin", TaskPriority.NORMAL, null);
+        // The normal task is not blocked by the long-running task
+        Assert.assertTrue(normalFinished.await(10L, TimeUnit.SECONDS));
+        Assert.assertFalse(executed.contains("low2"));
+
+        blocker.countDown();
+        Assert.assertTrue(finished.await(10L, TimeUnit.SECONDS));
+        Assert.assertTrue(executed.contains("low2"));
+    }
+
+    @Test
+    public void testLowPriorityWorkersOfPool() {
+        this.executor = Executors.newFixedThreadPool(4);
+
+        // Keep a worker for the tasks with high or normal priority
+        TaskDispatcher dispatcher = new TaskDispatcher(this.executor, 4);
+        Map<String, Object> metrics = dispatcher.metrics();
+        Assert.assertEquals(4, metrics.get("workers"));
+        Assert.assertEquals(3, metrics.get("low_priority_workers"));
+
+        dispatcher = new TaskDispatcher(this.executor, 2);
+        metrics = dispatcher.metrics();
+        Assert.assertEquals(2, metrics.get("workers"));
+        Assert.assertEquals(1, metrics.get("low_priority_workers"));
+
+        // The only worker runs the tasks with any priority
+        dispatcher = new TaskDispatcher(this.executor, 1);
+        metrics = dispatcher.metrics();
+        Assert.assertEquals(1, metrics.get("workers"));
+        Assert.assertEquals(1, metrics.get("low_priority_workers"));
+    }
+
+    @Test
+    public void testQuota() throws InterruptedException {
+        this.executor = Executors.newFixedThreadPool(3);
+        TaskDispatcher dispatcher = new TaskDispatcher(this.executor, 3, 3);
+
+        List<String> executed = Collections.synchronizedList(
+                                new ArrayList<>());
+        CountDownLatch blocker = new CountDownLatch(1);
+        CountDownLatch otherFinished = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(3);
+
+        Quota quota = Quota.parse(2, ImmutableMap.of("algorithm", "1"));
+        Assert.assertEquals(2, quota.graphLimit());
+        Assert.assertEquals(1, quota.typeLimit("algorithm"));
+        Assert.assertEquals(0, quota.typeLimit("gremlin"));
+
+        dispatcher.submit(task("algorithm1", executed, blocker, finished),
+                          GRAPH, "algorithm", TaskPriority.NORMAL, quota);
+        // Exceed the quota of the task type
+        dispatcher.submit(task("algorithm2", executed, null, finished),
+                          GRAPH, "algorithm", TaskPriority.NORMAL, quota);
+        dispatcher.submit(task("gremlin1", executed, blocker, finished),
+                          GRAPH, "gremlin", TaskPriority.NORMAL, quota);
+        Assert.assertEquals(1, dispatcher.pending());
+
+        // Exceed the quota of the graph
+        dispatcher.submit(task("gremlin2", executed, null, null),
+                          GRAPH, "gremlin", TaskPriority.NORMAL, quota);
+        Assert.assertEquals(2, dispatcher.pending());
+
+        // The tasks of other graphs are not blocked
+        dispatcher.submit(task("other", executed, null, otherFinished),
+                          "other", "algorithm", TaskPriority.NORMAL, quota);
+        Assert.assertTrue(otherFinished.await(10L, TimeUnit.SECONDS));
+        Assert.assertEquals(2, dispatcher.pending());
+
+        blocker.countDown();
+        Assert.assertTrue(finished.await(10L, TimeUnit.SECONDS));
+        Assert.assertTrue(executed.contains("algorithm2"));
+    }
+
+    @Test
+    public void testQuotaParseInvalid() {
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+            Quota.parse(0, ImmutableMap.of("algorithm", "one"));
+        }, e -> {
+            Assert.assertContains("The quota of task type 'algorithm'",
+                                  e.getMessage());
+        });
+
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+            Quota.parse(-1, ImmutableMap.of());
+        }, e -> {
+            Assert.assertContains("The graph quota must be >= 0",
+                                  e.getMessage());
+        });
+    }
+
+    @Test
+    public void testMetrics() throws InterruptedException {
+        this.executor = Executors.newFixedThreadPool(1);
+        TaskDispatcher dispatcher = new TaskDispatcher(this.executor, 1, 1);
+
+        CountDownLatch finished = new CountDownLatch(1);
+        dispatcher.submit(task("low", new ArrayList<>(), null, finished),
+                          GRAPH, "algorithm", TaskPriority.LOW, null);
+        Assert.assertTrue(finished.await(10L, TimeUnit.SECONDS));
+
+        Map<String, Object> metrics = dispatcher.metrics();
+        Assert.assertEquals(1, metrics.get("workers"));
+        Assert.assertEquals(0, metrics.get("pending"));
+
+        @SuppressWarnings("unchecked")
+        Map<String, Map<String, Object>> waitTimes =
+                (Map<String, Map<String, Object>>)
+                metrics.get("queue_wait_time_ms");
+        Assert.assertEquals(1L, waitTimes.get("low").get("count"));
+        Assert.assertEquals(0L, waitTimes.get("high").get("count"));
+        Assert.assertTrue(metrics.containsKey("run_time_ms"));
+    }
+
+    @Test
+    public void testShutdown() throws InterruptedException {
+        this.executor = Executors.newFixedThreadPool(1);
+        TaskDispatcher dispatcher = new TaskDispatcher(this.executor, 1, 1);
+
+        List<String> executed = Collections.synchronizedList(
+                                new ArrayList<>());
+        CountDownLatch blocker = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(1);
+        dispatcher.submit(task("blocker", executed, blocker, finished),
+                          GRAPH, "gremlin", TaskPriority.NORMAL, null);
+
+        FutureTask<Void> low = new FutureTask<>(
+                               task("low", executed, null, null), null);
+        FutureTask<Void> high = new FutureTask<>(
+                                task("high", executed, null, null), null);
+        dispatcher.submit(low, GRAPH, "algorithm", TaskPriority.LOW, null);
+        dispatcher.submit(high, GRAPH, "gremlin", TaskPriority.HIGH, null);
+        Assert.assertEquals(2, dispatcher.pending());
+
+        // The queued tasks are cancelled, the running one is not affected
+        List<Runnable> cancelled = dispatcher.shutdown();
+        Assert.assertEquals(ImmutableList.of(high, low), cancelled);
+        Assert.assertTrue(high.isCancelled());
+        Assert.assertTrue(low.isCancelled());
+        Assert.assertEquals(0, dispatcher.pending());
+
+        Assert.assertThrows(RejectedExecutionException.class, () -> {
+            dispatcher.submit(task("rejected", executed, null, null),
+                              GRAPH, "gremlin", TaskPriority.HIGH, null);
+        });
+
+        blocker.countDown();
+        Assert.assertTrue(finished.await(10L, TimeUnit.SECONDS));
+        this.executor.shutdown();
+        Assert.assertTrue(this.executor.awaitTermination(10L,
+                                                         TimeUnit.SECONDS));
+        Assert.assertEquals(ImmutableList.of("blocker"), executed);
+    }
+
+    private static Runnable task(String name, List<String> executed,
+                                 CountDownLatch blocker,
+                                 CountDownLatch finished) {
+        return () -> {
+            executed.add(name);
+            try {
+                if (blocker != null) {
+                    blocker.await();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                if (finished != null) {
+                    finished.countDown();
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.hugegraph.unit.core;
+
+import java.util.Iterator;
+
+import org.apache.tinkerpop.gremlin.structure.util.CloseableIterator;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import org.apache.hugegraph.HugeGraphParams;
+import org.apache.hugegraph.backend.BackendException;
+import org.apache.hugegraph.backend.id.IdGenerator;
+import org.apache.hugegraph.backend.query.Query;
+import org.apache.hugegraph.backend.serializer.AbstractSerializer;
+import org.apache.hugegraph.backend.serializer.TextBackendEntry;
+import org.apache.hugegraph.backend.store.BackendEntry;
+import org.apache.hugegraph.backend.store.BackendMutation;
+import org.apache.hugegraph.backend.store.BackendStore;
+import org.apache.hugegraph.backend.tx.AbstractTransaction;
+import org.apache.hugegraph.testutil.Assert;
+import org.apache.hugegraph.testutil.Whitebox;
+import org.apache.hugegraph.type.HugeType;
+import org.apache.hugegraph.type.define.Action;
+import org.apache.hugegraph.unit.BaseUnitTest;
+import org.apache.hugegraph.util.LatencyHistogram;
+import org.apache.hugegraph.util.LatencyMetrics;
+import com.google.common.collect.ImmutableList;
+
+public class TransactionLatencyTest extends BaseUnitTest {
+
+    private static final String GRAPH = "latency_graph";
+    private static final String STORE = "latency_store";
+
+    private BackendStore store;
+    private AbstractTransaction tx;
+
+    @Before
+    public void setup() {
+        AbstractSerializer serializer = Mockito.mock(AbstractSerializer.class);
+        Mockito.doAnswer(invocation -> invocation.getArguments()[0])
+               .when(serializer).writeQuery(Mockito.any());
+
+        HugeGraphParams params = Mockito.mock(HugeGraphParams.class);
+        Mockito.doReturn(GRAPH).when(params).name();
+        Mockito.doReturn(serializer).when(params).serializer();
+
+        this.store = Mockito.mock(BackendStore.class);
+        Mockito.doReturn(STORE).when(this.store).store();
+
+        this.tx = new AbstractTransaction(params, this.store) {};
+    }
+
+    @Test
+    public void testQueryLatencyUntilExhausted() {
+        LatencyHistogram latency = queryLatency(HugeType.EDGE);
+        long count = latency.count();
+        Query query = new Query(HugeType.EDGE);
+
+        Mockito.doReturn(entries(2)).when(this.store).query(Mockito.any());
+        Iterator<BackendEntry> results = this.tx.query(query).iterator();
+        // Not recorded until the results are exhausted
+        Assert.assertEquals(count, latency.count());
+        results.next();
+        Assert.assertTrue(results.hasNext());
+        Assert.assertEquals(count, latency.count());
+        results.next();
+        Assert.assertFalse(results.hasNext());
+        Assert.assertEquals(count + 1L, latency.count());
+
+        // Recorded only once
+        Assert.assertFalse(results.hasNext());
+        CloseableIterator.closeIterator(results);
+        Assert.assertEquals(count + 1L, latency.count());
+    }
+
+    @Test
+    public void testQueryLatencyWithClose() {
+        LatencyHistogram latency = queryLatency(HugeType.EDGE);
+        long count = latency.count();
+        Query query = new Query(HugeType.EDGE);
+
+        Mockito.doReturn(entries(2)).when(this.store).query(Mockito.any());
+        Iterator<BackendEntry> results = this.tx.query(query).iterator();
+        results.next();
+        CloseableIterator.closeIterator(results);
+        Assert.assertEquals(count + 1L, latency.count());
+
+        // Recorded if failed to query
+        Mockito.doThrow(new BackendException("Failed to query"))
+               .when(this.store).query(Mockito.any());
+        Assert.assertThrows(BackendException.class, () -> {
+            this.tx.query(query);
+        });
+        Assert.assertEquals(count + 2L, latency.count());
+    }
+
+    @Test
+    public void testQueryLatencyExcludeCallerTime()
+                                          throws InterruptedException {
+        LatencyHistogram latency = queryLatency(HugeType.VERTEX_LABEL);
+        long count = latency.count();
+        long sum = latency.sum();
+        Query query = new Query(HugeType.VERTEX_LABEL);
+
+        Mockito.doReturn(entries(2)).when(this.store).query(Mockito.any());
+        Iterator<BackendEntry> results = this.tx.query(query).iterator();
+        results.next();
+        // The time spent by the caller between the results is not counted
+        Thread.sleep(200L);
+        results.next();
+        Assert.assertFalse(results.hasNext());
+        Assert.assertEquals(count + 1L, latency.count());
+        Assert.assertLt(200_000L, latency.sum() - sum);
+    }
+
+    @Test
+    public void testQueryLatencyOfDroppedResults()
+                                         throws InterruptedException {
+        LatencyHistogram latency = queryLatency(HugeType.PROPERTY_KEY);
+        long count = latency.count();
+
+        Mockito.doReturn(entries(2)).when(this.store).query(Mockito.any());
+        this.queryAndDrop(new Query(HugeType.PROPERTY_KEY));
+        Assert.assertEquals(count, latency.count());
+
+        // Recorded by a later query after the results are collected
+        Query query = new Query(HugeType.EDGE_LABEL);
+        for (int i = 0; i < 100 && latency.count() == count; i++) {
+            System.gc();
+            Thread.sleep(10L);
+            Mockito.doReturn(entries(0)).when(this.store)
+                   .query(Mockito.any());
+            Assert.assertFalse(this.tx.query(query).iterator().hasNext());
+        }
+        Assert.assertEquals(count + 1L, latency.count());
+    }
+
+    @Test
+    public void testMutateLatencyWithFailedCommit() {
+        LatencyHistogram latency = mutateLatency();
+        long count = latency.count();
+
+        commit(this.tx, newMutation());
+        Assert.assertEquals(count + 1L, latency.count());
+
+        Mockito.doThrow(new BackendException("Failed to commit"))
+               .when(this.store).commitTx();
+        Assert.assertThrows(BackendException.class, () -> {
+            commit(this.tx, newMutation());
+        }, e -> {
+            Assert.assertContains("Failed to commit", e.getMessage());
+        });
+        Assert.assertEquals(count + 2L, latency.count());
+    }
+
+    private void queryAndDrop(Query query) {
+        Iterator<BackendEntry> results = this.tx.query(query).iterator();
+        results.next();
+        Assert.assertTrue(results.hasNext());
+    }
+
+    private static void commit(AbstractTransaction tx,
+                               BackendMutation mutation) {
+        Whitebox.invoke(AbstractTransaction.class,
+                        new Class<?>[]{BackendMutation[].class},
+                        "commitMutation2Backend", tx,
+                        (Object) new BackendMutation[]{mutation});
+    }
+
+    private static LatencyHistogram queryLatency(HugeType type) {
+        return latencyMetrics("backend_query_latency")
+               .histogram(GRAPH, STORE, type.string());
+    }
+
+    private static LatencyHistogram mutateLatency() {
+        return latencyMetrics("backend_mutate_latency")
+               .histogram(GRAPH, STORE);
+    }
+
+    private static LatencyMetrics latencyMetrics(String name) {
+        for (LatencyMetrics metrics : LatencyMetrics.families()) {
+            if (metrics.name().equals(name)) {
+                return metrics;
+            }
+        }
+        throw new AssertionError("Not registered metrics " + name);
+    }
+
+    private static Iterator<BackendEntry> entries(int size) {
+        ImmutableList.Builder<BackendEntry> entries = ImmutableList.builder();
+        for (int i = 0; i < size; i++) {
+            entries.add(new TextBackendEntry(HugeType.EDGE,
+                                             IdGenerator.of(i)));
+        }
+        return entries.build().iterator();
+    }
+
+    private static BackendMutation newMutation() {
+        BackendMutation mutation = new BackendMutation();
+        mutation.add(new TextBackendEntry(HugeType.VERTEX, IdGenerator.of(1)),
+                     Action.INSERT);
+        return mutation;
+    }
+}
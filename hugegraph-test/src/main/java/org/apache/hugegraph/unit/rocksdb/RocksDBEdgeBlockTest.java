@@ -0,0 +1,216 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.hugegraph.unit.rocksdb;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.rocksdb.RocksDBException;
+
+import org.apache.hugegraph.backend.id.EdgeId;
+import org.apache.hugegraph.backend.id.Id;
+import org.apache.hugegraph.backend.id.IdGenerator;
+import org.apache.hugegraph.backend.query.Query;
+import org.apache.hugegraph.backend.serializer.BinaryBackendEntry;
+import org.apache.hugegraph.backend.serializer.BytesBuffer;
+import org.apache.hugegraph.backend.store.BackendAction;
+import org.apache.hugegraph.backend.store.rocksdb.RocksDBSessions.Session;
+import org.apache.hugegraph.backend.store.rocksdb.RocksDBTables;
+import org.apache.hugegraph.testutil.Assert;
+import org.apache.hugegraph.type.HugeType;
+import org.apache.hugegraph.type.define.Action;
+import org.apache.hugegraph.type.define.Directions;
+import com.google.common.collect.ImmutableList;
+
+public class RocksDBEdgeBlockTest extends BaseRocksDBUnitTest {
+
+    private static final String DATABASE = "test-db";
+
+    private static final Id KNOWS = IdGenerator.of(1);
+    private static final Id LIKES = IdGenerator.of(2);
+
+    private RocksDBTables.EdgeBlock blocks;
+
+    @Override
+    @Before
+    public void setup() throws RocksDBException {
+        super.setup();
+        this.blocks = RocksDBTables.EdgeBlock.out(DATABASE);
+        this.rocks.createTable(this.blocks.table());
+    }
+
+    @Test
+    public void testMergeEdges() {
+        this.merge(insert(1L, KNOWS, "", 3L),
+                   insert(1L, KNOWS, "", 2L),
+                   insert(1L, KNOWS, "", 5L),
+                   insert(1L, LIKES, "", 4L),
+                   insert(2L, KNOWS, "", 1L));
+
+        Assert.assertEquals(ids(2L, 3L, 5L), this.neighbors(1L, KNOWS));
+        Assert.assertEquals(ids(4L), this.neighbors(1L, LIKES));
+        Assert.assertEquals(ids(2L, 3L, 5L, 4L), this.neighbors(1L, null));
+        Assert.assertEquals(ids(1L), this.neighbors(2L, null));
+        Assert.assertEquals(ids(), this.neighbors(3L, null));
+
+        // Append the edges of another commit
+        this.merge(insert(1L, KNOWS, "", 1L));
+        Assert.assertEquals(ids(2L, 3L, 5L, 1L), this.neighbors(1L, KNOWS));
+    }
+
+    @Test
+    public void testMergeEdgesWithLimit() {
+        this.merge(insert(1L, KNOWS, "", 3L),
+                   insert(1L, KNOWS, "", 2L),
+                   insert(1L, LIKES, "", 4L));
+        this.merge(insert(1L, KNOWS, "", 5L));
+
+        Session session = this.rocks.session();
+        List<Id> neighbors = new ArrayList<>();
+        this.blocks.queryNeighbors(session, IdGenerator.of(1L),
+                                   HugeType.EDGE_OUT, KNOWS, 2L, neighbors);
+        Assert.assertEquals(ids(2L, 3L), neighbors);
+
+        neighbors = new ArrayList<>();
+        this.blocks.queryNeighbors(session, IdGenerator.of(1L),
+                                   HugeType.EDGE_OUT, null, 3L, neighbors);
+        Assert.assertEquals(ids(2L, 3L, 5L), neighbors);
+    }
+
+    @Test
+    public void testMergeRemovedEdges() {
+        this.merge(insert(1L, KNOWS, "", 3L),
+                   insert(1L, KNOWS, "", 2L),
+                   insert(1L, KNOWS, "", 5L));
+
+        // Remove an edge and update another edge
+        this.merge(delete(1L, KNOWS, "", 3L),
+                   insert(1L, KNOWS, "", 2L));
+        Assert.assertEquals(ids(2L, 5L), this.neighbors(1L, KNOWS));
+
+        // Add the removed edge again
+        this.merge(insert(1L, KNOWS, "", 3L));
+        Assert.assertEquals(ids(2L, 5L, 3L), this.neighbors(1L, KNOWS));
+
+        // Insert and then remove an edge in the same commit
+        this.merge(insert(1L, KNOWS, "", 6L),
+                   delete(1L, KNOWS, "", 6L));
+        Assert.assertEquals(ids(2L, 5L, 3L), this.neighbors(1L, KNOWS));
+
+        this.merge(delete(1L, KNOWS, "", 2L),
+                   delete(1L, KNOWS, "", 5L),
+                   delete(1L, KNOWS, "", 3L));
+        Assert.assertEquals(ids(), this.neighbors(1L, KNOWS));
+    }
+
+    @Test
+    public void testMergeEdgesWithSortValues() {
+        Id owner = IdGenerator.of("marko");
+        Id other = IdGenerator.of("josh");
+        this.merge(insert(owner, KNOWS, "2017", other),
+                   insert(owner, KNOWS, "2018", other),
+                   insert(owner, KNOWS, "", IdGenerator.of(-3L)));
+
+        List<Id> neighbors = this.neighbors(owner, KNOWS);
+        Assert.assertEquals(3, neighbors.size());
+        Assert.assertEquals(2, neighbors.stream().filter(other::equals)
+                                        .count());
+        Assert.assertTrue(neighbors.contains(IdGenerator.of(-3L)));
+
+        this.merge(delete(owner, KNOWS, "2017", other));
+        neighbors = this.neighbors(owner, KNOWS);
+        Assert.assertEquals(2, neighbors.size());
+        Assert.assertEquals(1, neighbors.stream().filter(other::equals)
+                                        .count());
+    }
+
+    @Test
+    public void testMergeEdgesWithNegativeIds() {
+        this.merge(insert(1L, KNOWS, "", Long.MAX_VALUE),
+                   insert(1L, KNOWS, "", -2L),
+                   insert(1L, KNOWS, "", Long.MIN_VALUE),
+                   insert(1L, KNOWS, "", 0L));
+        Assert.assertEquals(ids(Long.MIN_VALUE, -2L, 0L, Long.MAX_VALUE),
+                            this.neighbors(1L, KNOWS));
+    }
+
+    private void merge(BackendAction... actions) {
+        Session session = this.rocks.session();
+        this.blocks.mergeEdges(session, ImmutableList.copyOf(actions)
+                                                     .iterator());
+        this.commit();
+    }
+
+    private List<Id> neighbors(long vertex, Id label) {
+        return this.neighbors(IdGenerator.of(vertex), label);
+    }
+
+    private List<Id> neighbors(Id vertex, Id label) {
+        List<Id> neighbors = new ArrayList<>();
+        this.blocks.queryNeighbors(this.rocks.session(), vertex,
+                                   HugeType.EDGE_OUT, label, Query.NO_LIMIT,
+                                   neighbors);
+        return neighbors;
+    }
+
+    private static List<Id> ids(long... ids) {
+        List<Id> results = new ArrayList<>();
+        for (long id : ids) {
+            results.add(IdGenerator.of(id));
+        }
+        return results;
+    }
+
+    private static BackendAction insert(long owner, Id label,
+                                        String sortValues, long other) {
+        return insert(IdGenerator.of(owner), label, sortValues,
+                      IdGenerator.of(other));
+    }
+
+    private static BackendAction insert(Id owner, Id label,
+                                        String sortValues, Id other) {
+        return edge(Action.INSERT, owner, label, sortValues, other);
+    }
+
+    private static BackendAction delete(long owner, Id label,
+                                        String sortValues, long other) {
+        return delete(IdGenerator.of(owner), label, sortValues,
+                      IdGenerator.of(other));
+    }
+
+    private static BackendAction delete(Id owner, Id label,
+                                        String sortValues, Id other) {
+        return edge(Action.DELETE, owner, label, sortValues, other);
+    }
+
+    private static BackendAction edge(Action action, Id owner, Id label,
+                                      String sortValues, Id other) {
+        EdgeId id = new EdgeId(owner, Directions.OUT, label,
+                               sortValues, other);
+        byte[] key = BytesBuffer.allocate(BytesBuffer.BUF_EDGE_ID)
+                                .writeEdgeId(id).bytes();
+        BinaryBackendEntry entry = new BinaryBackendEntry(HugeType.EDGE_OUT,
+                                                          key);
+        // The encoded properties of the edge
+        entry.column(key, new byte[]{0x01, 0x05, 0x7f});
+        return BackendAction.of(action, entry);
+    }
+}
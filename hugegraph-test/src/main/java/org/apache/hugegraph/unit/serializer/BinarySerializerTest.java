@@ -20,6 +20,7 @@ package org.apache.hugegraph.unit.serializer;
 import org.apache.hugegraph.config.HugeConfig;
 import org.junit.Test;
 
+import org.apache.hugegraph.backend.id.IdGenerator;
 import org.apache.hugegraph.backend.serializer.BinarySerializer;
 import org.apache.hugegraph.backend.store.BackendEntry;
 import org.apache.hugegraph.structure.HugeEdge;
@@ -29,6 +30,8 @@ import org.apache.hugegraph.testutil.Whitebox;
 import org.apache.hugegraph.unit.BaseUnitTest;
 import org.apache.hugegraph.unit.FakeObjects;
 
+import com.google.common.collect.ImmutableSet;
+
 public class BinarySerializerTest extends BaseUnitTest {
 
     @Test
@@ -81,6 +84,39 @@ public class BinarySerializerTest extends BaseUnitTest {
         assertCollectionEquals(edge2.getProperties(), edge.getProperties());
     }
 
+    @Test
+    public void testEdgeWithSelectedProperties() {
+        HugeConfig config = FakeObjects.newConfig();
+        BinarySerializer ser = new BinarySerializer(config);
+        HugeEdge edge1 = new FakeObjects().newEdge(123, 456);
+        BackendEntry entry = ser.writeEdge(edge1);
+
+        // Decode the weight alone, the date is skipped
+        HugeVertex vertex = ser.readVertex(edge1.graph(), entry,
+                                           ImmutableSet.of(IdGenerator.of(5)));
+        HugeEdge edge = vertex.getEdges().iterator().next();
+        Assert.assertEquals(edge1, edge);
+        Assert.assertEquals(1, edge.sizeOfProperties());
+        Assert.assertEquals(0.75, edge.getPropertyValue(IdGenerator.of(5)));
+        Assert.assertNull(edge.getPropertyValue(IdGenerator.of(4)));
+        Assert.assertFalse(edge.isPropLoaded());
+
+        // Decode nothing
+        vertex = ser.readVertex(edge1.graph(), entry, ImmutableSet.of());
+        edge = vertex.getEdges().iterator().next();
+        Assert.assertEquals(edge1, edge);
+        Assert.assertEquals(0, edge.sizeOfProperties());
+        Assert.assertFalse(edge.isPropLoaded());
+
+        // Decode all the properties
+        vertex = ser.readVertex(edge1.graph(), entry,
+                                ImmutableSet.of(IdGenerator.of(4),
+                                                IdGenerator.of(5)));
+        edge = vertex.getEdges().iterator().next();
+        assertCollectionEquals(edge1.getProperties(), edge.getProperties());
+        Assert.assertTrue(edge.isPropLoaded());
+    }
+
     @Test
     public void testVertexForPartition() {
         BinarySerializer ser = new BinarySerializer(true, true, true);
@@ -773,6 +773,44 @@ public class BytesBufferTest extends BaseUnitTest {
                                  BytesBuffer.wrap(bytes).readProperty(pkey));
     }
 
+    @Test
+    public void testSkipProperty() {
+        PropertyKey[] pkeys = {
+                genPkey(DataType.BOOLEAN),
+                genPkey(DataType.INT),
+                genPkey(DataType.LONG),
+                genPkey(DataType.FLOAT),
+                genPkey(DataType.DOUBLE),
+                genPkey(DataType.DATE),
+                genPkey(DataType.TEXT),
+                genPkey(DataType.BLOB),
+                genPkey(DataType.UUID),
+                genPkey(DataType.OBJECT),
+                genListPkey(DataType.INT),
+                genSetPkey(DataType.TEXT)
+        };
+        Calendar c = Calendar.getInstance(TimeZone.getTimeZone("Beijing"));
+        c.setTimeInMillis(1565851529514L);
+        Object[] values = {
+                true, 128, 1565851529514L, 3.14f, 3.14d, c.getTime(),
+                "abc", genBytes("001199aabbcc"),
+                UUID.fromString("3cfcafc8-7906-4ab7-a207-4ded056f58de"),
+                new Point(3, 8),
+                ImmutableList.of(127, 128),
+                ImmutableSet.of("abc", "123")
+        };
+
+        for (int i = 0; i < pkeys.length; i++) {
+            BytesBuffer buf = BytesBuffer.allocate(0);
+            buf.writeProperty(pkeys[i], values[i]);
+            buf.writeVInt(127);
+            BytesBuffer reader = BytesBuffer.wrap(buf.bytes());
+            reader.skipProperty(pkeys[i]);
+            Assert.assertEquals(127, reader.readVInt());
+            Assert.assertEquals(0, reader.remaining());
+        }
+    }
+
     @Test
     public void testPropertyWithList() {
         BytesBuffer buf = BytesBuffer.allocate(0);
@@ -1037,6 +1075,63 @@ public class BytesBufferTest extends BaseUnitTest {
         Assert.assertEquals("ab\uffff", buf.readStringWithEnding());
     }
 
+    @Test
+    public void testBorrowAndRelease() {
+        BytesBuffer buffer = BytesBuffer.borrow(8);
+        byte[] bytes;
+        try {
+            buffer.writeInt(1);
+            bytes = buffer.bytes();
+            Assert.assertArrayEquals(genBytes("00000001"), bytes);
+
+            // Nested borrowing gets a new buffer
+            BytesBuffer nested = BytesBuffer.borrow(8);
+            Assert.assertNotSame(buffer, nested);
+            nested.writeInt(2);
+            Assert.assertArrayEquals(genBytes("00000002"), nested.bytes());
+            nested.release();
+        } finally {
+            buffer.release();
+        }
+
+        // The released buffer is reused and cleared
+        BytesBuffer reused = BytesBuffer.borrow(8);
+        try {
+            Assert.assertSame(buffer, reused);
+            Assert.assertEquals(0, reused.position());
+            reused.writeInt(3);
+            Assert.assertArrayEquals(genBytes("00000003"), reused.bytes());
+            // The bytes fetched before are not overwritten
+            Assert.assertArrayEquals(genBytes("00000001"), bytes);
+        } finally {
+            reused.release();
+        }
+
+        // The backing array is never exposed even if the buffer is full
+        reused = BytesBuffer.borrow(8);
+        try {
+            reused.write(genBytes(BytesBuffer.LOCAL_CAPACITY));
+            Assert.assertNotSame(reused.array(), reused.bytes());
+        } finally {
+            reused.release();
+        }
+
+        // The buffer expanded too large is dropped after released
+        reused = BytesBuffer.borrow(8);
+        try {
+            reused.write(genBytes(BytesBuffer.LOCAL_CAPACITY_MAX + 1));
+        } finally {
+            reused.release();
+        }
+        reused = BytesBuffer.borrow(8);
+        try {
+            Assert.assertEquals(BytesBuffer.LOCAL_CAPACITY,
+                                reused.array().length);
+        } finally {
+            reused.release();
+        }
+    }
+
     private static String genString(int len) {
         return new String(new char[len]).replace("\0", "a");
     }
@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.hugegraph.unit.util;
+
+import java.util.Map;
+
+import org.junit.Test;
+
+import org.apache.hugegraph.testutil.Assert;
+import org.apache.hugegraph.util.LatencyHistogram;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void testUpdate() {
+        LatencyHistogram histogram = new LatencyHistogram(10L, 100L, 1000L);
+        Assert.assertEquals(0L, histogram.count());
+        Assert.assertEquals(0L, histogram.percentile(0.99));
+
+        histogram.update(5L);
+        histogram.update(10L);
+        histogram.update(50L);
+        histogram.update(500L);
+        histogram.update(5000L);
+        histogram.update(-1L);
+
+        Assert.assertEquals(6L, histogram.count());
+        Assert.assertEquals(5565L, histogram.sum());
+        Assert.assertEquals(5000L, histogram.max());
+        Assert.assertArrayEquals(new long[]{3L, 1L, 1L, 1L},
+                                 histogram.bucketCounts());
+    }
+
+    @Test
+    public void testPercentile() {
+        LatencyHistogram histogram = new LatencyHistogram(10L, 100L, 1000L);
+        for (int i = 0; i < 90; i++) {
+            histogram.update(1L);
+        }
+        for (int i = 0; i < 9; i++) {
+            histogram.update(60L);
+        }
+        histogram.update(3000L);
+
+        Assert.assertEquals(10L, histogram.percentile(0.5));
+        Assert.assertEquals(10L, histogram.percentile(0.9));
+        Assert.assertEquals(100L, histogram.percentile(0.95));
+        Assert.assertEquals(100L, histogram.percentile(0.99));
+        Assert.assertEquals(3000L, histogram.percentile(1.0));
+
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+            histogram.percentile(0.0);
+        });
+    }
+
+    @Test
+    public void testAsMap() {
+        LatencyHistogram histogram = new LatencyHistogram(10L, 100L);
+        histogram.update(20L);
+        histogram.update(200L);
+
+        Map<String, Object> map = histogram.asMap();
+        Assert.assertEquals(2L, map.get("count"));
+        Assert.assertEquals(220L, map.get("sum"));
+        Assert.assertEquals(110.0, map.get("mean"));
+        Assert.assertEquals(200L, map.get("max"));
+
+        @SuppressWarnings("unchecked")
+        Map<String, Long> buckets = (Map<String, Long>) map.get("buckets");
+        Assert.assertEquals(0L, (long) buckets.get("le_10"));
+        Assert.assertEquals(1L, (long) buckets.get("le_100"));
+        Assert.assertEquals(1L, (long) buckets.get("gt_100"));
+    }
+
+    @Test
+    public void testInvalidBounds() {
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+            new LatencyHistogram();
+        });
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+            new LatencyHistogram(10L, 10L);
+        }, e -> {
+            Assert.assertContains("must be ascending", e.getMessage());
+        });
+    }
+}
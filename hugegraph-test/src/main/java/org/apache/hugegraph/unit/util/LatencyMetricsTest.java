@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.hugegraph.unit.util;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import org.apache.hugegraph.testutil.Assert;
+import org.apache.hugegraph.util.LatencyHistogram;
+import org.apache.hugegraph.util.LatencyMetrics;
+import com.google.common.collect.ImmutableList;
+
+public class LatencyMetricsTest {
+
+    @Test
+    public void testRegister() {
+        LatencyMetrics metrics = LatencyMetrics.register("test_register",
+                                                         "for test",
+                                                         "graph", "op");
+        Assert.assertEquals("test_register", metrics.name());
+        Assert.assertEquals(ImmutableList.of("graph", "op"),
+                            metrics.labelNames());
+        Assert.assertSame(metrics, LatencyMetrics.register("test_register",
+                                                           "for test",
+                                                           "graph", "op"));
+        Assert.assertTrue(LatencyMetrics.families().contains(metrics));
+
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+            LatencyMetrics.register("test_register", "for test", "graph");
+        }, e -> {
+            Assert.assertContains("has been registered with labels",
+                                  e.getMessage());
+        });
+    }
+
+    @Test
+    public void testHistogram() {
+        LatencyMetrics metrics = LatencyMetrics.register("test_histogram",
+                                                         "for test",
+                                                         "graph", "op");
+        LatencyHistogram h1 = metrics.histogram("g1", "query");
+        Assert.assertSame(h1, metrics.histogram("g1", "query"));
+        LatencyHistogram h2 = metrics.histogram("g1", "mutate");
+        Assert.assertNotSame(h1, h2);
+
+        h1.update(200L);
+        metrics.updateSince(System.nanoTime(), "g1", "mutate");
+        Assert.assertEquals(1L, h1.count());
+        Assert.assertEquals(1L, h2.count());
+
+        Map<List<String>, LatencyHistogram> histograms = metrics.histograms();
+        Assert.assertEquals(2, histograms.size());
+        Assert.assertSame(h1, histograms.get(ImmutableList.of("g1", "query")));
+
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+            metrics.histogram("g1");
+        }, e -> {
+            Assert.assertContains("Expect 2 label values", e.getMessage());
+        });
+    }
+}
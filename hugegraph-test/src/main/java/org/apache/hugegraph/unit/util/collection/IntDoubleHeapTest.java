@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.hugegraph.unit.util.collection;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import org.junit.Test;
+
+import org.apache.hugegraph.testutil.Assert;
+import org.apache.hugegraph.util.collection.IntDoubleHeap;
+
+public class IntDoubleHeapTest {
+
+    @Test
+    public void testOfferAndPoll() {
+        IntDoubleHeap heap = new IntDoubleHeap(2);
+        Assert.assertTrue(heap.isEmpty());
+
+        Assert.assertTrue(heap.offer(3, 3.0));
+        Assert.assertTrue(heap.offer(1, 1.5));
+        Assert.assertTrue(heap.offer(100, 0.5));
+        Assert.assertTrue(heap.offer(2, 2.0));
+        Assert.assertEquals(4, heap.size());
+        Assert.assertTrue(heap.contains(100));
+        Assert.assertFalse(heap.contains(4));
+        Assert.assertFalse(heap.contains(1000));
+        Assert.assertEquals(1.5, heap.key(1), 0.0);
+        Assert.assertTrue(Double.isNaN(heap.key(4)));
+
+        Assert.assertEquals(100, heap.peek());
+        Assert.assertEquals(0.5, heap.peekKey(), 0.0);
+        Assert.assertEquals(100, heap.poll());
+        Assert.assertEquals(1, heap.poll());
+        Assert.assertEquals(2, heap.poll());
+        Assert.assertEquals(3, heap.poll());
+        Assert.assertTrue(heap.isEmpty());
+        Assert.assertFalse(heap.contains(100));
+
+        Assert.assertThrows(NoSuchElementException.class, heap::poll);
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+            heap.offer(-1, 1.0);
+        });
+    }
+
+    @Test
+    public void testDecreaseKey() {
+        IntDoubleHeap heap = new IntDoubleHeap();
+        heap.offer(1, 5.0);
+        heap.offer(2, 3.0);
+        heap.offer(3, 4.0);
+
+        // Not decreased by the larger or equal key
+        Assert.assertFalse(heap.offer(2, 6.0));
+        Assert.assertFalse(heap.offer(2, 3.0));
+        Assert.assertEquals(3.0, heap.key(2), 0.0);
+
+        Assert.assertTrue(heap.offer(1, 1.0));
+        Assert.assertEquals(3, heap.size());
+        Assert.assertEquals(1, heap.poll());
+        Assert.assertEquals(2, heap.poll());
+
+        // Add again after polled
+        Assert.assertTrue(heap.offer(1, 9.0));
+        Assert.assertEquals(3, heap.poll());
+        Assert.assertEquals(1, heap.poll());
+
+        heap.offer(7, 1.0);
+        heap.offer(8, 2.0);
+        heap.clear();
+        Assert.assertTrue(heap.isEmpty());
+        Assert.assertFalse(heap.contains(7));
+        Assert.assertTrue(heap.offer(8, 3.0));
+        Assert.assertEquals(8, heap.poll());
+    }
+
+    @Test
+    public void testRandomKeys() {
+        int size = 10000;
+        Random random = new Random(7);
+        double[] keys = new double[size];
+        IntDoubleHeap heap = new IntDoubleHeap();
+        for (int i = 0; i < size; i++) {
+            keys[i] = random.nextDouble();
+            heap.offer(i, keys[i]);
+        }
+        // Decrease some keys
+        for (int i = 0; i < size; i += 3) {
+            keys[i] /= 2;
+            heap.offer(i, keys[i]);
+        }
+
+        double[] sorted = keys.clone();
+        Arrays.sort(sorted);
+        for (int i = 0; i < size; i++) {
+            double key = heap.peekKey();
+            Assert.assertEquals(sorted[i], key, 0.0);
+            int element = heap.poll();
+            Assert.assertEquals(keys[element], key, 0.0);
+        }
+        Assert.assertTrue(heap.isEmpty());
+    }
+}
@@ -17,10 +17,15 @@
 
 package org.apache.hugegraph.unit.util.collection;
 
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.commons.lang.RandomStringUtils;
 import org.junit.After;
@@ -30,6 +35,8 @@ import org.apache.hugegraph.backend.id.Id;
 import org.apache.hugegraph.backend.id.IdGenerator;
 import org.apache.hugegraph.testutil.Assert;
 import org.apache.hugegraph.util.collection.ObjectIntMappingFactory;
+import org.apache.hugegraph.util.collection.ObjectIntMappingFactory.ConcurrentIdIntMapping;
+import org.apache.hugegraph.util.collection.ObjectIntMappingFactory.DenseObjectIntMapping;
 import org.apache.hugegraph.util.collection.ObjectIntMapping;
 
 public class ObjectIntMappingTest {
@@ -138,4 +145,115 @@ public class ObjectIntMappingTest {
         Assert.assertFalse(objectIter.hasNext());
         Assert.assertFalse(codeIter.hasNext());
     }
+
+    @Test
+    public void testDenseIdMapping() {
+        DenseObjectIntMapping<Id> dense =
+                ObjectIntMappingFactory.newDenseObjectIntMapping();
+        Assert.assertEquals(DenseObjectIntMapping.NULL_CODE,
+                            dense.code(IdGenerator.of(0)));
+        Assert.assertNull(dense.code2Object(0));
+
+        for (int i = 0; i < OBJECT_NUMBER; i++) {
+            Id id = i % 2 == 0 ? IdGenerator.of(i) :
+                                 IdGenerator.of(String.valueOf(i));
+            Assert.assertEquals(i, dense.object2Code(id));
+        }
+        Assert.assertEquals(OBJECT_NUMBER, dense.size());
+
+        // The existed objects keep their codes
+        Assert.assertEquals(0, dense.object2Code(IdGenerator.of(0)));
+        Assert.assertEquals(1, dense.object2Code(IdGenerator.of("1")));
+        Assert.assertEquals(OBJECT_NUMBER, dense.size());
+
+        for (int i = 0; i < OBJECT_NUMBER; i++) {
+            Id id = i % 2 == 0 ? IdGenerator.of(i) :
+                                 IdGenerator.of(String.valueOf(i));
+            Assert.assertEquals(i, dense.code(id));
+            Assert.assertEquals(id, dense.code2Object(i));
+        }
+        Assert.assertNull(dense.code2Object(OBJECT_NUMBER));
+        Assert.assertNull(dense.code2Object(-1));
+
+        dense.clear();
+        Assert.assertEquals(0, dense.size());
+        Assert.assertEquals(DenseObjectIntMapping.NULL_CODE,
+                            dense.code(IdGenerator.of(0)));
+    }
+
+    @Test
+    public void testConcurrentIdMapping() {
+        ConcurrentIdIntMapping ids = new ConcurrentIdIntMapping();
+        Assert.assertNull(ids.code2Object(1));
+
+        // Add ids to resize the table several times
+        for (int i = 0; i < OBJECT_NUMBER; i++) {
+            Id id = newMixedId(i);
+            Assert.assertEquals(i + 1, ids.object2Code(id));
+        }
+        Assert.assertEquals(OBJECT_NUMBER, ids.size());
+
+        for (int i = 0; i < OBJECT_NUMBER; i++) {
+            Id id = newMixedId(i);
+            Assert.assertEquals(i + 1, ids.object2Code(id));
+            Assert.assertEquals(id, ids.code2Object(i + 1));
+        }
+        Assert.assertEquals(OBJECT_NUMBER, ids.size());
+        Assert.assertNull(ids.code2Object(OBJECT_NUMBER + 1));
+
+        ids.clear();
+        Assert.assertEquals(0, ids.size());
+        Assert.assertNull(ids.code2Object(1));
+        Assert.assertEquals(1, ids.object2Code(newMixedId(1)));
+    }
+
+    @Test
+    public void testConcurrentIdMappingWithThreads() throws Exception {
+        ObjectIntMapping<Id> ids = ObjectIntMappingFactory.newIdIntMapping(
+                                   true);
+        int threads = 8;
+        int count = OBJECT_NUMBER / 10;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            // All the threads add the same ids in different order
+            List<Future<int[]>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int offset = t * count / threads;
+                futures.add(executor.submit(() -> {
+                    int[] codes = new int[count];
+                    for (int i = 0; i < count; i++) {
+                        int index = (i + offset) % count;
+                        codes[index] = ids.object2Code(newMixedId(index));
+                    }
+                    return codes;
+                }));
+            }
+            int[] expected = futures.get(0).get();
+            for (Future<int[]> future : futures) {
+                Assert.assertArrayEquals(expected, future.get());
+            }
+
+            Set<Integer> codes = new LinkedHashSet<>();
+            for (int i = 0; i < count; i++) {
+                Assert.assertTrue(expected[i] > 0);
+                Assert.assertEquals(newMixedId(i),
+                                    ids.code2Object(expected[i]));
+                codes.add(expected[i]);
+            }
+            Assert.assertEquals(count, codes.size());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static Id newMixedId(int i) {
+        switch (i % 3) {
+            case 0:
+                return IdGenerator.of(i);
+            case 1:
+                return IdGenerator.of("v" + i);
+            default:
+                return IdGenerator.of(new UUID(i, i));
+        }
+    }
 }
@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.hugegraph.benchmark.cache;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hugegraph.backend.cache.Cache;
+import org.apache.hugegraph.backend.cache.RamCache;
+import org.apache.hugegraph.backend.cache.TinyLfuCache;
+import org.apache.hugegraph.backend.id.Id;
+import org.apache.hugegraph.backend.id.IdGenerator;
+import org.apache.hugegraph.benchmark.BenchmarkConstants;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Replay a trace which mixes skewed point reads (hot supernodes) with
+ * periodical one-off scans (like kout or full traversals) against the
+ * caches, the hits/miss of each cache are reported by the aux counters.
+ */
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@BenchmarkMode({Mode.Throughput})
+@Warmup(iterations = 2, time = 1000, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 6, time = 1000, timeUnit = TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(2)
+public class CacheReplayThroughputTest {
+
+    @Param(value = {"ram", "tinylfu"})
+    private String CACHE_TYPE;
+
+    @Param(value = {"10000", "100000"})
+    private int CACHE_CAPACITY;
+
+    private static final int TRACE_SIZE = 1 << 21;
+    private static final int HOT_KEYS_RATIO = 2;
+    // A scan of (capacity * SCAN_RATIO) keys every SCAN_PERIOD reads
+    private static final int SCAN_RATIO = 2;
+    private static final int SCAN_PERIOD = 1 << 18;
+
+    private static final int THREAD_COUNT = 8;
+
+    private static final String OUTPUT_FILE_NAME = "cache_replay_result.json";
+
+    private Cache<Id, Object> cache;
+    private Id[] trace;
+
+    @Setup(Level.Trial)
+    public void prepareCache() {
+        switch (CACHE_TYPE) {
+            case "ram":
+                this.cache = new RamCache(CACHE_CAPACITY);
+                break;
+            case "tinylfu":
+                this.cache = new TinyLfuCache(CACHE_CAPACITY);
+                break;
+            default:
+                throw new AssertionError("Unknown cache type: " + CACHE_TYPE);
+        }
+        this.trace = buildTrace(CACHE_CAPACITY);
+    }
+
+    private static Id[] buildTrace(int capacity) {
+        Random random = new Random(20221018L);
+        int hotKeys = capacity * HOT_KEYS_RATIO;
+        int scanSize = capacity * SCAN_RATIO;
+        long scanKey = Integer.MAX_VALUE;
+
+        Id[] trace = new Id[TRACE_SIZE];
+        int i = 0;
+        while (i < TRACE_SIZE) {
+            if (i % SCAN_PERIOD == 0 && i > 0) {
+                // The keys of scan are never accessed again
+                for (int j = 0; j < scanSize && i < TRACE_SIZE; j++) {
+                    trace[i++] = IdGenerator.of(scanKey++);
+                }
+                continue;
+            }
+            // Skewed access, the smaller keys are much hotter
+            double r = random.nextDouble();
+            trace[i++] = IdGenerator.of((long) (hotKeys * r * r * r));
+        }
+        return trace;
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+
+        private int position = (int) (Math.random() * TRACE_SIZE);
+
+        int next() {
+            if (++this.position >= TRACE_SIZE) {
+                this.position = 0;
+            }
+            return this.position;
+        }
+    }
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class HitCounters {
+
+        public long hits;
+        public long miss;
+    }
+
+    @Benchmark
+    @Threads(THREAD_COUNT)
+    public Object replay(ThreadState state, HitCounters counters) {
+        Id id = this.trace[state.next()];
+        Object value = this.cache.get(id);
+        if (value == null) {
+            counters.miss++;
+            value = id;
+            this.cache.update(id, value);
+        } else {
+            counters.hits++;
+        }
+        return value;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+            .include(CacheReplayThroughputTest.class.getSimpleName())
+            .result(BenchmarkConstants.OUTPUT_PATH + OUTPUT_FILE_NAME)
+            .resultFormat(ResultFormatType.JSON)
+            .build();
+        new Runner(opt).run();
+    }
+}